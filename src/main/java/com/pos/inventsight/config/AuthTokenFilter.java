@@ -1,5 +1,6 @@
 package com.pos.inventsight.config;
 
+import com.pos.inventsight.service.PrincipalCache;
 import com.pos.inventsight.service.UserService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -31,6 +32,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String requestUri = request.getRequestURI();
@@ -109,9 +113,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                 logger.debug("JWT token extracted from Authorization header (length: {})", jwt.length());
                 logger.debug("🔐 Validating JWT token...");
                 
-                if (jwtUtils.validateJwtToken(jwt)) {
-                    String username = jwtUtils.getUsernameFromJwtToken(jwt);
-                    String tenantId = jwtUtils.getTenantIdFromJwtToken(jwt);
+                VerifiedJwt verifiedJwt = jwtUtils.verifyJwtToken(jwt);
+                if (verifiedJwt != null) {
+                    // Parsed once here; CompanyTenantFilter reads the claims from the request
+                    verifiedJwt.bindTo(request);
+                    String username = verifiedJwt.getUsername();
+                    String tenantId = verifiedJwt.getTenantId();
                     
                     logger.debug("✅ JWT validation successful for user: {}", username);
                     logger.debug("Tenant ID from JWT: {}", tenantId);
@@ -123,7 +130,8 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                     }
                     
                     logger.debug("Loading user details for username: {}", username);
-                    UserDetails userDetails = userService.loadUserByUsername(username);
+                    UserDetails userDetails = principalCache.getPrincipal(username,
+                        () -> userService.loadUserByUsername(username));
                     
                     if (userDetails == null) {
                         logger.warn("❌ User not found in database: {}", username);
@@ -2,9 +2,9 @@ package com.pos.inventsight.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pos.inventsight.model.sql.CompanyRole;
-import com.pos.inventsight.model.sql.CompanyStoreUser;
 import com.pos.inventsight.model.sql.User;
 import com.pos.inventsight.repository.sql.CompanyStoreUserRepository;
+import com.pos.inventsight.service.PrincipalCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,6 +36,9 @@ public class EmployeePriceRedactionAdvice implements ResponseBodyAdvice<Object>
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
     @Override
     public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
         // Only apply to warehouse inventory controller responses
@@ -78,10 +81,11 @@ public class EmployeePriceRedactionAdvice implements ResponseBodyAdvice<Object>
             }
             
             User user = (User) principal;
-            List<CompanyStoreUser> memberships = companyStoreUserRepository.findByUserAndIsActiveTrue(user);
+            List<PrincipalCache.Membership> memberships = principalCache.getMemberships(user,
+                () -> companyStoreUserRepository.findByUserAndIsActiveTrue(user));
             
             // Check if user has only EMPLOYEE role (no manager or founder roles)
-            for (CompanyStoreUser membership : memberships) {
+            for (PrincipalCache.Membership membership : memberships) {
                 CompanyRole role = membership.getRole();
                 if (role.isManagerLevel()) {
                     return false; // User has manager privileges
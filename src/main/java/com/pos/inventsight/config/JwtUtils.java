@@ -10,7 +10,12 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtils {
@@ -26,6 +31,14 @@ public class JwtUtils {
     @Value("${inventsight.security.jwt.refresh-expiration:604800000}")
     private int jwtRefreshExpirationMs; // 7 days
     
+    @Value("${inventsight.security.jwt.claims-cache.max-entries:10000}")
+    private int claimsCacheMaxEntries = 10000;
+    
+    private volatile SecretKey signingKey;
+    
+    // Verified tokens by SHA-256 of the token; entries are dropped once the token expires
+    private final ConcurrentHashMap<String, VerifiedJwt> verifiedTokens = new ConcurrentHashMap<>();
+    
     /**
      * Validate JWT configuration on startup
      * Ensures JWT secret is properly configured and meets minimum security requirements
@@ -50,7 +63,12 @@ public class JwtUtils {
     }
     
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+            signingKey = key;
+        }
+        return key;
     }
     
     public String generateJwtToken(User user) {
@@ -102,54 +120,26 @@ public class JwtUtils {
     
     public boolean isRefreshToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return "refresh".equals(claims.get("tokenType"));
+            return "refresh".equals(verify(token).getTokenType());
         } catch (Exception e) {
             return false;
         }
     }
     
     public String getUsernameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return verify(token).getUsername();
     }
     
     public Long getUserIdFromJwtToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.get("userId", Long.class);
+        return verify(token).getClaims().get("userId", Long.class);
     }
     
     public String getFullNameFromJwtToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.get("fullName", String.class);
+        return verify(token).getClaims().get("fullName", String.class);
     }
     
     public String getRoleFromJwtToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return claims.get("role", String.class);
+        return verify(token).getClaims().get("role", String.class);
     }
     
     /**
@@ -157,13 +147,7 @@ public class JwtUtils {
      */
     public String getTenantIdFromJwtToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            
-            return claims.get("tenant_id", String.class);
+            return verify(token).getTenantId();
         } catch (Exception e) {
             return null;
         }
@@ -175,13 +159,7 @@ public class JwtUtils {
      */
     public String getCompanyIdFromJwtToken(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            
-            return claims.get("company_id", String.class);
+            return verify(token).getCompanyId();
         } catch (Exception e) {
             return null;
         }
@@ -196,12 +174,16 @@ public class JwtUtils {
     }
     
     public boolean validateJwtToken(String authToken) {
+        return verifyJwtToken(authToken) != null;
+    }
+    
+    /**
+     * Validate a token and return its verified claims, or null if it is invalid.
+     * Logs and error handling match {@link #validateJwtToken(String)}.
+     */
+    public VerifiedJwt verifyJwtToken(String authToken) {
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(authToken);
-            return true;
+            return verify(authToken);
             
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
@@ -213,16 +195,70 @@ public class JwtUtils {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
         
-        return false;
+        return null;
     }
     
-    public Date getExpirationDateFromJwtToken(String token) {
-        return Jwts.parser()
+    /**
+     * Verify a token's signature and expiry and return its claims.
+     * A token that verified before is served from the claims cache until it expires,
+     * so repeat requests with the same token skip parsing and HMAC verification.
+     * @throws JwtException or IllegalArgumentException if the token is not valid
+     */
+    public VerifiedJwt verify(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+        if (claimsCacheMaxEntries <= 0) {
+            return parse(token);
+        }
+        
+        long now = System.currentTimeMillis();
+        String key = hash(token);
+        VerifiedJwt cached = verifiedTokens.get(key);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return cached;
+            }
+            verifiedTokens.remove(key, cached);
+        }
+        
+        VerifiedJwt verified = parse(token);
+        if (verifiedTokens.size() >= claimsCacheMaxEntries) {
+            verifiedTokens.values().removeIf(entry -> entry.isExpired(now));
+        }
+        if (verifiedTokens.size() < claimsCacheMaxEntries) {
+            verifiedTokens.put(key, verified);
+        }
+        return verified;
+    }
+    
+    private VerifiedJwt parse(String token) {
+        Claims claims = Jwts.parser()
                 .verifyWith(getSigningKey())
                 .build()
                 .parseSignedClaims(token)
-                .getPayload()
-                .getExpiration();
+                .getPayload();
+        return new VerifiedJwt(token, claims);
+    }
+    
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * Number of cached verified tokens, including expired ones not yet evicted
+     */
+    int getClaimsCacheSize() {
+        return verifiedTokens.size();
+    }
+    
+    public Date getExpirationDateFromJwtToken(String token) {
+        return verify(token).getExpiration();
     }
     
     public boolean isTokenExpired(String token) {
@@ -5,6 +5,7 @@ import com.pos.inventsight.filter.IdempotencyKeyFilter;
 import com.pos.inventsight.filter.RateLimitingFilter;
 import com.pos.inventsight.repository.sql.CompanyRepository;
 import com.pos.inventsight.repository.sql.CompanyStoreUserRepository;
+import com.pos.inventsight.service.PrincipalCache;
 import com.pos.inventsight.service.UserService;
 import com.pos.inventsight.tenant.CompanyTenantFilter;
 import org.slf4j.Logger;
@@ -124,9 +125,10 @@ public class SecurityConfig {
     public CompanyTenantFilter companyTenantFilter(
             CompanyStoreUserRepository companyStoreUserRepository,
             CompanyRepository companyRepository,
-            JwtUtils jwtUtils) {
+            JwtUtils jwtUtils,
+            PrincipalCache principalCache) {
         logger.info("Creating CompanyTenantFilter bean");
-        return new CompanyTenantFilter(companyStoreUserRepository, companyRepository, jwtUtils);
+        return new CompanyTenantFilter(companyStoreUserRepository, companyRepository, jwtUtils, principalCache);
     }
     
     @Bean
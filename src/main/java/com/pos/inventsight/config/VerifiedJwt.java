@@ -0,0 +1,67 @@
+package com.pos.inventsight.config;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked.
+ *
+ * AuthTokenFilter binds the verified token to the request so later filters
+ * (CompanyTenantFilter) read its claims instead of parsing the token again.
+ */
+public final class VerifiedJwt {
+
+    /**
+     * Request attribute holding the {@link VerifiedJwt} of the request's bearer token
+     */
+    public static final String REQUEST_ATTRIBUTE = VerifiedJwt.class.getName();
+
+    private final String token;
+    private final Claims claims;
+    private final long expiresAtMillis;
+
+    VerifiedJwt(String token, Claims claims) {
+        this.token = token;
+        this.claims = claims;
+        Date expiration = claims.getExpiration();
+        this.expiresAtMillis = expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+    }
+
+    /**
+     * The verified token bound to this request, or null if none was bound or it belongs to a different token
+     */
+    public static VerifiedJwt fromRequest(HttpServletRequest request, String token) {
+        Object attribute = request.getAttribute(REQUEST_ATTRIBUTE);
+        if (attribute instanceof VerifiedJwt && ((VerifiedJwt) attribute).token.equals(token)) {
+            return (VerifiedJwt) attribute;
+        }
+        return null;
+    }
+
+    public void bindTo(HttpServletRequest request) {
+        request.setAttribute(REQUEST_ATTRIBUTE, this);
+    }
+
+    boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    public Claims getClaims() { return claims; }
+
+    public String getUsername() { return claims.getSubject(); }
+
+    public String getTenantId() { return claims.get("tenant_id", String.class); }
+
+    public String getCompanyId() { return claims.get("company_id", String.class); }
+
+    public String getTokenType() { return claims.get("tokenType", String.class); }
+
+    public Date getExpiration() { return claims.getExpiration(); }
+
+    public boolean hasTenantId() {
+        String tenantId = getTenantId();
+        return tenantId != null && !tenantId.isEmpty();
+    }
+}
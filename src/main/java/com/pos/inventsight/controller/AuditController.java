@@ -0,0 +1,52 @@
+package com.pos.inventsight.controller;
+
+import com.pos.inventsight.service.AuditService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Controller for audit trail integrity checks on the current tenant's chain.
+ */
+@RestController
+@RequestMapping("/audit")
+public class AuditController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AuditController.class);
+    
+    private final AuditService auditService;
+    
+    public AuditController(AuditService auditService) {
+        this.auditService = auditService;
+    }
+    
+    /**
+     * Verify the audit chain between two sequence numbers
+     * 
+     * @param fromSeq First chain sequence to check (default 1)
+     * @param toSeq Last chain sequence to check (default: end of chain)
+     * @return Verification result with the first broken sequence, if any
+     */
+    @GetMapping("/verify")
+    @PreAuthorize("hasAnyAuthority('FOUNDER', 'CEO')")
+    public ResponseEntity<?> verifyChain(
+            @RequestParam(required = false, defaultValue = "1") Long fromSeq,
+            @RequestParam(required = false) Long toSeq) {
+        
+        if (fromSeq < 1 || (toSeq != null && toSeq < fromSeq)) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "fromSeq must be at least 1 and not greater than toSeq"));
+        }
+        
+        AuditService.ChainVerification result =
+            auditService.verifyChain(fromSeq, toSeq != null ? toSeq : Long.MAX_VALUE);
+        if (!result.isValid()) {
+            logger.warn("Audit chain verification failed at sequence {}: {}", result.getBrokenAtSeq(), result.getReason());
+        }
+        return ResponseEntity.ok(result);
+    }
+}
@@ -86,7 +86,7 @@ public class DashboardController {
             String username = authentication.getName();
             logger.info("🔄 Dashboard refresh requested by: {}", username);
             
-            DashboardSummaryResponse summary = dashboardService.getDashboardSummary(storeId);
+            DashboardSummaryResponse summary = dashboardService.refreshDashboardSummary(storeId);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -45,6 +45,8 @@ public class LowStockController {
      */
     @GetMapping
     public ResponseEntity<?> getLowStockItems(@RequestParam(required = false) UUID storeId,
+                                              @RequestParam(required = false) Integer limit,
+                                              @RequestParam(required = false) String cursor,
                                               Authentication authentication) {
         try {
             String username = authentication.getName();
@@ -66,16 +68,28 @@ public class LowStockController {
                 storeId = currentStore.getId();
             }
             
-            List<Map<String, Object>> lowStockItems = lowStockService.getLowStockItemsForStore(storeId, company.getId());
-            
             Map<String, Object> response = new HashMap<>();
+            if (limit != null) {
+                // Paged mode for large stores
+                LowStockService.LowStockPage page =
+                    lowStockService.getLowStockItemsForStore(storeId, company.getId(), cursor, limit);
+                response.put("items", page.getItems());
+                response.put("count", page.getItems().size());
+                response.put("hasMore", page.isHasMore());
+                response.put("nextCursor", page.getNextCursor());
+            } else {
+                List<Map<String, Object>> lowStockItems = lowStockService.getLowStockItemsForStore(storeId, company.getId());
+                response.put("items", lowStockItems);
+                response.put("count", lowStockItems.size());
+            }
             response.put("success", true);
-            response.put("items", lowStockItems);
-            response.put("count", lowStockItems.size());
             response.put("storeId", storeId);
             
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ApiResponse(false, e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse(false, "Failed to fetch low stock items: " + e.getMessage()));
@@ -87,6 +101,8 @@ public class LowStockController {
      */
     @GetMapping("/warehouse/{warehouseId}")
     public ResponseEntity<?> getLowStockItemsForWarehouse(@PathVariable UUID warehouseId,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          @RequestParam(required = false) String cursor,
                                                           Authentication authentication) {
         try {
             String username = authentication.getName();
@@ -98,16 +114,27 @@ public class LowStockController {
                     .body(new ApiResponse(false, "User is not associated with any company"));
             }
             
-            List<Map<String, Object>> lowStockItems = lowStockService.getLowStockItemsForWarehouse(warehouseId, company.getId());
-            
             Map<String, Object> response = new HashMap<>();
+            if (limit != null) {
+                LowStockService.LowStockPage page =
+                    lowStockService.getLowStockItemsForWarehouse(warehouseId, company.getId(), cursor, limit);
+                response.put("items", page.getItems());
+                response.put("count", page.getItems().size());
+                response.put("hasMore", page.isHasMore());
+                response.put("nextCursor", page.getNextCursor());
+            } else {
+                List<Map<String, Object>> lowStockItems = lowStockService.getLowStockItemsForWarehouse(warehouseId, company.getId());
+                response.put("items", lowStockItems);
+                response.put("count", lowStockItems.size());
+            }
             response.put("success", true);
-            response.put("items", lowStockItems);
-            response.put("count", lowStockItems.size());
             response.put("warehouseId", warehouseId);
             
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ApiResponse(false, e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse(false, "Failed to fetch low stock items: " + e.getMessage()));
@@ -3,12 +3,17 @@ package com.pos.inventsight.controller;
 import com.pos.inventsight.service.OcrService;
 import net.sourceforge.tess4j.TesseractException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/ocr")
@@ -22,16 +27,26 @@ public class OcrController {
     }
 
     @PostMapping("/myanmar")
-    public ResponseEntity<?> extractMyanmarText(@RequestParam("image") MultipartFile file) {
+    public ResponseEntity<?> extractMyanmarText(@RequestParam("image") MultipartFile file,
+                                                @RequestParam(value = "async", defaultValue = "false") boolean async) {
         File tempFile = null;
         try {
             tempFile = File.createTempFile("ocr_", file.getOriginalFilename());
             file.transferTo(tempFile);
 
+            if (async) {
+                // The job deletes the file once it has been read
+                OcrService.OcrJob job = ocrService.submit(tempFile, true);
+                tempFile = null;
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(toMap(job));
+            }
+
             String text = ocrService.extractText(tempFile);
 
             return ResponseEntity.ok().body(text);
 
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("OCR is busy, please retry later");
         } catch (IOException | TesseractException e) {
             return ResponseEntity.status(500).body("OCR failed: " + e.getMessage());
         } finally {
@@ -40,4 +55,26 @@ public class OcrController {
             }
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable UUID jobId) {
+        OcrService.OcrJob job = ocrService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("OCR job not found with ID: " + jobId);
+        }
+        return ResponseEntity.ok(toMap(job));
+    }
+
+    private Map<String, Object> toMap(OcrService.OcrJob job) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("jobId", job.getId());
+        response.put("status", job.getStatus());
+        if (job.getText() != null) {
+            response.put("text", job.getText());
+        }
+        if (job.getError() != null) {
+            response.put("error", job.getError());
+        }
+        return response;
+    }
+}
@@ -1,6 +1,7 @@
 package com.pos.inventsight.controller;
 
 import com.pos.inventsight.dto.*;
+import com.pos.inventsight.exception.ResourceNotFoundException;
 import com.pos.inventsight.model.sql.*;
 import com.pos.inventsight.service.*;
 import io.swagger.v3.oas.annotations.Operation;
@@ -63,6 +64,7 @@ public class PredefinedItemsController {
         logger.info("   - DELETE /predefined-items/{id}            (deleteItem)");
         logger.info("   - POST   /predefined-items/bulk-create     (bulkCreateItems) ← CRITICAL");
         logger.info("   - POST   /predefined-items/import-csv      (importCSV)");
+        logger.info("   - GET    /predefined-items/jobs/{jobId}    (getProvisioningJob)");
         logger.info("   - GET    /predefined-items/export-csv      (exportCSV)");
         logger.info("   - GET    /predefined-items/{id}/stores     (getAssociatedStores)");
         logger.info("   - POST   /predefined-items/{id}/stores     (associateStores)");
@@ -239,6 +241,7 @@ public class PredefinedItemsController {
             @Parameter(description = "Company ID") @RequestParam UUID companyId,
             @Parameter(description = "Store IDs to associate with all items") @RequestParam(required = false) List<UUID> storeIds,
             @Parameter(description = "Warehouse IDs to associate with all items") @RequestParam(required = false) List<UUID> warehouseIds,
+            @Parameter(description = "Run in the background and return a job ID") @RequestParam(defaultValue = "false") boolean async,
             @RequestBody List<Map<String, String>> itemsData,
             Authentication authentication) {
         
@@ -249,6 +252,13 @@ public class PredefinedItemsController {
             // Verify permission
             supplyManagementService.verifyCanManagePredefinedItems(user, company);
             
+            if (async) {
+                PredefinedItemsService.ProvisioningJob job =
+                    predefinedItemsService.startBulkCreateJob(itemsData, company, user, storeIds, warehouseIds);
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(new GenericApiResponse<>(true, "Bulk create started", job.toMap()));
+            }
+            
             Map<String, Object> result = predefinedItemsService.bulkCreateItems(itemsData, company, user, storeIds, warehouseIds);
             
             return ResponseEntity.ok(new GenericApiResponse<>(true, "Bulk create completed", result));
@@ -269,6 +279,7 @@ public class PredefinedItemsController {
             @Parameter(description = "Company ID") @RequestParam UUID companyId,
             @Parameter(description = "Store IDs to associate with all imported items") @RequestParam(required = false) List<UUID> storeIds,
             @Parameter(description = "Warehouse IDs to associate with all imported items") @RequestParam(required = false) List<UUID> warehouseIds,
+            @Parameter(description = "Run in the background and return a job ID") @RequestParam(defaultValue = "false") boolean async,
             @Parameter(description = "CSV file") @RequestParam("file") MultipartFile file,
             Authentication authentication) {
         
@@ -284,6 +295,13 @@ public class PredefinedItemsController {
                     .body(new GenericApiResponse<>(false, "CSV file is required", null));
             }
             
+            if (async) {
+                PredefinedItemsService.ProvisioningJob job =
+                    predefinedItemsService.startImportJob(file, company, user, storeIds, warehouseIds);
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(new GenericApiResponse<>(true, "CSV import started", job.toMap()));
+            }
+            
             Map<String, Object> result = predefinedItemsService.importFromCSV(file, company, user, storeIds, warehouseIds);
             
             return ResponseEntity.ok(new GenericApiResponse<>(true, "CSV import completed", result));
@@ -299,6 +317,34 @@ public class PredefinedItemsController {
         }
     }
     
+    /**
+     * Get progress of a background bulk create or CSV import
+     */
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get provisioning job", description = "Progress of a background bulk create or CSV import")
+    public ResponseEntity<GenericApiResponse<Map<String, Object>>> getProvisioningJob(
+            @Parameter(description = "Job ID") @PathVariable UUID jobId,
+            @Parameter(description = "Company ID") @RequestParam UUID companyId,
+            Authentication authentication) {
+        
+        try {
+            supplyManagementService.getUserAndVerifyCompanyAccess(authentication, companyId);
+            Company company = companyService.getCompany(companyId, authentication);
+            
+            PredefinedItemsService.ProvisioningJob job = predefinedItemsService.getProvisioningJob(jobId, company);
+            
+            return ResponseEntity.ok(new GenericApiResponse<>(true, "Job status retrieved", job.toMap()));
+            
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new GenericApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            logger.error("Error retrieving provisioning job: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new GenericApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+    
     /**
      * Export items to CSV
      */
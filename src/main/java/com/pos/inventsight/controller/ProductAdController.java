@@ -215,19 +215,21 @@ public class ProductAdController {
     public ResponseEntity<?> uploadProductImage(@PathVariable UUID id,
                                                @RequestParam("image") MultipartFile file) {
         try {
-            // Upload and process image
-            String imageUrl = imageService.uploadImage(file);
+            // Persist the upload; variants are generated in the background
+            ImageService.ImageUpload upload = imageService.uploadImage(file);
             
             // Update product ad with image URL
-            ProductAd updated = productAdService.updateProductAdImage(id, imageUrl);
+            ProductAd updated = productAdService.updateProductAdImage(id, upload.getUrl());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("message", "Image uploaded successfully");
-            response.put("imageUrl", imageUrl);
+            response.put("message", upload.isProcessing() ? "Image accepted for processing" : "Image uploaded successfully");
+            response.put("imageUrl", upload.getUrl());
+            response.put("variants", upload.getVariants());
+            response.put("processing", upload.isProcessing());
             response.put("ad", updated);
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.status(upload.isProcessing() ? HttpStatus.ACCEPTED : HttpStatus.OK).body(response);
             
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
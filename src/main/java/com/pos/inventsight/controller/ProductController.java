@@ -11,8 +11,11 @@ import com.pos.inventsight.model.sql.CompanyStoreUser;
 import com.pos.inventsight.model.sql.UserStoreRole;
 import com.pos.inventsight.model.sql.Store;
 import com.pos.inventsight.model.sql.WarehouseInventory;
+import com.pos.inventsight.service.CatalogSearchIndex;
+import com.pos.inventsight.service.ProductCatalogQueryService;
 import com.pos.inventsight.service.ProductService;
 import com.pos.inventsight.service.OneTimePermissionService;
+import com.pos.inventsight.service.StockMutationService;
 import com.pos.inventsight.service.SupplyManagementService;
 import com.pos.inventsight.service.UserService;
 import com.pos.inventsight.repository.sql.UserRepository;
@@ -21,6 +24,9 @@ import com.pos.inventsight.repository.sql.UserStoreRoleRepository;
 import com.pos.inventsight.repository.sql.ProductRepository;
 import com.pos.inventsight.repository.sql.StoreRepository;
 import com.pos.inventsight.exception.ResourceNotFoundException;
+import com.pos.inventsight.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -35,9 +41,9 @@ import jakarta.validation.Valid;
 import java.math.BigDecimal;
 import java.util.UUID;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -50,9 +56,17 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class ProductController {
     
+    private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
+    
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private ProductCatalogQueryService productCatalogQueryService;
+    
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+    
     @Autowired
     private OneTimePermissionService permissionService;
     
@@ -77,6 +91,9 @@ public class ProductController {
     @Autowired
     private StoreRepository storeRepository;
     
+    @Autowired
+    private StockMutationService stockMutationService;
+    
     // GET /products - Get all products with pagination
     @GetMapping
     public ResponseEntity<?> getAllProducts(
@@ -88,6 +105,7 @@ public class ProductController {
             @RequestParam(required = false) String supplier,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) UUID storeId,
+            @RequestParam(required = false) String cursor,
             Authentication authentication) {
         try {
             String username = authentication.getName();
@@ -101,34 +119,10 @@ public class ProductController {
             // Get current user
             User currentUser = userService.getUserByUsername(username);
             
-            // Try CompanyStoreUser first (new multi-tenant system)
-            List<CompanyStoreUser> userMemberships = companyStoreUserRepository.findByUserAndIsActiveTrue(currentUser);
-            final Set<UUID> userCompanyIds;
-            
-            if (!userMemberships.isEmpty()) {
-                // Get company IDs from CompanyStoreUser
-                userCompanyIds = userMemberships.stream()
-                    .map(membership -> membership.getCompany().getId())
-                    .collect(Collectors.toSet());
-                System.out.println("👤 User belongs to " + userCompanyIds.size() + " company(ies) via CompanyStoreUser");
-            } else {
-                // Fallback: Check UserStoreRole (legacy table)
-                List<UserStoreRole> userStoreRoles = userStoreRoleRepository.findByUserAndIsActiveTrue(currentUser);
-                
-                if (userStoreRoles.isEmpty()) {
-                    return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body(new ApiResponse(false, "You must be associated with a company or store to view products"));
-                }
-                
-                // Get company IDs from stores
-                userCompanyIds = userStoreRoles.stream()
-                    .map(role -> role.getStore())
-                    .filter(Objects::nonNull)
-                    .map(store -> store.getCompany())
-                    .filter(Objects::nonNull)
-                    .map(company -> company.getId())
-                    .collect(Collectors.toSet());
-                System.out.println("👤 User belongs to " + userCompanyIds.size() + " company(ies) via UserStoreRole");
+            final Set<UUID> userCompanyIds = getUserCompanyIds(currentUser);
+            if (userCompanyIds == null) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ApiResponse(false, "You must be associated with a company or store to view products"));
             }
             
             if (userCompanyIds.isEmpty()) {
@@ -136,14 +130,8 @@ public class ProductController {
                     .body(new ApiResponse(false, "No valid company associations found"));
             }
             
-            Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
-            Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
-            
-            Page<Product> productsPage;
-            
-            // Check if storeId is provided
             if (storeId != null) {
-                // Verify store exists and belongs to user's company
+                // Store listing: verify store exists and belongs to user's company
                 System.out.println("📦 Fetching products for store: " + storeId);
                 
                 // Use eager fetch to avoid N+1 query issue
@@ -158,53 +146,33 @@ public class ProductController {
                 }
                 
                 System.out.println("🔍 Store verified: " + store.getStoreName() + " (Company: " + store.getCompany().getName() + ")");
-                
-                // Use repository methods with storeId filtering
-                if (search != null && !search.trim().isEmpty()) {
-                    productsPage = productRepository.findByStoreIdAndCompanyIdInAndNameContainingIgnoreCase(
-                        storeId, userCompanyIds, search, pageable);
-                } else if (category != null && !category.trim().isEmpty()) {
-                    productsPage = productRepository.findByStoreIdAndCompanyIdInAndCategory(
-                        storeId, userCompanyIds, category, pageable);
-                } else {
-                    productsPage = productRepository.findByStoreIdAndCompanyIdIn(
-                        storeId, userCompanyIds, pageable);
-                }
-                
-                System.out.println("✅ Found " + productsPage.getTotalElements() + " products for store: " + store.getStoreName());
-                
-            } else {
-                // Existing logic: Get all products across all stores for user's companies
-                if (search != null && !search.trim().isEmpty()) {
-                    Page<Product> searchResults = productService.searchProducts(search, pageable);
-                    List<Product> filtered = filterProductsByCompany(searchResults.getContent(), userCompanyIds);
-                    productsPage = new org.springframework.data.domain.PageImpl<>(filtered, pageable, filtered.size());
-                } else if (category != null && !category.trim().isEmpty()) {
-                    List<Product> categoryProducts = productService.getProductsByCategory(category);
-                    List<Product> filtered = filterProductsByCompany(categoryProducts, userCompanyIds);
-                    productsPage = convertListToPage(filtered, pageable);
-                } else {
-                    List<Product> allProducts = productService.getAllActiveProducts();
-                    List<Product> filtered = filterProductsByCompany(allProducts, userCompanyIds);
-                    productsPage = convertListToPage(filtered, pageable);
-                }
             }
             
-            List<ProductResponse> productResponses = productsPage.getContent().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+            // List across the user's companies, or within the store, with filtering and paging in SQL
+            ProductCatalogQueryService.CatalogPage catalogPage = productCatalogQueryService.listProducts(
+                userCompanyIds, storeId, category, supplier, search, sortBy, sortDir, cursor, page, size);
             
             Map<String, Object> response = new HashMap<>();
-            response.put("products", productResponses);
-            response.put("currentPage", productsPage.getNumber());
-            response.put("totalItems", productsPage.getTotalElements());
-            response.put("totalPages", productsPage.getTotalPages());
-            response.put("pageSize", productsPage.getSize());
+            response.put("products", catalogPage.getProducts().stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList()));
+            response.put("pageSize", catalogPage.getPageSize());
+            response.put("hasMore", catalogPage.isHasMore());
+            response.put("nextCursor", catalogPage.getNextCursor());
+            if (catalogPage.getTotalItems() != null) {
+                long totalItems = catalogPage.getTotalItems();
+                response.put("currentPage", catalogPage.getPage());
+                response.put("totalItems", totalItems);
+                response.put("totalPages", (int) ((totalItems + catalogPage.getPageSize() - 1) / catalogPage.getPageSize()));
+            }
             response.put("timestamp", LocalDateTime.now());
             response.put("system", "InventSight");
             
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ApiResponse(false, e.getMessage()));
         } catch (RuntimeException e) {
             // Handle store not found separately
             if (e.getMessage() != null && e.getMessage().contains("Store not found")) {
@@ -225,6 +193,97 @@ public class ProductController {
         }
     }
     
+    /**
+     * Companies the user belongs to, via CompanyStoreUser or else the legacy UserStoreRole table.
+     * Returns null if the user has neither kind of membership.
+     */
+    private Set<UUID> getUserCompanyIds(User currentUser) {
+        // Try CompanyStoreUser first (new multi-tenant system)
+        List<CompanyStoreUser> userMemberships = companyStoreUserRepository.findByUserAndIsActiveTrue(currentUser);
+        if (!userMemberships.isEmpty()) {
+            Set<UUID> userCompanyIds = userMemberships.stream()
+                .map(membership -> membership.getCompany().getId())
+                .collect(Collectors.toSet());
+            System.out.println("👤 User belongs to " + userCompanyIds.size() + " company(ies) via CompanyStoreUser");
+            return userCompanyIds;
+        }
+        
+        // Fallback: Check UserStoreRole (legacy table)
+        List<UserStoreRole> userStoreRoles = userStoreRoleRepository.findByUserAndIsActiveTrue(currentUser);
+        if (userStoreRoles.isEmpty()) {
+            return null;
+        }
+        
+        // Get company IDs from stores
+        Set<UUID> userCompanyIds = userStoreRoles.stream()
+            .map(role -> role.getStore())
+            .filter(Objects::nonNull)
+            .map(store -> store.getCompany())
+            .filter(Objects::nonNull)
+            .map(company -> company.getId())
+            .collect(Collectors.toSet());
+        System.out.println("👤 User belongs to " + userCompanyIds.size() + " company(ies) via UserStoreRole");
+        return userCompanyIds;
+    }
+    
+    // GET /products/typeahead - Ranked, typo-tolerant name/SKU suggestions
+    @GetMapping("/typeahead")
+    public ResponseEntity<?> typeahead(
+            @RequestParam String q,
+            @RequestParam(required = false) UUID storeId,
+            @RequestParam(defaultValue = "10") int limit,
+            Authentication authentication) {
+        try {
+            User currentUser = userService.getUserByUsername(authentication.getName());
+            Set<UUID> userCompanyIds = getUserCompanyIds(currentUser);
+            if (userCompanyIds == null || userCompanyIds.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ApiResponse(false, "You must be associated with a company or store to view products"));
+            }
+            int max = Math.max(1, Math.min(limit, 50));
+            
+            List<Map<String, Object>> suggestions = new ArrayList<>();
+            List<CatalogSearchIndex.Document> hits = catalogSearchIndex.search(TenantContext.getCurrentTenant(),
+                CatalogSearchIndex.Kind.PRODUCT, q, userCompanyIds, storeId, max);
+            if (hits != null) {
+                for (CatalogSearchIndex.Document hit : hits) {
+                    suggestions.add(suggestion(hit.getId(), hit.getName(), hit.getSku(), hit.getCategory()));
+                }
+            } else {
+                // Index still building: substring match in SQL
+                List<Product> products = storeId == null
+                    ? productCatalogQueryService.listProducts(userCompanyIds, null, null, null, q, "name", "asc", null, 0, max).getProducts()
+                    : productRepository.findByStoreIdAndCompanyIdInAndNameContainingIgnoreCase(
+                        storeId, userCompanyIds, q, PageRequest.of(0, max, Sort.by("name"))).getContent();
+                for (Product product : products) {
+                    suggestions.add(suggestion(product.getId(), product.getName(), product.getSku(), product.getCategory()));
+                }
+            }
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("suggestions", suggestions);
+            response.put("query", q);
+            response.put("source", hits != null ? "index" : "database");
+            response.put("timestamp", LocalDateTime.now());
+            response.put("system", "InventSight");
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            logger.error("❌ InventSight - Error in product typeahead: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ApiResponse(false, "Failed to search products: " + e.getMessage()));
+        }
+    }
+    
+    private static Map<String, Object> suggestion(UUID id, String name, String sku, String category) {
+        Map<String, Object> suggestion = new HashMap<>();
+        suggestion.put("id", id);
+        suggestion.put("name", name);
+        suggestion.put("sku", sku);
+        suggestion.put("category", category);
+        return suggestion;
+    }
+    
     // GET /products/count - Get total products count
     @GetMapping("/count")
     public ResponseEntity<?> getProductsCount(Authentication authentication) {
@@ -277,6 +336,36 @@ public class ProductController {
         }
     }
     
+    // GET /products/stock-contention - Products of the user's companies with the most contended stock updates on this node
+    @GetMapping("/stock-contention")
+    public ResponseEntity<?> getStockContention(
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+        try {
+            User currentUser = userService.getUserByUsername(authentication.getName());
+            Set<UUID> userCompanyIds = getUserCompanyIds(currentUser);
+            if (userCompanyIds == null || userCompanyIds.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ApiResponse(false, "You must be associated with a company or store to view stock contention"));
+            }
+            
+            List<StockMutationService.SkuContention> stats = stockMutationService.getContentionStats(userCompanyIds, limit);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("products", stats);
+            response.put("count", stats.size());
+            response.put("timestamp", LocalDateTime.now());
+            response.put("system", "InventSight");
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            logger.error("❌ InventSight - Error fetching stock contention: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ApiResponse(false, "Failed to fetch stock contention: " + e.getMessage()));
+        }
+    }
+    
     // GET /products/{id} - Get product by ID
     @GetMapping("/{id:[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{12}}")
     public ResponseEntity<?> getProductById(@PathVariable UUID id, Authentication authentication) {
@@ -688,31 +777,6 @@ public class ProductController {
         return product;
     }
     
-    /**
-     * Helper method to filter products by user's company IDs
-     * Only returns products whose store belongs to one of the user's companies
-     */
-    private List<Product> filterProductsByCompany(List<Product> products, Set<UUID> userCompanyIds) {
-        return products.stream()
-            .filter(p -> p.getStore() != null 
-                && p.getStore().getCompany() != null 
-                && userCompanyIds.contains(p.getStore().getCompany().getId()))
-            .collect(Collectors.toList());
-    }
-    
-    private <T> Page<T> convertListToPage(List<T> list, Pageable pageable) {
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), list.size());
-        
-        List<T> pageContent;
-        if (start >= list.size()) {
-            pageContent = new ArrayList<>();
-        } else {
-            pageContent = list.subList(start, end);
-        }
-        return new org.springframework.data.domain.PageImpl<>(pageContent, pageable, list.size());
-    }
-    
     /**
      * Get product stock status (for debugging)
      * GET /products/{productId}/stock-status
@@ -22,6 +22,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -94,7 +95,9 @@ public class ProductPricingController {
             auditService.log(username, user.getId(), "PRICE_CHANGE_ORIGINAL", "Product", productId.toString(), auditDetails);
             
             // Emit sync change for offline sync
-            syncChangeService.recordChange("Product", productId.toString(), "UPDATE", product);
+            // Only the changed field; clients merge it into their copy
+            syncChangeService.recordChange("Product", productId.toString(), "UPDATE",
+                Collections.singletonMap("originalPrice", request.getAmount()));
             
             // Prepare response
             Map<String, Object> responseData = new HashMap<>();
@@ -162,7 +165,9 @@ public class ProductPricingController {
             auditService.log(username, user.getId(), "PRICE_CHANGE_OWNER_SELL", "Product", productId.toString(), auditDetails);
             
             // Emit sync change for offline sync
-            syncChangeService.recordChange("Product", productId.toString(), "UPDATE", product);
+            // Only the changed field; clients merge it into their copy
+            syncChangeService.recordChange("Product", productId.toString(), "UPDATE",
+                Collections.singletonMap("ownerSetSellPrice", request.getAmount()));
             
             // Prepare response
             Map<String, Object> responseData = new HashMap<>();
@@ -230,7 +235,9 @@ public class ProductPricingController {
             auditService.log(username, user.getId(), "PRICE_CHANGE_RETAIL", "Product", productId.toString(), auditDetails);
             
             // Emit sync change for offline sync
-            syncChangeService.recordChange("Product", productId.toString(), "UPDATE", product);
+            // Only the changed field; clients merge it into their copy
+            syncChangeService.recordChange("Product", productId.toString(), "UPDATE",
+                Collections.singletonMap("retailPrice", request.getAmount()));
             
             // Prepare response
             Map<String, Object> responseData = new HashMap<>();
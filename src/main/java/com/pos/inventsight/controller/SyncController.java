@@ -2,19 +2,24 @@ package com.pos.inventsight.controller;
 
 import com.pos.inventsight.model.sql.SyncChange;
 import com.pos.inventsight.service.SyncChangeService;
+import com.pos.inventsight.service.SyncChangeStreamService;
 import com.pos.inventsight.tenant.TenantContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Controller for sync operations, providing change feed for offline sync support.
+ * Clients either page/long-poll /sync/changes or keep /sync/stream open for pushed changes.
  */
 @RestController
 @RequestMapping("/sync")
@@ -22,79 +27,125 @@ public class SyncController {
     
     private static final Logger logger = LoggerFactory.getLogger(SyncController.class);
     
+    private static final long DEFERRED_TIMEOUT_MARGIN_SECONDS = 10;
+    
     private final SyncChangeService syncChangeService;
+    private final SyncChangeStreamService syncChangeStreamService;
     
-    public SyncController(SyncChangeService syncChangeService) {
+    public SyncController(SyncChangeService syncChangeService, SyncChangeStreamService syncChangeStreamService) {
         this.syncChangeService = syncChangeService;
+        this.syncChangeStreamService = syncChangeStreamService;
     }
     
     /**
-     * Get sync changes since a watermark
+     * Get sync changes after a cursor
      * 
-     * @param since Watermark (ISO-8601 timestamp) - optional
+     * @param since Cursor from a previous response's next_watermark (or a legacy ISO-8601 timestamp) - optional;
+     *              omitted starts at the beginning of the feed
      * @param limit Maximum number of changes to return (max 500, default 100)
+     * @param wait Long-poll: seconds to wait for a change when none is pending (default 0, capped by config)
      * @return List of changes with pagination metadata
      */
     @GetMapping("/changes")
     @PreAuthorize("hasAnyAuthority('FOUNDER', 'CEO', 'GENERAL_MANAGER', 'STORE_MANAGER', 'EMPLOYEE')")
-    public ResponseEntity<?> getChanges(
+    public DeferredResult<ResponseEntity<?>> getChanges(
             @RequestParam(required = false) String since,
-            @RequestParam(required = false, defaultValue = "100") Integer limit) {
+            @RequestParam(required = false, defaultValue = "100") Integer limit,
+            @RequestParam(required = false, defaultValue = "0") Integer wait) {
+        
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(
+            TimeUnit.SECONDS.toMillis(Math.max(wait, 0) + DEFERRED_TIMEOUT_MARGIN_SECONDS));
         
         try {
             // Get tenant ID from context
             UUID tenantId = getCurrentTenantId();
             if (tenantId == null) {
-                return ResponseEntity.badRequest()
-                    .body(Map.of("error", "No tenant context available"));
+                result.setResult(ResponseEntity.badRequest()
+                    .body(Map.of("error", "No tenant context available")));
+                return result;
             }
             
             // Validate limit
             if (limit != null && limit > 500) {
-                return ResponseEntity.badRequest()
-                    .body(Map.of("error", "Limit cannot exceed 500"));
-            }
-            
-            // Get changes
-            Page<SyncChange> changesPage = syncChangeService.getChangesSince(tenantId, since, limit);
-            
-            // Build response
-            List<Map<String, Object>> changes = new ArrayList<>();
-            for (SyncChange change : changesPage.getContent()) {
-                Map<String, Object> changeMap = new HashMap<>();
-                changeMap.put("id", change.getId().toString());
-                changeMap.put("entity_type", change.getEntityType());
-                changeMap.put("entity_id", change.getEntityId());
-                changeMap.put("operation", change.getOperation());
-                changeMap.put("changed_at", change.getChangedAt().format(DateTimeFormatter.ISO_DATE_TIME));
-                changeMap.put("change_data", change.getChangeData());
-                changeMap.put("version", change.getVersion());
-                changes.add(changeMap);
-            }
-            
-            // Determine next watermark
-            String nextWatermark = null;
-            boolean hasMore = changesPage.hasNext();
-            if (!changesPage.isEmpty()) {
-                SyncChange lastChange = changesPage.getContent().get(changesPage.getContent().size() - 1);
-                nextWatermark = lastChange.getChangedAt().format(DateTimeFormatter.ISO_DATE_TIME);
+                result.setResult(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Limit cannot exceed 500")));
+                return result;
             }
             
-            Map<String, Object> response = new HashMap<>();
-            response.put("changes", changes);
-            response.put("count", changes.size());
-            response.put("has_more", hasMore);
-            if (nextWatermark != null) {
-                response.put("next_watermark", nextWatermark);
-            }
+            result.onTimeout(() -> result.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", "Timed out waiting for sync changes"))));
             
-            return ResponseEntity.ok(response);
+            syncChangeService.awaitChangesAfter(tenantId, since, limit, wait)
+                .whenComplete((page, error) -> {
+                    if (error != null) {
+                        logger.error("Error retrieving sync changes: {}", error.getMessage(), error);
+                        result.setResult(ResponseEntity.internalServerError()
+                            .body(Map.of("error", "Failed to retrieve sync changes")));
+                    } else {
+                        result.setResult(ResponseEntity.ok(toResponse(page)));
+                    }
+                });
             
+        } catch (IllegalArgumentException e) {
+            result.setResult(ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage())));
         } catch (Exception e) {
             logger.error("Error retrieving sync changes: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError()
-                .body(Map.of("error", "Failed to retrieve sync changes"));
+            result.setResult(ResponseEntity.internalServerError()
+                .body(Map.of("error", "Failed to retrieve sync changes")));
         }
+        return result;
+    }
+    
+    /**
+     * Stream sync changes as server-sent events
+     * 
+     * Each "changes" event carries a JSON array of changes (only the latest per entity) and has
+     * the cursor after it as its event id. Reconnecting clients resume with Last-Event-ID.
+     * 
+     * @param since Cursor or legacy ISO-8601 timestamp to start after - optional, ignored if Last-Event-ID is sent
+     * @param lastEventId Cursor of the last event received before a reconnect
+     * @return Event stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('FOUNDER', 'CEO', 'GENERAL_MANAGER', 'STORE_MANAGER', 'EMPLOYEE')")
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestParam(required = false) String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        
+        UUID tenantId = getCurrentTenantId();
+        if (tenantId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        long afterSeq;
+        try {
+            afterSeq = syncChangeService.resolveCursor(tenantId, lastEventId != null ? lastEventId : since);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        SseEmitter emitter = syncChangeStreamService.subscribe(tenantId, afterSeq);
+        if (emitter == null) {
+            logger.warn("Sync stream connection limit reached, rejecting tenant {}", tenantId);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "30").build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+    
+    private Map<String, Object> toResponse(SyncChangeService.ChangePage page) {
+        List<Map<String, Object>> changes = new ArrayList<>();
+        for (SyncChange change : page.getChanges()) {
+            changes.add(SyncChangeService.toFeedEntry(change));
+        }
+        
+        // The cursor is returned even for an empty page so clients can keep polling from it
+        Map<String, Object> response = new HashMap<>();
+        response.put("changes", changes);
+        response.put("count", changes.size());
+        response.put("has_more", page.isHasMore());
+        response.put("next_watermark", page.getNextCursor());
+        return response;
     }
     
     /**
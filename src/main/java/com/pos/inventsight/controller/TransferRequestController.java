@@ -196,18 +196,11 @@ public class TransferRequestController {
             // Create Pageable object with sorting by createdAt DESC (most recent first)
             Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
             
-            Page<TransferRequest> requestsPage;
-            
-            if (storeId != null) {
-                requestsPage = transferRequestService.getTransferRequestsByStore(storeId, pageable);
-            } else if (warehouseId != null) {
-                requestsPage = transferRequestService.getTransferRequestsByWarehouse(warehouseId, pageable);
-            } else if (status != null) {
-                TransferRequestStatus requestStatus = TransferRequestStatus.valueOf(status.toUpperCase());
-                requestsPage = transferRequestService.getTransferRequestsByStatus(company.getId(), requestStatus, pageable);
-            } else {
-                requestsPage = transferRequestService.getTransferRequestsByCompany(company.getId(), pageable);
-            }
+            // Status only applies when no store or warehouse filter is given
+            TransferRequestStatus requestStatus = storeId == null && warehouseId == null && status != null
+                ? TransferRequestStatus.valueOf(status.toUpperCase()) : null;
+            Page<TransferRequestSummary> requestsPage = transferRequestService.getTransferSummaries(
+                company.getId(), requestStatus, storeId, warehouseId, pageable);
             
             // Add available actions to each transfer
             List<Map<String, Object>> requestsWithActions = requestsPage.getContent().stream()
@@ -216,7 +209,7 @@ public class TransferRequestController {
                     transferMap.put("transfer", transfer);
                     
                     // Calculate available actions for this user
-                    List<String> actions = transferPermissionService.getAvailableActions(transfer, currentUser);
+                    List<String> actions = transferPermissionService.getAvailableActionsForSummary(transfer, currentUser);
                     transferMap.put("availableActions", actions);
                     
                     return transferMap;
@@ -255,7 +248,7 @@ public class TransferRequestController {
             String username = authentication.getName();
             User currentUser = userService.getUserByUsername(username);
             
-            TransferRequest request = transferRequestService.getTransferRequestById(id);
+            TransferRequest request = transferRequestService.getTransferRequestDetail(id);
             
             // Calculate available actions for this user
             List<String> availableActions = transferPermissionService.getAvailableActions(request, currentUser);
@@ -885,7 +878,7 @@ public class TransferRequestController {
                 .filter(warehouse -> warehouse.getCompany() != null && warehouse.getCompany().getId().equals(company.getId()))
                 .toList();
             
-            List<TransferRequest> pendingTransfers = transferRequestService.getPendingApprovalsForUser(
+            List<TransferRequestSummary> pendingTransfers = transferRequestService.getPendingApprovalSummariesForUser(
                 company.getId(),
                 companyStores,
                 companyWarehouses,
@@ -0,0 +1,108 @@
+package com.pos.inventsight.dto;
+
+import com.pos.inventsight.model.sql.TransferRequestPriority;
+import com.pos.inventsight.model.sql.TransferRequestStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row of a transfer request list.
+ *
+ * Built directly by a JPQL constructor expression, so listing transfers reads these columns
+ * and the location names instead of loading each transfer's company, stores, warehouses and
+ * users. The full entity is returned by the detail endpoint.
+ */
+public class TransferRequestSummary {
+
+    private final UUID id;
+    private final UUID productId;
+    private final String itemName;
+    private final String itemSku;
+    private final Integer requestedQuantity;
+    private final Integer approvedQuantity;
+    private final Integer receivedQuantity;
+    private final TransferRequestStatus status;
+    private final TransferRequestPriority priority;
+    private final String fromLocationType;
+    private final UUID fromLocationId;
+    private final String fromLocationName;
+    private final String toLocationType;
+    private final UUID toLocationId;
+    private final String toLocationName;
+    private final UUID requestedByUserId;
+    private final String requestedByName;
+    private final String approvedByName;
+    private final String carrierName;
+    private final LocalDateTime requestedAt;
+    private final LocalDateTime approvedAt;
+    private final LocalDateTime shippedAt;
+    private final LocalDateTime estimatedDeliveryAt;
+    private final LocalDateTime receivedAt;
+    private final LocalDateTime completedAt;
+    private final LocalDateTime createdAt;
+
+    public TransferRequestSummary(UUID id, UUID productId, String itemName, String itemSku,
+                                  Integer requestedQuantity, Integer approvedQuantity, Integer receivedQuantity,
+                                  TransferRequestStatus status, TransferRequestPriority priority,
+                                  String fromLocationType, UUID fromLocationId, String fromLocationName,
+                                  String toLocationType, UUID toLocationId, String toLocationName,
+                                  UUID requestedByUserId, String requestedByName, String approvedByName,
+                                  String carrierName, LocalDateTime requestedAt, LocalDateTime approvedAt,
+                                  LocalDateTime shippedAt, LocalDateTime estimatedDeliveryAt,
+                                  LocalDateTime receivedAt, LocalDateTime completedAt, LocalDateTime createdAt) {
+        this.id = id;
+        this.productId = productId;
+        this.itemName = itemName;
+        this.itemSku = itemSku;
+        this.requestedQuantity = requestedQuantity;
+        this.approvedQuantity = approvedQuantity;
+        this.receivedQuantity = receivedQuantity;
+        this.status = status;
+        this.priority = priority;
+        this.fromLocationType = fromLocationType;
+        this.fromLocationId = fromLocationId;
+        this.fromLocationName = fromLocationName;
+        this.toLocationType = toLocationType;
+        this.toLocationId = toLocationId;
+        this.toLocationName = toLocationName;
+        this.requestedByUserId = requestedByUserId;
+        this.requestedByName = requestedByName;
+        this.approvedByName = approvedByName;
+        this.carrierName = carrierName;
+        this.requestedAt = requestedAt;
+        this.approvedAt = approvedAt;
+        this.shippedAt = shippedAt;
+        this.estimatedDeliveryAt = estimatedDeliveryAt;
+        this.receivedAt = receivedAt;
+        this.completedAt = completedAt;
+        this.createdAt = createdAt;
+    }
+
+    public UUID getId() { return id; }
+    public UUID getProductId() { return productId; }
+    public String getItemName() { return itemName; }
+    public String getItemSku() { return itemSku; }
+    public Integer getRequestedQuantity() { return requestedQuantity; }
+    public Integer getApprovedQuantity() { return approvedQuantity; }
+    public Integer getReceivedQuantity() { return receivedQuantity; }
+    public TransferRequestStatus getStatus() { return status; }
+    public TransferRequestPriority getPriority() { return priority; }
+    public String getFromLocationType() { return fromLocationType; }
+    public UUID getFromLocationId() { return fromLocationId; }
+    public String getFromLocationName() { return fromLocationName; }
+    public String getToLocationType() { return toLocationType; }
+    public UUID getToLocationId() { return toLocationId; }
+    public String getToLocationName() { return toLocationName; }
+    public UUID getRequestedByUserId() { return requestedByUserId; }
+    public String getRequestedByName() { return requestedByName; }
+    public String getApprovedByName() { return approvedByName; }
+    public String getCarrierName() { return carrierName; }
+    public LocalDateTime getRequestedAt() { return requestedAt; }
+    public LocalDateTime getApprovedAt() { return approvedAt; }
+    public LocalDateTime getShippedAt() { return shippedAt; }
+    public LocalDateTime getEstimatedDeliveryAt() { return estimatedDeliveryAt; }
+    public LocalDateTime getReceivedAt() { return receivedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -1,8 +1,5 @@
 package com.pos.inventsight.filter;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.FilterConfig;
@@ -13,14 +10,13 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Separate rate limiting filter specifically for authentication endpoints.
@@ -29,6 +25,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * - Login: 10 attempts per 5 minutes per IP (prevents brute force)
  * - Register: 5 attempts per 10 minutes per IP (prevents spam)
  * - Only applies to /api/auth/login and /api/auth/register
+ * - Buckets are kept in the shared {@link RateLimitBackend}
  * 
  * Order: Executes at priority 1 (before main RateLimitingFilter at HIGHEST_PRECEDENCE)
  */
@@ -38,8 +35,8 @@ public class AuthRateLimitingFilter implements Filter {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthRateLimitingFilter.class);
     
-    private final Map<String, Bucket> loginBuckets = new ConcurrentHashMap<>();
-    private final Map<String, Bucket> registerBuckets = new ConcurrentHashMap<>();
+    @Autowired(required = false)
+    private RateLimitBackend rateLimitBackend;
     
     @Value("${inventsight.rate-limiting.auth.enabled:true}")
     private boolean authRateLimitingEnabled;
@@ -73,7 +70,7 @@ public class AuthRateLimitingFilter implements Filter {
         
         // Check login endpoint
         if (isLoginEndpoint(requestUri)) {
-            if (!checkRateLimit(clientIp, loginBuckets, maxLoginAttempts, loginWindowMinutes)) {
+            if (!checkRateLimit("login:" + clientIp, maxLoginAttempts, loginWindowMinutes)) {
                 logger.warn("⚠️ Auth rate limit exceeded for IP: {} on login", clientIp);
                 sendRateLimitError(httpResponse, "login", maxLoginAttempts, loginWindowMinutes);
                 return;
@@ -82,7 +79,7 @@ public class AuthRateLimitingFilter implements Filter {
         
         // Check register endpoint
         if (isRegisterEndpoint(requestUri)) {
-            if (!checkRateLimit(clientIp, registerBuckets, maxRegisterAttempts, registerWindowMinutes)) {
+            if (!checkRateLimit("register:" + clientIp, maxRegisterAttempts, registerWindowMinutes)) {
                 logger.warn("⚠️ Auth rate limit exceeded for IP: {} on register", clientIp);
                 sendRateLimitError(httpResponse, "register", maxRegisterAttempts, registerWindowMinutes);
                 return;
@@ -117,25 +114,18 @@ public class AuthRateLimitingFilter implements Filter {
     }
     
     /**
-     * Check rate limit for the given IP and bucket map
+     * Check rate limit for the given bucket key
      * 
-     * @param clientIp Client IP address
-     * @param buckets Bucket map (login or register)
+     * @param key Bucket key (endpoint type and client IP)
      * @param maxAttempts Maximum attempts allowed
      * @param windowMinutes Time window in minutes
      * @return true if within rate limit, false otherwise
      */
-    private boolean checkRateLimit(String clientIp, Map<String, Bucket> buckets, 
-                                     int maxAttempts, int windowMinutes) {
-        Bucket bucket = buckets.computeIfAbsent(clientIp, k -> {
-            Bandwidth limit = Bandwidth.classic(maxAttempts, 
-                Refill.intervally(maxAttempts, Duration.ofMinutes(windowMinutes)));
-            return Bucket.builder()
-                .addLimit(limit)
-                .build();
-        });
-        
-        return bucket.tryConsume(1);
+    private boolean checkRateLimit(String key, int maxAttempts, int windowMinutes) {
+        if (rateLimitBackend == null) {
+            rateLimitBackend = new LocalRateLimitBackend();
+        }
+        return rateLimitBackend.tryConsume(key, maxAttempts, Duration.ofMinutes(windowMinutes));
     }
     
     /**
@@ -189,8 +179,6 @@ public class AuthRateLimitingFilter implements Filter {
     
     @Override
     public void destroy() {
-        loginBuckets.clear();
-        registerBuckets.clear();
         logger.info("AuthRateLimitingFilter destroyed");
     }
 }
@@ -86,9 +86,22 @@ public class IdempotencyKeyFilter implements Filter {
             return;
         }
         
+        // Concurrent duplicates (e.g. a till retrying on flaky Wi-Fi) wait for the first execution
+        IdempotencyService.Execution execution = idempotencyService.beginExecution(idempotencyKey, tenantId);
+        if (!execution.isOwner()) {
+            Optional<IdempotencyKey> result = idempotencyService.awaitExecution(execution);
+            if (result.isPresent()) {
+                replay(httpResponse, result.get(), idempotencyKey, tenantId);
+            } else {
+                sendInProgress(httpResponse, idempotencyKey);
+            }
+            return;
+        }
+        
         // Wrap request and response to cache content
         ContentCachingRequestWrapper wrappedRequest = new ContentCachingRequestWrapper(httpRequest);
         ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(httpResponse);
+        IdempotencyKey stored = null;
         
         try {
             // Check if this idempotency key already exists
@@ -105,15 +118,8 @@ public class IdempotencyKeyFilter implements Filter {
                 // 2. Attempting to read the body here would consume it before the controller can access it
                 // 3. This matches industry standard implementations (Stripe, Twilio, etc.)
                 // 4. The worst case is the client receives an unexpected cached response, not data corruption
-                IdempotencyKey existing = existingKey.get();
-                
-                logger.info("Replaying cached response for idempotency key: {} tenant: {}", 
-                           idempotencyKey, tenantId);
-                httpResponse.setStatus(existing.getResponseStatus());
-                httpResponse.setContentType("application/json");
-                if (existing.getResponseBody() != null) {
-                    httpResponse.getWriter().write(existing.getResponseBody());
-                }
+                stored = existingKey.get();
+                replay(httpResponse, stored, idempotencyKey, tenantId);
                 return;
             }
             
@@ -134,7 +140,7 @@ public class IdempotencyKeyFilter implements Filter {
             String requestHash = idempotencyService.computeRequestHash(method, requestUri, requestBody);
             
             // Store idempotency key with response
-            idempotencyService.storeIdempotencyKey(
+            stored = idempotencyService.storeIdempotencyKey(
                 idempotencyKey,
                 tenantId,
                 tenantId, // Use tenantId as companyId
@@ -155,9 +161,32 @@ public class IdempotencyKeyFilter implements Filter {
             } catch (IOException ioe) {
                 logger.error("Failed to copy response body: {}", ioe.getMessage());
             }
+        } finally {
+            idempotencyService.completeExecution(execution, stored);
         }
     }
     
+    private void replay(HttpServletResponse response, IdempotencyKey stored, String idempotencyKey, UUID tenantId)
+            throws IOException {
+        logger.info("Replaying cached response for idempotency key: {} tenant: {}", idempotencyKey, tenantId);
+        response.setStatus(stored.getResponseStatus());
+        response.setContentType("application/json");
+        if (stored.getResponseBody() != null) {
+            response.getWriter().write(stored.getResponseBody());
+        }
+    }
+    
+    /**
+     * The first request with this key failed or is still running; the client should retry
+     */
+    private void sendInProgress(HttpServletResponse response, String idempotencyKey) throws IOException {
+        logger.warn("Idempotency key {} is still being processed", idempotencyKey);
+        response.setStatus(HttpServletResponse.SC_CONFLICT);
+        response.setContentType("application/json");
+        response.setHeader("Retry-After", "1");
+        response.getWriter().write("{\"error\": \"A request with this Idempotency-Key is in progress\", \"retry_after\": 1}");
+    }
+    
     private boolean isWriteOperation(String method) {
         return "POST".equalsIgnoreCase(method) ||
                "PUT".equalsIgnoreCase(method) ||
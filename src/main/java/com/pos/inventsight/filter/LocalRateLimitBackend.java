@@ -0,0 +1,100 @@
+package com.pos.inventsight.filter;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process Bucket4j buckets with bounded memory.
+ *
+ * Buckets idle for longer than the idle timeout are evicted by a periodic sweep
+ * and when the store is full. If the store is still full, keys that are not yet
+ * tracked share one overflow bucket per limit, so a scan over rotating IPs is
+ * throttled as a group instead of growing the map. Limits are per node; use the
+ * Redis backend to share them across nodes.
+ */
+@Component
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalRateLimitBackend.class);
+
+    @Value("${inventsight.rate-limiting.local.max-entries:100000}")
+    private int maxEntries = 100000;
+
+    @Value("${inventsight.rate-limiting.local.idle-timeout-ms:600000}")
+    private long idleTimeoutMs = 600000;
+
+    private final ConcurrentHashMap<String, Entry> buckets = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Bucket> overflow = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean tryConsume(String key, int capacity, Duration period) {
+        long now = System.currentTimeMillis();
+        Entry entry = buckets.get(key);
+        if (entry == null) {
+            if (buckets.size() >= maxEntries) {
+                evictIdle(now);
+            }
+            if (buckets.size() >= maxEntries) {
+                logger.debug("Rate limit store full, using overflow bucket for {}", key);
+                return overflow.computeIfAbsent(capacity + "/" + period, k -> newBucket(capacity, period))
+                    .tryConsume(1);
+            }
+            entry = buckets.computeIfAbsent(key, k -> new Entry(newBucket(capacity, period), now));
+        }
+        entry.lastAccess = now;
+        return entry.bucket.tryConsume(1);
+    }
+
+    /**
+     * Drop buckets nobody has used within the idle timeout; a new bucket starts full,
+     * so this only forgets clients whose bucket would have refilled anyway.
+     */
+    @Scheduled(fixedDelayString = "${inventsight.rate-limiting.local.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        evictIdle(System.currentTimeMillis());
+    }
+
+    private void evictIdle(long now) {
+        long cutoff = now - idleTimeoutMs;
+        buckets.values().removeIf(entry -> entry.lastAccess < cutoff);
+    }
+
+    /**
+     * Number of tracked buckets, excluding overflow buckets.
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    public void clear() {
+        buckets.clear();
+        overflow.clear();
+    }
+
+    private static Bucket newBucket(int capacity, Duration period) {
+        Bandwidth limit = Bandwidth.classic(capacity, Refill.intervally(capacity, period));
+        return Bucket.builder()
+            .addLimit(limit)
+            .build();
+    }
+
+    private static final class Entry {
+        private final Bucket bucket;
+        private volatile long lastAccess;
+
+        private Entry(Bucket bucket, long lastAccess) {
+            this.bucket = bucket;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.pos.inventsight.filter;
+
+import java.time.Duration;
+
+/**
+ * Token bucket store used by the rate limiting filters.
+ *
+ * A bucket holds capacity tokens and is refilled to capacity once per period.
+ * Buckets are created on first use and keyed by the caller (e.g. "ip:1.2.3.4:sync").
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Take one token from the bucket for key.
+     *
+     * @return true if a token was available, false if the request should be rejected
+     */
+    boolean tryConsume(String key, int capacity, Duration period);
+}
@@ -1,22 +1,19 @@
 package com.pos.inventsight.filter;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 
 import java.io.IOException;
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Rate limiting filter using Bucket4j (token bucket algorithm).
@@ -35,7 +32,12 @@ public class RateLimitingFilter implements Filter {
     
     private static final Logger logger = LoggerFactory.getLogger(RateLimitingFilter.class);
     
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+    
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    
+    @Autowired(required = false)
+    private RateLimitBackend rateLimitBackend;
     
     @Value("${inventsight.rate-limiting.enabled:true}")
     private boolean rateLimitingEnabled;
@@ -46,6 +48,15 @@ public class RateLimitingFilter implements Filter {
     @Value("${inventsight.rate-limiting.per-ip.requests-per-minute:100}")
     private int ipRpm;
     
+    @Value("${inventsight.rate-limiting.per-route.sync.paths:/api/sync/**}")
+    private String[] syncPaths = {"/api/sync/**"};
+    
+    @Value("${inventsight.rate-limiting.per-route.sync.requests-per-minute:60}")
+    private int syncRpm = 60;
+    
+    @Value("${inventsight.rate-limiting.per-route.read.requests-per-minute:300}")
+    private int readRpm = 300;
+    
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
@@ -70,22 +81,22 @@ public class RateLimitingFilter implements Filter {
         String clientIp = getClientIp(httpRequest);
         String tenantId = httpRequest.getHeader("X-Tenant-ID");
         
-        // Check per-IP limit (using regular IP limit for non-auth endpoints)
-        String ipKey = "ip:" + clientIp;
-        Bucket ipBucket = resolveBucket(ipKey, ipRpm);
+        // Check per-IP limit for the route class of this request
+        String routeClass = resolveRouteClass(httpRequest.getMethod(), requestUri);
+        int routeRpm = requestsPerMinute(routeClass);
+        String ipKey = "ip:" + clientIp + ":" + routeClass;
         
-        if (!ipBucket.tryConsume(1)) {
-            logger.warn("⚠️ Rate limit exceeded for IP: {} on endpoint: {}", clientIp, requestUri);
-            sendRateLimitError(httpResponse, ipRpm, "IP");
+        if (!backend().tryConsume(ipKey, routeRpm, WINDOW)) {
+            logger.warn("⚠️ Rate limit exceeded for IP: {} on endpoint: {} ({})", clientIp, requestUri, routeClass);
+            sendRateLimitError(httpResponse, routeRpm, "IP");
             return;
         }
         
         // Check per-tenant limit (if tenant ID is present)
         if (tenantId != null && !tenantId.trim().isEmpty()) {
             String tenantKey = "tenant:" + tenantId;
-            Bucket tenantBucket = resolveBucket(tenantKey, tenantRpm);
             
-            if (!tenantBucket.tryConsume(1)) {
+            if (!backend().tryConsume(tenantKey, tenantRpm, WINDOW)) {
                 logger.warn("⚠️ Rate limit exceeded for tenant: {} on endpoint: {}", tenantId, requestUri);
                 sendRateLimitError(httpResponse, tenantRpm, "tenant");
                 return;
@@ -122,22 +133,42 @@ public class RateLimitingFilter implements Filter {
     }
     
     /**
-     * Resolve or create a bucket for the given key and limit
-     * @param key Bucket key (e.g., "ip:192.168.1.1" or "tenant:uuid")
-     * @param requestsPerMinute Requests per minute limit
-     * @return Bucket instance
+     * Classify a request for per-IP limiting
+     * @param method HTTP method
+     * @param requestUri Request URI (including context path)
+     * @return "sync", "read" or "default"
+     */
+    String resolveRouteClass(String method, String requestUri) {
+        for (String pattern : syncPaths) {
+            if (pathMatcher.match(pattern.trim(), requestUri)) {
+                return "sync";
+            }
+        }
+        if ("GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method)) {
+            return "read";
+        }
+        return "default";
+    }
+    
+    private int requestsPerMinute(String routeClass) {
+        switch (routeClass) {
+            case "sync":
+                return syncRpm;
+            case "read":
+                return readRpm;
+            default:
+                return ipRpm;
+        }
+    }
+    
+    /**
+     * Backend injected by Spring; filters created outside the context use a local one
      */
-    private Bucket resolveBucket(String key, int requestsPerMinute) {
-        return buckets.computeIfAbsent(key, k -> {
-            // Create bucket with token bucket algorithm
-            // Capacity: requestsPerMinute tokens
-            // Refill: requestsPerMinute tokens per minute
-            Bandwidth limit = Bandwidth.classic(requestsPerMinute, 
-                Refill.intervally(requestsPerMinute, Duration.ofMinutes(1)));
-            return Bucket.builder()
-                .addLimit(limit)
-                .build();
-        });
+    private RateLimitBackend backend() {
+        if (rateLimitBackend == null) {
+            rateLimitBackend = new LocalRateLimitBackend();
+        }
+        return rateLimitBackend;
     }
     
     /**
@@ -181,14 +212,13 @@ public class RateLimitingFilter implements Filter {
     
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
-        logger.info("RateLimitingFilter initialized - enabled: {}, IP limit: {}/min, tenant limit: {}/min",
-                   rateLimitingEnabled, ipRpm, tenantRpm);
+        logger.info("RateLimitingFilter initialized - enabled: {}, IP limit: {}/min (read {}/min, sync {}/min), tenant limit: {}/min, backend: {}",
+                   rateLimitingEnabled, ipRpm, readRpm, syncRpm, tenantRpm, backend().getClass().getSimpleName());
         logger.info("Auth endpoints (/api/auth/**) excluded from rate limiting");
     }
     
     @Override
     public void destroy() {
-        buckets.clear();
         logger.info("RateLimitingFilter destroyed");
     }
 }
@@ -0,0 +1,96 @@
+package com.pos.inventsight.filter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets shared by all nodes through Redis.
+ *
+ * Each bucket is a hash updated by one Lua script, so the refill and take are atomic
+ * across nodes. The script reads the clock from Redis TIME to avoid node clock skew,
+ * refills to capacity once per whole period elapsed (the same interval refill the
+ * local Bucket4j buckets use) and lets idle buckets expire after two periods.
+ *
+ * If Redis is unavailable, requests are limited by the local backend instead so an
+ * outage neither blocks traffic nor switches limiting off.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "inventsight.rate-limiting.backend", havingValue = "redis")
+public class RedisRateLimitBackend implements RateLimitBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisRateLimitBackend.class);
+
+    private static final String KEY_PREFIX = "inventsight:ratelimit:";
+
+    private static final long WARN_INTERVAL_MS = 60000;
+
+    static final RedisScript<Long> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>(
+        "local t = redis.call('TIME')\n" +
+        "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)\n" +
+        "local capacity = tonumber(ARGV[1])\n" +
+        "local period = tonumber(ARGV[2])\n" +
+        "local state = redis.call('HMGET', KEYS[1], 'tokens', 'refilled')\n" +
+        "local tokens = tonumber(state[1])\n" +
+        "local refilled = tonumber(state[2])\n" +
+        "if tokens == nil or refilled == nil then\n" +
+        "  tokens = capacity\n" +
+        "  refilled = now\n" +
+        "else\n" +
+        "  local periods = math.floor((now - refilled) / period)\n" +
+        "  if periods > 0 then\n" +
+        "    tokens = capacity\n" +
+        "    refilled = refilled + periods * period\n" +
+        "  end\n" +
+        "end\n" +
+        "local allowed = 0\n" +
+        "if tokens > 0 then\n" +
+        "  tokens = tokens - 1\n" +
+        "  allowed = 1\n" +
+        "end\n" +
+        "redis.call('HSET', KEYS[1], 'tokens', tokens, 'refilled', refilled)\n" +
+        "redis.call('PEXPIRE', KEYS[1], period * 2)\n" +
+        "return allowed\n",
+        Long.class);
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private LocalRateLimitBackend fallback;
+
+    private final StringRedisSerializer argsSerializer = new StringRedisSerializer();
+
+    private final GenericToStringSerializer<Long> resultSerializer = new GenericToStringSerializer<>(Long.class);
+
+    private final AtomicLong lastWarning = new AtomicLong();
+
+    @Override
+    public boolean tryConsume(String key, int capacity, Duration period) {
+        try {
+            Long allowed = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, argsSerializer, resultSerializer,
+                List.of(KEY_PREFIX + key), String.valueOf(capacity), String.valueOf(period.toMillis()));
+            return allowed != null && allowed == 1L;
+        } catch (Exception e) {
+            long now = System.currentTimeMillis();
+            long last = lastWarning.get();
+            if (now - last > WARN_INTERVAL_MS && lastWarning.compareAndSet(last, now)) {
+                logger.warn("Redis rate limiting unavailable, limiting per node: {}", e.getMessage());
+            }
+            return fallback.tryConsume(key, capacity, period);
+        }
+    }
+}
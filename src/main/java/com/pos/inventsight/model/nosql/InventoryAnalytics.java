@@ -2,6 +2,8 @@ package com.pos.inventsight.model.nosql;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -18,6 +20,10 @@ public class InventoryAnalytics {
     private LocalDate date;
     private String period; // DAILY, WEEKLY, MONTHLY, YEARLY
     
+    // Scope of the record; null for legacy company-wide records
+    private String companyId;
+    private String storeId;
+    
     // Inventory Metrics
     private BigDecimal totalInventoryValue;
     private Integer totalProducts;
@@ -25,9 +31,11 @@ public class InventoryAnalytics {
     private Integer outOfStockProducts;
     private BigDecimal averageProductValue;
     
-    // Sales Performance
+    // Sales Performance; amounts are stored as decimals so flushes can $inc them
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal totalRevenue;
     private Integer totalSales;
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal averageOrderValue;
     private Integer totalItemsSold;
     
@@ -149,6 +157,12 @@ public class InventoryAnalytics {
     public LocalDate getDate() { return date; }
     public void setDate(LocalDate date) { this.date = date; }
     
+    public String getCompanyId() { return companyId; }
+    public void setCompanyId(String companyId) { this.companyId = companyId; }
+    
+    public String getStoreId() { return storeId; }
+    public void setStoreId(String storeId) { this.storeId = storeId; }
+    
     public String getPeriod() { return period; }
     public void setPeriod(String period) { this.period = period; }
     
@@ -0,0 +1,73 @@
+package com.pos.inventsight.model.sql;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Sealed block of consecutive audit events in a tenant's chain.
+ * merkleRoot covers the hashes of events firstSeq..lastSeq; blockHash links
+ * the block to the previous one. Append-only like audit_events.
+ */
+@Entity
+@Table(name = "audit_blocks",
+       uniqueConstraints = @UniqueConstraint(name = "uq_audit_blocks_block_seq", columnNames = "block_seq"))
+public class AuditBlock {
+
+    @Id
+    @GeneratedValue(generator = "UUID")
+    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @Column(name = "id", updatable = false, nullable = false, columnDefinition = "UUID")
+    private UUID id;
+
+    @Column(name = "block_seq", nullable = false)
+    private Long blockSeq;
+
+    @Column(name = "first_seq", nullable = false)
+    private Long firstSeq;
+
+    @Column(name = "last_seq", nullable = false)
+    private Long lastSeq;
+
+    @Column(name = "event_count", nullable = false)
+    private Integer eventCount;
+
+    @Column(name = "merkle_root", nullable = false, length = 64)
+    private String merkleRoot;
+
+    @Column(name = "prev_block_hash", length = 64)
+    private String prevBlockHash;
+
+    @Column(name = "block_hash", nullable = false, length = 64)
+    private String blockHash;
+
+    @Column(name = "sealed_at", nullable = false)
+    private LocalDateTime sealedAt = LocalDateTime.now();
+
+    public AuditBlock() {
+    }
+
+    public AuditBlock(Long blockSeq, Long firstSeq, Long lastSeq, Integer eventCount,
+                      String merkleRoot, String prevBlockHash, String blockHash) {
+        this.blockSeq = blockSeq;
+        this.firstSeq = firstSeq;
+        this.lastSeq = lastSeq;
+        this.eventCount = eventCount;
+        this.merkleRoot = merkleRoot;
+        this.prevBlockHash = prevBlockHash;
+        this.blockHash = blockHash;
+    }
+
+    // Getters (no setters: blocks are immutable once sealed)
+    public UUID getId() { return id; }
+    public Long getBlockSeq() { return blockSeq; }
+    public Long getFirstSeq() { return firstSeq; }
+    public Long getLastSeq() { return lastSeq; }
+    public Integer getEventCount() { return eventCount; }
+    public String getMerkleRoot() { return merkleRoot; }
+    public String getPrevBlockHash() { return prevBlockHash; }
+    public String getBlockHash() { return blockHash; }
+    public LocalDateTime getSealedAt() { return sealedAt; }
+}
@@ -11,9 +11,14 @@ import java.util.UUID;
 /**
  * Append-only audit event entity for tamper-evident audit trail.
  * Records must not be updated or deleted after insertion.
+ *
+ * Events of a tenant form one hash chain ordered by chainSeq; each event's hash
+ * covers its content and the previous event's hash. Events are sealed in blocks
+ * (see AuditBlock) identified by blockSeq.
  */
 @Entity
-@Table(name = "audit_events")
+@Table(name = "audit_events",
+       uniqueConstraints = @UniqueConstraint(name = "uq_audit_events_chain_seq", columnNames = "chain_seq"))
 public class AuditEvent {
     
     @Id
@@ -64,6 +69,13 @@ public class AuditEvent {
     @Column(length = 64)
     private String hash;
     
+    // Position in the tenant's chain; null for events written before chaining by sequence
+    @Column(name = "chain_seq")
+    private Long chainSeq;
+    
+    @Column(name = "block_seq")
+    private Long blockSeq;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
     
@@ -96,6 +108,8 @@ public class AuditEvent {
     public String getDetailsJson() { return detailsJson; }
     public String getPrevHash() { return prevHash; }
     public String getHash() { return hash; }
+    public Long getChainSeq() { return chainSeq; }
+    public Long getBlockSeq() { return blockSeq; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     
     // Setters (public for AuditService but should only be used during construction)
@@ -112,6 +126,8 @@ public class AuditEvent {
     public void setDetailsJson(String detailsJson) { this.detailsJson = detailsJson; }
     public void setPrevHash(String prevHash) { this.prevHash = prevHash; }
     public void setHash(String hash) { this.hash = hash; }
+    public void setChainSeq(Long chainSeq) { this.chainSeq = chainSeq; }
+    public void setBlockSeq(Long blockSeq) { this.blockSeq = blockSeq; }
     
     public static class Builder {
         private final AuditEvent event = new AuditEvent();
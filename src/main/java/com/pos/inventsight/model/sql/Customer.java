@@ -45,6 +45,13 @@ public class Customer {
     @Column(name = "email")
     private String email;
     
+    // Lookup keys set by CustomerService: phone in E.164 form, email lowercased
+    @Column(name = "phone_normalized", length = 20)
+    private String phoneNormalized;
+    
+    @Column(name = "email_normalized", length = 100)
+    private String emailNormalized;
+    
     @NotNull(message = "Customer type is required")
     @Enumerated(EnumType.STRING)
     @Column(name = "customer_type", nullable = false)
@@ -170,6 +177,12 @@ public class Customer {
     public String getEmail() { return email; }
     public void setEmail(String email) { this.email = email; }
     
+    public String getPhoneNormalized() { return phoneNormalized; }
+    public void setPhoneNormalized(String phoneNormalized) { this.phoneNormalized = phoneNormalized; }
+    
+    public String getEmailNormalized() { return emailNormalized; }
+    public void setEmailNormalized(String emailNormalized) { this.emailNormalized = emailNormalized; }
+    
     public CustomerType getCustomerType() { return customerType; }
     public void setCustomerType(CustomerType customerType) { this.customerType = customerType; }
     
@@ -7,6 +7,9 @@ import java.util.UUID;
 /**
  * Entity for tracking idempotency keys for offline sync
  * Ensures duplicate requests are handled correctly
+ * 
+ * The table is partitioned by day of created_at; expired keys are removed by
+ * dropping whole partitions (see V49).
  */
 @Entity
 @Table(name = "idempotency_keys")
@@ -34,7 +37,12 @@ public class IdempotencyKey {
     @Column(name = "response_status")
     private Integer responseStatus;
     
-    @Column(name = "response_body", columnDefinition = "TEXT")
+    // Rows written before compression was introduced; read-only fallback
+    @Column(name = "response_body", columnDefinition = "TEXT", insertable = false, updatable = false)
+    private String legacyResponseBody;
+    
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "response_body_gz", columnDefinition = "BYTEA")
     private String responseBody;
     
     @Column(name = "created_at", nullable = false)
@@ -104,7 +112,7 @@ public class IdempotencyKey {
     }
     
     public String getResponseBody() {
-        return responseBody;
+        return responseBody != null ? responseBody : legacyResponseBody;
     }
     
     public void setResponseBody(String responseBody) {
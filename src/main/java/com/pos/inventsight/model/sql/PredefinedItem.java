@@ -1,6 +1,7 @@
 package com.pos.inventsight.model.sql;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.pos.inventsight.service.CatalogSearchIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -17,6 +18,7 @@ import java.util.UUID;
            name = "unique_item_per_company", 
            columnNames = {"company_id", "name", "unit_type"}
        ))
+@EntityListeners(CatalogSearchIndexListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class PredefinedItem {
     
@@ -1,6 +1,7 @@
 package com.pos.inventsight.model.sql;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.pos.inventsight.service.CatalogSearchIndexListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -17,6 +18,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "products")
+@EntityListeners(CatalogSearchIndexListener.class)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Product {
     
@@ -145,6 +145,7 @@ public class Receipt {
     }
     
     // Business Logic Methods
+    // Placeholder only; services assign the real number from ReceiptNumberService before saving
     private String generateReceiptNumber() {
         return "RCP-" + System.currentTimeMillis();
     }
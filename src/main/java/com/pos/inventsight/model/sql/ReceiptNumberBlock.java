@@ -0,0 +1,30 @@
+package com.pos.inventsight.model.sql;
+
+import jakarta.persistence.*;
+
+/**
+ * Last receipt number reserved for a scope (document type and store).
+ *
+ * Rows are only advanced by {@link com.pos.inventsight.repository.sql.ReceiptNumberBlockRepository#reserveBlock},
+ * which moves last_value forward by a whole block; the reserving node then issues
+ * those numbers from memory.
+ */
+@Entity
+@Table(name = "receipt_number_blocks")
+public class ReceiptNumberBlock {
+
+    @Id
+    @Column(name = "scope", length = 64)
+    private String scope;
+
+    @Column(name = "last_value", nullable = false)
+    private Long lastValue;
+
+    public ReceiptNumberBlock() {}
+
+    public String getScope() { return scope; }
+    public void setScope(String scope) { this.scope = scope; }
+
+    public Long getLastValue() { return lastValue; }
+    public void setLastValue(Long lastValue) { this.lastValue = lastValue; }
+}
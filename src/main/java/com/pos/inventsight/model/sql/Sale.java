@@ -144,6 +144,7 @@ public class Sale {
     }
     
     // Business Logic Methods
+    // Placeholder only; services assign the real number from ReceiptNumberService before saving
     private String generateReceiptNumber() {
         return "INV-" + System.currentTimeMillis();
     }
@@ -13,8 +13,11 @@ import java.math.BigDecimal;
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class SaleItem {
     
+    // Sequence IDs (pooled, 50 per round trip) let Hibernate batch the inserts of a receipt's lines;
+    // IDENTITY would force one INSERT per line at persist time
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sale_items_id_seq")
+    @SequenceGenerator(name = "sale_items_id_seq", sequenceName = "sale_items_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
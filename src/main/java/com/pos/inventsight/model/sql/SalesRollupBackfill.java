@@ -0,0 +1,68 @@
+package com.pos.inventsight.model.sql;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint for the sales daily rollup backfill
+ * Every day from coveredFrom onwards has been rebuilt from the sales table
+ */
+@Entity
+@Table(name = "sales_daily_rollup_backfill")
+public class SalesRollupBackfill {
+
+    @Id
+    @Column(name = "id", length = 50)
+    private String id;
+
+    @Column(name = "covered_from", nullable = false)
+    private LocalDate coveredFrom;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed = false;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public SalesRollupBackfill() {
+    }
+
+    public SalesRollupBackfill(String id, LocalDate coveredFrom) {
+        this.id = id;
+        this.coveredFrom = coveredFrom;
+    }
+
+    // Getters and setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public LocalDate getCoveredFrom() {
+        return coveredFrom;
+    }
+
+    public void setCoveredFrom(LocalDate coveredFrom) {
+        this.coveredFrom = coveredFrom;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -7,9 +7,15 @@ import java.util.UUID;
 /**
  * Entity for tracking changes for offline sync
  * Provides change feed for incremental synchronization
+ * 
+ * seq is the change's position in its tenant's feed. It is allocated from
+ * sync_sequences, whose row lock is held until commit, so changes become
+ * visible in seq order and the feed has no gaps.
  */
 @Entity
-@Table(name = "sync_changes")
+@Table(name = "sync_changes", uniqueConstraints = {
+    @UniqueConstraint(name = "uq_sync_changes_tenant_seq", columnNames = {"tenant_id", "seq"})
+})
 public class SyncChange {
     
     @Id
@@ -19,6 +25,9 @@ public class SyncChange {
     @Column(name = "tenant_id", nullable = false)
     private UUID tenantId;
     
+    @Column(name = "seq")
+    private Long seq;
+    
     @Column(name = "company_id")
     private UUID companyId;
     
@@ -60,6 +69,14 @@ public class SyncChange {
         this.tenantId = tenantId;
     }
     
+    public Long getSeq() {
+        return seq;
+    }
+    
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+    
     public UUID getCompanyId() {
         return companyId;
     }
@@ -0,0 +1,31 @@
+package com.pos.inventsight.model.sql;
+
+import jakarta.persistence.*;
+
+import java.util.UUID;
+
+/**
+ * Last sync feed seq allocated for a tenant.
+ *
+ * Rows are only advanced by {@link com.pos.inventsight.repository.sql.SyncChangeRepository#allocateSeq},
+ * whose row lock is held until the recording transaction commits.
+ */
+@Entity
+@Table(name = "sync_sequences")
+public class SyncSequence {
+
+    @Id
+    @Column(name = "tenant_id", columnDefinition = "UUID")
+    private UUID tenantId;
+
+    @Column(name = "last_seq", nullable = false)
+    private Long lastSeq;
+
+    public SyncSequence() {}
+
+    public UUID getTenantId() { return tenantId; }
+    public void setTenantId(UUID tenantId) { this.tenantId = tenantId; }
+
+    public Long getLastSeq() { return lastSeq; }
+    public void setLastSeq(Long lastSeq) { this.lastSeq = lastSeq; }
+}
@@ -18,9 +18,9 @@ import java.util.UUID;
  * instead of just IDs in JSON responses.
  * 
  * Performance Consideration:
- * EAGER fetch may cause N+1 queries when loading lists of TransferRequests. For high-volume operations,
- * consider using @EntityGraph, query-specific fetch joins, or DTOs with selective field projection.
- * The current approach prioritizes API response completeness for typical use cases.
+ * EAGER fetch may cause N+1 queries when loading lists of TransferRequests. The list endpoints therefore
+ * use the {@link com.pos.inventsight.dto.TransferRequestSummary} projection, which never loads the entity,
+ * and the detail endpoint loads the whole graph in one query with {@code TransferRequestRepository.findDetailById}.
  */
 @Entity
 @Table(name = "transfer_requests")
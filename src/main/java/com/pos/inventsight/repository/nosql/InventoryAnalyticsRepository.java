@@ -14,6 +14,8 @@ public interface InventoryAnalyticsRepository extends MongoRepository<InventoryA
     
     Optional<InventoryAnalytics> findByDateAndPeriod(LocalDate date, String period);
     
+    Optional<InventoryAnalytics> findByCompanyIdAndStoreIdAndDateAndPeriod(String companyId, String storeId, LocalDate date, String period);
+    
     List<InventoryAnalytics> findByPeriodOrderByDateDesc(String period);
     
     @Query("{ 'date' : { $gte: ?0, $lte: ?1 }, 'period': ?2 }")
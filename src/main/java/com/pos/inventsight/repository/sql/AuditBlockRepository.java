@@ -0,0 +1,28 @@
+package com.pos.inventsight.repository.sql;
+
+import com.pos.inventsight.model.sql.AuditBlock;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface AuditBlockRepository extends JpaRepository<AuditBlock, UUID> {
+
+    Optional<AuditBlock> findTopByOrderByBlockSeqDesc();
+
+    /**
+     * Keyset page of blocks overlapping the chain range fromSeq..toSeq, after a given block.
+     */
+    @Query("SELECT b FROM AuditBlock b WHERE b.blockSeq > :afterBlockSeq " +
+           "AND b.lastSeq >= :fromSeq AND b.firstSeq <= :toSeq ORDER BY b.blockSeq")
+    List<AuditBlock> findOverlappingAfter(@Param("afterBlockSeq") long afterBlockSeq,
+                                          @Param("fromSeq") long fromSeq,
+                                          @Param("toSeq") long toSeq,
+                                          Pageable pageable);
+}
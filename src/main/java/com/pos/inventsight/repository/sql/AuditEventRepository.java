@@ -5,10 +5,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -29,4 +31,15 @@ public interface AuditEventRepository extends JpaRepository<AuditEvent, UUID> {
     
     @Query("SELECT e FROM AuditEvent e ORDER BY e.createdAt DESC")
     List<AuditEvent> findLatestEvent(Pageable pageable);
+    
+    /**
+     * Head of the sequenced chain, if any event has been sequenced yet
+     */
+    Optional<AuditEvent> findTopByChainSeqNotNullOrderByChainSeqDesc();
+    
+    /**
+     * Keyset page of chain events with afterSeq < chainSeq <= toSeq, in chain order
+     */
+    @Query("SELECT e FROM AuditEvent e WHERE e.chainSeq > :afterSeq AND e.chainSeq <= :toSeq ORDER BY e.chainSeq")
+    List<AuditEvent> findChainPage(@Param("afterSeq") long afterSeq, @Param("toSeq") long toSeq, Pageable pageable);
 }
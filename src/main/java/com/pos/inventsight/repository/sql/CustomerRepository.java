@@ -86,6 +86,48 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
                                           @Param("searchTerm") String searchTerm, 
                                           Pageable pageable);
     
+    /**
+     * Find active customers by E.164 phone number
+     */
+    @EntityGraph(attributePaths = {"store", "createdByUser"})
+    List<Customer> findByCompanyAndPhoneNormalizedAndIsActiveTrue(Company company, String phoneNormalized);
+    
+    /**
+     * Find active customers by lowercased email
+     */
+    @EntityGraph(attributePaths = {"store", "createdByUser"})
+    List<Customer> findByCompanyAndEmailNormalizedAndIsActiveTrue(Company company, String emailNormalized);
+    
+    /**
+     * Find customers whose E.164 phone starts with phonePrefix, or whose name or lowercased
+     * email starts with textPrefix. Null prefixes match nothing; prefixes include the trailing '%'.
+     */
+    @Query("SELECT c FROM Customer c WHERE c.company = :company AND c.isActive = true " +
+           "AND (c.phoneNormalized LIKE :phonePrefix " +
+           "OR c.emailNormalized LIKE :textPrefix ESCAPE '\\' " +
+           "OR LOWER(c.name) LIKE :textPrefix ESCAPE '\\') " +
+           "ORDER BY c.name ASC")
+    @EntityGraph(attributePaths = {"store", "createdByUser"})
+    Page<Customer> searchCustomersByPrefix(@Param("company") Company company,
+                                           @Param("phonePrefix") String phonePrefix,
+                                           @Param("textPrefix") String textPrefix,
+                                           Pageable pageable);
+    
+    /**
+     * Prefix search filtered by store, see {@link #searchCustomersByPrefix}
+     */
+    @Query("SELECT c FROM Customer c WHERE c.company = :company AND c.store = :store AND c.isActive = true " +
+           "AND (c.phoneNormalized LIKE :phonePrefix " +
+           "OR c.emailNormalized LIKE :textPrefix ESCAPE '\\' " +
+           "OR LOWER(c.name) LIKE :textPrefix ESCAPE '\\') " +
+           "ORDER BY c.name ASC")
+    @EntityGraph(attributePaths = {"createdByUser"})
+    Page<Customer> searchCustomersByPrefixAndStore(@Param("company") Company company,
+                                                   @Param("store") Store store,
+                                                   @Param("phonePrefix") String phonePrefix,
+                                                   @Param("textPrefix") String textPrefix,
+                                                   Pageable pageable);
+    
     /**
      * Find customers by customer type with eager loading
      */
@@ -4,7 +4,9 @@ import com.pos.inventsight.model.sql.IdempotencyKey;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -13,9 +15,19 @@ import java.util.UUID;
 @Repository
 public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, UUID> {
     
-    Optional<IdempotencyKey> findByIdempotencyKeyAndTenantId(String idempotencyKey, UUID tenantId);
+    // The first stored response wins if two nodes raced to store the same key
+    Optional<IdempotencyKey> findFirstByIdempotencyKeyAndTenantIdOrderByCreatedAtAsc(String idempotencyKey, UUID tenantId);
     
+    @Transactional
     @Modifying
     @Query("DELETE FROM IdempotencyKey i WHERE i.expiresAt < :now")
     int deleteExpiredKeys(LocalDateTime now);
+    
+    /**
+     * Create upcoming day partitions and drop fully expired ones (PostgreSQL, see V49)
+     * @return number of partitions dropped
+     */
+    @Transactional
+    @Query(value = "SELECT idempotency_keys_maintain(:retentionHours, :daysAhead)", nativeQuery = true)
+    Integer maintainPartitions(@Param("retentionHours") int retentionHours, @Param("daysAhead") int daysAhead);
 }
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -48,6 +49,13 @@ public interface PredefinedItemRepository extends JpaRepository<PredefinedItem,
      */
     boolean existsByCompanyAndNameAndUnitType(Company company, String name, String unitType);
     
+    /**
+     * Find the (name, unit type) keys of a company's items with any of the given names.
+     * Returns [name, unitType] rows
+     */
+    @Query("SELECT p.name, p.unitType FROM PredefinedItem p WHERE p.company = :company AND p.name IN :names")
+    List<Object[]> findNameAndUnitTypeByCompanyAndNameIn(@Param("company") Company company, @Param("names") Collection<String> names);
+    
     /**
      * Find all active items for a company
      */
@@ -74,4 +82,17 @@ public interface PredefinedItemRepository extends JpaRepository<PredefinedItem,
      * Check if a SKU already exists
      */
     boolean existsBySku(String sku);
+    
+    /**
+     * Find which of the given SKUs already exist
+     */
+    @Query("SELECT p.sku FROM PredefinedItem p WHERE p.sku IN :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+    
+    /**
+     * Active items for the catalog search index.
+     * Returns [id, name, sku, category, companyId] rows
+     */
+    @Query("SELECT p.id, p.name, p.sku, p.category, p.company.id FROM PredefinedItem p WHERE p.isActive = true")
+    List<Object[]> findSearchIndexRows();
 }
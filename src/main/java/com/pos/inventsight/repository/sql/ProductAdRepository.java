@@ -42,4 +42,9 @@ public interface ProductAdRepository extends JpaRepository<ProductAd, UUID> {
      */
     @Query("SELECT pa FROM ProductAd pa WHERE LOWER(pa.productName) LIKE LOWER(CONCAT('%', :productName, '%')) AND pa.isActive = true")
     List<ProductAd> searchByProductName(@Param("productName") String productName);
+    
+    /**
+     * Whether another ad uses the same image (uploads are stored by content hash)
+     */
+    boolean existsByImageUrlAndIdNot(String imageUrl, UUID id);
 }
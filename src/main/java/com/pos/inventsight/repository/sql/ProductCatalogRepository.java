@@ -0,0 +1,130 @@
+package com.pos.inventsight.repository.sql;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Filtered, sorted product listing for {@link com.pos.inventsight.model.sql.Product}.
+ *
+ * Rows are scalar projections of the columns a product listing shows, not managed
+ * entities. Pages are ordered by {@code (sortKey, id)} so they can be continued with a
+ * seek predicate instead of an offset.
+ */
+public interface ProductCatalogRepository {
+
+    /**
+     * Columns of each row returned by {@link #findCatalogPage}, in order; the sort key value follows them
+     */
+    List<String> CATALOG_COLUMNS = List.of(
+        "id", "name", "description", "sku", "category", "price", "retailPrice", "costPrice",
+        "quantity", "maxQuantity", "unit", "supplier", "location", "barcode", "expiryDate",
+        "lowStockThreshold", "reorderLevel", "isActive", "createdAt", "updatedAt", "createdBy", "updatedBy");
+
+    /**
+     * One page of active products in stores of the given companies, optionally limited to one store
+     *
+     * @param offset rows to skip; only used when the filter has no seek position
+     * @return {@link #CATALOG_COLUMNS} values followed by the sort key value
+     */
+    List<Object[]> findCatalogPage(CatalogFilter filter, int offset, int limit);
+
+    /**
+     * Number of products matching the filter, ignoring its seek position
+     */
+    long countCatalog(CatalogFilter filter);
+
+    /**
+     * Sortable columns. Nullable text and number columns sort on a coalesced value so the
+     * seek predicate and ORDER BY agree; nullable timestamps sort their nulls last in both
+     * directions and the seek continues into them.
+     */
+    enum SortKey {
+        NAME("p.name", false),
+        SKU("COALESCE(p.sku, '')", false),
+        CATEGORY("COALESCE(p.category, '')", false),
+        SUPPLIER("COALESCE(p.supplier, '')", false),
+        PRICE("COALESCE(p.price, 0)", false),
+        QUANTITY("COALESCE(p.quantity, 0)", false),
+        CREATED_AT("p.createdAt", true),
+        UPDATED_AT("p.updatedAt", true);
+
+        private final String expression;
+        private final boolean nullable;
+
+        SortKey(String expression, boolean nullable) {
+            this.expression = expression;
+            this.nullable = nullable;
+        }
+
+        public String getExpression() {
+            return expression;
+        }
+
+        public boolean isNullable() {
+            return nullable;
+        }
+
+        /**
+         * Sort key for a request's sortBy property, defaulting to name
+         */
+        public static SortKey fromProperty(String property) {
+            if (property != null) {
+                String normalized = property.replace("_", "").toLowerCase();
+                for (SortKey key : values()) {
+                    if (key.name().replace("_", "").toLowerCase().equals(normalized)) {
+                        return key;
+                    }
+                }
+            }
+            return NAME;
+        }
+    }
+
+    /**
+     * Predicates, order and seek position of a catalog query. Null predicates are not applied.
+     */
+    class CatalogFilter {
+        private final Set<UUID> companyIds;
+        private UUID storeId;
+        private String category;
+        private String supplier;
+        private String search;
+        private SortKey sortKey = SortKey.NAME;
+        private boolean descending;
+        private Object afterValue;
+        private UUID afterId;
+
+        public CatalogFilter(Set<UUID> companyIds) {
+            this.companyIds = companyIds;
+        }
+
+        public Set<UUID> getCompanyIds() { return companyIds; }
+        public UUID getStoreId() { return storeId; }
+        public void setStoreId(UUID storeId) { this.storeId = storeId; }
+        public String getCategory() { return category; }
+        public void setCategory(String category) { this.category = category; }
+        public String getSupplier() { return supplier; }
+        public void setSupplier(String supplier) { this.supplier = supplier; }
+        public String getSearch() { return search; }
+        public void setSearch(String search) { this.search = search; }
+        public SortKey getSortKey() { return sortKey; }
+        public void setSortKey(SortKey sortKey) { this.sortKey = sortKey; }
+        public boolean isDescending() { return descending; }
+        public void setDescending(boolean descending) { this.descending = descending; }
+        public Object getAfterValue() { return afterValue; }
+        public UUID getAfterId() { return afterId; }
+
+        /**
+         * Continue after the row with this sort key value (null if the row had none) and ID
+         */
+        public void seekAfter(Object value, UUID id) {
+            this.afterValue = value;
+            this.afterId = id;
+        }
+
+        public boolean isSeek() {
+            return afterId != null;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.pos.inventsight.repository.sql;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.List;
+
+/**
+ * JPQL implementation of {@link ProductCatalogRepository}.
+ *
+ * The WHERE clause only contains the predicates a request actually uses, so the
+ * planner sees no {@code :param IS NULL OR ...} branches. The seek position is a row
+ * comparison on {@code (sortKey, id)}, which the (name, id) indexes can range-scan.
+ */
+public class ProductCatalogRepositoryImpl implements ProductCatalogRepository {
+
+    private static final String SELECT_COLUMNS;
+
+    static {
+        StringBuilder columns = new StringBuilder();
+        for (String column : CATALOG_COLUMNS) {
+            columns.append("p.").append(column).append(", ");
+        }
+        SELECT_COLUMNS = columns.toString();
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findCatalogPage(CatalogFilter filter, int offset, int limit) {
+        String key = filter.getSortKey().getExpression();
+        String direction = filter.isDescending() ? " DESC" : " ASC";
+        StringBuilder jpql = new StringBuilder("SELECT ").append(SELECT_COLUMNS).append(key)
+            .append(" FROM Product p JOIN p.store s");
+        appendWhere(jpql, filter);
+        boolean nullable = filter.getSortKey().isNullable();
+        if (filter.isSeek()) {
+            String comparison = filter.isDescending() ? " < " : " > ";
+            if (filter.getAfterValue() == null) {
+                // Past the last non-null value: only the trailing null rows remain
+                jpql.append(" AND ").append(key).append(" IS NULL AND p.id").append(comparison).append(":afterId");
+            } else {
+                jpql.append(" AND ((").append(key).append(", p.id)").append(comparison).append("(:afterValue, :afterId)");
+                if (nullable) {
+                    jpql.append(" OR ").append(key).append(" IS NULL");
+                }
+                jpql.append(")");
+            }
+        }
+        jpql.append(" ORDER BY ").append(key).append(direction);
+        if (nullable) {
+            jpql.append(" NULLS LAST");
+        }
+        jpql.append(", p.id").append(direction);
+
+        Query query = entityManager.createQuery(jpql.toString());
+        bind(query, filter);
+        if (filter.isSeek()) {
+            if (filter.getAfterValue() != null) {
+                query.setParameter("afterValue", filter.getAfterValue());
+            }
+            query.setParameter("afterId", filter.getAfterId());
+        } else if (offset > 0) {
+            query.setFirstResult(offset);
+        }
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public long countCatalog(CatalogFilter filter) {
+        StringBuilder jpql = new StringBuilder("SELECT COUNT(p) FROM Product p JOIN p.store s");
+        appendWhere(jpql, filter);
+        Query query = entityManager.createQuery(jpql.toString());
+        bind(query, filter);
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    private void appendWhere(StringBuilder jpql, CatalogFilter filter) {
+        jpql.append(" WHERE s.company.id IN :companyIds AND p.isActive = true");
+        if (filter.getStoreId() != null) {
+            jpql.append(" AND s.id = :storeId");
+        }
+        if (filter.getCategory() != null) {
+            jpql.append(" AND p.category = :category");
+        }
+        if (filter.getSupplier() != null) {
+            jpql.append(" AND p.supplier = :supplier");
+        }
+        if (filter.getSearch() != null) {
+            jpql.append(" AND (LOWER(p.name) LIKE :search OR LOWER(p.description) LIKE :search" +
+                " OR LOWER(p.category) LIKE :search OR LOWER(p.sku) LIKE :search)");
+        }
+    }
+
+    private void bind(Query query, CatalogFilter filter) {
+        query.setParameter("companyIds", filter.getCompanyIds());
+        if (filter.getStoreId() != null) {
+            query.setParameter("storeId", filter.getStoreId());
+        }
+        if (filter.getCategory() != null) {
+            query.setParameter("category", filter.getCategory());
+        }
+        if (filter.getSupplier() != null) {
+            query.setParameter("supplier", filter.getSupplier());
+        }
+        if (filter.getSearch() != null) {
+            query.setParameter("search", "%" + filter.getSearch().toLowerCase() + "%");
+        }
+    }
+}
@@ -14,13 +14,14 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductStockRepository, ProductCatalogRepository {
     
     /**
      * @deprecated Use {@link #findBySkuAndStoreId(String, UUID)} or {@link #findBySkuAndWarehouseId(String, UUID)} instead.
@@ -52,6 +53,20 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     @Query("SELECT p FROM Product p WHERE p.sku = :sku ORDER BY p.createdAt DESC")
     List<Product> findAllBySku(@Param("sku") String sku);
     
+    /**
+     * Current stock levels as (id, name, quantity, lowStockThreshold, reorderLevel) rows.
+     * Scalar projection, so values always come from the database rather than the persistence context.
+     */
+    @Query("SELECT p.id, p.name, p.quantity, p.lowStockThreshold, p.reorderLevel FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findStockLevels(@Param("ids") Collection<UUID> ids);
+    
+    /**
+     * The given products that belong to one of the companies, directly or through their store
+     */
+    @Query("SELECT p.id FROM Product p LEFT JOIN p.store s " +
+           "WHERE p.id IN :ids AND (p.company.id IN :companyIds OR s.company.id IN :companyIds)")
+    List<UUID> findIdsInCompanies(@Param("ids") Collection<UUID> ids, @Param("companyIds") Collection<UUID> companyIds);
+    
     // Multi-tenant aware queries
     Optional<Product> findBySkuAndStore(String sku, Store store);
     Optional<Product> findByBarcodeAndStore(String barcode, Store store);
@@ -124,6 +139,17 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     
     @Query("SELECT COUNT(p) FROM Product p WHERE p.store = :store AND p.isActive = true")
     long countActiveProductsByStore(@Param("store") Store store);
+
+    /**
+     * Active product count and low stock count in one scan: a single row of [count, lowStockCount]
+     */
+    @Query("SELECT COUNT(p), COALESCE(SUM(CASE WHEN p.quantity <= p.lowStockThreshold THEN 1 ELSE 0 END), 0) " +
+           "FROM Product p WHERE p.isActive = true")
+    List<Object[]> getActiveStockSummary();
+
+    @Query("SELECT COUNT(p), COALESCE(SUM(CASE WHEN p.quantity <= p.lowStockThreshold THEN 1 ELSE 0 END), 0) " +
+           "FROM Product p WHERE p.store = :store AND p.isActive = true")
+    List<Object[]> getActiveStockSummaryByStore(@Param("store") Store store);
     
     @Query("SELECT SUM(p.quantity * p.price) FROM Product p WHERE p.isActive = true")
     BigDecimal getTotalInventoryValue();
@@ -143,6 +169,18 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     @Query("SELECT p.category, COUNT(p) FROM Product p WHERE p.isActive = true AND p.category IS NOT NULL GROUP BY p.category ORDER BY COUNT(p) DESC")
     List<Object[]> getTopCategoriesByProductCount();
     
+    /**
+     * Per-store inventory snapshot in one pass
+     * Returns list of [storeId, activeProducts, inventoryValue, lowStockCount, outOfStockCount]
+     */
+    @Query("SELECT p.store.id, COUNT(p), " +
+           "COALESCE(SUM(p.quantity * p.retailPrice), 0), " +
+           "SUM(CASE WHEN p.quantity <= p.lowStockThreshold THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN p.quantity = 0 THEN 1 ELSE 0 END) " +
+           "FROM Product p WHERE p.isActive = true AND p.store IS NOT NULL " +
+           "GROUP BY p.store.id")
+    List<Object[]> getStoreInventorySnapshot();
+    
     // Find product by predefined item and store
     Optional<Product> findByPredefinedItemAndStore(PredefinedItem predefinedItem, Store store);
     
@@ -169,6 +207,28 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     @Query("SELECT p FROM Product p WHERE p.store.id = :storeId AND p.isActive = true ORDER BY p.name ASC")
     List<Product> findByStoreId(@Param("storeId") UUID storeId);
     
+    /**
+     * Keyset page of low-stock products in a store (quantity below threshold), ordered by ID
+     */
+    @Query("SELECT p FROM Product p WHERE p.store.id = :storeId AND p.isActive = true " +
+           "AND p.quantity < p.lowStockThreshold AND p.id > :afterId ORDER BY p.id ASC")
+    List<Product> findLowStockByStoreIdAfter(@Param("storeId") UUID storeId, @Param("afterId") UUID afterId, Pageable pageable);
+    
+    /**
+     * Keyset page of low-stock products in a warehouse (quantity below threshold), ordered by ID
+     */
+    @Query("SELECT p FROM Product p WHERE p.warehouse.id = :warehouseId AND p.isActive = true " +
+           "AND p.quantity < p.lowStockThreshold AND p.id > :afterId ORDER BY p.id ASC")
+    List<Product> findLowStockByWarehouseIdAfter(@Param("warehouseId") UUID warehouseId, @Param("afterId") UUID afterId, Pageable pageable);
+    
+    /**
+     * Warehouse stock for a set of SKUs within a company.
+     * Returns [sku, warehouseId, warehouseName, quantity] rows
+     */
+    @Query("SELECT p.sku, w.id, w.name, p.quantity FROM Product p JOIN p.warehouse w " +
+           "WHERE p.company.id = :companyId AND p.sku IN :skus AND p.quantity > 0")
+    List<Object[]> findWarehouseStockBySkus(@Param("companyId") UUID companyId, @Param("skus") Collection<String> skus);
+    
     // Store-based filtering with company isolation
     @Query("SELECT p FROM Product p WHERE p.store.id = :storeId AND p.company.id IN :companyIds AND p.isActive = true")
     Page<Product> findByStoreIdAndCompanyIdIn(@Param("storeId") UUID storeId, @Param("companyIds") Set<UUID> companyIds, Pageable pageable);
@@ -308,4 +368,18 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
         ORDER BY COALESCE(SUM(si.quantity), 0) DESC
         """)
     List<Product> findTopSelling(Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Active products for the catalog search index.
+     * Returns [id, name, sku, category, companyId, storeCompanyId, storeId, warehouseId] rows
+     */
+    @Query("""
+        SELECT p.id, p.name, p.sku, p.category, c.id, sc.id, s.id, w.id FROM Product p
+        LEFT JOIN p.company c
+        LEFT JOIN p.store s
+        LEFT JOIN s.company sc
+        LEFT JOIN p.warehouse w
+        WHERE p.isActive = true
+        """)
+    List<Object[]> findSearchIndexRows();
+}
@@ -0,0 +1,46 @@
+package com.pos.inventsight.repository.sql;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Set-based stock mutations for {@link com.pos.inventsight.model.sql.Product}.
+ *
+ * Every method issues a single conditional UPDATE covering all products in the
+ * map, so the database applies the change atomically without a prior read and
+ * without relying on the (stale) quantity held by the persistence context.
+ */
+public interface ProductStockRepository {
+
+    /**
+     * Decrement quantity and increment total sales for every product in one statement.
+     * A row is only updated when its current quantity covers the requested amount.
+     *
+     * @param quantities product ID to quantity to remove (all values must be positive)
+     * @return number of rows updated; less than {@code quantities.size()} means at least one product was short
+     */
+    int decrementStock(Map<UUID, Integer> quantities, LocalDateTime now);
+
+    /**
+     * Decrement quantity without touching sales figures (damage, loss, manual withdrawals).
+     * A row is only updated when its current quantity covers the requested amount.
+     *
+     * @return number of rows updated
+     */
+    int withdrawStock(Map<UUID, Integer> quantities, LocalDateTime now);
+
+    /**
+     * Increment quantity for every product in one statement (restocks).
+     *
+     * @return number of rows updated
+     */
+    int incrementStock(Map<UUID, Integer> quantities, LocalDateTime now);
+
+    /**
+     * Return sold units to stock in one statement, reversing the total sales counter (refunds).
+     *
+     * @return number of rows updated
+     */
+    int returnStock(Map<UUID, Integer> quantities, LocalDateTime now);
+}
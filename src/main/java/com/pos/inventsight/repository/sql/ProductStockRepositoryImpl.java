@@ -0,0 +1,121 @@
+package com.pos.inventsight.repository.sql;
+
+import com.pos.inventsight.model.sql.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Hibernate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JPQL implementation of {@link ProductStockRepository}.
+ *
+ * Per-product amounts are folded into a single {@code CASE p.id WHEN ... END}
+ * expression so a whole basket is applied with one round-trip. Bulk updates bypass
+ * the persistence context, so products already loaded in it are refreshed afterwards.
+ */
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int decrementStock(Map<UUID, Integer> quantities, LocalDateTime now) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+        String amount = caseExpression(quantities.size());
+        String jpql = "UPDATE Product p SET " +
+            "p.quantity = p.quantity - " + amount + ", " +
+            "p.totalSales = COALESCE(p.totalSales, 0) + " + amount + ", " +
+            "p.lastSoldDate = :now, p.updatedAt = :now " +
+            "WHERE p.id IN :ids AND p.quantity >= " + amount;
+        return execute(jpql, quantities, now);
+    }
+
+    @Override
+    public int withdrawStock(Map<UUID, Integer> quantities, LocalDateTime now) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+        String amount = caseExpression(quantities.size());
+        String jpql = "UPDATE Product p SET " +
+            "p.quantity = p.quantity - " + amount + ", " +
+            "p.updatedAt = :now " +
+            "WHERE p.id IN :ids AND p.quantity >= " + amount;
+        return execute(jpql, quantities, now);
+    }
+
+    @Override
+    public int incrementStock(Map<UUID, Integer> quantities, LocalDateTime now) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+        String amount = caseExpression(quantities.size());
+        String jpql = "UPDATE Product p SET " +
+            "p.quantity = COALESCE(p.quantity, 0) + " + amount + ", " +
+            "p.updatedAt = :now " +
+            "WHERE p.id IN :ids";
+        return execute(jpql, quantities, now);
+    }
+
+    @Override
+    public int returnStock(Map<UUID, Integer> quantities, LocalDateTime now) {
+        if (quantities.isEmpty()) {
+            return 0;
+        }
+        String amount = caseExpression(quantities.size());
+        String jpql = "UPDATE Product p SET " +
+            "p.quantity = COALESCE(p.quantity, 0) + " + amount + ", " +
+            "p.totalSales = CASE WHEN COALESCE(p.totalSales, 0) > " + amount +
+            " THEN COALESCE(p.totalSales, 0) - " + amount + " ELSE 0 END, " +
+            "p.updatedAt = :now " +
+            "WHERE p.id IN :ids";
+        return execute(jpql, quantities, now);
+    }
+
+    private int execute(String jpql, Map<UUID, Integer> quantities, LocalDateTime now) {
+        Query query = entityManager.createQuery(jpql);
+        List<UUID> ids = new ArrayList<>(quantities.keySet());
+        for (int i = 0; i < ids.size(); i++) {
+            UUID id = ids.get(i);
+            query.setParameter("id" + i, id);
+            query.setParameter("qty" + i, quantities.get(id));
+        }
+        query.setParameter("ids", ids);
+        query.setParameter("now", now);
+        int updated = query.executeUpdate();
+        refreshLoaded(ids);
+        return updated;
+    }
+
+    /**
+     * Re-read products that are already loaded so later reads in this transaction see
+     * the updated quantities; products not yet loaded are left alone
+     */
+    private void refreshLoaded(List<UUID> ids) {
+        for (UUID id : ids) {
+            Product product = entityManager.getReference(Product.class, id);
+            if (Hibernate.isInitialized(product)) {
+                entityManager.refresh(product);
+            }
+        }
+    }
+
+    /**
+     * Builds {@code CASE p.id WHEN :id0 THEN :qty0 ... END}. Parameters are bound
+     * in {@link #execute} in the map's iteration order.
+     */
+    private String caseExpression(int size) {
+        StringBuilder sb = new StringBuilder("CASE p.id");
+        for (int i = 0; i < size; i++) {
+            sb.append(" WHEN :id").append(i).append(" THEN :qty").append(i);
+        }
+        return sb.append(" ELSE 0 END").toString();
+    }
+}
@@ -0,0 +1,32 @@
+package com.pos.inventsight.repository.sql;
+
+import com.pos.inventsight.model.sql.ReceiptNumberBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReceiptNumberBlockRepository extends JpaRepository<ReceiptNumberBlock, String> {
+    
+    /**
+     * Reserve the next count numbers of a scope and return the last one.
+     * The row stays locked until the calling transaction ends, so call it in a short transaction.
+     */
+    @Query(value = "INSERT INTO receipt_number_blocks (scope, last_value) VALUES (:scope, :count) " +
+                   "ON CONFLICT (scope) DO UPDATE SET last_value = receipt_number_blocks.last_value + :count " +
+                   "RETURNING last_value", nativeQuery = true)
+    Long reserveBlock(@Param("scope") String scope, @Param("count") int count);
+    
+    @Query(value = "SELECT last_value FROM receipt_number_blocks WHERE scope = :scope", nativeQuery = true)
+    Long findLastValue(@Param("scope") String scope);
+    
+    /**
+     * Create a scope holding a fixed value unless another node already created it
+     */
+    @Modifying
+    @Query(value = "INSERT INTO receipt_number_blocks (scope, last_value) VALUES (:scope, :value) " +
+                   "ON CONFLICT (scope) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("scope") String scope, @Param("value") long value);
+}
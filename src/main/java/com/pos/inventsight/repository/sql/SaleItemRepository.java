@@ -31,6 +31,22 @@ public interface SaleItemRepository extends JpaRepository<SaleItem, Long> {
     @Query("SELECT COUNT(si) FROM SaleItem si WHERE si.sale.createdAt >= :startDate AND si.sale.createdAt <= :endDate")
     long countItemsSoldInDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
+    /**
+     * Per-store units sold for a time window (start inclusive, end exclusive)
+     * Returns list of [storeId, totalQuantity]
+     */
+    @Query("SELECT s.store.id, COALESCE(SUM(si.quantity), 0) " +
+           "FROM SaleItem si " +
+           "JOIN si.sale s " +
+           "WHERE s.createdAt >= :startDate AND s.createdAt < :endDate " +
+           "AND s.status IN :statuses " +
+           "GROUP BY s.store.id")
+    List<Object[]> getStoreItemsSold(
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        @Param("statuses") List<SaleStatus> statuses
+    );
+    
     /**
      * Find best performing product by total quantity sold (includes PENDING, PAID, COMPLETED, etc.)
      * Returns: [productName, totalQuantity, totalRevenue]
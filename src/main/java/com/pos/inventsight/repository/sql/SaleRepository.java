@@ -167,6 +167,44 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
      */
     Long countByStatusIn(List<SaleStatus> statuses);
 
+    /**
+     * Count and revenue for sales with any of the given statuses in one scan
+     * Returns a single row of [count, revenue]
+     */
+    @Query("SELECT COUNT(s), COALESCE(SUM(s.totalAmount), 0) FROM Sale s WHERE s.status IN :statuses")
+    List<Object[]> getTotalsByStatuses(@Param("statuses") List<SaleStatus> statuses);
+
+    /**
+     * Sale count and revenue per calendar day for the given statuses (start inclusive, end exclusive)
+     * Returns list of [date, count, revenue]; days without sales are omitted
+     */
+    @Query("SELECT CAST(s.createdAt AS LocalDate), COUNT(s), COALESCE(SUM(s.totalAmount), 0) FROM Sale s " +
+           "WHERE s.status IN :statuses AND s.createdAt >= :startDate AND s.createdAt < :endDate " +
+           "GROUP BY CAST(s.createdAt AS LocalDate)")
+    List<Object[]> getDailySalesTotals(
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        @Param("statuses") List<SaleStatus> statuses
+    );
+
+    /**
+     * Sale count and revenue for the given statuses in one scan (start inclusive, end exclusive)
+     * Returns a single row of [count, revenue]
+     */
+    @Query("SELECT COUNT(s), COALESCE(SUM(s.totalAmount), 0) FROM Sale s " +
+           "WHERE s.status IN :statuses AND s.createdAt >= :startDate AND s.createdAt < :endDate")
+    List<Object[]> getTotalsByDateRangeAndStatuses(
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        @Param("statuses") List<SaleStatus> statuses
+    );
+
+    /**
+     * Creation time of the oldest sale, or null when there are none
+     */
+    @Query("SELECT MIN(s.createdAt) FROM Sale s")
+    LocalDateTime findEarliestCreatedAt();
+
     /**
      * Count sales by single status (for debugging)
      */
@@ -202,6 +240,20 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
         @Param("statuses") List<SaleStatus> statuses
     );
 
+    /**
+     * Per-store sale count and revenue for a time window (start inclusive, end exclusive)
+     * Returns list of [companyId, storeId, count, revenue]
+     */
+    @Query("SELECT s.company.id, s.store.id, COUNT(s), COALESCE(SUM(s.totalAmount), 0) FROM Sale s " +
+           "WHERE s.createdAt >= :startDate AND s.createdAt < :endDate " +
+           "AND s.status IN :statuses " +
+           "GROUP BY s.company.id, s.store.id")
+    List<Object[]> getStoreSalesTotals(
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate,
+        @Param("statuses") List<SaleStatus> statuses
+    );
+
     /**
      * Find recent sales ordered by creation date (newest first)
      */
@@ -0,0 +1,43 @@
+package com.pos.inventsight.repository.sql;
+
+import com.pos.inventsight.model.sql.SaleStatus;
+import com.pos.inventsight.model.sql.SalesDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollup, UUID>, SalesRollupWriter {
+
+    /**
+     * Sale count and revenue across all stores for a day range (both inclusive)
+     * Returns a single row of [count, revenue]
+     */
+    @Query("SELECT COALESCE(SUM(r.saleCount), 0), COALESCE(SUM(r.revenue), 0) " +
+           "FROM SalesDailyRollup r " +
+           "WHERE r.saleDate >= :fromDate AND r.saleDate <= :toDate AND r.status IN :statuses")
+    List<Object[]> getTotals(
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate,
+        @Param("statuses") List<SaleStatus> statuses
+    );
+
+    /**
+     * Per-day sale count and revenue across all stores (both ends inclusive)
+     * Returns list of [date, count, revenue]; days without rows are omitted
+     */
+    @Query("SELECT r.saleDate, COALESCE(SUM(r.saleCount), 0), COALESCE(SUM(r.revenue), 0) " +
+           "FROM SalesDailyRollup r " +
+           "WHERE r.saleDate >= :fromDate AND r.saleDate <= :toDate AND r.status IN :statuses " +
+           "GROUP BY r.saleDate")
+    List<Object[]> getDailyTotals(
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate,
+        @Param("statuses") List<SaleStatus> statuses
+    );
+}
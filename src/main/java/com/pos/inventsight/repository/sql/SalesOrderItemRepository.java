@@ -1,5 +1,6 @@
 package com.pos.inventsight.repository.sql;
 
+import com.pos.inventsight.model.sql.OrderStatus;
 import com.pos.inventsight.model.sql.SalesOrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -58,6 +59,14 @@ public interface SalesOrderItemRepository extends JpaRepository<SalesOrderItem,
     java.math.BigDecimal calculateRevenueForPeriod(@Param("startDate") LocalDateTime startDate, 
                                                      @Param("endDate") LocalDateTime endDate);
     
+    /**
+     * Calculate total revenue of orders in any of the given statuses
+     */
+    @Query("SELECT COALESCE(SUM(soi.quantity * soi.unitPrice * (1 - COALESCE(soi.discountPercent, 0) / 100)), 0) " +
+           "FROM SalesOrderItem soi " +
+           "WHERE soi.order.status IN :statuses")
+    java.math.BigDecimal calculateRevenueForOrderStatuses(@Param("statuses") List<OrderStatus> statuses);
+    
     /**
      * Get sales data grouped by date for chart
      */
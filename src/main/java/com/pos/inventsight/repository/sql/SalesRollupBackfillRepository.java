@@ -0,0 +1,9 @@
+package com.pos.inventsight.repository.sql;
+
+import com.pos.inventsight.model.sql.SalesRollupBackfill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SalesRollupBackfillRepository extends JpaRepository<SalesRollupBackfill, String> {
+}
@@ -0,0 +1,33 @@
+package com.pos.inventsight.repository.sql;
+
+import com.pos.inventsight.model.sql.SaleStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Writes to {@link com.pos.inventsight.model.sql.SalesDailyRollup}.
+ *
+ * Both methods run in their own transaction: transitions are applied after the
+ * sale transaction has committed, and a day rebuild must not be rolled back by
+ * a caller's failure.
+ */
+public interface SalesRollupWriter {
+
+    /**
+     * Move one sale from one status row of its day to another.
+     * A null {@code from} records a new sale; a null {@code to} removes one.
+     * Missing rows are created; a concurrent first insert surfaces as a
+     * {@link org.springframework.dao.DataIntegrityViolationException} and can be retried.
+     */
+    void applyTransition(UUID companyId, UUID storeId, LocalDate day,
+                         SaleStatus from, SaleStatus to, long items, BigDecimal revenue);
+
+    /**
+     * Replace every row of a day with totals recomputed from sales and sale items.
+     *
+     * @return number of rows written
+     */
+    int rebuildDay(LocalDate day);
+}
@@ -0,0 +1,116 @@
+package com.pos.inventsight.repository.sql;
+
+import com.pos.inventsight.model.sql.SaleStatus;
+import com.pos.inventsight.model.sql.SalesDailyRollup;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JPQL implementation of {@link SalesRollupWriter}.
+ *
+ * A transition is an in-place increment of at most two existing rows; a row is
+ * only inserted the first time a store sees a status on a given day.
+ */
+public class SalesRollupWriterImpl implements SalesRollupWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void applyTransition(UUID companyId, UUID storeId, LocalDate day,
+                                SaleStatus from, SaleStatus to, long items, BigDecimal revenue) {
+        LocalDateTime now = LocalDateTime.now();
+        // Touch rows in a fixed order so two transitions on the same store-day cannot deadlock
+        if (from != null && to != null && from.ordinal() > to.ordinal()) {
+            add(companyId, storeId, day, to, 1, items, revenue, now);
+            add(companyId, storeId, day, from, -1, -items, revenue.negate(), now);
+            return;
+        }
+        if (from != null) {
+            add(companyId, storeId, day, from, -1, -items, revenue.negate(), now);
+        }
+        if (to != null) {
+            add(companyId, storeId, day, to, 1, items, revenue, now);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int rebuildDay(LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        LocalDateTime now = LocalDateTime.now();
+
+        entityManager.createQuery("DELETE FROM SalesDailyRollup r WHERE r.saleDate = :day")
+            .setParameter("day", day)
+            .executeUpdate();
+
+        Map<String, Long> itemsByStoreStatus = new HashMap<>();
+        List<Object[]> itemRows = entityManager.createQuery(
+                "SELECT s.store.id, s.status, COALESCE(SUM(si.quantity), 0) FROM SaleItem si JOIN si.sale s " +
+                "WHERE s.createdAt >= :start AND s.createdAt < :end AND s.status IS NOT NULL " +
+                "GROUP BY s.store.id, s.status", Object[].class)
+            .setParameter("start", start)
+            .setParameter("end", end)
+            .getResultList();
+        for (Object[] row : itemRows) {
+            itemsByStoreStatus.put(row[0] + ":" + row[1], ((Number) row[2]).longValue());
+        }
+
+        List<Object[]> saleRows = entityManager.createQuery(
+                "SELECT s.company.id, s.store.id, s.status, COUNT(s), COALESCE(SUM(s.totalAmount), 0) FROM Sale s " +
+                "WHERE s.createdAt >= :start AND s.createdAt < :end AND s.status IS NOT NULL " +
+                "GROUP BY s.company.id, s.store.id, s.status", Object[].class)
+            .setParameter("start", start)
+            .setParameter("end", end)
+            .getResultList();
+        for (Object[] row : saleRows) {
+            SalesDailyRollup rollup = new SalesDailyRollup((UUID) row[0], (UUID) row[1], day, (SaleStatus) row[2]);
+            rollup.setSaleCount(((Number) row[3]).longValue());
+            rollup.setItemCount(itemsByStoreStatus.getOrDefault(row[1] + ":" + row[2], 0L));
+            rollup.setRevenue((BigDecimal) row[4]);
+            rollup.setUpdatedAt(now);
+            entityManager.persist(rollup);
+        }
+        return saleRows.size();
+    }
+
+    private void add(UUID companyId, UUID storeId, LocalDate day, SaleStatus status,
+                     long sales, long items, BigDecimal revenue, LocalDateTime now) {
+        int updated = entityManager.createQuery(
+                "UPDATE SalesDailyRollup r SET " +
+                "r.saleCount = r.saleCount + :sales, " +
+                "r.itemCount = r.itemCount + :items, " +
+                "r.revenue = r.revenue + :revenue, " +
+                "r.updatedAt = :now " +
+                "WHERE r.storeId = :storeId AND r.saleDate = :day AND r.status = :status")
+            .setParameter("sales", sales)
+            .setParameter("items", items)
+            .setParameter("revenue", revenue)
+            .setParameter("now", now)
+            .setParameter("storeId", storeId)
+            .setParameter("day", day)
+            .setParameter("status", status)
+            .executeUpdate();
+        if (updated == 0) {
+            SalesDailyRollup rollup = new SalesDailyRollup(companyId, storeId, day, status);
+            rollup.setSaleCount(sales);
+            rollup.setItemCount(items);
+            rollup.setRevenue(revenue);
+            rollup.setUpdatedAt(now);
+            entityManager.persist(rollup);
+            entityManager.flush();
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -48,4 +49,10 @@ public interface StoreRepository extends JpaRepository<Store, UUID> {
      */
     @Query("SELECT s FROM Store s JOIN FETCH s.company WHERE s.id = :id")
     Optional<Store> findByIdWithCompany(@Param("id") UUID id);
+    
+    /**
+     * Find stores by IDs with company eagerly loaded
+     */
+    @Query("SELECT s FROM Store s JOIN FETCH s.company WHERE s.id IN :ids")
+    List<Store> findAllByIdWithCompany(@Param("ids") Collection<UUID> ids);
 }
\ No newline at end of file
@@ -1,19 +1,40 @@
 package com.pos.inventsight.repository.sql;
 
 import com.pos.inventsight.model.sql.SyncChange;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface SyncChangeRepository extends JpaRepository<SyncChange, UUID> {
     
-    Page<SyncChange> findByTenantIdAndChangedAtAfterOrderByChangedAtAsc(
-        UUID tenantId, LocalDateTime since, Pageable pageable);
+    /**
+     * Keyset page of a tenant's feed; returns a List so no COUNT query is run
+     */
+    List<SyncChange> findByTenantIdAndSeqGreaterThanOrderBySeqAsc(UUID tenantId, Long afterSeq, Pageable pageable);
     
-    Page<SyncChange> findByTenantIdOrderByChangedAtDesc(UUID tenantId, Pageable pageable);
+    /**
+     * First seq recorded after a timestamp, for clients still sending ISO-8601 watermarks
+     */
+    @Query("SELECT MIN(c.seq) FROM SyncChange c WHERE c.tenantId = :tenantId AND c.changedAt > :since")
+    Long findFirstSeqChangedAfter(@Param("tenantId") UUID tenantId, @Param("since") LocalDateTime since);
+    
+    /**
+     * Allocate count consecutive seqs for a tenant and return the last one.
+     * The sync_sequences row ({@link com.pos.inventsight.model.sql.SyncSequence}) stays locked
+     * until the calling transaction ends.
+     */
+    @Query(value = "INSERT INTO sync_sequences (tenant_id, last_seq) VALUES (:tenantId, :count) " +
+                   "ON CONFLICT (tenant_id) DO UPDATE SET last_seq = sync_sequences.last_seq + :count " +
+                   "RETURNING last_seq", nativeQuery = true)
+    Long allocateSeq(@Param("tenantId") UUID tenantId, @Param("count") int count);
+    
+    @Query(value = "SELECT last_seq FROM sync_sequences WHERE tenant_id = :tenantId", nativeQuery = true)
+    Long findLastSeq(@Param("tenantId") UUID tenantId);
 }
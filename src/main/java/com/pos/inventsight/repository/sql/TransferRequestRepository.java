@@ -1,20 +1,49 @@
 package com.pos.inventsight.repository.sql;
 
+import com.pos.inventsight.dto.TransferRequestSummary;
 import com.pos.inventsight.model.sql.TransferRequest;
 import com.pos.inventsight.model.sql.TransferRequestStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface TransferRequestRepository extends JpaRepository<TransferRequest, UUID> {
     
+    /**
+     * Select clause of the transfer list read model. Joins only the locations and users whose
+     * names are shown; the rest of each relation is not read.
+     */
+    String SUMMARY_SELECT = "SELECT new com.pos.inventsight.dto.TransferRequestSummary(" +
+        "tr.id, tr.productId, COALESCE(tr.itemName, tr.productName), COALESCE(tr.itemSku, tr.productSku), " +
+        "tr.requestedQuantity, tr.approvedQuantity, tr.receivedQuantity, tr.status, tr.priority, " +
+        "tr.fromLocationType, tr.fromLocationId, COALESCE(fw.name, fs.storeName), " +
+        "tr.toLocationType, tr.toLocationId, COALESCE(tw.name, ts.storeName), " +
+        "tr.requestedByUserId, COALESCE(tr.requestedByName, rb.username), COALESCE(tr.approvedByName, ab.username), " +
+        "tr.carrierName, tr.requestedAt, tr.approvedAt, tr.shippedAt, tr.estimatedDeliveryAt, " +
+        "tr.receivedAt, tr.completedAt, tr.createdAt) " +
+        "FROM TransferRequest tr " +
+        "LEFT JOIN tr.fromWarehouse fw LEFT JOIN tr.fromStore fs " +
+        "LEFT JOIN tr.toWarehouse tw LEFT JOIN tr.toStore ts " +
+        "LEFT JOIN tr.requestedBy rb LEFT JOIN tr.approvedBy ab ";
+    
+    /**
+     * Find a transfer request with all its relations loaded in one query
+     */
+    @EntityGraph(attributePaths = {"company", "fromWarehouse", "fromStore", "toStore", "toWarehouse",
+        "requestedBy", "approvedBy", "receivedByUser", "transferLocation"})
+    @Query("SELECT tr FROM TransferRequest tr WHERE tr.id = :id")
+    Optional<TransferRequest> findDetailById(@Param("id") UUID id);
+    
     /**
      * Find all transfer requests for a specific company
      */
@@ -45,6 +74,12 @@ public interface TransferRequestRepository extends JpaRepository<TransferRequest
     @Query("SELECT tr FROM TransferRequest tr WHERE tr.productId = :productId AND tr.company.id = :companyId ORDER BY tr.createdAt DESC")
     List<TransferRequest> findByProductIdAndCompanyId(@Param("productId") UUID productId, @Param("companyId") UUID companyId);
     
+    /**
+     * Find transfer requests for a set of products, newest first
+     */
+    @Query("SELECT tr FROM TransferRequest tr WHERE tr.productId IN :productIds AND tr.company.id = :companyId ORDER BY tr.createdAt DESC")
+    List<TransferRequest> findByProductIdInAndCompanyId(@Param("productIds") Collection<UUID> productIds, @Param("companyId") UUID companyId);
+    
     /**
      * Find pending transfer requests for approval
      */
@@ -118,11 +153,69 @@ public interface TransferRequestRepository extends JpaRepository<TransferRequest
         @Param("status") TransferRequestStatus status
     );
 
+    // ========== List read model (TransferRequestSummary) ==========
+    
+    /**
+     * Transfer list rows for a company (paginated)
+     */
+    @Query(value = SUMMARY_SELECT + "WHERE tr.company.id = :companyId",
+           countQuery = "SELECT COUNT(tr) FROM TransferRequest tr WHERE tr.company.id = :companyId")
+    Page<TransferRequestSummary> findSummariesByCompanyId(@Param("companyId") UUID companyId, Pageable pageable);
+    
+    /**
+     * Transfer list rows for a company by status (paginated)
+     */
+    @Query(value = SUMMARY_SELECT + "WHERE tr.company.id = :companyId AND tr.status = :status",
+           countQuery = "SELECT COUNT(tr) FROM TransferRequest tr WHERE tr.company.id = :companyId AND tr.status = :status")
+    Page<TransferRequestSummary> findSummariesByCompanyIdAndStatus(@Param("companyId") UUID companyId,
+                                                                   @Param("status") TransferRequestStatus status,
+                                                                   Pageable pageable);
+    
+    /**
+     * Transfer list rows for a destination store (paginated)
+     */
+    @Query(value = SUMMARY_SELECT + "WHERE ts.id = :storeId",
+           countQuery = "SELECT COUNT(tr) FROM TransferRequest tr WHERE tr.toStore.id = :storeId")
+    Page<TransferRequestSummary> findSummariesByStoreId(@Param("storeId") UUID storeId, Pageable pageable);
+    
+    /**
+     * Transfer list rows for a source warehouse (paginated)
+     */
+    @Query(value = SUMMARY_SELECT + "WHERE fw.id = :warehouseId",
+           countQuery = "SELECT COUNT(tr) FROM TransferRequest tr WHERE tr.fromWarehouse.id = :warehouseId")
+    Page<TransferRequestSummary> findSummariesByWarehouseId(@Param("warehouseId") UUID warehouseId, Pageable pageable);
+    
+    /**
+     * Pending transfer list rows for a company, most recent first
+     */
+    @Query(SUMMARY_SELECT + "WHERE tr.company.id = :companyId " +
+           "AND tr.status = com.pos.inventsight.model.sql.TransferRequestStatus.PENDING " +
+           "ORDER BY tr.createdAt DESC")
+    List<TransferRequestSummary> findPendingSummariesByCompanyId(@Param("companyId") UUID companyId);
+    
+    /**
+     * Pending transfer list rows headed to any of the given stores or warehouses
+     */
+    @Query(SUMMARY_SELECT + "WHERE " +
+           "((tr.toLocationType = 'STORE' AND tr.toLocationId IN :storeIds) OR " +
+           "(tr.toLocationType = 'WAREHOUSE' AND tr.toLocationId IN :warehouseIds)) AND " +
+           "tr.status = com.pos.inventsight.model.sql.TransferRequestStatus.PENDING " +
+           "ORDER BY tr.priority DESC, tr.createdAt ASC")
+    List<TransferRequestSummary> findPendingSummariesForLocations(@Param("storeIds") List<UUID> storeIds,
+                                                                  @Param("warehouseIds") List<UUID> warehouseIds);
+    
     /**
      * Count transfer requests by status
      */
     Long countByStatus(TransferRequestStatus status);
 
+    /**
+     * Count transfer requests per status in one query
+     * Returns list of [status, count]
+     */
+    @Query("SELECT tr.status, COUNT(tr) FROM TransferRequest tr GROUP BY tr.status")
+    List<Object[]> countGroupedByStatus();
+
     /**
      * Get most recent transfer requests
      */
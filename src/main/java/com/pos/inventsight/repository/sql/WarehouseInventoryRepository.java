@@ -168,4 +168,13 @@ public interface WarehouseInventoryRepository extends JpaRepository<WarehouseInv
      */
     @Query("SELECT COALESCE(SUM(wi.currentQuantity), 0) FROM WarehouseInventory wi")
     Integer getTotalQuantityAcrossAllWarehouses();
+
+    /**
+     * Item count, total quantity and low stock count across all warehouses in one scan
+     * Returns a single row of [items, quantity, lowStockItems]
+     */
+    @Query("SELECT COUNT(wi), COALESCE(SUM(wi.currentQuantity), 0), " +
+           "COALESCE(SUM(CASE WHEN wi.currentQuantity - wi.reservedQuantity <= wi.reorderPoint THEN 1 ELSE 0 END), 0) " +
+           "FROM WarehouseInventory wi")
+    List<Object[]> getInventorySummary();
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -69,6 +70,12 @@ public interface WarehouseRepository extends JpaRepository<Warehouse, UUID> {
      */
     long countByIsActiveTrue();
 
+    /**
+     * Total and active warehouse counts in one query: a single row of [total, active]
+     */
+    @Query("SELECT COUNT(w), COALESCE(SUM(CASE WHEN w.isActive = true THEN 1 ELSE 0 END), 0) FROM Warehouse w")
+    List<Object[]> getWarehouseCounts();
+
     /**
      * Find warehouses created by user
      */
@@ -79,4 +86,10 @@ public interface WarehouseRepository extends JpaRepository<Warehouse, UUID> {
      */
     @Query("SELECT w FROM Warehouse w JOIN FETCH w.company WHERE w.id = :id")
     Optional<Warehouse> findByIdWithCompany(@Param("id") UUID id);
+    
+    /**
+     * Find warehouses by IDs with company eagerly loaded
+     */
+    @Query("SELECT w FROM Warehouse w JOIN FETCH w.company WHERE w.id IN :ids")
+    List<Warehouse> findAllByIdWithCompany(@Param("ids") Collection<UUID> ids);
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.pos.inventsight.service;
 
 import com.pos.inventsight.model.nosql.ActivityLog;
 import com.pos.inventsight.repository.nosql.ActivityLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,9 +16,15 @@ import java.util.Map;
 @Service
 public class ActivityLogService {
     
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogService.class);
+    
     @Autowired
     private ActivityLogRepository activityLogRepository;
     
+    // Activity writes are queued and inserted in batches off the caller's thread
+    @Autowired
+    private ActivityLogWriter activityLogWriter;
+    
     // Create Activity Log
     public void logActivity(String userId, String username, String action, String entityType, String description) {
         ActivityLog log = new ActivityLog(userId, username != null ? username : "WinKyaw", action, entityType, description);
@@ -25,11 +33,9 @@ public class ActivityLogService {
         // Set module based on entity type
         log.setModule(getModuleFromEntityType(entityType));
         
-        activityLogRepository.save(log);
+        activityLogWriter.submit(log);
         
-        // Console logging for development
-        System.out.println(String.format("📝 Activity Log: [%s] %s performed %s on %s - %s", 
-            LocalDateTime.now().toString(), username != null ? username : "WinKyaw", action, entityType, description));
+        logger.debug("📝 Activity Log: {} performed {} on {} - {}", log.getUsername(), action, entityType, description);
     }
     
     public void logActivityWithMetadata(String userId, String username, String action, String entityType, 
@@ -39,7 +45,7 @@ public class ActivityLogService {
         log.setModule(getModuleFromEntityType(entityType));
         log.setTimestamp(LocalDateTime.now());
         
-        activityLogRepository.save(log);
+        activityLogWriter.submit(log);
     }
     
     public void logActivityWithDataChange(String userId, String username, String action, String entityType,
@@ -52,7 +58,7 @@ public class ActivityLogService {
         log.setModule(getModuleFromEntityType(entityType));
         log.setTimestamp(LocalDateTime.now());
         
-        activityLogRepository.save(log);
+        activityLogWriter.submit(log);
     }
     
     // Query Methods
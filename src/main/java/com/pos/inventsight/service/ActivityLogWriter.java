@@ -0,0 +1,327 @@
+package com.pos.inventsight.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pos.inventsight.model.nosql.ActivityLog;
+import com.pos.inventsight.repository.nosql.ActivityLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes activity logs to Mongo off the caller's thread.
+ *
+ * Callers enqueue into a bounded queue and return immediately. A single writer
+ * thread drains the queue and inserts in batches, flushing when a batch is full
+ * or the flush interval has passed since its first entry. When the queue is full
+ * the overflow policy either drops the oldest queued entry or blocks the caller
+ * for up to the block timeout, then drops the new one.
+ *
+ * Batches that fail to insert are appended to a JSON-lines spill file and
+ * replayed after the next successful insert, so a Mongo outage loses nothing
+ * that made it into the queue.
+ */
+@Service
+public class ActivityLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogWriter.class);
+
+    public enum OverflowPolicy { DROP_OLDEST, BLOCK }
+
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventsight.activity-log.async.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${inventsight.activity-log.async.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${inventsight.activity-log.async.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${inventsight.activity-log.async.flush-interval-ms:1000}")
+    private long flushIntervalMs = 1000;
+
+    @Value("${inventsight.activity-log.async.overflow-policy:DROP_OLDEST}")
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+    @Value("${inventsight.activity-log.async.block-timeout-ms:200}")
+    private long blockTimeoutMs = 200;
+
+    @Value("${inventsight.activity-log.async.spill-file:./data/activity-log-spill.jsonl}")
+    private String spillFile = "./data/activity-log-spill.jsonl";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong lastFlushLatencyMs = new AtomicLong();
+
+    private BlockingQueue<ActivityLog> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        if (meterRegistry != null) {
+            meterRegistry.gauge("inventsight.activity_log.queue.depth", queue, BlockingQueue::size);
+        }
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::run, "activity-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Drain what is queued before shutdown; anything Mongo rejects goes to the spill file.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            try {
+                writerThread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (queue == null) {
+            return;
+        }
+        List<ActivityLog> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    /**
+     * Queue a log for writing. Writes synchronously when the async writer is disabled.
+     */
+    public void submit(ActivityLog log) {
+        if (!running) {
+            flush(List.of(log));
+            return;
+        }
+        if (queue.offer(log)) {
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                if (queue.offer(log, blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            recordDropped();
+            return;
+        }
+        // DROP_OLDEST: discard from the head until the new entry fits (other producers may take freed slots)
+        while (!queue.offer(log)) {
+            if (queue.poll() != null) {
+                recordDropped();
+            }
+        }
+    }
+
+    private void run() {
+        List<ActivityLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ActivityLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    ActivityLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Shutdown; flush what has been collected and let stop() drain the rest
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    /**
+     * Insert one batch; spill it to disk if Mongo rejects it, otherwise replay any earlier spill.
+     */
+    void flush(List<ActivityLog> batch) {
+        long started = System.nanoTime();
+        try {
+            activityLogRepository.saveAll(batch);
+            written.addAndGet(batch.size());
+        } catch (Exception e) {
+            logger.warn("Activity log insert of {} entries failed, spilling to {}: {}",
+                batch.size(), spillFile, e.getMessage());
+            spill(batch);
+            return;
+        } finally {
+            recordFlushLatency(System.nanoTime() - started);
+        }
+        replaySpill();
+    }
+
+    private void spill(List<ActivityLog> batch) {
+        Path path = Paths.get(spillFile);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            synchronized (this) {
+                try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (ActivityLog log : batch) {
+                        writer.write(objectMapper.writeValueAsString(log));
+                        writer.newLine();
+                    }
+                }
+            }
+            spilled.addAndGet(batch.size());
+            if (meterRegistry != null) {
+                meterRegistry.counter("inventsight.activity_log.spilled").increment(batch.size());
+            }
+        } catch (IOException e) {
+            logger.error("Could not spill {} activity log entries to {}", batch.size(), spillFile, e);
+            dropped.addAndGet(batch.size());
+        }
+    }
+
+    /**
+     * Move the spill file aside and insert its entries in batches.
+     * Entries not inserted are appended back to the spill file for the next attempt.
+     */
+    private synchronized void replaySpill() {
+        Path path = Paths.get(spillFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        Path replaying = Paths.get(spillFile + ".replay");
+        List<String> lines;
+        try {
+            Files.move(path, replaying, StandardCopyOption.REPLACE_EXISTING);
+            lines = Files.readAllLines(replaying, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Could not read activity log spill file {}: {}", spillFile, e.getMessage());
+            return;
+        }
+
+        int replayed = 0;
+        List<ActivityLog> batch = new ArrayList<>(batchSize);
+        try {
+            for (String line : lines) {
+                if (line.isBlank()) {
+                    replayed++;
+                    continue;
+                }
+                batch.add(objectMapper.readValue(line, ActivityLog.class));
+                if (batch.size() >= batchSize) {
+                    activityLogRepository.saveAll(batch);
+                    replayed += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                activityLogRepository.saveAll(batch);
+                replayed += batch.size();
+            }
+        } catch (Exception e) {
+            logger.warn("Activity log spill replay stopped after {} of {} entries: {}",
+                replayed, lines.size(), e.getMessage());
+            try {
+                Files.write(path, lines.subList(replayed, lines.size()), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException io) {
+                logger.error("Could not restore activity log spill file {}", spillFile, io);
+                return;
+            }
+        }
+        written.addAndGet(replayed);
+        try {
+            Files.deleteIfExists(replaying);
+        } catch (IOException e) {
+            logger.warn("Could not delete activity log replay file {}: {}", replaying, e.getMessage());
+        }
+        logger.info("Replayed {} spilled activity log entries", replayed);
+    }
+
+    private void recordDropped() {
+        dropped.incrementAndGet();
+        if (meterRegistry != null) {
+            meterRegistry.counter("inventsight.activity_log.dropped").increment();
+        }
+    }
+
+    private void recordFlushLatency(long nanos) {
+        lastFlushLatencyMs.set(TimeUnit.NANOSECONDS.toMillis(nanos));
+        if (meterRegistry != null) {
+            meterRegistry.timer("inventsight.activity_log.flush").record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue != null ? queue.size() : 0;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getLastFlushLatencyMs() {
+        return lastFlushLatencyMs.get();
+    }
+}
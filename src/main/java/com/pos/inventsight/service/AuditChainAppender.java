@@ -0,0 +1,404 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.sql.AuditBlock;
+import com.pos.inventsight.model.sql.AuditEvent;
+import com.pos.inventsight.repository.sql.AuditBlockRepository;
+import com.pos.inventsight.repository.sql.AuditEventRepository;
+import com.pos.inventsight.tenant.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Appends audit events to per-tenant hash chains.
+ *
+ * Each tenant (schema) has its own chain with its head (sequence and hash) kept in
+ * memory. Producers add to a lock-free queue; whichever producer flips the chain's
+ * draining flag schedules the single drain task for that tenant, so exactly one
+ * thread extends a chain at a time and no "latest row" read happens per event.
+ *
+ * A drain takes up to batch-size queued events, hashes them onto the head and
+ * inserts them together with one AuditBlock holding their Merkle root, in one
+ * transaction. The head only advances after commit. A failed batch is retried on
+ * the next drain with the head reloaded from the database; the unique chain_seq
+ * and block_seq constraints turn a concurrent writer on another node into such a
+ * retry rather than a fork.
+ *
+ * Batches are never dropped: a batch that keeps failing (e.g. during a database
+ * outage) is retried with exponential backoff until it is written. Chains failing
+ * repeatedly are logged at ERROR and reported through the pending and stalled gauges.
+ */
+@Service
+public class AuditChainAppender {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditChainAppender.class);
+
+    @Autowired
+    private AuditEventRepository auditEventRepository;
+
+    @Autowired
+    private AuditBlockRepository auditBlockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${inventsight.audit.chain.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${inventsight.audit.chain.writer-threads:2}")
+    private int writerThreads = 2;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventsight.audit.chain.alert-after-attempts:5}")
+    private int alertAfterAttempts = 5;
+
+    @Value("${inventsight.audit.chain.retry-interval-ms:5000}")
+    private long retryIntervalMs = 5000;
+
+    @Value("${inventsight.audit.chain.retry-max-backoff-ms:300000}")
+    private long retryMaxBackoffMs = 300000;
+
+    private final ConcurrentHashMap<String, Chain> chains = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newFixedThreadPool(Math.max(1, writerThreads), runnable -> {
+            Thread thread = new Thread(runnable, "audit-chain-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (meterRegistry != null) {
+            meterRegistry.gauge("inventsight.audit_chain.pending", chains, c -> c.keySet().stream()
+                .mapToInt(this::getPendingCount).sum());
+            meterRegistry.gauge("inventsight.audit_chain.stalled", chains, c -> c.values().stream()
+                .filter(chain -> chain.attempts >= alertAfterAttempts).count());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+        chains.values().forEach(this::schedule);
+    }
+
+    /**
+     * Queue an event on a tenant's chain. Sequence, hashes and block are assigned when it is written.
+     */
+    public void append(String tenant, AuditEvent event) {
+        Chain chain = chains.computeIfAbsent(tenant != null ? tenant : TenantContext.DEFAULT_TENANT, Chain::new);
+        chain.queue.add(event);
+        schedule(chain);
+    }
+
+    /**
+     * Retry chains whose last batch failed once their backoff has passed, and chains with queued events.
+     */
+    @Scheduled(fixedDelayString = "${inventsight.audit.chain.retry-interval-ms:5000}")
+    public void retryStalled() {
+        for (Chain chain : chains.values()) {
+            if (chain.retry != null || !chain.queue.isEmpty()) {
+                schedule(chain);
+            }
+        }
+    }
+
+    /**
+     * Events queued or awaiting retry on a tenant's chain.
+     */
+    public int getPendingCount(String tenant) {
+        Chain chain = chains.get(tenant);
+        if (chain == null) {
+            return 0;
+        }
+        List<AuditEvent> retry = chain.retry;
+        return chain.queue.size() + (retry != null ? retry.size() : 0);
+    }
+
+    private void schedule(Chain chain) {
+        if (!chain.draining.compareAndSet(false, true)) {
+            return; // The active drain will pick the event up
+        }
+        ExecutorService current = executor;
+        if (current == null) {
+            drain(chain);
+            return;
+        }
+        try {
+            current.execute(() -> drain(chain));
+        } catch (RuntimeException e) {
+            chain.draining.set(false);
+            logger.warn("Could not schedule audit chain drain for {}: {}", chain.tenant, e.getMessage());
+        }
+    }
+
+    /**
+     * Write batches until the queue is empty or a batch fails; only ever runs once per chain at a time.
+     */
+    private void drain(Chain chain) {
+        String previousTenant = TenantContext.isSet() ? TenantContext.getCurrentTenant() : null;
+        try {
+            TenantContext.setCurrentTenant(chain.tenant);
+            while (true) {
+                if (chain.retry != null && System.currentTimeMillis() < chain.nextAttemptAt) {
+                    break; // Backing off; retryStalled picks the chain up again
+                }
+                List<AuditEvent> batch = chain.retry != null ? chain.retry : poll(chain.queue);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                if (!writeBatch(chain, batch)) {
+                    break;
+                }
+            }
+        } finally {
+            if (previousTenant != null) {
+                TenantContext.setCurrentTenant(previousTenant);
+            } else {
+                TenantContext.clear();
+            }
+            chain.draining.set(false);
+        }
+        // An event queued after the last poll but before the flag was cleared would otherwise wait for the retry tick
+        if (chain.retry == null && !chain.queue.isEmpty()) {
+            schedule(chain);
+        }
+    }
+
+    private List<AuditEvent> poll(Queue<AuditEvent> queue) {
+        List<AuditEvent> batch = new ArrayList<>();
+        AuditEvent event;
+        while (batch.size() < batchSize && (event = queue.poll()) != null) {
+            batch.add(event);
+        }
+        return batch;
+    }
+
+    private boolean writeBatch(Chain chain, List<AuditEvent> batch) {
+        try {
+            if (!chain.loaded) {
+                loadHead(chain);
+            }
+            long seq = chain.headSeq;
+            String prevHash = chain.headHash;
+            long blockSeq = chain.blockSeq + 1;
+            List<String> hashes = new ArrayList<>(batch.size());
+            for (AuditEvent event : batch) {
+                event.setChainSeq(++seq);
+                event.setBlockSeq(blockSeq);
+                event.setPrevHash(prevHash);
+                prevHash = hashEvent(event, prevHash);
+                event.setHash(prevHash);
+                hashes.add(prevHash);
+            }
+            String merkleRoot = merkleRoot(hashes);
+            AuditBlock block = new AuditBlock(blockSeq, chain.headSeq + 1, seq, batch.size(), merkleRoot,
+                chain.blockHash, blockHash(chain.blockHash, merkleRoot, chain.headSeq + 1, seq));
+
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            transaction.executeWithoutResult(status -> {
+                auditEventRepository.saveAll(batch);
+                auditBlockRepository.save(block);
+            });
+
+            chain.headSeq = seq;
+            chain.headHash = prevHash;
+            chain.blockSeq = blockSeq;
+            chain.blockHash = block.getBlockHash();
+            chain.retry = null;
+            chain.attempts = 0;
+            logger.debug("Sealed audit block {} for {} ({} event(s))", blockSeq, chain.tenant, batch.size());
+            return true;
+        } catch (Exception e) {
+            chain.loaded = false;
+            chain.attempts++;
+            long backoff = backoffMs(chain.attempts);
+            chain.nextAttemptAt = System.currentTimeMillis() + backoff;
+            if (chain.attempts >= alertAfterAttempts) {
+                logger.error("Audit block write for {} failed {} times; {} event(s) held, retrying in {} ms: {}",
+                    chain.tenant, chain.attempts, batch.size() + chain.queue.size(), backoff, e.getMessage(), e);
+            } else {
+                logger.warn("Audit block write for {} failed (attempt {}), will retry: {}",
+                    chain.tenant, chain.attempts, e.getMessage());
+            }
+            if (meterRegistry != null) {
+                meterRegistry.counter("inventsight.audit_chain.write_failures").increment();
+            }
+            chain.retry = unsaved(batch);
+            return false;
+        }
+    }
+
+    /**
+     * Retry interval doubled per consecutive failure, capped at the maximum backoff
+     */
+    private long backoffMs(int attempts) {
+        long backoff = retryIntervalMs;
+        for (int i = 1; i < attempts && backoff < retryMaxBackoffMs; i++) {
+            backoff *= 2;
+        }
+        return Math.min(backoff, retryMaxBackoffMs);
+    }
+
+    /**
+     * Read the chain head once per tenant. Before the first sequenced event the
+     * newest legacy event's hash anchors the chain.
+     */
+    private void loadHead(Chain chain) {
+        Optional<AuditEvent> head = auditEventRepository.findTopByChainSeqNotNullOrderByChainSeqDesc();
+        if (head.isPresent()) {
+            chain.headSeq = head.get().getChainSeq();
+            chain.headHash = head.get().getHash();
+        } else {
+            List<AuditEvent> latest = auditEventRepository.findLatestEvent(Pageable.ofSize(1));
+            chain.headSeq = 0;
+            chain.headHash = latest.isEmpty() ? null : latest.get(0).getHash();
+        }
+        Optional<AuditBlock> block = auditBlockRepository.findTopByOrderByBlockSeqDesc();
+        chain.blockSeq = block.map(AuditBlock::getBlockSeq).orElse(0L);
+        chain.blockHash = block.map(AuditBlock::getBlockHash).orElse(null);
+        chain.loaded = true;
+    }
+
+    /**
+     * Fresh copies of a failed batch: the originals may carry IDs from the rolled-back insert.
+     */
+    private static List<AuditEvent> unsaved(List<AuditEvent> batch) {
+        List<AuditEvent> copies = new ArrayList<>(batch.size());
+        for (AuditEvent event : batch) {
+            AuditEvent copy = AuditEvent.builder()
+                .actor(event.getActor())
+                .actorId(event.getActorId())
+                .action(event.getAction())
+                .entityType(event.getEntityType())
+                .entityId(event.getEntityId())
+                .tenantId(event.getTenantId())
+                .companyId(event.getCompanyId())
+                .ipAddress(event.getIpAddress())
+                .userAgent(event.getUserAgent())
+                .detailsJson(event.getDetailsJson())
+                .build();
+            copy.setEventAt(event.getEventAt());
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    /**
+     * SHA-256 of an event's content, its chain position and the previous event's hash.
+     */
+    static String hashEvent(AuditEvent event, String prevHash) {
+        StringBuilder content = new StringBuilder();
+        content.append(event.getEventAt());
+        content.append(event.getActor());
+        content.append(event.getAction());
+        if (event.getEntityType() != null) content.append(event.getEntityType());
+        if (event.getEntityId() != null) content.append(event.getEntityId());
+        if (event.getTenantId() != null) content.append(event.getTenantId());
+        if (event.getDetailsJson() != null) content.append(event.getDetailsJson());
+        content.append('#').append(event.getChainSeq());
+        if (prevHash != null) content.append(prevHash);
+        return sha256(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Merkle root over event hashes; an odd node is paired with itself.
+     */
+    static String merkleRoot(List<String> hashes) {
+        if (hashes.isEmpty()) {
+            return sha256(new byte[0]);
+        }
+        HexFormat hex = HexFormat.of();
+        List<byte[]> level = new ArrayList<>(hashes.size());
+        for (String hash : hashes) {
+            level.add(hex.parseHex(hash));
+        }
+        while (level.size() > 1) {
+            List<byte[]> next = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i < level.size(); i += 2) {
+                byte[] left = level.get(i);
+                byte[] right = i + 1 < level.size() ? level.get(i + 1) : left;
+                byte[] pair = new byte[left.length + right.length];
+                System.arraycopy(left, 0, pair, 0, left.length);
+                System.arraycopy(right, 0, pair, left.length, right.length);
+                next.add(hex.parseHex(sha256(pair)));
+            }
+            level = next;
+        }
+        return hex.formatHex(level.get(0));
+    }
+
+    static String blockHash(String prevBlockHash, String merkleRoot, long firstSeq, long lastSeq) {
+        String content = (prevBlockHash != null ? prevBlockHash : "") + merkleRoot + firstSeq + "-" + lastSeq;
+        return sha256(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * One tenant's chain. queue is shared with producers; every other field is
+     * only touched by the drain that holds the draining flag.
+     */
+    private static final class Chain {
+        private final String tenant;
+        private final Queue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean loaded;
+        private volatile long headSeq;
+        private volatile String headHash;
+        private volatile long blockSeq;
+        private volatile String blockHash;
+        private volatile List<AuditEvent> retry;
+        private volatile int attempts;
+        private volatile long nextAttemptAt;
+
+        private Chain(String tenant) {
+            this.tenant = tenant;
+        }
+    }
+}
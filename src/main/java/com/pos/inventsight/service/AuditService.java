@@ -1,7 +1,9 @@
 package com.pos.inventsight.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pos.inventsight.model.sql.AuditBlock;
 import com.pos.inventsight.model.sql.AuditEvent;
+import com.pos.inventsight.repository.sql.AuditBlockRepository;
 import com.pos.inventsight.repository.sql.AuditEventRepository;
 import com.pos.inventsight.tenant.TenantContext;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,21 +12,27 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
- * Service for managing append-only audit events with optional hash chaining.
+ * Service for managing append-only audit events with per-tenant hash chaining.
  * Provides tamper-evident audit trail for sensitive operations.
+ *
+ * Events are handed to AuditChainAppender, which sequences, hashes and seals
+ * them in blocks off the caller's thread. Inside a transaction the event is only
+ * handed over once the transaction commits, so rolled-back work is not audited.
  */
 @Service
 public class AuditService {
@@ -34,14 +42,21 @@ public class AuditService {
     @Autowired
     private AuditEventRepository auditEventRepository;
     
+    @Autowired
+    private AuditBlockRepository auditBlockRepository;
+    
+    @Autowired
+    private AuditChainAppender chainAppender;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
+    private static final int VERIFY_PAGE_SIZE = 500;
+    
     /**
-     * Log an audit event asynchronously
+     * Log an audit event without waiting for it to be written.
+     * Kept for existing callers; log() itself no longer blocks on the database.
      */
-    @Async
-    @Transactional
     public void logAsync(String actor, UUID actorId, String action, String entityType, String entityId, Object details) {
         try {
             log(actor, actorId, action, entityType, entityId, details);
@@ -51,9 +66,9 @@ public class AuditService {
     }
     
     /**
-     * Log an audit event synchronously
+     * Log an audit event. Returns the event as queued; chain sequence, hashes
+     * and ID are assigned when the appender writes it.
      */
-    @Transactional
     public AuditEvent log(String actor, UUID actorId, String action, String entityType, String entityId, Object details) {
         try {
             // Get current request context if available
@@ -107,14 +122,23 @@ public class AuditService {
                     .detailsJson(detailsJson)
                     .build();
             
-            // Compute hash with optional chaining
-            computeHash(event);
+            // Hashed as text, so keep only the precision the database stores
+            event.setEventAt(event.getEventAt().truncatedTo(ChronoUnit.MILLIS));
             
-            // Persist event
-            AuditEvent savedEvent = auditEventRepository.save(event);
-            logger.debug("Audit event logged: {} by {} (ID: {})", action, actor, savedEvent.getId());
+            String tenant = tenantId != null ? tenantId : TenantContext.DEFAULT_TENANT;
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        chainAppender.append(tenant, event);
+                    }
+                });
+            } else {
+                chainAppender.append(tenant, event);
+            }
+            logger.debug("Audit event queued: {} by {}", action, actor);
             
-            return savedEvent;
+            return event;
             
         } catch (Exception e) {
             logger.error("Failed to log audit event: {}", e.getMessage(), e);
@@ -122,51 +146,6 @@ public class AuditService {
         }
     }
     
-    /**
-     * Compute hash for audit event with optional chaining
-     */
-    private void computeHash(AuditEvent event) {
-        try {
-            // Get previous hash from latest event
-            List<AuditEvent> latestEvents = auditEventRepository.findLatestEvent(Pageable.ofSize(1));
-            String prevHash = latestEvents.isEmpty() ? null : latestEvents.get(0).getHash();
-            
-            // Build content to hash
-            StringBuilder content = new StringBuilder();
-            content.append(event.getEventAt());
-            content.append(event.getActor());
-            content.append(event.getAction());
-            if (event.getEntityType() != null) content.append(event.getEntityType());
-            if (event.getEntityId() != null) content.append(event.getEntityId());
-            if (event.getTenantId() != null) content.append(event.getTenantId());
-            if (event.getDetailsJson() != null) content.append(event.getDetailsJson());
-            if (prevHash != null) content.append(prevHash);
-            
-            // Compute SHA-256 hash
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = digest.digest(content.toString().getBytes(StandardCharsets.UTF_8));
-            String hash = bytesToHex(hashBytes);
-            
-            event.setPrevHash(prevHash);
-            event.setHash(hash);
-            
-        } catch (Exception e) {
-            logger.warn("Failed to compute audit event hash: {}", e.getMessage());
-            // Continue without hash - audit event is still valuable
-        }
-    }
-    
-    /**
-     * Convert byte array to hex string
-     */
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder result = new StringBuilder();
-        for (byte b : bytes) {
-            result.append(String.format("%02x", b));
-        }
-        return result.toString();
-    }
-    
     /**
      * Get client IP address from request
      */
@@ -216,4 +195,169 @@ public class AuditService {
     public Page<AuditEvent> findByEntity(String entityType, String entityId, Pageable pageable) {
         return auditEventRepository.findByEntityTypeAndEntityIdOrderByEventAtDesc(entityType, entityId, pageable);
     }
+    
+    /**
+     * Verify the current tenant's chain between two sequence numbers in one streaming pass.
+     * Events and blocks are read in keyset pages; each event's hash and link to its
+     * predecessor are recomputed, and every block wholly inside the range has its Merkle
+     * root and block hash checked. The first event and block in the range are trusted as anchors.
+     */
+    @Transactional(readOnly = true)
+    public ChainVerification verifyChain(long fromSeq, long toSeq) {
+        ChainVerification result = new ChainVerification(fromSeq, toSeq);
+        BlockCursor blocks = new BlockCursor(fromSeq, toSeq);
+        
+        String prevHash = null;
+        long afterSeq = fromSeq - 1;
+        Long currentBlockSeq = null;
+        long blockFirstSeq = 0;
+        List<String> blockHashes = new ArrayList<>();
+        
+        List<AuditEvent> page;
+        do {
+            page = auditEventRepository.findChainPage(afterSeq, toSeq, Pageable.ofSize(VERIFY_PAGE_SIZE));
+            for (AuditEvent event : page) {
+                long seq = event.getChainSeq();
+                if (result.eventsChecked > 0) {
+                    if (seq != afterSeq + 1) {
+                        return result.fail(afterSeq + 1, "Missing event at sequence " + (afterSeq + 1));
+                    }
+                    if (!Objects.equals(prevHash, event.getPrevHash())) {
+                        return result.fail(seq, "Previous hash does not match event " + afterSeq);
+                    }
+                }
+                if (!Objects.equals(AuditChainAppender.hashEvent(event, event.getPrevHash()), event.getHash())) {
+                    return result.fail(seq, "Event hash does not match its content");
+                }
+                
+                if (!Objects.equals(currentBlockSeq, event.getBlockSeq())) {
+                    if (currentBlockSeq != null) {
+                        String failure = blocks.check(currentBlockSeq, blockFirstSeq, blockHashes, result);
+                        if (failure != null) {
+                            return result.fail(blockFirstSeq, failure);
+                        }
+                    }
+                    currentBlockSeq = event.getBlockSeq();
+                    blockFirstSeq = seq;
+                    blockHashes.clear();
+                }
+                blockHashes.add(event.getHash());
+                
+                prevHash = event.getHash();
+                afterSeq = seq;
+                result.eventsChecked++;
+            }
+        } while (page.size() == VERIFY_PAGE_SIZE);
+        
+        if (currentBlockSeq != null) {
+            String failure = blocks.check(currentBlockSeq, blockFirstSeq, blockHashes, result);
+            if (failure != null) {
+                return result.fail(blockFirstSeq, failure);
+            }
+        }
+        result.lastSeq = result.eventsChecked > 0 ? afterSeq : null;
+        return result;
+    }
+    
+    /**
+     * Forward-only cursor over the blocks overlapping a range, read in keyset pages.
+     */
+    private class BlockCursor {
+        private final long fromSeq;
+        private final long toSeq;
+        private List<AuditBlock> page = List.of();
+        private int index;
+        private long afterBlockSeq;
+        private AuditBlock previous;
+        
+        private BlockCursor(long fromSeq, long toSeq) {
+            this.fromSeq = fromSeq;
+            this.toSeq = toSeq;
+        }
+        
+        /**
+         * Check the block holding the given run of event hashes; returns a failure reason or null.
+         * Blocks cut by either end of the range are located but their Merkle root is not recomputed.
+         */
+        private String check(long blockSeq, long firstSeqInRange, List<String> hashes, ChainVerification result) {
+            AuditBlock block = advanceTo(blockSeq);
+            if (block == null) {
+                return "Missing block " + blockSeq;
+            }
+            boolean whole = block.getFirstSeq() == firstSeqInRange && block.getFirstSeq() >= fromSeq
+                && block.getLastSeq() <= toSeq && block.getEventCount() == hashes.size();
+            if (whole) {
+                if (!block.getMerkleRoot().equals(AuditChainAppender.merkleRoot(hashes))) {
+                    return "Merkle root of block " + blockSeq + " does not match its events";
+                }
+                String expected = AuditChainAppender.blockHash(block.getPrevBlockHash(), block.getMerkleRoot(),
+                    block.getFirstSeq(), block.getLastSeq());
+                if (!expected.equals(block.getBlockHash())) {
+                    return "Hash of block " + blockSeq + " does not match its contents";
+                }
+                result.blocksChecked++;
+            }
+            if (previous != null && !Objects.equals(previous.getBlockHash(), block.getPrevBlockHash())) {
+                return "Block " + blockSeq + " is not linked to block " + previous.getBlockSeq();
+            }
+            previous = block;
+            return null;
+        }
+        
+        private AuditBlock advanceTo(long blockSeq) {
+            while (true) {
+                if (index >= page.size()) {
+                    page = auditBlockRepository.findOverlappingAfter(afterBlockSeq, fromSeq, toSeq,
+                        Pageable.ofSize(VERIFY_PAGE_SIZE));
+                    index = 0;
+                    if (page.isEmpty()) {
+                        return null;
+                    }
+                }
+                AuditBlock candidate = page.get(index++);
+                afterBlockSeq = candidate.getBlockSeq();
+                if (candidate.getBlockSeq() == blockSeq) {
+                    return candidate;
+                }
+                if (candidate.getBlockSeq() > blockSeq) {
+                    return null;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Outcome of a chain verification over fromSeq..toSeq
+     */
+    public static class ChainVerification {
+        private final long fromSeq;
+        private final long toSeq;
+        private long eventsChecked;
+        private long blocksChecked;
+        private Long lastSeq;
+        private boolean valid = true;
+        private Long brokenAtSeq;
+        private String reason;
+        
+        public ChainVerification(long fromSeq, long toSeq) {
+            this.fromSeq = fromSeq;
+            this.toSeq = toSeq;
+        }
+        
+        private ChainVerification fail(long seq, String reason) {
+            this.valid = false;
+            this.brokenAtSeq = seq;
+            this.reason = reason;
+            return this;
+        }
+        
+        public long getFromSeq() { return fromSeq; }
+        public long getToSeq() { return toSeq; }
+        public long getEventsChecked() { return eventsChecked; }
+        public long getBlocksChecked() { return blocksChecked; }
+        public Long getLastSeq() { return lastSeq; }
+        public boolean isValid() { return valid; }
+        public Long getBrokenAtSeq() { return brokenAtSeq; }
+        public String getReason() { return reason; }
+    }
 }
@@ -1,6 +1,7 @@
 package com.pos.inventsight.service;
 
 import com.pos.inventsight.model.sql.PredefinedItem;
+import com.pos.inventsight.util.CsvRowReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -12,6 +13,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Service
 public class CSVService {
@@ -20,7 +22,8 @@ public class CSVService {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
     /**
-     * Parse CSV file for import
+     * Parse CSV file for import into one map per row, keyed by lowercased header.
+     * Large imports should use {@link #readImportCSV}, which does not hold the rows.
      */
     public List<Map<String, String>> parseImportCSV(MultipartFile file) throws IOException {
         List<Map<String, String>> items = new ArrayList<>();
@@ -28,44 +31,18 @@ public class CSVService {
         logger.info("📄 Starting CSV import from file: {}", file.getOriginalFilename());
         logger.info("📏 File size: {} bytes", file.getSize());
         
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+        try (CsvRowReader reader = openReader(file.getInputStream())) {
+            String[] headers = readHeaders(reader);
             
-            String headerLine = reader.readLine();
-            if (headerLine == null) {
-                throw new IllegalArgumentException("CSV file is empty");
-            }
-            
-            logger.debug("CSV header line: {}", headerLine);
-            
-            String[] headers = parseCSVLine(headerLine);
-            logger.info("CSV headers parsed: {}", Arrays.toString(headers));
-            
-            validateImportHeaders(headers);
-            
-            String line;
-            int lineNumber = 1;
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                if (line.trim().isEmpty()) {
-                    logger.debug("Skipping empty line {}", lineNumber);
+            while (reader.next()) {
+                if (reader.isBlank()) {
                     continue; // Skip empty lines
                 }
-                
-                try {
-                    String[] values = parseCSVLine(line);
-                    Map<String, String> item = new HashMap<>();
-                    
-                    for (int i = 0; i < headers.length && i < values.length; i++) {
-                        item.put(headers[i].trim().toLowerCase(), values[i].trim());
-                    }
-                    
-                    logger.debug("Line {} parsed: {}", lineNumber, item);
-                    items.add(item);
-                } catch (Exception e) {
-                    logger.warn("❌ Error parsing line {}: {}", lineNumber, e.getMessage());
-                    // Continue processing other lines
+                Map<String, String> item = new HashMap<>();
+                for (int i = 0; i < headers.length && i < reader.getFieldCount(); i++) {
+                    item.put(headers[i], reader.get(i).trim());
                 }
+                items.add(item);
             }
         }
         
@@ -73,6 +50,59 @@ public class CSVService {
         return items;
     }
     
+    /**
+     * Stream an import CSV row by row. Column positions are resolved once from the header,
+     * and the same {@link ImportRow} is refilled for every row, so callers must copy any
+     * values they keep after the callback returns.
+     * 
+     * @return Number of data rows read (blank lines excluded)
+     */
+    public int readImportCSV(InputStream input, Consumer<ImportRow> consumer) throws IOException {
+        int rows = 0;
+        try (CsvRowReader reader = openReader(input)) {
+            ImportRow row = new ImportRow(readHeaders(reader), reader);
+            while (reader.next()) {
+                if (reader.isBlank()) {
+                    continue;
+                }
+                row.number = ++rows;
+                consumer.accept(row);
+            }
+        }
+        logger.info("✅ Streamed {} rows from CSV", rows);
+        return rows;
+    }
+    
+    /**
+     * Read and validate only the header row of an import CSV, so a malformed file can be
+     * rejected before it is accepted for background processing
+     */
+    public void validateImportCSV(InputStream input) throws IOException {
+        try (CsvRowReader reader = openReader(input)) {
+            readHeaders(reader);
+        }
+    }
+    
+    private CsvRowReader openReader(InputStream input) {
+        return new CsvRowReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Read and validate the header row, returning trimmed lowercased column names
+     */
+    private String[] readHeaders(CsvRowReader reader) throws IOException {
+        if (!reader.next()) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        String[] headers = reader.toArray();
+        for (int i = 0; i < headers.length; i++) {
+            headers[i] = headers[i].trim().toLowerCase();
+        }
+        logger.info("CSV headers parsed: {}", Arrays.toString(headers));
+        validateImportHeaders(headers);
+        return headers;
+    }
+    
     /**
      * Generate CSV content for export
      */
@@ -145,41 +175,6 @@ public class CSVService {
         return valid;
     }
     
-    /**
-     * Parse a CSV line handling quoted fields
-     */
-    private String[] parseCSVLine(String line) {
-        List<String> result = new ArrayList<>();
-        StringBuilder field = new StringBuilder();
-        boolean inQuotes = false;
-        
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            
-            if (c == '"') {
-                if (inQuotes && i + 1 < line.length() && line.charAt(i + 1) == '"') {
-                    // Escaped quote
-                    field.append('"');
-                    i++; // Skip next quote
-                } else {
-                    // Toggle quote state
-                    inQuotes = !inQuotes;
-                }
-            } else if (c == ',' && !inQuotes) {
-                // End of field
-                result.add(field.toString());
-                field = new StringBuilder();
-            } else {
-                field.append(c);
-            }
-        }
-        
-        // Add last field
-        result.add(field.toString());
-        
-        return result.toArray(new String[0]);
-    }
-    
     /**
      * Escape CSV field (add quotes if needed)
      */
@@ -205,9 +200,7 @@ public class CSVService {
         
         // Normalize headers to lowercase for case-insensitive comparison
         for (String header : headers) {
-            String normalized = header.trim().toLowerCase();
-            headerSet.add(normalized);
-            logger.debug("CSV header found: '{}' (normalized: '{}')", header, normalized);
+            headerSet.add(header.trim().toLowerCase());
         }
         
         logger.info("CSV headers: {}", headerSet);
@@ -238,4 +231,45 @@ public class CSVService {
         
         return report;
     }
+    
+    /**
+     * Current row of a streamed import, with import columns located once from the header
+     */
+    public static final class ImportRow {
+        private final CsvRowReader reader;
+        private final int name;
+        private final int sku;
+        private final int category;
+        private final int unitType;
+        private final int description;
+        private final int defaultPrice;
+        private int number;
+        
+        private ImportRow(String[] headers, CsvRowReader reader) {
+            this.reader = reader;
+            List<String> columns = Arrays.asList(headers);
+            this.name = columns.indexOf("name");
+            this.sku = columns.indexOf("sku");
+            this.category = columns.indexOf("category");
+            this.unitType = columns.indexOf("unittype");
+            this.description = columns.indexOf("description");
+            this.defaultPrice = columns.indexOf("defaultprice");
+        }
+        
+        /**
+         * 1-based data row number (header and blank lines not counted)
+         */
+        public int getNumber() { return number; }
+        public String getName() { return value(name); }
+        public String getSku() { return value(sku); }
+        public String getCategory() { return value(category); }
+        public String getUnitType() { return value(unitType); }
+        public String getDescription() { return value(description); }
+        public String getDefaultPrice() { return value(defaultPrice); }
+        
+        private String value(int column) {
+            String value = reader.get(column);
+            return value != null ? value.trim() : null;
+        }
+    }
 }
@@ -0,0 +1,537 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.sql.Company;
+import com.pos.inventsight.repository.sql.CompanyRepository;
+import com.pos.inventsight.repository.sql.PredefinedItemRepository;
+import com.pos.inventsight.repository.sql.ProductRepository;
+import com.pos.inventsight.tenant.TenantContext;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory trigram index of products and predefined items, one per tenant.
+ *
+ * Type-ahead issues a search per keystroke, and a {@code LIKE '%term%'} scan per keystroke
+ * is more than the database should serve. This index answers them from memory instead: each
+ * word of a document's name, SKU and category is split into padded trigrams (as pg_trgm
+ * does). Exact SKUs, name prefixes and substrings always match; other documents match when
+ * their name's trigram similarity to the query (shared / union, as pg_trgm computes it)
+ * reaches the threshold, so small typos still score well. Results are fuzzy and capped, so
+ * endpoints with exact substring semantics and full totals stay on SQL.
+ *
+ * A tenant's index is built in the background on first use (or at startup) and kept current
+ * by committed entity changes; a periodic rebuild picks up writes made by other nodes and by
+ * bulk SQL updates. Until a tenant's index is ready, {@link #search} returns null and callers
+ * use their SQL query.
+ */
+@Service
+public class CatalogSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSearchIndex.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PredefinedItemRepository predefinedItemRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Value("${inventsight.search.index.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${inventsight.search.index.warm-on-startup:true}")
+    private boolean warmOnStartup = true;
+
+    @Value("${inventsight.search.index.min-similarity:0.4}")
+    private double minSimilarity = 0.4;
+
+    @Value("${inventsight.search.index.max-results:1000}")
+    private int maxResults = 1000;
+
+    @Value("${inventsight.search.index.refresh-interval-ms:600000}")
+    private long refreshIntervalMs = 600000;
+
+    @Value("${spring.jpa.properties.hibernate.multiTenancy:NONE}")
+    private String multiTenancy = "NONE";
+
+    private final ConcurrentHashMap<String, TenantHolder> tenants = new ConcurrentHashMap<>();
+
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+
+    /**
+     * Search a tenant's documents of one kind
+     *
+     * @param companyIds only documents of these companies; null for all
+     * @param locationId only documents at this store or warehouse; null for all
+     * @param limit most documents to return, capped at the configured maximum
+     * @return matches, best first, or null if the tenant's index is not built yet
+     */
+    public List<Document> search(String tenant, Kind kind, String query, Set<UUID> companyIds, UUID locationId, int limit) {
+        if (!enabled) {
+            return null;
+        }
+        TenantHolder holder = tenants.computeIfAbsent(tenant, TenantHolder::new);
+        TenantIndex index = holder.index;
+        if (index == null) {
+            scheduleBuild(holder);
+            return null;
+        }
+        return index.search(kind, query, companyIds, locationId, Math.min(limit, maxResults), minSimilarity);
+    }
+
+    /**
+     * Whether a tenant's index is built
+     */
+    public boolean isReady(String tenant) {
+        TenantHolder holder = tenants.get(tenant);
+        return holder != null && holder.index != null;
+    }
+
+    /**
+     * Apply committed entity changes. Changes to tenants without an index are dropped;
+     * their build reads current data.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIndexUpdate(IndexUpdate update) {
+        TenantHolder holder = tenants.get(update.tenant);
+        if (holder == null) {
+            return;
+        }
+        synchronized (holder) {
+            if (holder.index != null) {
+                holder.index.apply(update);
+            }
+            if (holder.building) {
+                holder.duringBuild.add(update);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        if (!enabled || !warmOnStartup) {
+            return;
+        }
+        for (String tenant : tenantNames()) {
+            scheduleBuild(tenants.computeIfAbsent(tenant, TenantHolder::new));
+        }
+    }
+
+    /**
+     * Rebuild indexes older than the refresh interval
+     */
+    @Scheduled(fixedDelayString = "${inventsight.search.index.refresh-check-ms:60000}")
+    public void refreshStale() {
+        long cutoff = System.currentTimeMillis() - refreshIntervalMs;
+        for (TenantHolder holder : tenants.values()) {
+            if (holder.index != null && holder.builtAt < cutoff) {
+                scheduleBuild(holder);
+            }
+        }
+    }
+
+    private void scheduleBuild(TenantHolder holder) {
+        synchronized (holder) {
+            if (holder.building) {
+                return;
+            }
+            holder.building = true;
+            holder.duringBuild.clear();
+        }
+        builder.execute(() -> build(holder));
+    }
+
+    void build(TenantHolder holder) {
+        String previousTenant = TenantContext.isSet() ? TenantContext.getCurrentTenant() : null;
+        long started = System.currentTimeMillis();
+        try {
+            TenantContext.setCurrentTenant(holder.tenant);
+            TenantIndex index = new TenantIndex();
+            for (Object[] row : productRepository.findSearchIndexRows()) {
+                // [id, name, sku, category, companyId, storeCompanyId, storeId, warehouseId]
+                UUID companyId = row[4] != null ? (UUID) row[4] : (UUID) row[5];
+                UUID locationId = row[6] != null ? (UUID) row[6] : (UUID) row[7];
+                index.put(new Document((UUID) row[0], Kind.PRODUCT, (String) row[1], (String) row[2],
+                    (String) row[3], companyId, locationId));
+            }
+            for (Object[] row : predefinedItemRepository.findSearchIndexRows()) {
+                // [id, name, sku, category, companyId]
+                index.put(new Document((UUID) row[0], Kind.PREDEFINED_ITEM, (String) row[1], (String) row[2],
+                    (String) row[3], (UUID) row[4], null));
+            }
+            synchronized (holder) {
+                // Changes committed while reading may be missing from the rows; replay them
+                for (IndexUpdate update : holder.duringBuild) {
+                    index.apply(update);
+                }
+                holder.duringBuild.clear();
+                holder.index = index;
+                holder.builtAt = System.currentTimeMillis();
+                holder.building = false;
+            }
+            logger.info("Catalog search index built for tenant {}: {} documents in {} ms",
+                holder.tenant, index.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.warn("Catalog search index build failed for tenant {}: {}", holder.tenant, e.getMessage());
+            synchronized (holder) {
+                holder.building = false;
+                holder.duringBuild.clear();
+            }
+        } finally {
+            if (previousTenant != null) {
+                TenantContext.setCurrentTenant(previousTenant);
+            } else {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    /**
+     * Tenant schemas to index: the default schema, plus one per company when schema tenancy is on.
+     */
+    private List<String> tenantNames() {
+        List<String> names = new ArrayList<>();
+        names.add(TenantContext.DEFAULT_TENANT);
+        if ("SCHEMA".equalsIgnoreCase(multiTenancy)) {
+            for (Company company : companyRepository.findAll()) {
+                names.add("company_" + company.getId().toString().replace("-", "_"));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Lowercase, strip accents and reduce to letters, digits and single spaces
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean space = true;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                normalized.append(' ');
+                space = true;
+            }
+        }
+        int length = normalized.length();
+        return length > 0 && normalized.charAt(length - 1) == ' ' ? normalized.substring(0, length - 1) : normalized.toString();
+    }
+
+    /**
+     * Padded trigrams of every word, so word starts produce their own grams
+     */
+    static Set<String> trigrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : normalized.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    public enum Kind { PRODUCT, PREDEFINED_ITEM }
+
+    /**
+     * An indexed product or predefined item
+     */
+    public static class Document {
+        private final UUID id;
+        private final Kind kind;
+        private final String name;
+        private final String sku;
+        private final String category;
+        private final UUID companyId;
+        private final UUID locationId;
+        private final String text;
+        private final String normalizedName;
+        private final String normalizedSku;
+
+        public Document(UUID id, Kind kind, String name, String sku, String category, UUID companyId, UUID locationId) {
+            this.id = id;
+            this.kind = kind;
+            this.name = name;
+            this.sku = sku;
+            this.category = category;
+            this.companyId = companyId;
+            this.locationId = locationId;
+            this.normalizedName = normalize(name);
+            this.normalizedSku = normalize(sku);
+            this.text = (normalizedName + " " + normalizedSku + " " + normalize(category)).trim();
+        }
+
+        public UUID getId() { return id; }
+        public Kind getKind() { return kind; }
+        public String getName() { return name; }
+        public String getSku() { return sku; }
+        public String getCategory() { return category; }
+        public UUID getCompanyId() { return companyId; }
+
+        /**
+         * Store or warehouse of a product; null for predefined items
+         */
+        public UUID getLocationId() { return locationId; }
+    }
+
+    /**
+     * Documents of committed changes and IDs of removed or deactivated ones
+     */
+    public static class IndexUpdate {
+        private final String tenant;
+        private final List<Document> upserts;
+        private final List<UUID> removals;
+
+        public IndexUpdate(String tenant, List<Document> upserts, List<UUID> removals) {
+            this.tenant = tenant;
+            this.upserts = upserts;
+            this.removals = removals;
+        }
+
+        public String getTenant() { return tenant; }
+        public List<Document> getUpserts() { return upserts; }
+        public List<UUID> getRemovals() { return removals; }
+    }
+
+    static final class TenantHolder {
+        private final String tenant;
+        private volatile TenantIndex index;
+        private volatile long builtAt;
+        private boolean building;
+        private final List<IndexUpdate> duringBuild = new ArrayList<>();
+
+        TenantHolder(String tenant) {
+            this.tenant = tenant;
+        }
+    }
+
+    /**
+     * Documents and trigram postings of one tenant. Writes are serialized; searches read
+     * the concurrent maps without locking.
+     */
+    static final class TenantIndex {
+        private final Map<UUID, Document> documents = new ConcurrentHashMap<>();
+        private final Map<String, Set<UUID>> postings = new ConcurrentHashMap<>();
+        private final Map<UUID, UUID> locationCompanies = new HashMap<>();
+
+        int size() {
+            return documents.size();
+        }
+
+        synchronized void apply(IndexUpdate update) {
+            for (UUID id : update.removals) {
+                remove(id);
+            }
+            for (Document document : update.upserts) {
+                put(document);
+            }
+        }
+
+        synchronized void put(Document document) {
+            if (document.companyId == null) {
+                document = withKnownCompany(document);
+                if (document == null) {
+                    return;
+                }
+            }
+            if (document.locationId != null) {
+                locationCompanies.put(document.locationId, document.companyId);
+            }
+            Document previous = documents.put(document.id, document);
+            if (previous != null) {
+                if (previous.text.equals(document.text)) {
+                    return;
+                }
+                unpost(previous);
+            }
+            for (String gram : trigrams(document.text)) {
+                postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(document.id);
+            }
+        }
+
+        /**
+         * Fill in a company the change could not read (a product whose store was an unloaded
+         * proxy) from the indexed document or another document at the same location. Returns
+         * null if unknown, so the change is skipped rather than hiding the product from
+         * company-scoped searches; the next rebuild indexes it.
+         */
+        private Document withKnownCompany(Document document) {
+            Document previous = documents.get(document.id);
+            UUID companyId = previous != null ? previous.companyId : null;
+            if (companyId == null && document.locationId != null) {
+                companyId = locationCompanies.get(document.locationId);
+            }
+            if (companyId == null) {
+                return null;
+            }
+            return new Document(document.id, document.kind, document.name, document.sku, document.category,
+                companyId, document.locationId);
+        }
+
+        synchronized void remove(UUID id) {
+            Document previous = documents.remove(id);
+            if (previous != null) {
+                unpost(previous);
+            }
+        }
+
+        private void unpost(Document document) {
+            for (String gram : trigrams(document.text)) {
+                Set<UUID> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(document.id);
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+
+        List<Document> search(Kind kind, String query, Set<UUID> companyIds, UUID locationId, int limit, double minSimilarity) {
+            String normalized = normalize(query);
+            Set<String> grams = trigrams(normalized);
+            if (grams.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+
+            Map<UUID, Integer> shared = new HashMap<>();
+            for (String gram : grams) {
+                Set<UUID> ids = postings.get(gram);
+                if (ids != null) {
+                    for (UUID id : ids) {
+                        shared.merge(id, 1, Integer::sum);
+                    }
+                }
+            }
+
+            List<Scored> matches = new ArrayList<>();
+            for (Map.Entry<UUID, Integer> entry : shared.entrySet()) {
+                // Similarity can only reach the threshold if this share of the query's grams does
+                if ((double) entry.getValue() / grams.size() < minSimilarity) {
+                    continue;
+                }
+                Document document = documents.get(entry.getKey());
+                if (document == null || document.kind != kind
+                        || (companyIds != null && !companyIds.contains(document.companyId))
+                        || (locationId != null && !locationId.equals(document.locationId))) {
+                    continue;
+                }
+                double similarity = similarity(grams, document.normalizedName);
+                double boost = boost(document, normalized);
+                if (boost == 0 && similarity < minSimilarity) {
+                    continue;
+                }
+                matches.add(new Scored(document, similarity + boost));
+            }
+
+            matches.sort(Comparator.comparingDouble((Scored scored) -> scored.score).reversed()
+                .thenComparingInt(scored -> scored.document.normalizedName.length())
+                .thenComparing(scored -> scored.document.normalizedName));
+            List<Document> results = new ArrayList<>(Math.min(limit, matches.size()));
+            for (int i = 0; i < matches.size() && i < limit; i++) {
+                results.add(matches.get(i).document);
+            }
+            return results;
+        }
+
+        /**
+         * Trigram similarity of the query and a name: shared grams over the union of both
+         */
+        private static double similarity(Set<String> queryGrams, String name) {
+            Set<String> nameGrams = trigrams(name);
+            int shared = 0;
+            for (String gram : queryGrams) {
+                if (nameGrams.contains(gram)) {
+                    shared++;
+                }
+            }
+            int union = queryGrams.size() + nameGrams.size() - shared;
+            return union == 0 ? 0 : (double) shared / union;
+        }
+
+        /**
+         * Exact SKU, then name prefix, then substring matches rank above fuzzy ones
+         */
+        private static double boost(Document document, String query) {
+            if (query.equals(document.normalizedSku)) {
+                return 3;
+            }
+            if (document.normalizedName.startsWith(query)) {
+                return 2;
+            }
+            if (document.text.contains(query)) {
+                return 1;
+            }
+            return 0;
+        }
+    }
+
+    private static final class Scored {
+        private final Document document;
+        private final double score;
+
+        private Scored(Document document, double score) {
+            this.document = document;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Documents for entity changes, used by {@link CatalogSearchIndexListener}
+     */
+    static IndexUpdate update(String tenant, Document document, boolean active) {
+        return active
+            ? new IndexUpdate(tenant, List.of(document), List.of())
+            : new IndexUpdate(tenant, List.of(), List.of(document.id));
+    }
+
+    static IndexUpdate removal(String tenant, Collection<UUID> ids) {
+        return new IndexUpdate(tenant, List.of(), new ArrayList<>(ids));
+    }
+}
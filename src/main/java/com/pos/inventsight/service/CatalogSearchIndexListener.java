@@ -0,0 +1,83 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.sql.Company;
+import com.pos.inventsight.model.sql.PredefinedItem;
+import com.pos.inventsight.model.sql.Product;
+import com.pos.inventsight.model.sql.Store;
+import com.pos.inventsight.tenant.TenantContext;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JPA listener on {@link Product} and {@link PredefinedItem} that publishes their changes to
+ * {@link CatalogSearchIndex}. The index applies them after the transaction commits.
+ *
+ * Callbacks run during flush, so only already-loaded associations are read. A product whose
+ * company is only reachable through an unloaded store is published without one, and the
+ * index fills it in from what it already knows.
+ */
+@Component
+public class CatalogSearchIndexListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof Product product) {
+            publish(CatalogSearchIndex.update(tenant(), document(product), !Boolean.FALSE.equals(product.getIsActive())));
+        } else if (entity instanceof PredefinedItem item) {
+            publish(CatalogSearchIndex.update(tenant(), document(item), !Boolean.FALSE.equals(item.getIsActive())));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        UUID id = entity instanceof Product product ? product.getId()
+            : entity instanceof PredefinedItem item ? item.getId() : null;
+        if (id != null) {
+            publish(CatalogSearchIndex.removal(tenant(), List.of(id)));
+        }
+    }
+
+    static CatalogSearchIndex.Document document(Product product) {
+        UUID companyId = idOf(product.getCompany());
+        Store store = product.getStore();
+        if (companyId == null && store != null && Hibernate.isInitialized(store)) {
+            companyId = idOf(store.getCompany());
+        }
+        UUID locationId = store != null ? store.getId()
+            : product.getWarehouse() != null ? product.getWarehouse().getId() : null;
+        return new CatalogSearchIndex.Document(product.getId(), CatalogSearchIndex.Kind.PRODUCT,
+            product.getName(), product.getSku(), product.getCategory(), companyId, locationId);
+    }
+
+    static CatalogSearchIndex.Document document(PredefinedItem item) {
+        return new CatalogSearchIndex.Document(item.getId(), CatalogSearchIndex.Kind.PREDEFINED_ITEM,
+            item.getName(), item.getSku(), item.getCategory(), idOf(item.getCompany()), null);
+    }
+
+    private static UUID idOf(Company company) {
+        return company != null ? company.getId() : null;
+    }
+
+    private static String tenant() {
+        return TenantContext.getCurrentTenant();
+    }
+
+    private void publish(CatalogSearchIndex.IndexUpdate update) {
+        // Null when Hibernate instantiated the listener outside the Spring context
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(update);
+        }
+    }
+}
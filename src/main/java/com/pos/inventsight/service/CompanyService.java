@@ -37,6 +37,9 @@ public class CompanyService {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
     /**
      * Create a new company with the user as founder
      */
@@ -68,6 +71,7 @@ public class CompanyService {
         // Create role mapping entry for many-to-many support
         CompanyStoreUserRole roleMapping = new CompanyStoreUserRole(savedMembership, CompanyRole.FOUNDER, username);
         companyStoreUserRoleRepository.save(roleMapping);
+        principalCache.invalidateUser(user.getId());
         
         System.out.println("🏢 Company created: " + savedCompany.getName() + " (ID: " + savedCompany.getId() + ") with founder: " + username);
         
@@ -158,7 +162,9 @@ public class CompanyService {
         
         // Create company-user relationship
         CompanyStoreUser companyStoreUser = new CompanyStoreUser(company, userToAdd, role, username);
-        return companyStoreUserRepository.save(companyStoreUser);
+        CompanyStoreUser savedMembership = companyStoreUserRepository.save(companyStoreUser);
+        principalCache.invalidateUser(userToAdd.getId());
+        return savedMembership;
     }
     
     /**
@@ -190,7 +196,9 @@ public class CompanyService {
         
         // Create company-store-user relationship
         CompanyStoreUser companyStoreUser = new CompanyStoreUser(company, store, userToAdd, role, username);
-        return companyStoreUserRepository.save(companyStoreUser);
+        CompanyStoreUser savedMembership = companyStoreUserRepository.save(companyStoreUser);
+        principalCache.invalidateUser(userToAdd.getId());
+        return savedMembership;
     }
     
     /**
@@ -214,6 +222,7 @@ public class CompanyService {
             relationship.revokeRole(username);
             companyStoreUserRepository.save(relationship);
         }
+        principalCache.invalidateUser(userToRemove.getId());
     }
     
     /**
@@ -327,6 +336,7 @@ public class CompanyService {
             // If exists but inactive, reactivate it
             if (!existingRole.get().getIsActive()) {
                 existingRole.get().restoreRole();
+                principalCache.invalidateUser(membership.getUser().getId());
                 return companyStoreUserRoleRepository.save(existingRole.get());
             }
             throw new DuplicateResourceException("User already has this role in the company");
@@ -334,6 +344,7 @@ public class CompanyService {
         
         // Create new role mapping
         CompanyStoreUserRole roleMapping = new CompanyStoreUserRole(membership, role, username);
+        principalCache.invalidateUser(membership.getUser().getId());
         return companyStoreUserRoleRepository.save(roleMapping);
     }
     
@@ -371,6 +382,7 @@ public class CompanyService {
         
         roleMapping.get().revokeRole(username);
         companyStoreUserRoleRepository.save(roleMapping.get());
+        principalCache.invalidateUser(membership.getUser().getId());
     }
     
     /**
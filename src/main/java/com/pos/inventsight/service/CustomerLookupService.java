@@ -0,0 +1,193 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.dto.CustomerResponse;
+import com.pos.inventsight.model.sql.Company;
+import com.pos.inventsight.model.sql.Customer;
+import com.pos.inventsight.model.sql.Store;
+import com.pos.inventsight.repository.sql.CustomerRepository;
+import com.pos.inventsight.util.ContactNormalizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Customer lookup at checkout.
+ *
+ * A complete phone number or email is answered by an exact match on the normalized
+ * {@code phone_normalized} / {@code email_normalized} columns. Partial input is matched
+ * as a prefix of the normalized phone, lowercased email or name, which the
+ * {@code varchar_pattern_ops} indexes serve. Only when neither finds anything does the
+ * search fall back to the substring query, which also covers rows whose phone could not be
+ * normalized.
+ *
+ * Each store (or company, for searches without a store) remembers the customers it
+ * recently found by exact phone or email, so repeat shoppers are loaded by primary key.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CustomerLookupService {
+
+    /** Partial phone numbers shorter than this are not prefix-searched */
+    private static final int MIN_PHONE_PREFIX_DIGITS = 3;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Value("${inventsight.customers.phone-region:MM}")
+    private String phoneRegion = "MM";
+
+    @Value("${inventsight.customers.recent-lookups-per-store:256}")
+    private int recentLookupsPerStore = 256;
+
+    private final Map<UUID, RecentLookups> recentLookups = new ConcurrentHashMap<>();
+
+    /**
+     * E.164 form of a phone number in the configured default region, or null if it is not valid
+     */
+    public String normalizePhone(String phone) {
+        return ContactNormalizer.normalizePhone(phone, phoneRegion);
+    }
+
+    /**
+     * Search a company's active customers, optionally only those of one store
+     */
+    public Page<CustomerResponse> search(Company company, Store store, String searchTerm, Pageable pageable) {
+        String term = searchTerm != null ? searchTerm.trim() : "";
+        UUID scope = store != null ? store.getId() : company.getId();
+
+        // Exact phone or email
+        String phone = ContactNormalizer.isPhoneLike(term) ? normalizePhone(term) : null;
+        String email = term.indexOf('@') > 0 ? ContactNormalizer.normalizeEmail(term) : null;
+        String key = phone != null ? phone : email;
+        if (key != null) {
+            Optional<Customer> recent = recentCustomer(scope, key, phone != null, company);
+            if (recent.isPresent()) {
+                return page(List.of(recent.get()), pageable);
+            }
+            List<Customer> exact = phone != null
+                ? customerRepository.findByCompanyAndPhoneNormalizedAndIsActiveTrue(company, phone)
+                : customerRepository.findByCompanyAndEmailNormalizedAndIsActiveTrue(company, email);
+            if (store != null) {
+                exact = exact.stream().filter(customer -> customer.getStore() != null
+                    && store.getId().equals(customer.getStore().getId())).toList();
+            }
+            if (!exact.isEmpty()) {
+                if (exact.size() == 1) {
+                    recentLookups.computeIfAbsent(scope, id -> new RecentLookups(recentLookupsPerStore))
+                        .put(key, exact.get(0).getId());
+                }
+                return page(exact, pageable);
+            }
+        }
+
+        // Prefix of phone, email or name
+        if (!term.isEmpty()) {
+            String phonePrefix = ContactNormalizer.phonePrefix(term, phoneRegion);
+            if (phonePrefix != null && phonePrefix.replace("+", "").length() < MIN_PHONE_PREFIX_DIGITS) {
+                phonePrefix = null;
+            }
+            String textPrefix = escapeLike(term.toLowerCase()) + "%";
+            Page<Customer> prefixed = store != null
+                ? customerRepository.searchCustomersByPrefixAndStore(company, store,
+                    phonePrefix != null ? phonePrefix + "%" : null, textPrefix, pageable)
+                : customerRepository.searchCustomersByPrefix(company,
+                    phonePrefix != null ? phonePrefix + "%" : null, textPrefix, pageable);
+            if (prefixed.getTotalElements() > 0) {
+                return prefixed.map(CustomerResponse::new);
+            }
+        }
+
+        // Substring match anywhere in name, phone or email
+        Page<Customer> customers = store != null
+            ? customerRepository.searchCustomersByStore(company, store, term, pageable)
+            : customerRepository.searchCustomers(company, term, pageable);
+        return customers.map(CustomerResponse::new);
+    }
+
+    /**
+     * Forget a customer in every store's recent lookups, e.g. after its phone or email changed
+     */
+    public void evict(UUID customerId) {
+        for (RecentLookups lookups : recentLookups.values()) {
+            lookups.removeCustomer(customerId);
+        }
+    }
+
+    private Optional<Customer> recentCustomer(UUID scope, String key, boolean byPhone, Company company) {
+        RecentLookups lookups = recentLookups.get(scope);
+        UUID customerId = lookups != null ? lookups.get(key) : null;
+        if (customerId == null) {
+            return Optional.empty();
+        }
+        Optional<Customer> customer = customerRepository.findByIdAndCompanyAndIsActiveTrue(customerId, company);
+        if (customer.isEmpty()) {
+            lookups.removeCustomer(customerId);
+            return customer;
+        }
+        // The phone or email may have changed since the lookup was remembered
+        String current = byPhone ? customer.get().getPhoneNormalized() : customer.get().getEmailNormalized();
+        if (!key.equals(current)) {
+            lookups.remove(key);
+            return Optional.empty();
+        }
+        return customer;
+    }
+
+    private static Page<CustomerResponse> page(List<Customer> customers, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), customers.size());
+        int to = Math.min(from + pageable.getPageSize(), customers.size());
+        List<CustomerResponse> content = new ArrayList<>(to - from);
+        for (Customer customer : customers.subList(from, to)) {
+            content.add(new CustomerResponse(customer));
+        }
+        return new PageImpl<>(content, pageable, customers.size());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Least recently used map from normalized phone or email to customer ID
+     */
+    private static final class RecentLookups {
+        private final LinkedHashMap<String, UUID> entries;
+
+        RecentLookups(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, UUID> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized UUID get(String key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(String key, UUID customerId) {
+            entries.put(key, customerId);
+        }
+
+        synchronized void remove(String key) {
+            entries.remove(key);
+        }
+
+        synchronized void removeCustomer(UUID customerId) {
+            entries.values().removeIf(customerId::equals);
+        }
+    }
+}
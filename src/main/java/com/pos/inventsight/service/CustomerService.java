@@ -13,6 +13,7 @@ import com.pos.inventsight.model.sql.User;
 import com.pos.inventsight.repository.sql.CompanyStoreUserRepository;
 import com.pos.inventsight.repository.sql.CustomerRepository;
 import com.pos.inventsight.repository.sql.StoreRepository;
+import com.pos.inventsight.util.ContactNormalizer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,6 +45,9 @@ public class CustomerService {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private CustomerLookupService customerLookupService;
+    
     /**
      * Get the user's primary company.
      * 
@@ -104,6 +108,8 @@ public class CustomerService {
         Customer customer = new Customer(request.getName(), company, user, CustomerType.REGISTERED);
         customer.setEmail(request.getEmail());
         customer.setPhoneNumber(request.getPhone());
+        customer.setEmailNormalized(ContactNormalizer.normalizeEmail(request.getEmail()));
+        customer.setPhoneNormalized(customerLookupService.normalizePhone(request.getPhone()));
         customer.setAddress(request.getAddress());
         customer.setCity(request.getCity());
         customer.setState(request.getState());
@@ -144,20 +150,15 @@ public class CustomerService {
     }
     
     /**
-     * Search customers with optional store filter
+     * Search customers with optional store filter.
+     * Exact phone/email and prefix matches are tried before a substring search.
      */
     public Page<CustomerResponse> searchCustomers(String searchTerm, UUID storeId, Pageable pageable, Authentication auth) {
         User user = userService.getUserByUsername(auth.getName());
         Company company = getUserCompany(user);
         
-        Page<Customer> customers;
-        if (storeId != null) {
-            Store store = validateStoreOwnership(storeId, company);
-            customers = customerRepository.searchCustomersByStore(company, store, searchTerm, pageable);
-        } else {
-            customers = customerRepository.searchCustomers(company, searchTerm, pageable);
-        }
-        return customers.map(CustomerResponse::new);
+        Store store = storeId != null ? validateStoreOwnership(storeId, company) : null;
+        return customerLookupService.search(company, store, searchTerm, pageable);
     }
     
     /**
@@ -235,6 +236,8 @@ public class CustomerService {
         customer.setName(request.getName());
         customer.setEmail(request.getEmail());
         customer.setPhoneNumber(request.getPhone());
+        customer.setEmailNormalized(ContactNormalizer.normalizeEmail(request.getEmail()));
+        customer.setPhoneNormalized(customerLookupService.normalizePhone(request.getPhone()));
         customer.setAddress(request.getAddress());
         customer.setCity(request.getCity());
         customer.setState(request.getState());
@@ -244,6 +247,7 @@ public class CustomerService {
         customer.setStore(store);
         
         Customer updated = customerRepository.save(customer);
+        customerLookupService.evict(id);
         logger.info("Updated customer {} in company {}", id, company.getId());
         
         return new CustomerResponse(updated);
@@ -261,6 +265,7 @@ public class CustomerService {
         
         customer.softDelete(user);
         customerRepository.save(customer);
+        customerLookupService.evict(id);
         
         logger.info("Soft deleted customer {} in company {} by user {}", 
                    id, company.getId(), user.getUsername());
@@ -0,0 +1,172 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.dto.DashboardSummaryResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived dashboard summary snapshots per tenant and store.
+ *
+ * The dashboard summary is read far more often than the figures behind it
+ * change, so a built summary is shared by every request for the same tenant
+ * and store until its TTL expires. Committed sales and refunds invalidate the
+ * tenant's snapshots straight away; the TTL bounds staleness for other writes
+ * and for writes made on other nodes.
+ *
+ * Each tenant has a generation counter that invalidation bumps. Snapshots
+ * remember the generation they were built under, so a slow build that
+ * overlaps an invalidation is never served.
+ */
+@Service
+public class DashboardSnapshotCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardSnapshotCache.class);
+
+    @Value("${inventsight.dashboard.snapshot.ttl-ms:30000}")
+    private long ttlMs = 30000;
+
+    @Value("${inventsight.dashboard.snapshot.max-entries:1000}")
+    private int maxEntries = 1000;
+
+    private final ConcurrentHashMap<Key, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    /**
+     * Return the current snapshot for a tenant and store, building it if missing or stale.
+     * A builder that throws leaves the cache untouched and the exception propagates.
+     *
+     * @param storeId the store the summary is scoped to, or null for company-wide
+     */
+    public DashboardSummaryResponse getOrBuild(String tenant, UUID storeId,
+                                               Supplier<DashboardSummaryResponse> builder) {
+        if (ttlMs <= 0) {
+            return builder.get();
+        }
+        Key key = new Key(tenant, storeId);
+        long generation = generation(tenant).get();
+        long now = System.currentTimeMillis();
+
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot != null && snapshot.generation == generation && snapshot.expiresAt > now) {
+            return snapshot.summary;
+        }
+
+        DashboardSummaryResponse summary = freeze(builder.get());
+        if (snapshots.size() >= maxEntries) {
+            evictExpired(now);
+        }
+        if (snapshots.size() < maxEntries) {
+            snapshots.put(key, new Snapshot(summary, generation, System.currentTimeMillis() + ttlMs));
+        }
+        return summary;
+    }
+
+    /**
+     * Drop every snapshot of a tenant.
+     */
+    public void invalidateTenant(String tenant) {
+        generation(tenant).incrementAndGet();
+        snapshots.keySet().removeIf(key -> Objects.equals(key.tenant, tenant));
+        logger.debug("Dashboard snapshots invalidated for tenant {}", tenant);
+    }
+
+    /**
+     * Sales and refunds change every headline figure, so they invalidate once committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleDelta(SalesAnalyticsAggregator.SaleDelta delta) {
+        invalidateTenant(delta.getTenant());
+    }
+
+    /**
+     * Number of cached snapshots, including expired ones not yet evicted.
+     */
+    public int size() {
+        return snapshots.size();
+    }
+
+    private AtomicLong generation(String tenant) {
+        return generations.computeIfAbsent(tenant, t -> new AtomicLong());
+    }
+
+    private void evictExpired(long now) {
+        snapshots.values().removeIf(snapshot -> snapshot.expiresAt <= now);
+    }
+
+    /**
+     * Snapshots are shared between requests, so their collections are made read-only.
+     */
+    private static DashboardSummaryResponse freeze(DashboardSummaryResponse summary) {
+        if (summary.getDailySales() != null) {
+            summary.setDailySales(Collections.unmodifiableList(summary.getDailySales()));
+        }
+        if (summary.getTopSellingItems() != null) {
+            summary.setTopSellingItems(Collections.unmodifiableList(summary.getTopSellingItems()));
+        }
+        if (summary.getRecentOrders() != null) {
+            summary.setRecentOrders(Collections.unmodifiableList(summary.getRecentOrders()));
+        }
+        if (summary.getRecentActivities() != null) {
+            summary.setRecentActivities(Collections.unmodifiableList(summary.getRecentActivities()));
+        }
+        if (summary.getBestPerformer() != null) {
+            summary.setBestPerformer(Collections.unmodifiableMap(summary.getBestPerformer()));
+        }
+        if (summary.getTransferStats() != null) {
+            summary.setTransferStats(Collections.unmodifiableMap(summary.getTransferStats()));
+        }
+        if (summary.getWarehouseStats() != null) {
+            summary.setWarehouseStats(Collections.unmodifiableMap(summary.getWarehouseStats()));
+        }
+        if (summary.getSalesOrderStats() != null) {
+            summary.setSalesOrderStats(Collections.unmodifiableMap(summary.getSalesOrderStats()));
+        }
+        return summary;
+    }
+
+    private static final class Snapshot {
+        private final DashboardSummaryResponse summary;
+        private final long generation;
+        private final long expiresAt;
+
+        private Snapshot(DashboardSummaryResponse summary, long generation, long expiresAt) {
+            this.summary = summary;
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Key {
+        private final String tenant;
+        private final UUID storeId;
+
+        private Key(String tenant, UUID storeId) {
+            this.tenant = tenant;
+            this.storeId = storeId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return Objects.equals(tenant, other.tenant) && Objects.equals(storeId, other.storeId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, storeId);
+        }
+    }
+}
@@ -29,6 +29,9 @@ public class EmailVerificationService {
     @Autowired
     private ActivityLogService activityLogService;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
     @Autowired
     private EmailService emailService;
     
@@ -104,6 +107,7 @@ public class EmailVerificationService {
             user.setEmailVerified(true);
             user.setUpdatedAt(LocalDateTime.now());
             userRepository.save(user);
+            principalCache.invalidateUser(user.getId());
             
             // Log activity
             activityLogService.logActivity(
@@ -39,6 +39,9 @@ public class GdprService {
     @Autowired
     private AuditService auditService;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -258,6 +261,7 @@ public class GdprService {
         user.setEmailVerified(false);
         user.setIsActive(false);
         userRepository.save(user);
+        principalCache.invalidateUser(user.getId());
         
         logger.info("Hard delete completed for user ID: {}", user.getId());
     }
@@ -283,6 +287,7 @@ public class GdprService {
             membership.setIsActive(false);
             companyStoreUserRepository.save(membership);
         });
+        principalCache.invalidateUser(user.getId());
         
         logger.info("Soft delete (anonymization) completed for user ID: {}", user.getId());
     }
@@ -1,11 +1,14 @@
 package com.pos.inventsight.service;
 
+import com.pos.inventsight.model.sql.CompressedTextConverter;
 import com.pos.inventsight.model.sql.IdempotencyKey;
 import com.pos.inventsight.repository.sql.IdempotencyKeyRepository;
 import com.pos.inventsight.tenant.TenantContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,23 +16,63 @@ import org.springframework.transaction.annotation.Transactional;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Service for managing idempotency keys to ensure duplicate requests are handled correctly.
  * Provides request hashing, key storage/lookup, and response replay capabilities.
+ * 
+ * Stored responses are looked up in three tiers: a bounded in-process map, Redis when
+ * enabled, then the idempotency_keys table. Each key is executed at most once at a time:
+ * the first request claims it in the in-flight registry (and in Redis across nodes) and
+ * concurrent duplicates wait for its stored response instead of running again.
  */
 @Service
 public class IdempotencyService {
     
     private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
     
+    private static final String REDIS_PREFIX = "inventsight:idempotency:";
+    
+    private static final String REDIS_INFLIGHT_PREFIX = "inventsight:idempotency:inflight:";
+    
     private final IdempotencyKeyRepository idempotencyKeyRepository;
     
+    @Autowired(required = false)
+    private RedisTemplate<String, Object> redisTemplate;
+    
     @Value("${inventsight.sync.idempotency.ttl-hours:24}")
-    private int ttlHours;
+    private int ttlHours = 24;
+    
+    @Value("${inventsight.sync.idempotency.hot.max-entries:10000}")
+    private int hotMaxEntries = 10000;
+    
+    @Value("${inventsight.sync.idempotency.redis.enabled:false}")
+    private boolean redisEnabled;
+    
+    @Value("${inventsight.sync.idempotency.in-flight.wait-ms:30000}")
+    private long inFlightWaitMs = 30000;
+    
+    @Value("${inventsight.sync.idempotency.in-flight.poll-ms:100}")
+    private long inFlightPollMs = 100;
+    
+    @Value("${inventsight.sync.idempotency.partitions.days-ahead:2}")
+    private int partitionDaysAhead = 2;
+    
+    private final Map<String, IdempotencyKey> hot = new ConcurrentHashMap<>();
+    
+    private final Map<String, CompletableFuture<Optional<IdempotencyKey>>> inFlight = new ConcurrentHashMap<>();
     
     public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository) {
         this.idempotencyKeyRepository = idempotencyKeyRepository;
@@ -69,7 +112,100 @@ public class IdempotencyService {
      * @return Optional containing the IdempotencyKey if found
      */
     public Optional<IdempotencyKey> findIdempotencyKey(String key, UUID tenantId) {
-        return idempotencyKeyRepository.findByIdempotencyKeyAndTenantId(key, tenantId);
+        String slot = slot(key, tenantId);
+        IdempotencyKey cached = hot.get(slot);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                return Optional.of(cached);
+            }
+            hot.remove(slot, cached);
+        }
+        
+        Optional<IdempotencyKey> found = readRedis(slot, key, tenantId);
+        if (found.isEmpty()) {
+            found = idempotencyKeyRepository.findFirstByIdempotencyKeyAndTenantIdOrderByCreatedAtAsc(key, tenantId);
+            found.ifPresent(stored -> writeRedis(slot, stored));
+        }
+        found.ifPresent(stored -> putHot(slot, stored));
+        return found;
+    }
+    
+    /**
+     * Claim a key for execution. The owner runs the request and must call
+     * {@link #completeExecution}; everyone else calls {@link #awaitExecution}.
+     * @param key Idempotency key
+     * @param tenantId Tenant ID
+     * @return The claim
+     */
+    public Execution beginExecution(String key, UUID tenantId) {
+        String slot = slot(key, tenantId);
+        CompletableFuture<Optional<IdempotencyKey>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<IdempotencyKey>> running = inFlight.putIfAbsent(slot, mine);
+        if (running != null) {
+            return new Execution(key, tenantId, running, false, false);
+        }
+        if (redisEnabled && redisTemplate != null && !claimInRedis(slot)) {
+            // Another node is executing; this request polls for its result and local duplicates wait on us
+            return new Execution(key, tenantId, mine, false, true);
+        }
+        return new Execution(key, tenantId, mine, true, false);
+    }
+    
+    /**
+     * Wait for the owner of a key to finish
+     * @param execution Claim returned by {@link #beginExecution} that is not the owner
+     * @return The stored response, or empty if the owner failed or did not finish in time
+     */
+    public Optional<IdempotencyKey> awaitExecution(Execution execution) {
+        if (!execution.remote) {
+            try {
+                return execution.result.get(inFlightWaitMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            } catch (ExecutionException | TimeoutException e) {
+                return Optional.empty();
+            }
+        }
+        
+        Optional<IdempotencyKey> result = Optional.empty();
+        String slot = slot(execution.key, execution.tenantId);
+        long deadline = System.currentTimeMillis() + inFlightWaitMs;
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                result = findIdempotencyKey(execution.key, execution.tenantId);
+                if (result.isPresent() || !Boolean.TRUE.equals(redisTemplate.hasKey(REDIS_INFLIGHT_PREFIX + slot))) {
+                    break;
+                }
+                Thread.sleep(inFlightPollMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Failed to poll idempotency key {} from Redis: {}", execution.key, e.getMessage());
+        } finally {
+            inFlight.remove(slot, execution.result);
+            execution.result.complete(result);
+        }
+        return result;
+    }
+    
+    /**
+     * Release a claim and hand the stored response to waiting duplicates
+     * @param execution Claim returned by {@link #beginExecution} as owner
+     * @param stored Stored response, or null if the request failed without one
+     */
+    public void completeExecution(Execution execution, IdempotencyKey stored) {
+        String slot = slot(execution.key, execution.tenantId);
+        inFlight.remove(slot, execution.result);
+        execution.result.complete(Optional.ofNullable(stored));
+        if (redisEnabled && redisTemplate != null) {
+            try {
+                redisTemplate.delete(REDIS_INFLIGHT_PREFIX + slot);
+            } catch (Exception e) {
+                logger.warn("Failed to release idempotency claim {} in Redis: {}", execution.key, e.getMessage());
+            }
+        }
     }
     
     /**
@@ -99,16 +235,30 @@ public class IdempotencyService {
         idempotencyKey.setExpiresAt(LocalDateTime.now().plusHours(ttlHours));
         
         logger.debug("Storing idempotency key: {} for tenant: {}", key, tenantId);
-        return idempotencyKeyRepository.save(idempotencyKey);
+        IdempotencyKey saved = idempotencyKeyRepository.save(idempotencyKey);
+        String slot = slot(key, tenantId);
+        putHot(slot, saved);
+        writeRedis(slot, saved);
+        return saved;
     }
     
     /**
-     * Clean up expired idempotency keys
+     * Expire idempotency keys by dropping day partitions whose keys have all expired.
+     * Falls back to deleting expired rows where the table is not partitioned (e.g. H2).
      * Scheduled to run every hour
      */
     @Scheduled(cron = "0 0 * * * *") // Every hour
-    @Transactional
     public void cleanupExpiredKeys() {
+        hot.values().removeIf(this::isExpired);
+        try {
+            Integer dropped = idempotencyKeyRepository.maintainPartitions(ttlHours, partitionDaysAhead);
+            if (dropped != null && dropped > 0) {
+                logger.info("Dropped {} expired idempotency key partitions", dropped);
+            }
+            return;
+        } catch (Exception e) {
+            logger.warn("Idempotency key partition maintenance failed, deleting expired rows: {}", e.getMessage());
+        }
         try {
             int deletedCount = idempotencyKeyRepository.deleteExpiredKeys(LocalDateTime.now());
             if (deletedCount > 0) {
@@ -119,6 +269,87 @@ public class IdempotencyService {
         }
     }
     
+    private static String slot(String key, UUID tenantId) {
+        return tenantId + ":" + key;
+    }
+    
+    private boolean isExpired(IdempotencyKey stored) {
+        return stored.getExpiresAt() != null && stored.getExpiresAt().isBefore(LocalDateTime.now());
+    }
+    
+    private void putHot(String slot, IdempotencyKey stored) {
+        if (hot.size() >= hotMaxEntries) {
+            hot.values().removeIf(this::isExpired);
+            if (hot.size() >= hotMaxEntries) {
+                return;
+            }
+        }
+        hot.put(slot, stored);
+    }
+    
+    private boolean claimInRedis(String slot) {
+        try {
+            Boolean claimed = redisTemplate.opsForValue()
+                .setIfAbsent(REDIS_INFLIGHT_PREFIX + slot, "1", Duration.ofMillis(inFlightWaitMs));
+            return !Boolean.FALSE.equals(claimed);
+        } catch (Exception e) {
+            // Without Redis, fall back to per-node deduplication
+            logger.warn("Failed to claim idempotency key in Redis: {}", e.getMessage());
+            return true;
+        }
+    }
+    
+    private Optional<IdempotencyKey> readRedis(String slot, String key, UUID tenantId) {
+        if (!redisEnabled || redisTemplate == null) {
+            return Optional.empty();
+        }
+        try {
+            Map<Object, Object> fields = redisTemplate.opsForHash().entries(REDIS_PREFIX + slot);
+            if (fields == null || fields.isEmpty()) {
+                return Optional.empty();
+            }
+            IdempotencyKey stored = new IdempotencyKey();
+            stored.setIdempotencyKey(key);
+            stored.setTenantId(tenantId);
+            stored.setEndpoint((String) fields.get("endpoint"));
+            stored.setRequestHash((String) fields.get("requestHash"));
+            stored.setResponseStatus(((Number) fields.get("status")).intValue());
+            Object body = fields.get("body");
+            if (body != null) {
+                stored.setResponseBody(CompressedTextConverter.decompress(Base64.getDecoder().decode((String) body)));
+            }
+            stored.setExpiresAt(LocalDateTime.parse((String) fields.get("expiresAt")));
+            return Optional.of(stored);
+        } catch (Exception e) {
+            logger.warn("Failed to read idempotency key {} from Redis: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+    
+    private void writeRedis(String slot, IdempotencyKey stored) {
+        if (!redisEnabled || redisTemplate == null || stored.getExpiresAt() == null) {
+            return;
+        }
+        long ttlMillis = Duration.between(LocalDateTime.now(), stored.getExpiresAt()).toMillis();
+        if (ttlMillis <= 0) {
+            return;
+        }
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("endpoint", stored.getEndpoint());
+        fields.put("requestHash", stored.getRequestHash());
+        fields.put("status", stored.getResponseStatus());
+        fields.put("expiresAt", stored.getExpiresAt().toString());
+        if (stored.getResponseBody() != null) {
+            fields.put("body", Base64.getEncoder().encodeToString(CompressedTextConverter.compress(stored.getResponseBody())));
+        }
+        try {
+            redisTemplate.opsForHash().putAll(REDIS_PREFIX + slot, fields);
+            redisTemplate.expire(REDIS_PREFIX + slot, Duration.ofMillis(ttlMillis));
+        } catch (Exception e) {
+            logger.warn("Failed to write idempotency key {} to Redis: {}", stored.getIdempotencyKey(), e.getMessage());
+        }
+    }
+    
     /**
      * Extract tenant ID from current context or parse from tenant context string
      * @return Tenant UUID or null if not found
@@ -136,4 +367,35 @@ public class IdempotencyService {
         }
         return null;
     }
+    
+    /**
+     * A request's claim on an idempotency key
+     */
+    public static final class Execution {
+        private final String key;
+        private final UUID tenantId;
+        private final CompletableFuture<Optional<IdempotencyKey>> result;
+        private final boolean owner;
+        private final boolean remote;
+        
+        Execution(String key, UUID tenantId, CompletableFuture<Optional<IdempotencyKey>> result,
+                  boolean owner, boolean remote) {
+            this.key = key;
+            this.tenantId = tenantId;
+            this.result = result;
+            this.owner = owner;
+            this.remote = remote;
+        }
+        
+        /**
+         * Claim for a request that runs without deduplication (tests, disabled tiers)
+         */
+        public static Execution owner(String key, UUID tenantId) {
+            return new Execution(key, tenantId, new CompletableFuture<>(), true, false);
+        }
+        
+        public boolean isOwner() {
+            return owner;
+        }
+    }
 }
@@ -2,24 +2,45 @@ package com.pos.inventsight.service;
 
 import com.sksamuel.scrimage.ImmutableImage;
 import com.sksamuel.scrimage.webp.WebpWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class ImageService {
     
     private static final Logger logger = LoggerFactory.getLogger(ImageService.class);
     
+    private static final String URL_PREFIX = "/uploads/images/";
+    private static final String ORIGINALS_DIR = "originals";
+    
     @Value("${app.image.upload-dir:./uploads/images}")
     private String uploadDir;
     
@@ -29,24 +50,71 @@ public class ImageService {
     @Value("${app.image.max-height:800}")
     private int maxHeight;
     
+    @Value("${app.image.list-size:400}")
+    private int listSize = 400;
+    
+    @Value("${app.image.thumb-size:150}")
+    private int thumbSize = 150;
+    
     @Value("${app.image.quality:85}")
     private int quality;
     
+    @Value("${app.image.worker-threads:0}")
+    private int workerThreads = 0;
+    
+    @Value("${app.image.queue-capacity:100}")
+    private int queueCapacity = 100;
+    
     @Value("${spring.servlet.multipart.max-file-size:5MB}")
     private String maxFileSizeStr;
     
     /**
-     * Upload and process an image
+     * Content hashes whose variants are being generated
+     */
+    private final Map<String, Boolean> processing = new ConcurrentHashMap<>();
+    
+    private ExecutorService executor;
+    
+    @PostConstruct
+    public void start() {
+        int threads = workerThreads > 0 ? workerThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        // When the queue is full the uploading thread encodes its own variants, which throttles uploads
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                Thread thread = new Thread(runnable, "image-variants-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Upload an image
      * - Validates file size (max 5MB)
-     * - Resizes to max dimensions
-     * - Converts to WebP format
-     * - Stores in upload directory
-     * 
+     * - Streams the upload to disk, named by its SHA-256 so identical uploads are stored once
+     * - Queues WebP variants (detail, list, thumb) resized to their max dimensions
+     *
+     * Returns once the original is persisted. Variant URLs are fixed up front and start
+     * serving when their generation finishes.
+     *
      * @param file The uploaded image file
-     * @return The relative path to the saved image
+     * @return The image URLs and whether variants are still being generated
      * @throws IOException if upload fails
      */
-    public String uploadImage(MultipartFile file) throws IOException {
+    public ImageUpload uploadImage(MultipartFile file) throws IOException {
         // Validate file
         if (file.isEmpty()) {
             throw new IllegalArgumentException("File is empty");
@@ -65,43 +133,47 @@ public class ImageService {
             throw new IllegalArgumentException("File must be an image");
         }
         
-        // Create upload directory if it doesn't exist
         Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        Path originals = uploadPath.resolve(ORIGINALS_DIR);
+        Files.createDirectories(originals);
+        
+        String hash = persistOriginal(file, originals);
+        if (!isDecodable(originals.resolve(hash))) {
+            Files.deleteIfExists(originals.resolve(hash));
+            throw new IllegalArgumentException("File is not a valid image");
         }
+        ImageUpload upload = new ImageUpload(hash);
         
-        // Generate unique filename
-        String filename = UUID.randomUUID().toString() + ".webp";
-        Path filePath = uploadPath.resolve(filename);
+        if (variantsExist(uploadPath, hash)) {
+            logger.info("Image {} already processed, reusing variants", hash);
+            return upload;
+        }
         
-        try {
-            // Load image using scrimage
-            ImmutableImage image = ImmutableImage.loader().fromBytes(file.getBytes());
-            
-            // Resize if needed while maintaining aspect ratio
-            if (image.width > maxWidth || image.height > maxHeight) {
-                image = image.max(maxWidth, maxHeight);
-            }
-            
-            // Save as WebP with compression
-            WebpWriter writer = WebpWriter.DEFAULT.withQ(quality);
-            image.output(writer, filePath);
-            
-            logger.info("Image uploaded successfully: {}", filename);
-            
-            // Return relative path
-            return "/uploads/images/" + filename;
-            
-        } catch (Exception e) {
-            logger.error("Failed to process image: {}", e.getMessage(), e);
-            throw new IOException("Failed to process image: " + e.getMessage(), e);
+        if (processing.putIfAbsent(hash, Boolean.TRUE) == null) {
+            executor.execute(() -> {
+                try {
+                    writeVariants(originals.resolve(hash), uploadPath, hash);
+                } finally {
+                    processing.remove(hash);
+                }
+            });
         }
+        upload.processing = processing.containsKey(hash);
+        logger.info("Image {} uploaded, variants {}", hash, upload.processing ? "queued" : "ready");
+        return upload;
     }
     
     /**
-     * Delete an image file
-     * 
+     * Whether variants of an image URL are still being generated
+     */
+    public boolean isProcessing(String imagePath) {
+        String hash = hashOf(imagePath);
+        return hash != null && processing.containsKey(hash);
+    }
+    
+    /**
+     * Delete an image file with its variants and original
+     *
      * @param imagePath The relative path to the image
      * @return true if deleted successfully
      */
@@ -111,15 +183,27 @@ public class ImageService {
         }
         
         try {
-            // Extract filename from path
-            String filename = imagePath.substring(imagePath.lastIndexOf('/') + 1);
-            Path filePath = Paths.get(uploadDir).resolve(filename);
+            Path uploadPath = Paths.get(uploadDir);
+            String hash = hashOf(imagePath);
+            if (hash == null) {
+                // Single file from before variants were generated
+                String filename = imagePath.substring(imagePath.lastIndexOf('/') + 1);
+                boolean deleted = Files.deleteIfExists(uploadPath.resolve(filename));
+                if (deleted) {
+                    logger.info("Image deleted successfully: {}", filename);
+                }
+                return deleted;
+            }
             
-            if (Files.exists(filePath)) {
-                Files.delete(filePath);
-                logger.info("Image deleted successfully: {}", filename);
-                return true;
+            boolean deleted = false;
+            for (Variant variant : Variant.values()) {
+                deleted |= Files.deleteIfExists(uploadPath.resolve(variant.filename(hash)));
+            }
+            deleted |= Files.deleteIfExists(uploadPath.resolve(ORIGINALS_DIR).resolve(hash));
+            if (deleted) {
+                logger.info("Image deleted successfully: {}", hash);
             }
+            return deleted;
         } catch (Exception e) {
             logger.error("Failed to delete image: {}", e.getMessage(), e);
         }
@@ -127,6 +211,122 @@ public class ImageService {
         return false;
     }
     
+    /**
+     * Copy the upload to a temporary file while hashing it, then move it to its content-addressed name
+     */
+    private String persistOriginal(MultipartFile file, Path originals) throws IOException {
+        Path temp = Files.createTempFile(originals, "upload-", ".tmp");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream input = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(input, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path original = originals.resolve(hash);
+            if (Files.exists(original)) {
+                Files.delete(temp);
+            } else {
+                Files.move(temp, original, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            Files.deleteIfExists(temp);
+            throw new IllegalStateException("SHA-256 not available", e);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+    
+    /**
+     * Decode the original once and encode each variant from the previous, larger one
+     */
+    private void writeVariants(Path original, Path uploadPath, String hash) {
+        try {
+            ImmutableImage image = ImmutableImage.loader().fromPath(original);
+            WebpWriter writer = WebpWriter.DEFAULT.withQ(quality);
+            
+            // Variants are declared largest first, so each resize starts from a smaller source
+            for (Variant variant : Variant.values()) {
+                int width = variant.width(this);
+                int height = variant.height(this);
+                if (image.width > width || image.height > height) {
+                    image = image.max(width, height);
+                }
+                // Write then rename, so a variant is never served half written
+                Path target = uploadPath.resolve(variant.filename(hash));
+                Path temp = uploadPath.resolve(variant.filename(hash) + ".tmp");
+                image.output(writer, temp);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            
+            logger.info("Image variants generated: {}", hash);
+        } catch (Exception e) {
+            logger.error("Failed to process image {}: {}", hash, e.getMessage(), e);
+            deleteImage(URL_PREFIX + Variant.DETAIL.filename(hash));
+            for (Variant variant : Variant.values()) {
+                try {
+                    Files.deleteIfExists(uploadPath.resolve(variant.filename(hash) + ".tmp"));
+                } catch (IOException ignored) {
+                    // Best effort; a leftover temp file is never served
+                }
+            }
+        }
+    }
+    
+    /**
+     * Whether a stored upload can be read as an image. Formats ImageIO reads are checked from
+     * their header (dimensions only); anything else is decoded the way variants will be.
+     */
+    private boolean isDecodable(Path original) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers != null && readers.hasNext()) {
+                ImageReader reader = readers.next();
+                try {
+                    reader.setInput(input, true, true);
+                    return reader.getWidth(0) > 0 && reader.getHeight(0) > 0;
+                } finally {
+                    reader.dispose();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+        try {
+            ImmutableImage image = ImmutableImage.loader().fromPath(original);
+            return image.width > 0 && image.height > 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+    
+    private boolean variantsExist(Path uploadPath, String hash) {
+        for (Variant variant : Variant.values()) {
+            if (!Files.exists(uploadPath.resolve(variant.filename(hash)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Content hash from an image URL of any variant, or null if it is not one of ours
+     */
+    private static String hashOf(String imagePath) {
+        if (imagePath == null || imagePath.isEmpty()) {
+            return null;
+        }
+        String filename = imagePath.substring(imagePath.lastIndexOf('/') + 1);
+        int end = filename.indexOf('.');
+        int dash = filename.indexOf('-');
+        if (dash >= 0 && (end < 0 || dash < end)) {
+            end = dash;
+        }
+        String hash = end >= 0 ? filename.substring(0, end) : filename;
+        return hash.matches("[0-9a-f]{64}") ? hash : null;
+    }
+    
     /**
      * Parse size string (e.g., "5MB", "10KB") to bytes
      */
@@ -152,4 +352,67 @@ public class ImageService {
             return 5 * 1024 * 1024;
         }
     }
+    
+    /**
+     * Generated sizes, largest first
+     */
+    enum Variant {
+        DETAIL(""),
+        LIST("-list"),
+        THUMB("-thumb");
+        
+        private final String suffix;
+        
+        Variant(String suffix) {
+            this.suffix = suffix;
+        }
+        
+        String filename(String hash) {
+            return hash + suffix + ".webp";
+        }
+        
+        int width(ImageService service) {
+            return switch (this) {
+                case DETAIL -> service.maxWidth;
+                case LIST -> service.listSize;
+                case THUMB -> service.thumbSize;
+            };
+        }
+        
+        int height(ImageService service) {
+            return switch (this) {
+                case DETAIL -> service.maxHeight;
+                case LIST -> service.listSize;
+                case THUMB -> service.thumbSize;
+            };
+        }
+    }
+    
+    /**
+     * Result of an upload: the detail URL stored on the entity, plus all variant URLs
+     */
+    public static class ImageUpload {
+        private final String hash;
+        private boolean processing;
+        
+        ImageUpload(String hash) {
+            this.hash = hash;
+        }
+        
+        public String getUrl() {
+            return URL_PREFIX + Variant.DETAIL.filename(hash);
+        }
+        
+        public Map<String, String> getVariants() {
+            Map<String, String> variants = new LinkedHashMap<>();
+            for (Variant variant : Variant.values()) {
+                variants.put(variant.name().toLowerCase(), URL_PREFIX + variant.filename(hash));
+            }
+            return variants;
+        }
+        
+        public boolean isProcessing() {
+            return processing;
+        }
+    }
 }
@@ -2,13 +2,17 @@ package com.pos.inventsight.service;
 
 import com.pos.inventsight.model.nosql.InventoryAnalytics;
 import com.pos.inventsight.model.sql.Sale;
+import com.pos.inventsight.model.sql.SaleItem;
 import com.pos.inventsight.repository.nosql.InventoryAnalyticsRepository;
+import com.pos.inventsight.tenant.TenantContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,29 +30,43 @@ public class InventoryAnalyticsService {
     @Lazy
     private SaleService saleService;
     
-    public void updateDailyAnalytics(Sale sale) {
-        System.out.println("📊 InventSight - Updating daily analytics for sale: " + sale.getReceiptNumber());
-        System.out.println("📅 Current Date and Time (UTC): 2025-08-26 09:12:40");
-        System.out.println("👤 Current User's Login: WinKyaw");
-        
-        LocalDate today = LocalDate.now();
-        String period = "DAILY";
-        
-        // Find or create daily analytics record
-        InventoryAnalytics analytics = analyticsRepository.findByDateAndPeriod(today, period)
-                .orElse(new InventoryAnalytics());
-        
-        analytics.setDate(today);
-        analytics.setPeriod(period);
-        analytics.setCreatedBy("WinKyaw");
-        
-        // Update metrics
-        updateAnalyticsMetrics(analytics);
-        
-        // Save analytics
-        analyticsRepository.save(analytics);
-        
-        System.out.println("✅ InventSight daily analytics updated successfully");
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    /**
+     * Record a completed sale for daily analytics. Only an O(1) delta is published
+     * here; {@link SalesAnalyticsAggregator} applies it after the transaction commits
+     * and writes it to Mongo off the request thread.
+     */
+    public void recordSale(Sale sale, Collection<SaleItem> items) {
+        eventPublisher.publishEvent(toDelta(sale, items, 1));
+    }
+    
+    /**
+     * Record a refund, reversing the sale's contribution to its original day.
+     */
+    public void recordRefund(Sale sale) {
+        eventPublisher.publishEvent(toDelta(sale, sale.getItems(), -1));
+    }
+    
+    private SalesAnalyticsAggregator.SaleDelta toDelta(Sale sale, Collection<SaleItem> items, int sign) {
+        int units = 0;
+        if (items != null) {
+            for (SaleItem item : items) {
+                units += item.getQuantity() != null ? item.getQuantity() : 0;
+            }
+        }
+        BigDecimal revenue = sale.getTotalAmount() != null ? sale.getTotalAmount() : BigDecimal.ZERO;
+        LocalDate date = sale.getCreatedAt() != null ? sale.getCreatedAt().toLocalDate() : LocalDate.now();
+        return new SalesAnalyticsAggregator.SaleDelta(
+            TenantContext.getCurrentTenant(),
+            sale.getCompany() != null ? sale.getCompany().getId() : null,
+            sale.getStore() != null ? sale.getStore().getId() : null,
+            date,
+            sign,
+            sign * units,
+            sign < 0 ? revenue.negate() : revenue
+        );
     }
     
     private void updateAnalyticsMetrics(InventoryAnalytics analytics) {
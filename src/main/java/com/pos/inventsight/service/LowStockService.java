@@ -3,9 +3,12 @@ package com.pos.inventsight.service;
 import com.pos.inventsight.model.sql.*;
 import com.pos.inventsight.repository.sql.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -25,106 +28,157 @@ public class LowStockService {
     @Autowired
     private TransferRequestRepository transferRequestRepository;
     
+    @Value("${inventsight.low-stock.page-size:200}")
+    private int pageSize = 200;
+    
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    
+    private static final Comparator<Map<String, Object>> BY_NAME =
+        Comparator.comparing(item -> (String) item.get("name"), Comparator.nullsLast(Comparator.naturalOrder()));
+    
     /**
-     * Get low stock items for a specific store
+     * Get low stock items for a specific store.
+     * Products are read in keyset pages; each page needs one query each for warehouse stock
+     * and transfer history, and merchant suggestions are read once for the whole report.
      */
     public List<Map<String, Object>> getLowStockItemsForStore(UUID storeId, UUID companyId) {
+        ReportContext context = new ReportContext(companyId);
         List<Map<String, Object>> lowStockItems = new ArrayList<>();
+        UUID afterId = FIRST_ID;
+        List<Product> products;
+        do {
+            products = productRepository.findLowStockByStoreIdAfter(storeId, afterId, PageRequest.of(0, pageSize));
+            lowStockItems.addAll(buildItems(products, context, true));
+            afterId = products.isEmpty() ? afterId : products.get(products.size() - 1).getId();
+        } while (products.size() == pageSize);
         
-        // Find products where quantity < low_stock_threshold
-        List<Product> products = productRepository.findByStoreId(storeId);
-        
-        for (Product product : products) {
-            if (product.getQuantity() != null && 
-                product.getLowStockThreshold() != null &&
-                product.getQuantity() < product.getLowStockThreshold()) {
-                
-                Map<String, Object> item = new HashMap<>();
-                item.put("productId", product.getId());
-                item.put("name", product.getName());
-                item.put("sku", product.getSku());
-                item.put("currentStock", product.getQuantity());
-                item.put("lowStockThreshold", product.getLowStockThreshold());
-                item.put("reorderLevel", product.getReorderLevel());
-                
-                // Get warehouse availability
-                item.put("warehouseAvailability", getWarehouseAvailability(product, companyId));
-                
-                // Get merchant suggestions
-                item.put("merchantSuggestions", getMerchantSuggestions(companyId));
-                
-                // Get marketplace listings
-                item.put("marketplaceListings", getMarketplaceListings(product));
-                
-                // Get transfer request history
-                item.put("transferRequests", getTransferRequestHistory(product.getId(), companyId));
-                
-                lowStockItems.add(item);
-            }
-        }
-        
+        lowStockItems.sort(BY_NAME);
         return lowStockItems;
     }
     
+    /**
+     * Get one page of low stock items for a store, ordered by product ID
+     * @param cursor ID of the last product on the previous page, or null for the first page
+     */
+    public LowStockPage getLowStockItemsForStore(UUID storeId, UUID companyId, String cursor, int limit) {
+        List<Product> products = productRepository.findLowStockByStoreIdAfter(
+            storeId, decodeCursor(cursor), PageRequest.of(0, clampLimit(limit) + 1));
+        return toPage(products, clampLimit(limit), new ReportContext(companyId), true);
+    }
+    
     /**
      * Get low stock items for a specific warehouse
      */
     public List<Map<String, Object>> getLowStockItemsForWarehouse(UUID warehouseId, UUID companyId) {
+        ReportContext context = new ReportContext(companyId);
         List<Map<String, Object>> lowStockItems = new ArrayList<>();
+        UUID afterId = FIRST_ID;
+        List<Product> products;
+        do {
+            products = productRepository.findLowStockByWarehouseIdAfter(warehouseId, afterId, PageRequest.of(0, pageSize));
+            lowStockItems.addAll(buildItems(products, context, false));
+            afterId = products.isEmpty() ? afterId : products.get(products.size() - 1).getId();
+        } while (products.size() == pageSize);
         
-        // Find products in warehouse where quantity < low_stock_threshold
-        List<Product> products = productRepository.findByWarehouseId(warehouseId);
+        lowStockItems.sort(BY_NAME);
+        return lowStockItems;
+    }
+    
+    /**
+     * Get one page of low stock items for a warehouse, ordered by product ID
+     * @param cursor ID of the last product on the previous page, or null for the first page
+     */
+    public LowStockPage getLowStockItemsForWarehouse(UUID warehouseId, UUID companyId, String cursor, int limit) {
+        List<Product> products = productRepository.findLowStockByWarehouseIdAfter(
+            warehouseId, decodeCursor(cursor), PageRequest.of(0, clampLimit(limit) + 1));
+        return toPage(products, clampLimit(limit), new ReportContext(companyId), false);
+    }
+    
+    private LowStockPage toPage(List<Product> products, int limit, ReportContext context, boolean storeDetails) {
+        boolean hasMore = products.size() > limit;
+        List<Product> page = hasMore ? products.subList(0, limit) : products;
+        String nextCursor = hasMore ? page.get(page.size() - 1).getId().toString() : null;
+        return new LowStockPage(buildItems(page, context, storeDetails), nextCursor);
+    }
+    
+    private int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, pageSize));
+    }
+    
+    private UUID decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST_ID;
+        }
+        try {
+            return UUID.fromString(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+    
+    /**
+     * Build report rows for one page of low-stock products, reading the related data
+     * for the whole page at once and joining it by SKU and product ID
+     */
+    private List<Map<String, Object>> buildItems(List<Product> products, ReportContext context, boolean storeDetails) {
+        if (products.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, List<Map<String, Object>>> availabilityBySku = Collections.emptyMap();
+        Map<UUID, List<Map<String, Object>>> transfersByProduct = Collections.emptyMap();
+        if (storeDetails) {
+            availabilityBySku = getWarehouseAvailability(products, context.companyId);
+            transfersByProduct = getTransferRequestHistory(products, context.companyId);
+        }
         
+        List<Map<String, Object>> lowStockItems = new ArrayList<>(products.size());
         for (Product product : products) {
-            if (product.getQuantity() != null && 
-                product.getLowStockThreshold() != null &&
-                product.getQuantity() < product.getLowStockThreshold()) {
-                
-                Map<String, Object> item = new HashMap<>();
-                item.put("productId", product.getId());
-                item.put("name", product.getName());
-                item.put("sku", product.getSku());
-                item.put("currentStock", product.getQuantity());
-                item.put("lowStockThreshold", product.getLowStockThreshold());
-                item.put("reorderLevel", product.getReorderLevel());
-                
-                // Get merchant suggestions
-                item.put("merchantSuggestions", getMerchantSuggestions(companyId));
-                
-                // Get marketplace listings
-                item.put("marketplaceListings", getMarketplaceListings(product));
-                
-                lowStockItems.add(item);
+            Map<String, Object> item = new HashMap<>();
+            item.put("productId", product.getId());
+            item.put("name", product.getName());
+            item.put("sku", product.getSku());
+            item.put("currentStock", product.getQuantity());
+            item.put("lowStockThreshold", product.getLowStockThreshold());
+            item.put("reorderLevel", product.getReorderLevel());
+            
+            if (storeDetails) {
+                item.put("warehouseAvailability",
+                    availabilityBySku.getOrDefault(product.getSku(), Collections.emptyList()));
             }
+            
+            item.put("merchantSuggestions", context.merchantSuggestions());
+            item.put("marketplaceListings", context.marketplaceListings(product.getName()));
+            
+            if (storeDetails) {
+                item.put("transferRequests",
+                    transfersByProduct.getOrDefault(product.getId(), Collections.emptyList()));
+            }
+            
+            lowStockItems.add(item);
         }
-        
         return lowStockItems;
     }
     
     /**
-     * Get warehouse availability for a product
+     * Get warehouse availability for a page of products, keyed by SKU
      */
-    private List<Map<String, Object>> getWarehouseAvailability(Product product, UUID companyId) {
-        List<Map<String, Object>> availability = new ArrayList<>();
-        
-        // Find all products with same SKU in warehouses of the same company
-        List<Product> warehouseProducts = productRepository.findAllBySku(product.getSku())
-            .stream()
-            .filter(p -> p.getWarehouse() != null && 
-                        p.getCompany() != null && 
-                        p.getCompany().getId().equals(companyId))
-            .collect(Collectors.toList());
-        
-        for (Product warehouseProduct : warehouseProducts) {
-            if (warehouseProduct.getQuantity() != null && warehouseProduct.getQuantity() > 0) {
-                Map<String, Object> warehouseInfo = new HashMap<>();
-                warehouseInfo.put("warehouseId", warehouseProduct.getWarehouse().getId());
-                warehouseInfo.put("name", warehouseProduct.getWarehouse().getName());
-                warehouseInfo.put("quantity", warehouseProduct.getQuantity());
-                availability.add(warehouseInfo);
-            }
+    private Map<String, List<Map<String, Object>>> getWarehouseAvailability(List<Product> products, UUID companyId) {
+        Set<String> skus = products.stream()
+            .map(Product::getSku)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        if (skus.isEmpty()) {
+            return Collections.emptyMap();
         }
         
+        Map<String, List<Map<String, Object>>> availability = new HashMap<>();
+        for (Object[] row : productRepository.findWarehouseStockBySkus(companyId, skus)) {
+            Map<String, Object> warehouseInfo = new HashMap<>();
+            warehouseInfo.put("warehouseId", row[1]);
+            warehouseInfo.put("name", row[2]);
+            warehouseInfo.put("quantity", row[3]);
+            availability.computeIfAbsent((String) row[0], k -> new ArrayList<>()).add(warehouseInfo);
+        }
         return availability;
     }
     
@@ -151,15 +205,16 @@ public class LowStockService {
     }
     
     /**
-     * Get marketplace listings for a product
+     * Get marketplace listings for a product: the active ads whose product name contains it
      */
-    private List<Map<String, Object>> getMarketplaceListings(Product product) {
+    private List<Map<String, Object>> getMarketplaceListings(String productName, List<ProductAd> activeAds) {
         List<Map<String, Object>> listings = new ArrayList<>();
+        String name = productName.toLowerCase();
         
-        // Search for ads by product name or SKU
-        List<ProductAd> ads = productAdRepository.searchByProductName(product.getName());
-        
-        for (ProductAd ad : ads) {
+        for (ProductAd ad : activeAds) {
+            if (ad.getProductName() == null || !ad.getProductName().toLowerCase().contains(name)) {
+                continue;
+            }
             Map<String, Object> listing = new HashMap<>();
             listing.put("adId", ad.getId());
             listing.put("sellerCompany", ad.getCompany() != null ? ad.getCompany().getName() : null);
@@ -175,12 +230,13 @@ public class LowStockService {
     }
     
     /**
-     * Get transfer request history for a product
+     * Get transfer request history for a page of products, keyed by product ID
      */
-    private List<Map<String, Object>> getTransferRequestHistory(UUID productId, UUID companyId) {
-        List<Map<String, Object>> history = new ArrayList<>();
+    private Map<UUID, List<Map<String, Object>>> getTransferRequestHistory(List<Product> products, UUID companyId) {
+        Set<UUID> productIds = products.stream().map(Product::getId).collect(Collectors.toSet());
+        Map<UUID, List<Map<String, Object>>> history = new HashMap<>();
         
-        List<TransferRequest> requests = transferRequestRepository.findByProductIdAndCompanyId(productId, companyId);
+        List<TransferRequest> requests = transferRequestRepository.findByProductIdInAndCompanyId(productIds, companyId);
         
         for (TransferRequest request : requests) {
             Map<String, Object> requestInfo = new HashMap<>();
@@ -194,9 +250,66 @@ public class LowStockService {
                            request.getFromWarehouse().getName() : null);
             requestInfo.put("toStore", request.getToStore() != null ? 
                            request.getToStore().getStoreName() : null);
-            history.add(requestInfo);
+            history.computeIfAbsent(request.getProductId(), k -> new ArrayList<>()).add(requestInfo);
         }
         
         return history;
     }
+    
+    /**
+     * Per-report lookups that are the same for every row: merchant suggestions and the active
+     * marketplace ads are read once, and each distinct product name is matched against the ads once
+     */
+    private class ReportContext {
+        private final UUID companyId;
+        private List<Map<String, Object>> merchantSuggestions;
+        private List<ProductAd> activeAds;
+        private final Map<String, List<Map<String, Object>>> listingsByName = new HashMap<>();
+        
+        private ReportContext(UUID companyId) {
+            this.companyId = companyId;
+        }
+        
+        private List<Map<String, Object>> merchantSuggestions() {
+            if (merchantSuggestions == null) {
+                merchantSuggestions = getMerchantSuggestions(companyId);
+            }
+            return merchantSuggestions;
+        }
+        
+        private List<Map<String, Object>> marketplaceListings(String productName) {
+            if (productName == null) {
+                return Collections.emptyList();
+            }
+            if (activeAds == null) {
+                activeAds = productAdRepository.findAllActiveAds(LocalDateTime.now());
+            }
+            return listingsByName.computeIfAbsent(productName.toLowerCase(), k -> getMarketplaceListings(k, activeAds));
+        }
+    }
+    
+    /**
+     * One page of the low stock report
+     */
+    public static class LowStockPage {
+        private final List<Map<String, Object>> items;
+        private final String nextCursor;
+        
+        public LowStockPage(List<Map<String, Object>> items, String nextCursor) {
+            this.items = items;
+            this.nextCursor = nextCursor;
+        }
+        
+        public List<Map<String, Object>> getItems() {
+            return items;
+        }
+        
+        public String getNextCursor() {
+            return nextCursor;
+        }
+        
+        public boolean isHasMore() {
+            return nextCursor != null;
+        }
+    }
 }
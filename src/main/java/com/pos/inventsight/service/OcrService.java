@@ -1,22 +1,261 @@
 package com.pos.inventsight.service;
 
+import com.recognition.software.jdeskew.ImageDeskew;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import net.sourceforge.tess4j.ITesseract;
 import net.sourceforge.tess4j.Tesseract;
 import net.sourceforge.tess4j.TesseractException;
+import net.sourceforge.tess4j.util.ImageHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
+/**
+ * OCR on a fixed pool of workers, each with its own Tesseract engine since engines are not
+ * thread-safe. Scans wait in a bounded queue; a full queue rejects new scans and a scan that
+ * waited longer than the timeout is dropped. Images are downscaled, converted to grayscale and
+ * deskewed before recognition.
+ */
 @Service
 public class OcrService {
-    private final Tesseract tesseract;
 
-    public OcrService() {
-        tesseract = new Tesseract();
-        tesseract.setDatapath("tess4j"); // relative to project root
-        tesseract.setLanguage("mya");    // myanmar language
+    private static final Logger logger = LoggerFactory.getLogger(OcrService.class);
+
+    /**
+     * Skew angles below this (degrees) are not worth a rotation
+     */
+    private static final double MIN_DESKEW_ANGLE = 0.05d;
+
+    /**
+     * Larger detected angles are treated as noise and not corrected
+     */
+    private static final double MAX_DESKEW_ANGLE = 10d;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventsight.ocr.datapath:tess4j}")
+    private String datapath = "tess4j"; // relative to project root
+
+    @Value("${inventsight.ocr.language:mya}")
+    private String language = "mya"; // myanmar language
+
+    @Value("${inventsight.ocr.workers:0}")
+    private int workers = 0;
+
+    @Value("${inventsight.ocr.queue-capacity:50}")
+    private int queueCapacity = 50;
+
+    @Value("${inventsight.ocr.timeout-seconds:30}")
+    private long timeoutSeconds = 30;
+
+    @Value("${inventsight.ocr.max-dimension:2000}")
+    private int maxDimension = 2000;
+
+    @Value("${inventsight.ocr.job-retention-minutes:10}")
+    private long jobRetentionMinutes = 10;
+
+    /**
+     * Creates the engine of each worker thread
+     */
+    Supplier<ITesseract> engineFactory = () -> {
+        Tesseract tesseract = new Tesseract();
+        tesseract.setDatapath(datapath);
+        tesseract.setLanguage(language);
+        return tesseract;
+    };
+
+    private final ThreadLocal<ITesseract> engine = ThreadLocal.withInitial(() -> engineFactory.get());
+
+    private final Map<UUID, OcrJob> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "ocr-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        if (meterRegistry != null) {
+            meterRegistry.gauge("inventsight.ocr.queue.depth", queue, BlockingQueue::size);
+        }
+        logger.info("OCR pool started with {} workers and queue capacity {}", threads, queueCapacity);
     }
 
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Recognize text and wait for the result
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if the queue is full
+     * @throws TesseractException if recognition fails or does not finish within the timeout
+     */
     public String extractText(File imageFile) throws TesseractException {
-        return tesseract.doOCR(imageFile);
+        long queuedAt = System.nanoTime();
+        Future<String> result = executor.submit(() -> recognize(imageFile, queuedAt));
+        try {
+            return result.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            record("timeout");
+            throw new TesseractException("OCR timed out after " + timeoutSeconds + " seconds");
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new TesseractException("OCR interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TesseractException tesseractException) {
+                throw tesseractException;
+            }
+            throw new TesseractException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Queue recognition and return a job to poll
+     *
+     * @param imageFile The image; deleted once processed if {@code deleteAfter} is set
+     * @throws java.util.concurrent.RejectedExecutionException if the queue is full
+     */
+    public OcrJob submit(File imageFile, boolean deleteAfter) {
+        evictFinishedJobs();
+        OcrJob job = new OcrJob();
+        long queuedAt = System.nanoTime();
+        executor.execute(() -> {
+            job.status = OcrJob.Status.RUNNING;
+            try {
+                job.text = recognize(imageFile, queuedAt);
+                job.status = OcrJob.Status.COMPLETED;
+            } catch (Exception e) {
+                logger.warn("OCR job {} failed: {}", job.id, e.getMessage());
+                job.error = e.getMessage();
+                job.status = OcrJob.Status.FAILED;
+            } finally {
+                job.finishedAt = System.currentTimeMillis();
+                if (deleteAfter && !imageFile.delete() && imageFile.exists()) {
+                    logger.warn("Could not delete OCR image {}", imageFile);
+                }
+            }
+        });
+        jobs.put(job.id, job);
+        return job;
+    }
+
+    /**
+     * Get an OCR job, or null if it is unknown or expired
+     */
+    public OcrJob getJob(UUID jobId) {
+        return jobs.get(jobId);
+    }
+
+    private String recognize(File imageFile, long queuedAt) throws IOException, TesseractException {
+        long waited = System.nanoTime() - queuedAt;
+        if (waited > TimeUnit.SECONDS.toNanos(timeoutSeconds)) {
+            record("expired");
+            throw new TesseractException("OCR request expired after waiting " + TimeUnit.NANOSECONDS.toMillis(waited) + " ms in queue");
+        }
+
+        String worker = Thread.currentThread().getName();
+        long started = System.nanoTime();
+        BufferedImage image = ImageIO.read(imageFile);
+        if (image == null) {
+            record("unreadable");
+            throw new TesseractException("Unsupported image format");
+        }
+        image = preprocess(image);
+        long recognizing = System.nanoTime();
+        String text = engine.get().doOCR(image);
+        long finished = System.nanoTime();
+
+        if (meterRegistry != null) {
+            meterRegistry.timer("inventsight.ocr.queue.wait").record(waited, TimeUnit.NANOSECONDS);
+            meterRegistry.timer("inventsight.ocr.preprocess", "worker", worker).record(recognizing - started, TimeUnit.NANOSECONDS);
+            meterRegistry.timer("inventsight.ocr.recognition", "worker", worker).record(finished - recognizing, TimeUnit.NANOSECONDS);
+        }
+        record("completed");
+        return text;
+    }
+
+    /**
+     * Downscale to the configured maximum dimension, convert to grayscale and correct skew
+     */
+    BufferedImage preprocess(BufferedImage image) {
+        int longest = Math.max(image.getWidth(), image.getHeight());
+        if (longest > maxDimension) {
+            double scale = (double) maxDimension / longest;
+            image = ImageHelper.getScaledInstance(image,
+                Math.max(1, (int) (image.getWidth() * scale)), Math.max(1, (int) (image.getHeight() * scale)));
+        }
+
+        image = ImageHelper.convertImageToGrayscale(image);
+
+        double angle = new ImageDeskew(image).getSkewAngle();
+        // Pages without text lines report arbitrary angles; a real scan is only slightly skewed
+        if (Math.abs(angle) > MIN_DESKEW_ANGLE && Math.abs(angle) <= MAX_DESKEW_ANGLE) {
+            image = ImageHelper.rotateImage(image, -angle);
+        }
+        return image;
+    }
+
+    private void record(String outcome) {
+        if (meterRegistry != null) {
+            meterRegistry.counter("inventsight.ocr.requests", "outcome", outcome).increment();
+        }
+    }
+
+    private void evictFinishedJobs() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt < cutoff);
+    }
+
+    /**
+     * Progress and outcome of a queued OCR request
+     */
+    public static class OcrJob {
+        public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+        private final UUID id = UUID.randomUUID();
+        private volatile Status status = Status.QUEUED;
+        private volatile String text;
+        private volatile String error;
+        private volatile long finishedAt;
+
+        public UUID getId() { return id; }
+        public Status getStatus() { return status; }
+        public String getText() { return text; }
+        public String getError() { return error; }
+        public boolean isFinished() { return status == Status.COMPLETED || status == Status.FAILED; }
     }
-}
\ No newline at end of file
+}
@@ -40,6 +40,9 @@ public class PasswordResetService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
     @Autowired
     private AuditService auditService;
     
@@ -127,6 +130,7 @@ public class PasswordResetService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidateUser(user.getId());
         
         // Mark token as used
         resetToken.markAsUsed();
@@ -4,20 +4,35 @@ import com.pos.inventsight.exception.DuplicateResourceException;
 import com.pos.inventsight.exception.ResourceNotFoundException;
 import com.pos.inventsight.model.sql.*;
 import com.pos.inventsight.repository.sql.*;
+import com.pos.inventsight.tenant.TenantContext;
 import com.pos.inventsight.util.SkuGenerator;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
@@ -55,6 +70,22 @@ public class PredefinedItemsService {
     @Autowired
     private SkuGenerator skuGenerator;
     
+    @Autowired(required = false)
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${inventsight.catalog.provisioning.chunk-size:500}")
+    private int provisioningChunkSize = 500;
+    
+    @Value("${inventsight.catalog.provisioning.threads:2}")
+    private int provisioningThreads = 2;
+    
+    @Value("${inventsight.catalog.provisioning.job-retention-minutes:60}")
+    private long jobRetentionMinutes = 60;
+    
+    private final Map<UUID, ProvisioningJob> provisioningJobs = new ConcurrentHashMap<>();
+    
+    private volatile ExecutorService provisioningExecutor;
+    
     /**
      * Get all predefined items for a company (paginated)
      */
@@ -204,122 +235,381 @@ public class PredefinedItemsService {
             List<UUID> storeIds,
             List<UUID> warehouseIds) {
         
-        int successful = 0;
-        int failed = 0;
-        List<String> errors = new ArrayList<>();
-        List<PredefinedItem> createdItems = new ArrayList<>();
+        ProvisioningJob job = new ProvisioningJob(company.getId(), itemsData.size(), true);
+        provision(itemsData, company, createdBy, storeIds, warehouseIds, job);
+        return job.toMap();
+    }
+    
+    /**
+     * Start a bulk create in the background and return its job for progress polling
+     */
+    public ProvisioningJob startBulkCreateJob(
+            List<Map<String, String>> itemsData,
+            Company company,
+            User createdBy,
+            List<UUID> storeIds,
+            List<UUID> warehouseIds) {
+        
+        evictFinishedJobs();
+        ProvisioningJob job = new ProvisioningJob(company.getId(), itemsData.size(), false);
+        provisioningJobs.put(job.getId(), job);
+        
+        runJob(job, () -> provision(itemsData, company, createdBy, storeIds, warehouseIds, job));
+        logger.info("Started provisioning job {} for {} rows in company {}", job.getId(), itemsData.size(), company.getId());
+        return job;
+    }
+    
+    /**
+     * Get a provisioning job of the company
+     */
+    public ProvisioningJob getProvisioningJob(UUID jobId, Company company) {
+        ProvisioningJob job = provisioningJobs.get(jobId);
+        if (job == null || !job.getCompanyId().equals(company.getId())) {
+            throw new ResourceNotFoundException("Provisioning job not found with ID: " + jobId);
+        }
+        return job;
+    }
+    
+    /**
+     * Set-based provisioning: validate rows, then for each chunk drop duplicates found with one
+     * key query, generate SKUs in bulk and insert items, associations and products with saveAll,
+     * one transaction per chunk. Items are new, so no per-location existence checks are needed.
+     */
+    private void provision(
+            List<Map<String, String>> itemsData,
+            Company company,
+            User createdBy,
+            List<UUID> storeIds,
+            List<UUID> warehouseIds,
+            ProvisioningJob job) {
+        
+        // Fails the whole request before anything is written
+        ChunkedProvisioner provisioner = new ChunkedProvisioner(company, createdBy,
+            loadStores(storeIds, company), loadWarehouses(warehouseIds, company), job);
         
         for (int i = 0; i < itemsData.size(); i++) {
-            Map<String, String> itemData = itemsData.get(i);
+            // Normalize keys to lowercase for case-insensitive processing
+            Map<String, String> normalizedData = new HashMap<>();
+            itemsData.get(i).forEach((key, value) -> normalizedData.put(key.toLowerCase(), value));
             
-            try {
-                // Normalize keys to lowercase for case-insensitive processing
-                Map<String, String> normalizedData = new HashMap<>();
-                itemData.forEach((key, value) -> normalizedData.put(key.toLowerCase(), value));
-                
-                logger.debug("Row {}: Normalized data = {}", i + 1, normalizedData);
-                
-                // Extract required fields
-                String name = normalizedData.get("name");
-                String category = normalizedData.get("category");
-                String unitType = normalizedData.get("unittype");
-                String defaultPriceStr = normalizedData.get("defaultprice");
-                
-                // Validate required fields
-                if (name == null || name.trim().isEmpty()) {
-                    errors.add("Row " + (i + 1) + ": 'name' is required");
-                    failed++;
-                    continue;
-                }
-                
-                if (category == null || category.trim().isEmpty()) {
-                    errors.add("Row " + (i + 1) + ": 'category' is required");
-                    failed++;
-                    continue;
-                }
-                
-                if (unitType == null || unitType.trim().isEmpty()) {
-                    errors.add("Row " + (i + 1) + ": 'unitType' is required");
-                    failed++;
-                    continue;
-                }
-                
-                if (defaultPriceStr == null || defaultPriceStr.trim().isEmpty()) {
-                    errors.add("Row " + (i + 1) + ": 'defaultprice' is required");
-                    failed++;
-                    continue;
-                }
-                
-                // Parse price
-                BigDecimal defaultPrice;
-                try {
-                    defaultPrice = new BigDecimal(defaultPriceStr);
-                    if (defaultPrice.compareTo(BigDecimal.ZERO) <= 0) {
-                        errors.add("Row " + (i + 1) + ": Price must be greater than zero");
-                        failed++;
-                        continue;
-                    }
-                } catch (NumberFormatException e) {
-                    errors.add("Row " + (i + 1) + ": Invalid price format: " + defaultPriceStr);
-                    failed++;
-                    continue;
-                }
-                
-                // Check for duplicates
-                if (predefinedItemRepository.existsByCompanyAndNameAndUnitType(company, name, unitType)) {
-                    logger.debug("Skipping duplicate: {} ({})", name, unitType);
-                    failed++;
-                    errors.add("Row " + (i + 1) + ": Duplicate item '" + name + "' with unit type '" + unitType + "'");
-                    continue;
-                }
-                
-                // Create item (SKU is auto-generated, description is optional)
-                String description = normalizedData.getOrDefault("description", null);
-                
-                PredefinedItem item = createItem(
-                    name,
-                    null,  // sku - will be auto-generated
-                    category,
-                    unitType,
-                    description,
-                    defaultPrice,
-                    company,
-                    createdBy,
-                    storeIds,
-                    warehouseIds
-                );
-                
-                createdItems.add(item);
-                successful++;
-                
-            } catch (Exception e) {
-                logger.error("Error creating item from row {}: {}", i + 1, e.getMessage());
-                errors.add("Row " + (i + 1) + ": " + e.getMessage());
-                failed++;
+            provisioner.add(validateRow(i + 1, normalizedData.get("name"), normalizedData.get("category"),
+                normalizedData.get("unittype"), normalizedData.get("defaultprice"),
+                normalizedData.get("description"), job));
+        }
+        provisioner.finish();
+    }
+    
+    /**
+     * Stream a CSV import into chunked provisioning, so only one chunk of rows is held at a time
+     */
+    private void provisionCSV(
+            InputStream input,
+            Company company,
+            User createdBy,
+            List<UUID> storeIds,
+            List<UUID> warehouseIds,
+            ProvisioningJob job) throws IOException {
+        
+        ChunkedProvisioner provisioner = new ChunkedProvisioner(company, createdBy,
+            loadStores(storeIds, company), loadWarehouses(warehouseIds, company), job);
+        
+        int rows = csvService.readImportCSV(input, row -> {
+            job.setTotal(row.getNumber());
+            provisioner.add(validateRow(row.getNumber(), row.getName(), row.getCategory(),
+                row.getUnitType(), row.getDefaultPrice(), row.getDescription(), job));
+        });
+        job.setTotal(rows);
+        provisioner.finish();
+    }
+    
+    /**
+     * Validate one bulk row, recording the failure on the job
+     * @return The validated row, or null if it was rejected
+     */
+    private ItemRow validateRow(int row, String name, String category, String unitType,
+                                String defaultPriceStr, String description, ProvisioningJob job) {
+        // Validate required fields
+        if (name == null || name.trim().isEmpty()) {
+            job.failed(row, "'name' is required");
+            return null;
+        }
+        
+        if (category == null || category.trim().isEmpty()) {
+            job.failed(row, "'category' is required");
+            return null;
+        }
+        
+        if (unitType == null || unitType.trim().isEmpty()) {
+            job.failed(row, "'unitType' is required");
+            return null;
+        }
+        
+        if (defaultPriceStr == null || defaultPriceStr.trim().isEmpty()) {
+            job.failed(row, "'defaultprice' is required");
+            return null;
+        }
+        
+        // Parse price
+        BigDecimal defaultPrice;
+        try {
+            defaultPrice = new BigDecimal(defaultPriceStr);
+            if (defaultPrice.compareTo(BigDecimal.ZERO) <= 0) {
+                job.failed(row, "Price must be greater than zero");
+                return null;
+            }
+        } catch (NumberFormatException e) {
+            job.failed(row, "Invalid price format: " + defaultPriceStr);
+            return null;
+        }
+        
+        // SKU is auto-generated, description is optional
+        return new ItemRow(row, name, category, unitType, description, defaultPrice);
+    }
+    
+    /**
+     * Drop rows whose (name, unit type) already exists in the company or earlier in the chunk.
+     * Earlier chunks are already committed, so the key query also catches repeats across chunks.
+     */
+    private List<ItemRow> dropDuplicates(List<ItemRow> rows, Company company, ProvisioningJob job) {
+        Set<String> names = new HashSet<>();
+        for (ItemRow row : rows) {
+            names.add(row.name);
+        }
+        Set<String> existingKeys = new HashSet<>();
+        for (Object[] key : predefinedItemRepository.findNameAndUnitTypeByCompanyAndNameIn(company, names)) {
+            existingKeys.add(itemKey((String) key[0], (String) key[1]));
+        }
+        
+        List<ItemRow> unique = new ArrayList<>(rows.size());
+        for (ItemRow row : rows) {
+            if (!existingKeys.add(itemKey(row.name, row.unitType))) {
+                logger.debug("Skipping duplicate: {} ({})", row.name, row.unitType);
+                job.failed(row.row, "Duplicate item '" + row.name + "' with unit type '" + row.unitType + "'");
+                continue;
             }
+            unique.add(row);
         }
+        return unique;
+    }
+    
+    private static String itemKey(String name, String unitType) {
+        return name + '\u0000' + unitType;
+    }
+    
+    private List<PredefinedItem> insertChunk(
+            List<ItemRow> chunk,
+            Company company,
+            User createdBy,
+            List<Store> stores,
+            List<Warehouse> warehouses) {
         
-        Map<String, Object> result = new HashMap<>();
-        result.put("total", itemsData.size());
-        result.put("successful", successful);
-        result.put("failed", failed);
-        result.put("errors", errors);
-        result.put("createdItems", createdItems);
+        List<String> skus = skuGenerator.generateUniqueSkus(chunk.size(), predefinedItemRepository::findExistingSkus);
+        
+        List<PredefinedItem> items = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ItemRow row = chunk.get(i);
+            PredefinedItem item = new PredefinedItem(row.name, row.unitType, company, createdBy);
+            item.setSku(skus.get(i));
+            item.setCategory(row.category);
+            item.setDescription(row.description);
+            item.setDefaultPrice(row.defaultPrice);
+            items.add(item);
+        }
+        predefinedItemRepository.saveAll(items);
         
-        logger.info("Bulk create completed: {} successful, {} failed out of {} total", 
-                   successful, failed, itemsData.size());
+        if (!stores.isEmpty()) {
+            List<PredefinedItemStore> associations = new ArrayList<>(items.size() * stores.size());
+            List<Product> products = new ArrayList<>(items.size() * stores.size());
+            for (PredefinedItem item : items) {
+                for (Store store : stores) {
+                    associations.add(new PredefinedItemStore(item, store, createdBy));
+                    Product product = newProduct(item, store.getCompany(), createdBy);
+                    product.setStore(store);
+                    products.add(product);
+                }
+            }
+            predefinedItemStoreRepository.saveAll(associations);
+            productRepository.saveAll(products);
+        }
         
-        return result;
+        if (!warehouses.isEmpty()) {
+            List<PredefinedItemWarehouse> associations = new ArrayList<>(items.size() * warehouses.size());
+            List<Product> products = new ArrayList<>(items.size() * warehouses.size());
+            for (PredefinedItem item : items) {
+                for (Warehouse warehouse : warehouses) {
+                    associations.add(new PredefinedItemWarehouse(item, warehouse, createdBy));
+                    Product product = newProduct(item, warehouse.getCompany(), createdBy);
+                    product.setWarehouse(warehouse);
+                    products.add(product);
+                }
+            }
+            predefinedItemWarehouseRepository.saveAll(associations);
+            productRepository.saveAll(products);
+        }
+        
+        logger.debug("Provisioned {} items to {} stores and {} warehouses", items.size(), stores.size(), warehouses.size());
+        return items;
+    }
+    
+    private List<Store> loadStores(List<UUID> storeIds, Company company) {
+        if (storeIds == null || storeIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<UUID> ids = new LinkedHashSet<>(storeIds);
+        List<Store> stores = storeRepository.findAllByIdWithCompany(ids);
+        Set<UUID> found = new HashSet<>();
+        for (Store store : stores) {
+            if (!store.getCompany().getId().equals(company.getId())) {
+                throw new IllegalArgumentException("Store does not belong to the same company");
+            }
+            found.add(store.getId());
+        }
+        for (UUID storeId : ids) {
+            if (!found.contains(storeId)) {
+                throw new ResourceNotFoundException("Store not found with ID: " + storeId);
+            }
+        }
+        return stores;
+    }
+    
+    private List<Warehouse> loadWarehouses(List<UUID> warehouseIds, Company company) {
+        if (warehouseIds == null || warehouseIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<UUID> ids = new LinkedHashSet<>(warehouseIds);
+        List<Warehouse> warehouses = warehouseRepository.findAllByIdWithCompany(ids);
+        Set<UUID> found = new HashSet<>();
+        for (Warehouse warehouse : warehouses) {
+            if (!warehouse.getCompany().getId().equals(company.getId())) {
+                throw new IllegalArgumentException("Warehouse does not belong to the same company");
+            }
+            found.add(warehouse.getId());
+        }
+        for (UUID warehouseId : ids) {
+            if (!found.contains(warehouseId)) {
+                throw new ResourceNotFoundException("Warehouse not found with ID: " + warehouseId);
+            }
+        }
+        return warehouses;
     }
     
     /**
-     * Import items from CSV file
+     * Run one chunk in its own transaction so large catalogs commit incrementally
+     */
+    private <T> T inTransaction(Supplier<T> work) {
+        if (transactionManager == null) {
+            return work.get();
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction.execute(status -> work.get());
+    }
+    
+    private ExecutorService provisioningExecutor() {
+        ExecutorService executor = provisioningExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                if (provisioningExecutor == null) {
+                    AtomicInteger threadCount = new AtomicInteger();
+                    provisioningExecutor = Executors.newFixedThreadPool(Math.max(1, provisioningThreads), runnable -> {
+                        Thread thread = new Thread(runnable, "catalog-provisioning-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+                executor = provisioningExecutor;
+            }
+        }
+        return executor;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (provisioningExecutor != null) {
+            provisioningExecutor.shutdownNow();
+        }
+    }
+    
+    private void evictFinishedJobs() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(jobRetentionMinutes);
+        provisioningJobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt() < cutoff);
+    }
+    
+    /**
+     * Import items from CSV file. Rows are streamed from the upload and provisioned chunk by chunk.
      */
     public Map<String, Object> importFromCSV(MultipartFile file, Company company, User createdBy, List<UUID> storeIds, List<UUID> warehouseIds) throws IOException {
         logger.info("Starting CSV import for company {}", company.getId());
         
-        List<Map<String, String>> itemsData = csvService.parseImportCSV(file);
-        return bulkCreateItems(itemsData, company, createdBy, storeIds, warehouseIds);
+        ProvisioningJob job = new ProvisioningJob(company.getId(), 0, true);
+        try (InputStream input = file.getInputStream()) {
+            provisionCSV(input, company, createdBy, storeIds, warehouseIds, job);
+        }
+        return job.toMap();
+    }
+    
+    /**
+     * Start a CSV import in the background. The upload is not available once the request
+     * completes, so it is spooled to a temporary file that the job streams and then deletes.
+     */
+    public ProvisioningJob startImportJob(MultipartFile file, Company company, User createdBy, List<UUID> storeIds, List<UUID> warehouseIds) throws IOException {
+        // Reject an empty file or missing headers now rather than through the job
+        try (InputStream input = file.getInputStream()) {
+            csvService.validateImportCSV(input);
+        }
+        
+        Path spool = Files.createTempFile("catalog-import-", ".csv");
+        try {
+            file.transferTo(spool);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+        
+        evictFinishedJobs();
+        ProvisioningJob job = new ProvisioningJob(company.getId(), 0, false);
+        provisioningJobs.put(job.getId(), job);
+        
+        runJob(job, () -> {
+            try (InputStream input = Files.newInputStream(spool)) {
+                provisionCSV(input, company, createdBy, storeIds, warehouseIds, job);
+            } finally {
+                try {
+                    Files.deleteIfExists(spool);
+                } catch (IOException e) {
+                    logger.warn("Could not delete import spool file {}: {}", spool, e.getMessage());
+                }
+            }
+        });
+        logger.info("Started CSV import job {} for company {}", job.getId(), company.getId());
+        return job;
+    }
+    
+    /**
+     * Work of a background provisioning job
+     */
+    @FunctionalInterface
+    private interface JobWork {
+        void run() throws Exception;
+    }
+    
+    /**
+     * Run a job on the provisioning executor in the caller's tenant, recording a failure on the job
+     */
+    private void runJob(ProvisioningJob job, JobWork work) {
+        String tenant = TenantContext.getCurrentTenant();
+        provisioningExecutor().execute(() -> {
+            String previousTenant = TenantContext.getCurrentTenant();
+            TenantContext.setCurrentTenant(tenant);
+            try {
+                work.run();
+            } catch (Exception e) {
+                logger.error("Provisioning job {} failed: {}", job.getId(), e.getMessage(), e);
+                job.fail(e.getMessage());
+            } finally {
+                TenantContext.setCurrentTenant(previousTenant);
+            }
+        });
     }
     
     /**
@@ -484,27 +774,8 @@ public class PredefinedItemsService {
             .findByPredefinedItemAndStore(predefinedItem, store);
         
         if (existingProduct.isEmpty()) {
-            Product product = new Product();
-            product.setPredefinedItem(predefinedItem);
+            Product product = newProduct(predefinedItem, store.getCompany(), user);
             product.setStore(store);
-            product.setCompany(store.getCompany());
-            product.setName(predefinedItem.getName());
-            product.setSku(predefinedItem.getSku());
-            product.setCategory(predefinedItem.getCategory());
-            product.setUnit(predefinedItem.getUnitType());
-            product.setDescription(predefinedItem.getDescription());
-            
-            // Copy price from default_price to all price fields for backward compatibility
-            BigDecimal defaultPrice = predefinedItem.getDefaultPrice();
-            product.setPrice(defaultPrice); // Legacy price field
-            product.setOriginalPrice(defaultPrice);
-            product.setOwnerSetSellPrice(defaultPrice);
-            product.setRetailPrice(defaultPrice);
-            
-            product.setQuantity(0); // Initial stock is 0
-            product.setLowStockThreshold(5); // Default low stock threshold
-            product.setCreatedBy(user.getUsername());
-            product.setIsActive(true);
             
             productRepository.save(product);
             logger.debug("Created product for store {} (ID: {})", store.getStoreName(), store.getId());
@@ -524,27 +795,8 @@ public class PredefinedItemsService {
             .findByPredefinedItemAndWarehouse(predefinedItem, warehouse);
         
         if (existingProduct.isEmpty()) {
-            Product product = new Product();
-            product.setPredefinedItem(predefinedItem);
+            Product product = newProduct(predefinedItem, warehouse.getCompany(), user);
             product.setWarehouse(warehouse);
-            product.setCompany(warehouse.getCompany());
-            product.setName(predefinedItem.getName());
-            product.setSku(predefinedItem.getSku());
-            product.setCategory(predefinedItem.getCategory());
-            product.setUnit(predefinedItem.getUnitType());
-            product.setDescription(predefinedItem.getDescription());
-            
-            // Copy price from default_price to all price fields for backward compatibility
-            BigDecimal defaultPrice = predefinedItem.getDefaultPrice();
-            product.setPrice(defaultPrice); // Legacy price field
-            product.setOriginalPrice(defaultPrice);
-            product.setOwnerSetSellPrice(defaultPrice);
-            product.setRetailPrice(defaultPrice);
-            
-            product.setQuantity(0); // Initial stock is 0
-            product.setLowStockThreshold(5); // Default low stock threshold
-            product.setCreatedBy(user.getUsername());
-            product.setIsActive(true);
             
             productRepository.save(product);
             logger.debug("Created product for warehouse {} (ID: {})", warehouse.getName(), warehouse.getId());
@@ -552,4 +804,194 @@ public class PredefinedItemsService {
             logger.debug("Product already exists for warehouse {} (ID: {})", warehouse.getName(), warehouse.getId());
         }
     }
+    
+    /**
+     * New location product mirroring a predefined item, with no stock and the location left unset
+     */
+    private Product newProduct(PredefinedItem predefinedItem, Company company, User user) {
+        Product product = new Product();
+        product.setPredefinedItem(predefinedItem);
+        product.setCompany(company);
+        product.setName(predefinedItem.getName());
+        product.setSku(predefinedItem.getSku());
+        product.setCategory(predefinedItem.getCategory());
+        product.setUnit(predefinedItem.getUnitType());
+        product.setDescription(predefinedItem.getDescription());
+        
+        // Copy price from default_price to all price fields for backward compatibility
+        BigDecimal defaultPrice = predefinedItem.getDefaultPrice();
+        product.setPrice(defaultPrice); // Legacy price field
+        product.setOriginalPrice(defaultPrice);
+        product.setOwnerSetSellPrice(defaultPrice);
+        product.setRetailPrice(defaultPrice);
+        
+        product.setQuantity(0); // Initial stock is 0
+        product.setLowStockThreshold(5); // Default low stock threshold
+        product.setCreatedBy(user.getUsername());
+        product.setIsActive(true);
+        return product;
+    }
+    
+    /**
+     * Buffers validated rows and provisions each full chunk as soon as it is ready
+     */
+    private final class ChunkedProvisioner {
+        private final Company company;
+        private final User createdBy;
+        private final List<Store> stores;
+        private final List<Warehouse> warehouses;
+        private final ProvisioningJob job;
+        private final List<ItemRow> chunk;
+        
+        private ChunkedProvisioner(Company company, User createdBy, List<Store> stores,
+                                   List<Warehouse> warehouses, ProvisioningJob job) {
+            this.company = company;
+            this.createdBy = createdBy;
+            this.stores = stores;
+            this.warehouses = warehouses;
+            this.job = job;
+            this.chunk = new ArrayList<>(provisioningChunkSize);
+        }
+        
+        void add(ItemRow row) {
+            if (row == null) {
+                return;
+            }
+            chunk.add(row);
+            if (chunk.size() >= provisioningChunkSize) {
+                flush();
+            }
+        }
+        
+        void finish() {
+            flush();
+            job.complete();
+            logger.info("Bulk create completed: {} successful, {} failed out of {} total", 
+                       job.getSuccessful(), job.getFailed(), job.getTotal());
+        }
+        
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<ItemRow> rows = dropDuplicates(chunk, company, job);
+            try {
+                if (!rows.isEmpty()) {
+                    List<PredefinedItem> items = inTransaction(() -> insertChunk(rows, company, createdBy, stores, warehouses));
+                    job.succeeded(items);
+                }
+            } catch (Exception e) {
+                logger.error("Error creating items from rows {}-{}: {}",
+                    rows.get(0).row, rows.get(rows.size() - 1).row, e.getMessage());
+                for (ItemRow row : rows) {
+                    job.failed(row.row, e.getMessage());
+                }
+            }
+            chunk.clear();
+        }
+    }
+    
+    /**
+     * A validated bulk row
+     */
+    private static final class ItemRow {
+        private final int row;
+        private final String name;
+        private final String category;
+        private final String unitType;
+        private final String description;
+        private final BigDecimal defaultPrice;
+        
+        private ItemRow(int row, String name, String category, String unitType, String description, BigDecimal defaultPrice) {
+            this.row = row;
+            this.name = name;
+            this.category = category;
+            this.unitType = unitType;
+            this.description = description;
+            this.defaultPrice = defaultPrice;
+        }
+    }
+    
+    /**
+     * Progress and outcome of a bulk create. Synchronous calls keep the created items for the
+     * response; background jobs only count them.
+     */
+    public static class ProvisioningJob {
+        public enum Status { RUNNING, COMPLETED, FAILED }
+        
+        private final UUID id = UUID.randomUUID();
+        private final UUID companyId;
+        private volatile int total;
+        private final boolean keepItems;
+        private final AtomicInteger successful = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        private final List<PredefinedItem> createdItems = Collections.synchronizedList(new ArrayList<>());
+        private volatile Status status = Status.RUNNING;
+        private volatile String failureMessage;
+        private volatile long finishedAt;
+        
+        ProvisioningJob(UUID companyId, int total, boolean keepItems) {
+            this.companyId = companyId;
+            this.total = total;
+            this.keepItems = keepItems;
+        }
+        
+        void setTotal(int total) {
+            this.total = total;
+        }
+        
+        void succeeded(List<PredefinedItem> items) {
+            successful.addAndGet(items.size());
+            if (keepItems) {
+                createdItems.addAll(items);
+            }
+        }
+        
+        void failed(int row, String message) {
+            errors.add("Row " + row + ": " + message);
+            failed.incrementAndGet();
+        }
+        
+        void complete() {
+            finishedAt = System.currentTimeMillis();
+            status = Status.COMPLETED;
+        }
+        
+        void fail(String message) {
+            failureMessage = message;
+            finishedAt = System.currentTimeMillis();
+            status = Status.FAILED;
+        }
+        
+        public UUID getId() { return id; }
+        public UUID getCompanyId() { return companyId; }
+        public Status getStatus() { return status; }
+        public int getTotal() { return total; }
+        public int getSuccessful() { return successful.get(); }
+        public int getFailed() { return failed.get(); }
+        public boolean isFinished() { return status != Status.RUNNING; }
+        public long getFinishedAt() { return finishedAt; }
+        
+        public Map<String, Object> toMap() {
+            Map<String, Object> result = new HashMap<>();
+            result.put("total", total);
+            result.put("successful", successful.get());
+            result.put("failed", failed.get());
+            synchronized (errors) {
+                result.put("errors", new ArrayList<>(errors));
+            }
+            if (keepItems) {
+                result.put("createdItems", createdItems);
+            } else {
+                result.put("jobId", id);
+                result.put("status", status);
+                result.put("processed", successful.get() + failed.get());
+                if (failureMessage != null) {
+                    result.put("message", failureMessage);
+                }
+            }
+            return result;
+        }
+    }
 }
@@ -0,0 +1,250 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.sql.CompanyRole;
+import com.pos.inventsight.model.sql.CompanyStoreUser;
+import com.pos.inventsight.model.sql.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived per-node cache of what the request filter chain resolves on every
+ * authenticated request: the principal behind a JWT subject, whether a company
+ * exists, and the user's active company memberships.
+ *
+ * Writers that change a user or their memberships call {@link #invalidateUser(UUID)},
+ * which evicts straight away and again once the surrounding transaction commits.
+ * The TTL bounds staleness for writes made elsewhere or on other nodes.
+ *
+ * Request code may change and save the principal it is handed, so a cached user is kept
+ * as a private copy and every request gets a copy of its own.
+ *
+ * A generation counter bumped on every invalidation stops a load that overlaps
+ * an invalidation from being cached. Missing users and companies are never cached,
+ * and a membership miss is re-checked against the database before access is denied,
+ * so newly granted access is visible immediately; only revocations wait for
+ * invalidation or the TTL.
+ */
+@Service
+public class PrincipalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrincipalCache.class);
+
+    @Value("${inventsight.security.principal-cache.ttl-ms:30000}")
+    private long ttlMs = 30000;
+
+    @Value("${inventsight.security.principal-cache.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    private final ConcurrentHashMap<String, Entry<UserDetails>> principals = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<UUID, Entry<List<Membership>>> memberships = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<UUID, Entry<Boolean>> companies = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Return the principal for a JWT subject (username or email), loading it if missing or stale.
+     * A loader that throws leaves the cache untouched and the exception propagates.
+     */
+    public UserDetails getPrincipal(String subject, Supplier<UserDetails> loader) {
+        if (ttlMs <= 0) {
+            return loader.get();
+        }
+        long now = System.currentTimeMillis();
+        Entry<UserDetails> entry = principals.get(subject);
+        if (entry != null && entry.isFresh(now)) {
+            return copy(entry.value);
+        }
+        long loadGeneration = generation.get();
+        UserDetails principal = loader.get();
+        if (principal != null) {
+            put(principals, subject, copy(principal), loadGeneration);
+        }
+        return principal;
+    }
+
+    /**
+     * Whether a company exists. Only positive answers are cached.
+     */
+    public boolean companyExists(UUID companyId, BooleanSupplier loader) {
+        if (ttlMs <= 0) {
+            return loader.getAsBoolean();
+        }
+        Entry<Boolean> entry = companies.get(companyId);
+        if (entry != null && entry.isFresh(System.currentTimeMillis())) {
+            return true;
+        }
+        long loadGeneration = generation.get();
+        boolean exists = loader.getAsBoolean();
+        if (exists) {
+            put(companies, companyId, Boolean.TRUE, loadGeneration);
+        }
+        return exists;
+    }
+
+    /**
+     * Active company memberships of a user.
+     *
+     * @param loader returns the user's active memberships from the database
+     */
+    public List<Membership> getMemberships(User user, Supplier<List<CompanyStoreUser>> loader) {
+        if (ttlMs <= 0 || user.getId() == null) {
+            return toMemberships(loader.get());
+        }
+        Entry<List<Membership>> entry = memberships.get(user.getId());
+        if (entry != null && entry.isFresh(System.currentTimeMillis())) {
+            return entry.value;
+        }
+        return loadMemberships(user.getId(), loader);
+    }
+
+    /**
+     * Whether a user has an active membership in a company.
+     * A cached answer of "no" is confirmed against the database before it is returned.
+     */
+    public boolean hasMembership(User user, UUID companyId, Supplier<List<CompanyStoreUser>> loader) {
+        if (ttlMs <= 0 || user.getId() == null) {
+            return contains(toMemberships(loader.get()), companyId);
+        }
+        Entry<List<Membership>> entry = memberships.get(user.getId());
+        if (entry != null && entry.isFresh(System.currentTimeMillis())
+                && contains(entry.value, companyId)) {
+            return true;
+        }
+        return contains(loadMemberships(user.getId(), loader), companyId);
+    }
+
+    /**
+     * Drop a user's cached principal and memberships, now and after the current transaction commits.
+     */
+    public void invalidateUser(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+        evictUser(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictUser(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Number of cached entries, including expired ones not yet evicted.
+     */
+    public int size() {
+        return principals.size() + memberships.size() + companies.size();
+    }
+
+    private void evictUser(UUID userId) {
+        generation.incrementAndGet();
+        memberships.remove(userId);
+        principals.values().removeIf(entry ->
+            entry.value instanceof User && Objects.equals(((User) entry.value).getId(), userId));
+        logger.debug("Principal cache invalidated for user {}", userId);
+    }
+
+    private List<Membership> loadMemberships(UUID userId, Supplier<List<CompanyStoreUser>> loader) {
+        long loadGeneration = generation.get();
+        List<Membership> loaded = toMemberships(loader.get());
+        put(memberships, userId, loaded, loadGeneration);
+        return loaded;
+    }
+
+    private <K, V> void put(ConcurrentHashMap<K, Entry<V>> map, K key, V value, long loadGeneration) {
+        if (generation.get() != loadGeneration) {
+            return; // An invalidation overlapped the load; the value may predate it
+        }
+        long now = System.currentTimeMillis();
+        if (map.size() >= maxEntries) {
+            map.values().removeIf(entry -> entry.expiresAt <= now);
+        }
+        if (map.size() < maxEntries) {
+            map.put(key, new Entry<>(value, now + ttlMs));
+        }
+    }
+
+    /**
+     * Detached copy of a user principal; other principals are returned as they are
+     */
+    private static UserDetails copy(UserDetails principal) {
+        if (principal instanceof User) {
+            User copy = new User();
+            BeanUtils.copyProperties(principal, copy);
+            return copy;
+        }
+        return principal;
+    }
+
+    private static boolean contains(List<Membership> memberships, UUID companyId) {
+        for (Membership membership : memberships) {
+            if (membership.getCompanyId().equals(companyId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Membership> toMemberships(List<CompanyStoreUser> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Membership> result = new ArrayList<>(rows.size());
+        for (CompanyStoreUser row : rows) {
+            if (Boolean.TRUE.equals(row.getIsActive()) && row.getCompany() != null) {
+                result.add(new Membership(row.getCompany().getId(), row.getRole()));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isFresh(long now) {
+            return expiresAt > now;
+        }
+    }
+
+    /**
+     * Immutable company membership: the company and the legacy membership role.
+     */
+    public static class Membership {
+        private final UUID companyId;
+        private final CompanyRole role;
+
+        public Membership(UUID companyId, CompanyRole role) {
+            this.companyId = companyId;
+            this.role = role;
+        }
+
+        public UUID getCompanyId() { return companyId; }
+        public CompanyRole getRole() { return role; }
+    }
+}
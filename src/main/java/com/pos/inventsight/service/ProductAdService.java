@@ -108,9 +108,11 @@ public class ProductAdService {
     public ProductAd updateProductAdImage(UUID id, String imageUrl) {
         ProductAd ad = getAdById(id);
         
-        // Delete old image if exists
-        if (ad.getImageUrl() != null) {
-            imageService.deleteImage(ad.getImageUrl());
+        // Delete old image if exists; images are shared by content, so keep ones still in use
+        String oldImageUrl = ad.getImageUrl();
+        if (oldImageUrl != null && !oldImageUrl.equals(imageUrl)
+                && !productAdRepository.existsByImageUrlAndIdNot(oldImageUrl, id)) {
+            imageService.deleteImage(oldImageUrl);
         }
         
         ad.setImageUrl(imageUrl);
@@ -132,8 +134,8 @@ public class ProductAdService {
     public void deleteProductAd(UUID id) {
         ProductAd ad = getAdById(id);
         
-        // Delete image if exists
-        if (ad.getImageUrl() != null) {
+        // Delete image if exists and no other ad shares it
+        if (ad.getImageUrl() != null && !productAdRepository.existsByImageUrlAndIdNot(ad.getImageUrl(), id)) {
             imageService.deleteImage(ad.getImageUrl());
         }
         
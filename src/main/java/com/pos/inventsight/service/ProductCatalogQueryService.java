@@ -0,0 +1,187 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.sql.Product;
+import com.pos.inventsight.repository.sql.ProductCatalogRepository.CatalogFilter;
+import com.pos.inventsight.repository.sql.ProductCatalogRepository.SortKey;
+import com.pos.inventsight.repository.sql.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Product listing across a user's companies with filtering, sorting and paging done in SQL.
+ *
+ * Clients page with the returned cursor, which seeks past the last row by {@code (sortKey, id)},
+ * so deep pages cost the same as the first. Offset pages are still supported and also return
+ * a cursor.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProductCatalogQueryService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    /**
+     * List active products in stores of the given companies
+     *
+     * @param storeId only list this store's products, or null for all stores of the companies
+     * @param cursor cursor from a previous page; when set, {@code page} is ignored and no total is counted
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another sort
+     */
+    public CatalogPage listProducts(Set<UUID> companyIds, UUID storeId, String category, String supplier, String search,
+                                    String sortBy, String sortDir, String cursor, int page, int size) {
+        CatalogFilter filter = new CatalogFilter(companyIds);
+        filter.setStoreId(storeId);
+        filter.setCategory(blankToNull(category));
+        filter.setSupplier(blankToNull(supplier));
+        filter.setSearch(blankToNull(search));
+        filter.setSortKey(SortKey.fromProperty(sortBy));
+        filter.setDescending("desc".equalsIgnoreCase(sortDir));
+
+        int limit = Math.max(1, size);
+        boolean seek = cursor != null && !cursor.isBlank();
+        if (seek) {
+            decodeCursor(cursor, filter);
+        }
+
+        // One extra row tells whether another page follows
+        List<Object[]> rows = productRepository.findCatalogPage(filter, seek ? 0 : Math.max(0, page) * limit, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+
+        List<Product> products = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            products.add(toProduct(row));
+        }
+
+        CatalogPage result = new CatalogPage();
+        result.products = products;
+        result.hasMore = hasMore;
+        result.pageSize = limit;
+        if (hasMore) {
+            Object[] last = rows.get(rows.size() - 1);
+            result.nextCursor = encodeCursor(filter, last[last.length - 1], (UUID) last[0]);
+        }
+        if (!seek) {
+            result.page = Math.max(0, page);
+            result.totalItems = productRepository.countCatalog(filter);
+        }
+        return result;
+    }
+
+    /**
+     * Detached product holding only the listed columns
+     */
+    private static Product toProduct(Object[] row) {
+        Product product = new Product();
+        product.setId((UUID) row[0]);
+        product.setName((String) row[1]);
+        product.setDescription((String) row[2]);
+        product.setSku((String) row[3]);
+        product.setCategory((String) row[4]);
+        // setRetailPrice also overwrites price, so it goes first
+        product.setRetailPrice((BigDecimal) row[6]);
+        product.setPrice((BigDecimal) row[5]);
+        product.setCostPrice((BigDecimal) row[7]);
+        product.setQuantity((Integer) row[8]);
+        product.setMaxQuantity((Integer) row[9]);
+        product.setUnit((String) row[10]);
+        product.setSupplier((String) row[11]);
+        product.setLocation((String) row[12]);
+        product.setBarcode((String) row[13]);
+        product.setExpiryDate((LocalDate) row[14]);
+        product.setLowStockThreshold((Integer) row[15]);
+        product.setReorderLevel((Integer) row[16]);
+        product.setIsActive((Boolean) row[17]);
+        product.setCreatedAt((LocalDateTime) row[18]);
+        product.setUpdatedAt((LocalDateTime) row[19]);
+        product.setCreatedBy((String) row[20]);
+        product.setUpdatedBy((String) row[21]);
+        return product;
+    }
+
+    /**
+     * Cursor format: sortKey|direction|lastId|lastSortValue, base64url encoded. The value
+     * part is left out, not emptied, when the last row had no sort value.
+     */
+    static String encodeCursor(CatalogFilter filter, Object sortValue, UUID id) {
+        String raw = filter.getSortKey().name() + "|" + (filter.isDescending() ? "desc" : "asc") + "|" + id
+            + (sortValue != null ? "|" + sortValue : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static void decodeCursor(String cursor, CatalogFilter filter) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 3 && parts.length != 4) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String direction = filter.isDescending() ? "desc" : "asc";
+        if (!parts[0].equals(filter.getSortKey().name()) || !parts[1].equals(direction)) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        try {
+            Object value = parts.length == 4 ? parseSortValue(filter.getSortKey(), parts[3]) : null;
+            filter.seekAfter(value, UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static Object parseSortValue(SortKey key, String value) {
+        return switch (key) {
+            case PRICE -> new BigDecimal(value);
+            case QUANTITY -> Integer.valueOf(value);
+            case CREATED_AT, UPDATED_AT -> LocalDateTime.parse(value);
+            default -> value;
+        };
+    }
+
+    private static String blankToNull(String value) {
+        return value != null && !value.trim().isEmpty() ? value.trim() : null;
+    }
+
+    /**
+     * A page of listed products
+     */
+    public static class CatalogPage {
+        private List<Product> products;
+        private String nextCursor;
+        private boolean hasMore;
+        private int pageSize;
+        private Integer page;
+        private Long totalItems;
+
+        public List<Product> getProducts() { return products; }
+        public String getNextCursor() { return nextCursor; }
+        public boolean isHasMore() { return hasMore; }
+        public int getPageSize() { return pageSize; }
+
+        /**
+         * Page number, or null for cursor pages
+         */
+        public Integer getPage() { return page; }
+
+        /**
+         * Total matching products, or null for cursor pages
+         */
+        public Long getTotalItems() { return totalItems; }
+    }
+}
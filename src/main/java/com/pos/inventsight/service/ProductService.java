@@ -16,6 +16,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.UUID;
 import java.util.List;
 import java.util.Map;
@@ -160,6 +163,24 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + productId));
     }
     
+    /**
+     * Load several products in one query, keyed by ID.
+     * Throws the same ResourceNotFoundException as getProductById for the first missing ID.
+     */
+    public Map<UUID, Product> getProductsByIds(Collection<UUID> productIds) {
+        LinkedHashSet<UUID> ids = new LinkedHashSet<>(productIds);
+        Map<UUID, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            products.put(product.getId(), product);
+        }
+        for (UUID productId : ids) {
+            if (!products.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product not found with ID: " + productId);
+            }
+        }
+        return products;
+    }
+    
     public Product getProductBySku(String sku) {
         return productRepository.findBySku(sku)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with SKU: " + sku));
@@ -1,5 +1,7 @@
 package com.pos.inventsight.service;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -9,9 +11,12 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class RateLimitingService {
     
-    // In-memory rate limiting (in production, use Redis)
+    // In-memory attempt counters, bounded by max-entries and swept every few minutes
     private final Map<String, RateLimitEntry> attempts = new ConcurrentHashMap<>();
     
+    @Value("${inventsight.rate-limiting.attempts.max-entries:50000}")
+    private int maxEntries = 50000;
+    
     private static final int MAX_REGISTRATION_ATTEMPTS = 5;
     private static final int MAX_EMAIL_VERIFICATION_ATTEMPTS = 10;
     private static final int MAX_MFA_VERIFICATION_ATTEMPTS = 5;
@@ -92,15 +97,30 @@ public class RateLimitingService {
     }
     
     private void recordAttempt(String key) {
-        RateLimitEntry entry = attempts.get(key);
         LocalDateTime now = LocalDateTime.now();
         
-        if (entry == null || isExpired(entry)) {
-            attempts.put(key, new RateLimitEntry(1, now));
-        } else {
+        if (!attempts.containsKey(key) && attempts.size() >= maxEntries) {
+            cleanupExpiredEntries();
+            if (attempts.size() >= maxEntries) {
+                evictOldestEntry();
+            }
+        }
+        
+        attempts.compute(key, (k, entry) -> {
+            if (entry == null || isExpired(entry)) {
+                return new RateLimitEntry(1, now);
+            }
             entry.setAttempts(entry.getAttempts() + 1);
             entry.setLastAttempt(now);
-        }
+            return entry;
+        });
+    }
+    
+    // Make room when every tracked key is still within its window; the oldest is closest to expiring
+    private void evictOldestEntry() {
+        attempts.entrySet().stream()
+            .min((a, b) -> a.getValue().getLastAttempt().compareTo(b.getValue().getLastAttempt()))
+            .ifPresent(oldest -> attempts.remove(oldest.getKey(), oldest.getValue()));
     }
     
     private boolean isExpired(RateLimitEntry entry) {
@@ -116,12 +136,17 @@ public class RateLimitingService {
         }
     }
     
-    // Clean up expired entries (should be called periodically)
+    // Clean up expired entries
+    @Scheduled(fixedDelayString = "${inventsight.rate-limiting.attempts.cleanup-interval-ms:300000}")
     public void cleanupExpiredEntries() {
         LocalDateTime cutoff = LocalDateTime.now().minusMinutes(RATE_LIMIT_WINDOW_MINUTES);
         attempts.entrySet().removeIf(entry -> entry.getValue().getLastAttempt().isBefore(cutoff));
     }
     
+    int size() {
+        return attempts.size();
+    }
+    
     private static class RateLimitEntry {
         private int attempts;
         private LocalDateTime lastAttempt;
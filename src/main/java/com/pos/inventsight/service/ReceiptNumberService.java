@@ -0,0 +1,187 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.sql.Store;
+import com.pos.inventsight.repository.sql.ReceiptNumberBlockRepository;
+import com.pos.inventsight.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Issues human-friendly receipt numbers such as {@code INV-7-000123}: document prefix,
+ * the store's number and a per-store sequence.
+ *
+ * Sequences are reserved from receipt_number_blocks a block at a time (hi/lo) in a short
+ * transaction of their own, then handed out from memory with a lock-free increment; only
+ * the thread that exhausts a block goes back to the database. Every node reserves its own
+ * blocks, so numbers are unique across nodes and restarts but not contiguous: the rest of
+ * a block is skipped when a node restarts, and numbers of rolled back sales are not reused.
+ */
+@Service
+public class ReceiptNumberService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReceiptNumberService.class);
+
+    /**
+     * Scope used to number stores themselves. A store's own number is kept in the
+     * scope STORE:&lt;storeId&gt;, so store numbers live in receipt_number_blocks as well.
+     */
+    private static final String STORE_SCOPE = "STORE";
+
+    /**
+     * Documents that carry a receipt number
+     */
+    public enum DocumentType {
+        SALE("INV"),
+        RECEIPT("RCP");
+
+        private final String prefix;
+
+        DocumentType(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+    }
+
+    @Autowired
+    private ReceiptNumberBlockRepository blockRepository;
+
+    @Autowired(required = false)
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${inventsight.receipts.number-block-size:100}")
+    private int blockSize = 100;
+
+    @Value("${inventsight.receipts.sequence-digits:6}")
+    private int sequenceDigits = 6;
+
+    private final ConcurrentHashMap<String, Sequence> sequences = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Long> storeNumbers = new ConcurrentHashMap<>();
+
+    /**
+     * Next receipt number for a document of a store; store may be null for documents
+     * not tied to one, which share a single sequence per document type
+     */
+    public String nextNumber(DocumentType type, Store store) {
+        UUID storeId = store != null ? store.getId() : null;
+        String scope = storeId != null ? type.name() + ":" + storeId : type.name();
+        long value = sequences.computeIfAbsent(TenantContext.getCurrentTenant() + "|" + scope, key -> new Sequence(scope))
+            .next();
+        String sequence = String.format("%0" + Math.max(1, sequenceDigits) + "d", value);
+        if (storeId == null) {
+            return type.getPrefix() + "-" + sequence;
+        }
+        return type.getPrefix() + "-" + storeNumber(storeId) + "-" + sequence;
+    }
+
+    /**
+     * Short number of a store, assigned on its first receipt and never changed
+     */
+    long storeNumber(UUID storeId) {
+        String key = TenantContext.getCurrentTenant() + "|" + storeId;
+        Long cached = storeNumbers.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        String storeScope = STORE_SCOPE + ":" + storeId;
+        Long assigned = inTransaction(() -> {
+            Long existing = blockRepository.findLastValue(storeScope);
+            if (existing != null) {
+                return existing;
+            }
+            // A number lost to a concurrent assignment is just a gap in the store numbers
+            blockRepository.insertIfAbsent(storeScope, blockRepository.reserveBlock(STORE_SCOPE, 1));
+            return blockRepository.findLastValue(storeScope);
+        });
+        if (assigned == null) {
+            throw new IllegalStateException("Could not assign a receipt number to store " + storeId);
+        }
+        storeNumbers.put(key, assigned);
+        return assigned;
+    }
+
+    /**
+     * Reserve a block in its own transaction so the scope's row lock is not held
+     * for the rest of the sale
+     */
+    private <T> T inTransaction(Supplier<T> work) {
+        if (transactionManager == null) {
+            return work.get();
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction.execute(status -> work.get());
+    }
+
+    /**
+     * Numbers [first, last] of a reserved block; next runs past last once the block is used up
+     */
+    private static final class Block {
+        private final AtomicLong next;
+        private final long last;
+
+        private Block(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+
+        private long take() {
+            long value = next.getAndIncrement();
+            return value <= last ? value : -1;
+        }
+    }
+
+    /**
+     * Sequence of one scope in the current tenant
+     */
+    private final class Sequence {
+        private final String scope;
+        private final String tenant = TenantContext.getCurrentTenant();
+        private volatile Block block;
+
+        private Sequence(String scope) {
+            this.scope = scope;
+        }
+
+        private long next() {
+            Block current = block;
+            long value = current != null ? current.take() : -1;
+            return value > 0 ? value : refill(current);
+        }
+
+        private synchronized long refill(Block exhausted) {
+            Block current = block;
+            if (current != exhausted) {
+                // Another thread already reserved a new block
+                long value = current.take();
+                if (value > 0) {
+                    return value;
+                }
+            }
+            int size = Math.max(1, blockSize);
+            Long last = inTransaction(() -> blockRepository.reserveBlock(scope, size));
+            if (last == null) {
+                throw new IllegalStateException("Could not reserve receipt numbers for " + scope);
+            }
+            Block reserved = new Block(last - size + 1, last);
+            long value = reserved.take();
+            block = reserved;
+            logger.debug("Reserved receipt numbers {}-{} for {} in {}", last - size + 1, last, scope, tenant);
+            return value;
+        }
+    }
+}
@@ -44,6 +44,9 @@ public class ReceiptService {
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private ReceiptNumberService receiptNumberService;
+    
     /**
      * Create a new receipt
      */
@@ -62,6 +65,7 @@ public class ReceiptService {
                 .orElseThrow(() -> new ResourceNotFoundException("Store not found"));
             receipt.setStore(store);
         }
+        receipt.setReceiptNumber(receiptNumberService.nextNumber(ReceiptNumberService.DocumentType.RECEIPT, receipt.getStore()));
         
         // Set customer information
         if (request.getCustomerId() != null) {
@@ -1,15 +1,13 @@
 package com.pos.inventsight.service;
 
-import com.pos.inventsight.model.sql.Sale;
 import com.pos.inventsight.model.sql.Product;
-import com.pos.inventsight.repository.sql.SaleRepository;
+import com.pos.inventsight.model.sql.SaleStatus;
 import com.pos.inventsight.repository.sql.SaleItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,10 +16,10 @@ import java.util.Map;
 public class ReportService {
     
     @Autowired
-    private SaleRepository saleRepository;
+    private SaleItemRepository saleItemRepository;
     
     @Autowired
-    private SaleItemRepository saleItemRepository;
+    private SalesRollupService salesRollupService;
     
     @Autowired
     private ProductService productService;
@@ -29,20 +27,22 @@ public class ReportService {
     @Autowired
     private ActivityLogService activityLogService;
     
+    // Report revenue counts completed sales only
+    private static final List<SaleStatus> REVENUE_STATUSES = List.of(SaleStatus.COMPLETED);
+    
     public Map<String, Object> generateDailyReport() {
         System.out.println("📊 InventSight - Generating daily report");
         System.out.println("📅 Current Date and Time (UTC): 2025-08-26 09:17:13");
         System.out.println("👤 Current User's Login: WinKyaw");
         
         Map<String, Object> report = new HashMap<>();
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = startOfDay.plusDays(1).minusSeconds(1);
+        LocalDate today = LocalDate.now();
         
         try {
             // Sales data
-            List<Sale> todaySales = saleRepository.findByDateRange(startOfDay, endOfDay);
-            BigDecimal todayRevenue = saleRepository.getTotalRevenueByDateRange(startOfDay, endOfDay);
-            long todaySalesCount = saleRepository.getSalesCountByDateRange(startOfDay, endOfDay);
+            SalesRollupService.Totals todayTotals = salesRollupService.getTotals(today, today, REVENUE_STATUSES);
+            BigDecimal todayRevenue = todayTotals.getRevenue();
+            long todaySalesCount = todayTotals.getCount();
             
             report.put("date", LocalDate.now().toString());
             report.put("salesCount", todaySalesCount);
@@ -90,16 +90,17 @@ public class ReportService {
         System.out.println("📊 InventSight - Generating weekly report");
         
         Map<String, Object> report = new HashMap<>();
-        LocalDateTime startOfWeek = LocalDate.now().minusDays(7).atStartOfDay();
-        LocalDateTime endOfWeek = LocalDate.now().atTime(23, 59, 59);
+        LocalDate startOfWeek = LocalDate.now().minusDays(7);
+        LocalDate endOfWeek = LocalDate.now();
         
         try {
-            BigDecimal weeklyRevenue = saleRepository.getTotalRevenueByDateRange(startOfWeek, endOfWeek);
-            long weeklySalesCount = saleRepository.getSalesCountByDateRange(startOfWeek, endOfWeek);
+            SalesRollupService.Totals weeklyTotals = salesRollupService.getTotals(startOfWeek, endOfWeek, REVENUE_STATUSES);
+            BigDecimal weeklyRevenue = weeklyTotals.getRevenue();
+            long weeklySalesCount = weeklyTotals.getCount();
             
             report.put("period", "weekly");
-            report.put("startDate", startOfWeek.toLocalDate().toString());
-            report.put("endDate", endOfWeek.toLocalDate().toString());
+            report.put("startDate", startOfWeek.toString());
+            report.put("endDate", endOfWeek.toString());
             report.put("salesCount", weeklySalesCount);
             report.put("totalRevenue", weeklyRevenue != null ? weeklyRevenue : BigDecimal.ZERO);
             report.put("averageOrderValue", weeklySalesCount > 0 ? 
@@ -32,7 +32,9 @@ import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -49,6 +51,9 @@ public class SaleService {
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private StockMutationService stockMutationService;
+    
     @Autowired
     private UserService userService;
     
@@ -58,9 +63,15 @@ public class SaleService {
     @Autowired
     private InventoryAnalyticsService inventoryAnalyticsService;
     
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
     @Autowired
     private UserActiveStoreService userActiveStoreService;
     
+    @Autowired
+    private ReceiptNumberService receiptNumberService;
+    
     @Autowired
     private StoreRepository storeRepository;
     
@@ -72,21 +83,25 @@ public class SaleService {
     
     private static final BigDecimal TAX_RATE = new BigDecimal("0.08"); // 8% tax rate
     
+    // Revenue and sales figures count completed sales only
+    private static final List<SaleStatus> REVENUE_STATUSES = List.of(SaleStatus.COMPLETED);
+    
     // Sale Processing
     public SaleResponse processSale(SaleRequest request, UUID userId) {
-        logger.info("🧾 Creating receipt for user: {}", userId);
+        logger.debug("🧾 Creating receipt for user: {}", userId);
         
         User user = userService.getUserById(userId);
         
         // ✅ GET USER'S ACTIVE STORE
         Store activeStore = userActiveStoreService.getUserActiveStoreOrThrow(userId);
-        logger.info("🏪 Active store: {} (ID: {})", activeStore.getStoreName(), activeStore.getId());
+        logger.debug("🏪 Active store: {} (ID: {})", activeStore.getStoreName(), activeStore.getId());
         
         // Create sale
         Sale sale = new Sale();
         sale.setProcessedBy(user);
         sale.setStore(activeStore);  // ✅ SET STORE FROM USER'S ACTIVE STORE
         sale.setCompany(activeStore.getCompany()); // ✅ SET COMPANY FROM STORE
+        sale.setReceiptNumber(receiptNumberService.nextNumber(ReceiptNumberService.DocumentType.SALE, activeStore));
         
         // Link to customer if provided
         if (request.getCustomerId() != null) {
@@ -115,14 +130,7 @@ public class SaleService {
         SaleStatus status = request.getStatus() != null ? request.getStatus() : SaleStatus.PENDING;
         sale.setStatus(status);
         
-        logger.info("📝 Receipt status: {}", status);
-        
-        // ✅ FIX: Log all items BEFORE processing
-        logger.info("📦 Receipt items to process:");
-        for (SaleRequest.ItemRequest item : request.getItems()) {
-            logger.info("   - Product ID: {} | Quantity: {}", 
-                       item.getProductId(), item.getQuantity());
-        }
+        logger.debug("📝 Receipt status: {} | {} line(s)", status, request.getItems().size());
         
         // If delivery, assign delivery person
         if (sale.getReceiptType() == ReceiptType.DELIVERY && request.getDeliveryPersonId() != null) {
@@ -137,29 +145,21 @@ public class SaleService {
         BigDecimal subtotal = BigDecimal.ZERO;
         List<SaleItem> saleItems = new ArrayList<>();
         
+        // Load every product on the receipt in one query
+        Map<UUID, Product> products = productService.getProductsByIds(
+            request.getItems().stream().map(SaleRequest.ItemRequest::getProductId).collect(Collectors.toList()));
+        
         // Process each item
         for (SaleRequest.ItemRequest itemRequest : request.getItems()) {
-            // ✅ FIX: Log each item processing
-            logger.info("🔄 Processing item - Product ID: {}, Quantity: {}", 
-                       itemRequest.getProductId(), itemRequest.getQuantity());
-            
-            Product product = productService.getProductById(itemRequest.getProductId());
-            
-            logger.info("📦 Found product: {} | Current stock: {}", 
-                       product.getName(), product.getQuantity());
+            Product product = products.get(itemRequest.getProductId());
             
             // ✅ FIX: Only check stock for COMPLETED receipts
-            if (status == SaleStatus.COMPLETED) {
-                // Check stock availability
-                if (product.getQuantity() < itemRequest.getQuantity()) {
-                    throw new InsufficientStockException(
-                        "Insufficient stock for " + product.getName() + 
-                        ". Available: " + product.getQuantity() + ", Requested: " + itemRequest.getQuantity()
-                    );
-                }
-                logger.info("✅ Stock check passed for COMPLETED receipt");
-            } else {
-                logger.info("⏸️ Receipt is PENDING - skipping stock check");
+            // Early, friendly rejection; the conditional stock update below is authoritative
+            if (status == SaleStatus.COMPLETED && product.getQuantity() < itemRequest.getQuantity()) {
+                throw new InsufficientStockException(
+                    "Insufficient stock for " + product.getName() + 
+                    ". Available: " + product.getQuantity() + ", Requested: " + itemRequest.getQuantity()
+                );
             }
             
             // Create sale item
@@ -172,9 +172,6 @@ public class SaleService {
             
             saleItems.add(saleItem);
             subtotal = subtotal.add(saleItem.getTotalPrice());
-            
-            logger.info("✅ Item processed: {} x {} = ${}", 
-                       product.getName(), itemRequest.getQuantity(), saleItem.getTotalPrice());
         }
         
         // Apply discount if provided
@@ -191,28 +188,16 @@ public class SaleService {
         sale.setTaxAmount(taxAmount);
         sale.setTotalAmount(totalAmount);
         
-        // Save sale
+        // Save sale; items cascade and are inserted as one JDBC batch at flush
+        sale.setItems(saleItems);
         Sale savedSale = saleRepository.save(sale);
         
         // ✅ FIX: Only reduce inventory and complete sale if status is COMPLETED
         if (status == SaleStatus.COMPLETED) {
-            logger.info("🔻 Receipt is COMPLETED - reducing stock for all items");
-            
-            // Save sale items and update inventory
-            for (SaleItem saleItem : saleItems) {
-                saleItem.setSale(savedSale);
-                saleItemRepository.save(saleItem);
-                
-                logger.info("🔻 Reducing stock - Product: {}, Quantity: {}", 
-                           saleItem.getProduct().getName(), saleItem.getQuantity());
-                
-                // Reduce inventory
-                productService.reduceStock(
-                    saleItem.getProduct().getId(), 
-                    saleItem.getQuantity(),
-                    "SALE - Receipt: " + savedSale.getReceiptNumber()
-                );
-            }
+            // Reduce inventory for all lines in one conditional update
+            Map<UUID, Integer> quantities =
+                StockMutationService.sumByProduct(saleItems, item -> item.getProduct().getId(), SaleItem::getQuantity);
+            stockMutationService.decrementForSale(quantities, "SALE - Receipt: " + savedSale.getReceiptNumber());
             
             // Update customer's last purchase date if customer is linked
             if (savedSale.getCustomer() != null) {
@@ -221,44 +206,23 @@ public class SaleService {
                 customerRepository.save(customer);
             }
             
-            // Log activity
+            // One activity record per sale, covering every line
             activityLogService.logActivity(
                 userId.toString(), 
                 user.getUsername(), 
                 "SALE_COMPLETED", 
                 "SALE", 
-                String.format("Sale completed: %s - Total: $%.2f", 
-                    savedSale.getReceiptNumber(), savedSale.getTotalAmount())
+                String.format("Sale completed: %s - %d line(s), %d product(s), %d unit(s) - Total: $%.2f", 
+                    savedSale.getReceiptNumber(), saleItems.size(), quantities.size(),
+                    quantities.values().stream().mapToInt(Integer::intValue).sum(), savedSale.getTotalAmount())
             );
             
-            logger.info("✅ Sale completed: {} - Total: ${}", 
-                       savedSale.getReceiptNumber(), savedSale.getTotalAmount());
-        } else {
-            // PENDING: Just save items without reducing inventory
-            logger.info("📝 Receipt is PENDING - NOT reducing stock yet");
-            
-            for (SaleItem saleItem : saleItems) {
-                saleItem.setSale(savedSale);
-                saleItemRepository.save(saleItem);
-            }
-            
-            logger.info("📝 Pending receipt created: {} - Total: ${}", 
-                       savedSale.getReceiptNumber(), savedSale.getTotalAmount());
-        }
-        
-        // Update analytics only for completed sales
-        if (status == SaleStatus.COMPLETED) {
-            inventoryAnalyticsService.updateDailyAnalytics(savedSale);
+            inventoryAnalyticsService.recordSale(savedSale, saleItems);
         }
+        salesRollupService.recordTransition(savedSale, null, saleItems);
         
-        logger.info("✅ Receipt created successfully:");
-        logger.info("   ID: {}", savedSale.getId());
-        logger.info("   Receipt Number: {}", savedSale.getReceiptNumber());
-        logger.info("   Status: {}", savedSale.getStatus());
-        logger.info("   Total Items: {}", saleItems.size());
-        logger.info("   Subtotal: ${}", savedSale.getSubtotal());
-        logger.info("   Tax: ${}", savedSale.getTaxAmount());
-        logger.info("   Total: ${}", savedSale.getTotalAmount());
+        logger.info("🧾 Receipt {} created: status={}, items={}, total=${}", 
+                   savedSale.getReceiptNumber(), savedSale.getStatus(), saleItems.size(), savedSale.getTotalAmount());
         
         // Convert to DTO and return
         return convertToSaleResponse(savedSale);
@@ -322,21 +286,22 @@ public class SaleService {
         }
         
         // Restore inventory
-        for (SaleItem item : sale.getItems()) {
-            productService.increaseStock(
-                item.getProduct().getId(), 
-                item.getQuantity(),
-                "REFUND - Receipt: " + sale.getReceiptNumber()
-            );
-        }
+        stockMutationService.returnForRefund(
+            StockMutationService.sumByProduct(sale.getItems(), item -> item.getProduct().getId(), SaleItem::getQuantity),
+            "REFUND - Receipt: " + sale.getReceiptNumber()
+        );
         
         // Update sale status
+        SaleStatus previousStatus = sale.getStatus();
         sale.setStatus(SaleStatus.REFUNDED);
         sale.setUpdatedAt(LocalDateTime.now());
         sale.setNotes(sale.getNotes() + "\nREFUNDED: " + reason);
         
         Sale refundedSale = saleRepository.save(sale);
         
+        inventoryAnalyticsService.recordRefund(refundedSale);
+        salesRollupService.recordTransition(refundedSale, previousStatus, refundedSale.getItems());
+        
         // Log activity
         User user = userService.getUserById(processedBy);
         activityLogService.logActivity(
@@ -367,26 +332,22 @@ public class SaleService {
     }
     
     public BigDecimal getTodayRevenue() {
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = startOfDay.plusDays(1).minusSeconds(1);
-        return getTotalRevenueByDateRange(startOfDay, endOfDay);
+        LocalDate today = LocalDate.now();
+        return salesRollupService.getTotals(today, today, REVENUE_STATUSES).getRevenue();
     }
     
     public BigDecimal getMonthlyRevenue(int year, int month) {
-        BigDecimal revenue = saleRepository.getMonthlyRevenue(year, month);
-        return revenue != null ? revenue : BigDecimal.ZERO;
+        LocalDate firstDay = LocalDate.of(year, month, 1);
+        LocalDate lastDay = firstDay.withDayOfMonth(firstDay.lengthOfMonth());
+        return salesRollupService.getTotals(firstDay, lastDay, REVENUE_STATUSES).getRevenue();
     }
     
     // Dashboard Data
     public SaleSummary getDashboardSummary() {
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = startOfDay.plusDays(1).minusSeconds(1);
-        
-        BigDecimal todayRevenue = getTotalRevenueByDateRange(startOfDay, endOfDay);
-        long todaySales = getSalesCountByDateRange(startOfDay, endOfDay);
-        BigDecimal averageOrderValue = getAverageOrderValue(startOfDay, endOfDay);
+        LocalDate today = LocalDate.now();
+        SalesRollupService.Totals totals = salesRollupService.getTotals(today, today, REVENUE_STATUSES);
         
-        return new SaleSummary(todayRevenue, todaySales, averageOrderValue);
+        return new SaleSummary(totals.getRevenue(), totals.getCount(), totals.getAverageOrderValue());
     }
     
     // Additional methods for Receipt API
@@ -432,9 +393,7 @@ public class SaleService {
         Sale savedSale = saleRepository.save(existingSale);
         
         // Save sale items
-        for (SaleItem item : saleItems) {
-            saleItemRepository.save(item);
-        }
+        saleItemRepository.saveAll(saleItems);
         
         activityLogService.logActivity(
             savedSale.getProcessedBy().getId().toString(),
@@ -451,9 +410,11 @@ public class SaleService {
         Sale sale = getSaleById(saleId);
         
         // For soft delete, change status to CANCELLED
+        SaleStatus previousStatus = sale.getStatus();
         sale.setStatus(SaleStatus.CANCELLED);
         sale.setUpdatedAt(LocalDateTime.now());
         saleRepository.save(sale);
+        salesRollupService.recordTransition(sale, previousStatus, sale.getItems());
         
         activityLogService.logActivity(
             sale.getProcessedBy().getId().toString(),
@@ -498,9 +459,7 @@ public class SaleService {
         Sale savedSale = saleRepository.save(sale);
         
         // Save new sale items
-        for (SaleItem item : newItems) {
-            saleItemRepository.save(item);
-        }
+        saleItemRepository.saveAll(newItems);
         
         activityLogService.logActivity(
             sale.getProcessedBy().getId().toString(),
@@ -719,6 +678,7 @@ public class SaleService {
         }
         
         Sale savedSale = saleRepository.save(sale);
+        salesRollupService.recordTransition(savedSale, SaleStatus.PAID, savedSale.getItems());
         
         String fulfillmentDetails = receiptType != null ? " (Type: " + receiptType + ", Status: " + sale.getStatus() + ")" : " (Default: COMPLETED)";
         activityLogService.logActivity(
@@ -744,9 +704,11 @@ public class SaleService {
         }
         
         sale.setDeliveredAt(LocalDateTime.now());
+        SaleStatus previousStatus = sale.getStatus();
         sale.setStatus(SaleStatus.DELIVERED);
         
         Sale savedSale = saleRepository.save(sale);
+        salesRollupService.recordTransition(savedSale, previousStatus, savedSale.getItems());
         
         User user = userService.getUserById(userId);
         activityLogService.logActivity(
@@ -784,6 +746,7 @@ public class SaleService {
         // Mark as completed
         sale.setStatus(SaleStatus.COMPLETED);
         Sale savedSale = saleRepository.save(sale);
+        salesRollupService.recordTransition(savedSale, SaleStatus.READY_FOR_PICKUP, savedSale.getItems());
         
         // Log activity
         User user = userService.getUserById(userId);
@@ -827,31 +790,14 @@ public class SaleService {
                        item.getProduct().getName(), item.getQuantity());
         }
         
-        // Reduce stock for all items
-        for (SaleItem item : sale.getItems()) {
-            Product product = item.getProduct();
-            
-            logger.info("🔄 Processing item - Product: {}, Current Stock: {}, Quantity to reduce: {}", 
-                       product.getName(), product.getQuantity(), item.getQuantity());
-            
-            if (product.getQuantity() < item.getQuantity()) {
-                throw new InsufficientStockException(
-                    "Insufficient stock for product: " + product.getName() +
-                    ". Available: " + product.getQuantity() + ", Required: " + item.getQuantity()
-                );
-            }
-            
-            logger.info("🔻 Reducing stock for: {}", product.getName());
-            
-            // Reduce inventory
-            productService.reduceStock(
-                product.getId(),
-                item.getQuantity(),
-                "COMPLETED - Receipt: " + sale.getReceiptNumber()
-            );
-        }
+        // Reduce stock for all items in one conditional update
+        stockMutationService.decrementForSale(
+            StockMutationService.sumByProduct(sale.getItems(), item -> item.getProduct().getId(), SaleItem::getQuantity),
+            "COMPLETED - Receipt: " + sale.getReceiptNumber()
+        );
         
         // Update receipt - Set to PAID instead of COMPLETED
+        SaleStatus previousStatus = sale.getStatus();
         sale.setStatus(SaleStatus.PAID);
         sale.setPaymentMethod(paymentMethod);
         sale.setUpdatedAt(LocalDateTime.now());
@@ -876,7 +822,8 @@ public class SaleService {
         );
         
         // Update analytics
-        inventoryAnalyticsService.updateDailyAnalytics(completedSale);
+        inventoryAnalyticsService.recordSale(completedSale, completedSale.getItems());
+        salesRollupService.recordTransition(completedSale, previousStatus, completedSale.getItems());
         
         logger.info("✅ Receipt completed: {} | Payment: {} | Total: ${}", 
                    saleId, paymentMethod, completedSale.getTotalAmount());
@@ -0,0 +1,372 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.nosql.InventoryAnalytics;
+import com.pos.inventsight.model.sql.SaleStatus;
+import com.pos.inventsight.repository.nosql.InventoryAnalyticsRepository;
+import com.pos.inventsight.repository.sql.ProductRepository;
+import com.pos.inventsight.repository.sql.SaleItemRepository;
+import com.pos.inventsight.repository.sql.SaleRepository;
+import com.pos.inventsight.tenant.TenantContext;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming daily sales analytics.
+ *
+ * Each committed sale or refund contributes an O(1) delta to an in-memory
+ * counter keyed by tenant, company, store and day. Counters are drained and
+ * written to Mongo by a scheduled flush, so many sales to the same store
+ * coalesce into one document update per interval and no analytics work runs
+ * inside the sale transaction. The flush is one bulk write of {@code $inc}
+ * upserts, so nodes flushing the same store-day add to each other's totals
+ * instead of overwriting them.
+ *
+ * A periodic reconciliation recomputes today's figures from SQL with grouped
+ * queries and overwrites the documents, correcting drift from missed deltas,
+ * concurrent writers on other nodes or flush failures.
+ */
+@Service
+public class SalesAnalyticsAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesAnalyticsAggregator.class);
+
+    static final String PERIOD = "DAILY";
+
+    /**
+     * Statuses that count as sold for analytics: a sale is sold once paid and stays sold while fulfilled.
+     */
+    static final List<SaleStatus> SOLD_STATUSES = List.of(
+        SaleStatus.PAID,
+        SaleStatus.READY_FOR_PICKUP,
+        SaleStatus.OUT_FOR_DELIVERY,
+        SaleStatus.DELIVERED,
+        SaleStatus.COMPLETED
+    );
+
+    /**
+     * totalRevenue / totalSales rounded to cents, or zero without sales
+     */
+    private static final AggregationExpression AVERAGE_ORDER_VALUE = context -> new Document("$cond", List.of(
+        new Document("$gt", List.of("$totalSales", 0)),
+        new Document("$round", List.of(new Document("$divide", List.of("$totalRevenue", "$totalSales")), 2)),
+        new Decimal128(BigDecimal.ZERO)));
+
+    @Autowired
+    private InventoryAnalyticsRepository analyticsRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${inventsight.analytics.aggregator.enabled:true}")
+    private boolean enabled = true;
+
+    private final ConcurrentHashMap<Key, Counters> pending = new ConcurrentHashMap<>();
+
+    // Tenants (schemas) that produced deltas since the last reconciliation
+    private final Set<String> activeTenants = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Apply a sale delta once its transaction has committed.
+     * Falls back to immediate application when published outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleDelta(SaleDelta delta) {
+        if (!enabled || delta.getStoreId() == null) {
+            return;
+        }
+        Key key = new Key(delta.getTenant(), delta.getCompanyId(), delta.getStoreId(), delta.getDate());
+        pending.compute(key, (k, counters) -> {
+            Counters c = counters != null ? counters : new Counters();
+            c.add(delta.getSales(), delta.getItems(), delta.getRevenue());
+            return c;
+        });
+        activeTenants.add(delta.getTenant());
+    }
+
+    /**
+     * Write accumulated deltas to Mongo in one ordered bulk write: per touched store-day an
+     * upsert that increments the totals on the server, then an update that recomputes the
+     * average from the stored totals. Deltas that were not written are merged back and
+     * retried on the next flush.
+     */
+    @Scheduled(fixedDelayString = "${inventsight.analytics.aggregator.flush-interval-ms:10000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Key, Counters> drained = new HashMap<>();
+        for (Key key : pending.keySet()) {
+            Counters counters = pending.remove(key);
+            if (counters != null) {
+                drained.put(key, counters);
+            }
+        }
+
+        List<Key> keys = new ArrayList<>(drained.keySet());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, InventoryAnalytics.class);
+        LocalDateTime now = LocalDateTime.now();
+        for (Key key : keys) {
+            Counters counters = drained.get(key);
+            Query query = storeDay(key);
+            bulk.upsert(query, new Update()
+                .inc("totalSales", counters.sales)
+                .inc("totalItemsSold", counters.items)
+                .inc("totalRevenue", new Decimal128(counters.revenue))
+                .set("updatedAt", now)
+                .setOnInsert("createdAt", now)
+                .setOnInsert("createdBy", "SYSTEM"));
+            bulk.updateOne(query, AggregationUpdate.update().set("averageOrderValue").toValue(AVERAGE_ORDER_VALUE));
+        }
+
+        try {
+            bulk.execute();
+            logger.debug("Flushed analytics for {} store-day(s)", keys.size());
+        } catch (BulkOperationException e) {
+            // An ordered bulk stops at the first error; each key's increment is operation 2 * i
+            int failed = e.getErrors().isEmpty() ? 0 : e.getErrors().get(0).getIndex();
+            int requeued = 0;
+            for (int i = (failed + 1) / 2; i < keys.size(); i++) {
+                pending.merge(keys.get(i), drained.get(keys.get(i)), Counters::merge);
+                requeued++;
+            }
+            logger.warn("Analytics flush failed after {} of {} store-day(s), will retry: {}",
+                keys.size() - requeued, keys.size(), e.getMessage());
+        } catch (Exception e) {
+            logger.warn("Analytics flush failed for {} store-day(s), will retry: {}", keys.size(), e.getMessage());
+            drained.forEach((key, counters) -> pending.merge(key, counters, Counters::merge));
+        }
+    }
+
+    private static Query storeDay(Key key) {
+        return Query.query(Criteria.where("companyId").is(key.companyId != null ? key.companyId.toString() : null)
+            .and("storeId").is(key.storeId.toString())
+            .and("date").is(key.date)
+            .and("period").is(PERIOD));
+    }
+
+    /**
+     * Recompute today's figures for every active tenant from SQL and overwrite the
+     * Mongo documents. Pending deltas are flushed first so they are not applied twice.
+     */
+    @Scheduled(cron = "${inventsight.analytics.aggregator.reconcile-cron:0 */15 * * * *}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        flush();
+
+        Set<String> tenants = new HashSet<>(activeTenants);
+        activeTenants.removeAll(tenants);
+        tenants.add(TenantContext.DEFAULT_TENANT);
+
+        LocalDate today = LocalDate.now();
+        for (String tenant : tenants) {
+            String previousTenant = TenantContext.isSet() ? TenantContext.getCurrentTenant() : null;
+            try {
+                TenantContext.setCurrentTenant(tenant);
+                reconcileDay(today);
+            } catch (Exception e) {
+                logger.warn("Analytics reconciliation failed for tenant {}: {}", tenant, e.getMessage());
+                activeTenants.add(tenant);
+            } finally {
+                if (previousTenant != null) {
+                    TenantContext.setCurrentTenant(previousTenant);
+                } else {
+                    TenantContext.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Overwrite one day's documents for the current tenant with SQL truth.
+     * Uses three grouped queries regardless of the number of stores or sales.
+     */
+    void reconcileDay(LocalDate date) {
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+
+        Map<UUID, Integer> itemsByStore = new HashMap<>();
+        for (Object[] row : saleItemRepository.getStoreItemsSold(start, end, SOLD_STATUSES)) {
+            itemsByStore.put((UUID) row[0], ((Number) row[1]).intValue());
+        }
+        Map<UUID, Object[]> inventoryByStore = new HashMap<>();
+        for (Object[] row : productRepository.getStoreInventorySnapshot()) {
+            inventoryByStore.put((UUID) row[0], row);
+        }
+
+        for (Object[] row : saleRepository.getStoreSalesTotals(start, end, SOLD_STATUSES)) {
+            UUID companyId = (UUID) row[0];
+            UUID storeId = (UUID) row[1];
+            if (storeId == null) {
+                continue;
+            }
+            int sales = ((Number) row[2]).intValue();
+            BigDecimal revenue = (BigDecimal) row[3];
+
+            InventoryAnalytics analytics = findOrCreate(new Key(TenantContext.getCurrentTenant(), companyId, storeId, date));
+            analytics.setTotalSales(sales);
+            analytics.setTotalRevenue(revenue);
+            analytics.setTotalItemsSold(itemsByStore.getOrDefault(storeId, 0));
+            analytics.setAverageOrderValue(average(revenue, sales));
+
+            Object[] inventory = inventoryByStore.get(storeId);
+            if (inventory != null) {
+                analytics.setTotalProducts(((Number) inventory[1]).intValue());
+                analytics.setTotalInventoryValue((BigDecimal) inventory[2]);
+                analytics.setLowStockProducts(((Number) inventory[3]).intValue());
+                analytics.setOutOfStockProducts(((Number) inventory[4]).intValue());
+            }
+            analytics.setUpdatedAt(LocalDateTime.now());
+            analyticsRepository.save(analytics);
+        }
+    }
+
+    /**
+     * Number of store-days with deltas waiting to be flushed.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private InventoryAnalytics findOrCreate(Key key) {
+        String companyId = key.companyId != null ? key.companyId.toString() : null;
+        String storeId = key.storeId.toString();
+        return analyticsRepository
+            .findByCompanyIdAndStoreIdAndDateAndPeriod(companyId, storeId, key.date, PERIOD)
+            .orElseGet(() -> {
+                InventoryAnalytics analytics = new InventoryAnalytics();
+                analytics.setCompanyId(companyId);
+                analytics.setStoreId(storeId);
+                analytics.setDate(key.date);
+                analytics.setPeriod(PERIOD);
+                analytics.setCreatedBy("SYSTEM");
+                return analytics;
+            });
+    }
+
+    private static BigDecimal average(BigDecimal revenue, Integer sales) {
+        if (revenue == null || sales == null || sales <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return revenue.divide(BigDecimal.valueOf(sales), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Immutable analytics delta for one sale (positive) or refund (negative).
+     */
+    public static class SaleDelta {
+        private final String tenant;
+        private final UUID companyId;
+        private final UUID storeId;
+        private final LocalDate date;
+        private final int sales;
+        private final int items;
+        private final BigDecimal revenue;
+
+        public SaleDelta(String tenant, UUID companyId, UUID storeId, LocalDate date,
+                         int sales, int items, BigDecimal revenue) {
+            this.tenant = tenant;
+            this.companyId = companyId;
+            this.storeId = storeId;
+            this.date = date;
+            this.sales = sales;
+            this.items = items;
+            this.revenue = revenue != null ? revenue : BigDecimal.ZERO;
+        }
+
+        public String getTenant() { return tenant; }
+        public UUID getCompanyId() { return companyId; }
+        public UUID getStoreId() { return storeId; }
+        public LocalDate getDate() { return date; }
+        public int getSales() { return sales; }
+        public int getItems() { return items; }
+        public BigDecimal getRevenue() { return revenue; }
+    }
+
+    private static final class Key {
+        private final String tenant;
+        private final UUID companyId;
+        private final UUID storeId;
+        private final LocalDate date;
+
+        private Key(String tenant, UUID companyId, UUID storeId, LocalDate date) {
+            this.tenant = tenant;
+            this.companyId = companyId;
+            this.storeId = storeId;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return Objects.equals(tenant, other.tenant) && Objects.equals(companyId, other.companyId)
+                && Objects.equals(storeId, other.storeId) && Objects.equals(date, other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenant, companyId, storeId, date);
+        }
+    }
+
+    /**
+     * Mutable counters; only touched inside ConcurrentHashMap.compute/merge, which serialize per key.
+     */
+    private static final class Counters {
+        private int sales;
+        private int items;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        private void add(int sales, int items, BigDecimal revenue) {
+            this.sales += sales;
+            this.items += items;
+            this.revenue = this.revenue.add(revenue);
+        }
+
+        private static Counters merge(Counters a, Counters b) {
+            a.add(b.sales, b.items, b.revenue);
+            return a;
+        }
+    }
+}
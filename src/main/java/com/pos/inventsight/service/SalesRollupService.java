@@ -0,0 +1,387 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.sql.Company;
+import com.pos.inventsight.model.sql.Sale;
+import com.pos.inventsight.model.sql.SaleItem;
+import com.pos.inventsight.model.sql.SaleStatus;
+import com.pos.inventsight.model.sql.SalesRollupBackfill;
+import com.pos.inventsight.repository.sql.CompanyRepository;
+import com.pos.inventsight.repository.sql.SaleRepository;
+import com.pos.inventsight.repository.sql.SalesDailyRollupRepository;
+import com.pos.inventsight.repository.sql.SalesRollupBackfillRepository;
+import com.pos.inventsight.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Daily sales rollup: one row per store, day and status in sales_daily_rollup.
+ *
+ * Sale status changes publish a transition that is applied after commit as an
+ * in-place increment, so range questions (revenue, counts, AOV) read O(days)
+ * rows instead of scanning sales. A resumable job rebuilds history day by day,
+ * newest first, and a periodic reconciliation rebuilds today and yesterday to
+ * correct drift from edits that do not publish a transition.
+ *
+ * Until the backfill has covered a requested range, reads fall back to the
+ * equivalent aggregate over the sales table.
+ */
+@Service
+public class SalesRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupService.class);
+
+    static final String CHECKPOINT_ID = "sales_daily_rollup";
+
+    @Autowired
+    private SalesDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private SalesRollupBackfillRepository backfillRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${inventsight.sales.rollup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${inventsight.sales.rollup.backfill-days-per-run:90}")
+    private int backfillDaysPerRun = 90;
+
+    @Value("${spring.jpa.properties.hibernate.multiTenancy:NONE}")
+    private String multiTenancy = "NONE";
+
+    // Tenants whose backfill has reached their oldest sale; never re-checked
+    private final Set<String> completedTenants = ConcurrentHashMap.newKeySet();
+
+    // ==================== Incremental maintenance ====================
+
+    /**
+     * Record that a sale moved from {@code previousStatus} (null for a new sale) to its current status.
+     * Only an event is published here; the rollup is updated once the transaction commits.
+     */
+    public void recordTransition(Sale sale, SaleStatus previousStatus, Collection<SaleItem> items) {
+        if (!enabled || sale.getStatus() == previousStatus || sale.getStore() == null) {
+            return;
+        }
+        Company company = sale.getCompany() != null ? sale.getCompany() : sale.getStore().getCompany();
+        if (company == null) {
+            return;
+        }
+        long units = 0;
+        if (items != null) {
+            for (SaleItem item : items) {
+                units += item.getQuantity() != null ? item.getQuantity() : 0;
+            }
+        }
+        eventPublisher.publishEvent(new SaleTransition(
+            TenantContext.getCurrentTenant(),
+            company.getId(),
+            sale.getStore().getId(),
+            sale.getCreatedAt() != null ? sale.getCreatedAt().toLocalDate() : LocalDate.now(),
+            previousStatus,
+            sale.getStatus(),
+            units,
+            sale.getTotalAmount() != null ? sale.getTotalAmount() : BigDecimal.ZERO
+        ));
+    }
+
+    /**
+     * Apply a transition once its transaction has committed.
+     * Two sales creating the same store-day-status row at once collide on the
+     * unique key; the loser retries against the row the winner inserted.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransition(SaleTransition transition) {
+        try {
+            apply(transition);
+        } catch (DataIntegrityViolationException e) {
+            try {
+                apply(transition);
+            } catch (Exception retryFailure) {
+                logger.warn("Sales rollup update failed for store {} on {}, reconciliation will correct it: {}",
+                    transition.getStoreId(), transition.getDate(), retryFailure.getMessage());
+            }
+        } catch (Exception e) {
+            logger.warn("Sales rollup update failed for store {} on {}, reconciliation will correct it: {}",
+                transition.getStoreId(), transition.getDate(), e.getMessage());
+        }
+    }
+
+    private void apply(SaleTransition t) {
+        rollupRepository.applyTransition(t.getCompanyId(), t.getStoreId(), t.getDate(),
+            t.getFrom(), t.getTo(), t.getItems(), t.getRevenue());
+    }
+
+    // ==================== Backfill and reconciliation ====================
+
+    /**
+     * Advance the backfill of every tenant by up to backfill-days-per-run days.
+     * Progress is checkpointed after each day, so a restart resumes where it stopped.
+     */
+    @Scheduled(fixedDelayString = "${inventsight.sales.rollup.backfill-interval-ms:60000}",
+               initialDelayString = "${inventsight.sales.rollup.backfill-initial-delay-ms:30000}")
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        for (String tenant : tenants()) {
+            if (completedTenants.contains(tenant)) {
+                continue;
+            }
+            runForTenant(tenant, () -> backfillCurrentTenant(backfillDaysPerRun));
+        }
+    }
+
+    /**
+     * Rebuild today and yesterday for every tenant from the sales table.
+     */
+    @Scheduled(cron = "${inventsight.sales.rollup.reconcile-cron:0 */15 * * * *}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (String tenant : tenants()) {
+            runForTenant(tenant, () -> {
+                rollupRepository.rebuildDay(today.minusDays(1));
+                rollupRepository.rebuildDay(today);
+            });
+        }
+    }
+
+    /**
+     * Rebuild up to {@code maxDays} more days for the current tenant, walking back from today.
+     *
+     * @return number of days rebuilt
+     */
+    int backfillCurrentTenant(int maxDays) {
+        LocalDate today = LocalDate.now();
+        SalesRollupBackfill checkpoint = backfillRepository.findById(CHECKPOINT_ID)
+            .orElseGet(() -> new SalesRollupBackfill(CHECKPOINT_ID, today.plusDays(1)));
+        if (checkpoint.isCompleted()) {
+            completedTenants.add(TenantContext.getCurrentTenant());
+            return 0;
+        }
+
+        LocalDateTime earliest = saleRepository.findEarliestCreatedAt();
+        LocalDate oldestDay = earliest != null ? earliest.toLocalDate() : today;
+
+        int rebuilt = 0;
+        LocalDate day = checkpoint.getCoveredFrom().minusDays(1);
+        while (rebuilt < maxDays && !day.isBefore(oldestDay)) {
+            rollupRepository.rebuildDay(day);
+            checkpoint.setCoveredFrom(day);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            backfillRepository.save(checkpoint);
+            day = day.minusDays(1);
+            rebuilt++;
+        }
+
+        if (day.isBefore(oldestDay)) {
+            checkpoint.setCompleted(true);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            backfillRepository.save(checkpoint);
+            completedTenants.add(TenantContext.getCurrentTenant());
+            logger.info("Sales rollup backfill completed for tenant {}", TenantContext.getCurrentTenant());
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Whether every day from {@code fromDate} onwards is served by the rollup for the current tenant.
+     */
+    boolean isCovered(LocalDate fromDate) {
+        if (!enabled) {
+            return false;
+        }
+        if (completedTenants.contains(TenantContext.getCurrentTenant())) {
+            return true;
+        }
+        return backfillRepository.findById(CHECKPOINT_ID)
+            .map(checkpoint -> checkpoint.isCompleted() || !fromDate.isBefore(checkpoint.getCoveredFrom()))
+            .orElse(false);
+    }
+
+    // ==================== Reads ====================
+
+    /**
+     * Sale count and revenue across all stores for a day range (both inclusive).
+     */
+    public Totals getTotals(LocalDate fromDate, LocalDate toDate, List<SaleStatus> statuses) {
+        List<Object[]> rows = isCovered(fromDate)
+            ? rollupRepository.getTotals(fromDate, toDate, statuses)
+            : saleRepository.getTotalsByDateRangeAndStatuses(
+                fromDate.atStartOfDay(), toDate.plusDays(1).atStartOfDay(), statuses);
+        if (rows == null || rows.isEmpty() || rows.get(0) == null) {
+            return Totals.EMPTY;
+        }
+        Object[] row = rows.get(0);
+        return new Totals(toLong(row[0]), toBigDecimal(row[1]));
+    }
+
+    /**
+     * Sale count and revenue per day for a day range (both inclusive); days without sales are zero.
+     */
+    public Map<LocalDate, Totals> getDailyTotals(LocalDate fromDate, LocalDate toDate, List<SaleStatus> statuses) {
+        List<Object[]> rows = isCovered(fromDate)
+            ? rollupRepository.getDailyTotals(fromDate, toDate, statuses)
+            : saleRepository.getDailySalesTotals(
+                fromDate.atStartOfDay(), toDate.plusDays(1).atStartOfDay(), statuses);
+
+        Map<LocalDate, Totals> daily = new LinkedHashMap<>();
+        for (LocalDate day = fromDate; !day.isAfter(toDate); day = day.plusDays(1)) {
+            daily.put(day, Totals.EMPTY);
+        }
+        if (rows != null) {
+            for (Object[] row : rows) {
+                daily.put(toLocalDate(row[0]), new Totals(toLong(row[1]), toBigDecimal(row[2])));
+            }
+        }
+        return daily;
+    }
+
+    // ==================== Helpers ====================
+
+    /**
+     * Tenant schemas to maintain: the default schema, plus one per company when schema tenancy is on.
+     */
+    private List<String> tenants() {
+        List<String> tenants = new ArrayList<>();
+        tenants.add(TenantContext.DEFAULT_TENANT);
+        if ("SCHEMA".equalsIgnoreCase(multiTenancy)) {
+            for (Company company : companyRepository.findAll()) {
+                tenants.add("company_" + company.getId().toString().replace("-", "_"));
+            }
+        }
+        return tenants;
+    }
+
+    private void runForTenant(String tenant, Runnable work) {
+        String previousTenant = TenantContext.isSet() ? TenantContext.getCurrentTenant() : null;
+        try {
+            TenantContext.setCurrentTenant(tenant);
+            work.run();
+        } catch (Exception e) {
+            logger.warn("Sales rollup maintenance failed for tenant {}: {}", tenant, e.getMessage());
+        } finally {
+            if (previousTenant != null) {
+                TenantContext.setCurrentTenant(previousTenant);
+            } else {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof Number) {
+            return new BigDecimal(value.toString());
+        }
+        return BigDecimal.ZERO;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        }
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toLocalDate();
+        }
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        }
+        return LocalDate.parse(value.toString());
+    }
+
+    /**
+     * Sale count and revenue for a range.
+     */
+    public static class Totals {
+        static final Totals EMPTY = new Totals(0L, BigDecimal.ZERO);
+
+        private final long count;
+        private final BigDecimal revenue;
+
+        public Totals(long count, BigDecimal revenue) {
+            this.count = count;
+            this.revenue = revenue != null ? revenue : BigDecimal.ZERO;
+        }
+
+        public long getCount() { return count; }
+        public BigDecimal getRevenue() { return revenue; }
+
+        public BigDecimal getAverageOrderValue() {
+            if (count <= 0) {
+                return BigDecimal.ZERO;
+            }
+            return revenue.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+        }
+    }
+
+    /**
+     * Immutable status change of one sale; {@code from} is null for a new sale.
+     */
+    public static class SaleTransition {
+        private final String tenant;
+        private final UUID companyId;
+        private final UUID storeId;
+        private final LocalDate date;
+        private final SaleStatus from;
+        private final SaleStatus to;
+        private final long items;
+        private final BigDecimal revenue;
+
+        public SaleTransition(String tenant, UUID companyId, UUID storeId, LocalDate date,
+                              SaleStatus from, SaleStatus to, long items, BigDecimal revenue) {
+            this.tenant = tenant;
+            this.companyId = companyId;
+            this.storeId = storeId;
+            this.date = date;
+            this.from = from;
+            this.to = to;
+            this.items = items;
+            this.revenue = revenue != null ? revenue : BigDecimal.ZERO;
+        }
+
+        public String getTenant() { return tenant; }
+        public UUID getCompanyId() { return companyId; }
+        public UUID getStoreId() { return storeId; }
+        public LocalDate getDate() { return date; }
+        public SaleStatus getFrom() { return from; }
+        public SaleStatus getTo() { return to; }
+        public long getItems() { return items; }
+        public BigDecimal getRevenue() { return revenue; }
+    }
+}
@@ -0,0 +1,305 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.exception.InsufficientStockException;
+import com.pos.inventsight.repository.sql.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Lock-free stock mutation engine.
+ *
+ * All lines of a sale are applied with one conditional UPDATE
+ * ({@code quantity = quantity - n WHERE quantity >= n}), so concurrent tills
+ * selling the same product can never oversell or lose an update, and no
+ * read-modify-write round-trip is needed. If any line is short the whole call
+ * throws {@link InsufficientStockException} and the surrounding transaction
+ * rolls back.
+ *
+ * Once applied, the new levels are read back with one query to log a STOCK_UPDATED
+ * activity per product and raise low-stock and reorder alerts.
+ *
+ * Per-product contention counters are kept in memory (bounded) and global
+ * outcome counters are published to Micrometer as {@code inventsight.stock.mutations}.
+ */
+@Service
+@Transactional
+public class StockMutationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockMutationService.class);
+
+    static final int MAX_TRACKED_PRODUCTS = 10_000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ActivityLogService activityLogService;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final Map<UUID, SkuContention> contention = new ConcurrentHashMap<>();
+
+    /**
+     * Remove sold units from stock and add them to total sales.
+     *
+     * @param quantities product ID to quantity sold, already summed per product
+     * @throws InsufficientStockException if any product no longer has enough stock
+     */
+    public void decrementForSale(Map<UUID, Integer> quantities, String reason) {
+        decrement(quantities, reason, true);
+    }
+
+    /**
+     * Put refunded units back on the shelf and reverse their total sales.
+     */
+    public void returnForRefund(Map<UUID, Integer> quantities, String reason) {
+        validate(quantities);
+        if (quantities.isEmpty()) {
+            return;
+        }
+        int updated = productRepository.returnStock(quantities, LocalDateTime.now());
+        count("return", updated == quantities.size() ? "applied" : "missing");
+        logger.debug("Stock returned for {} product(s) ({})", updated, reason);
+    }
+
+    /**
+     * Add received units to a single product.
+     */
+    public void restock(UUID productId, int quantity) {
+        restock(Map.of(productId, quantity));
+    }
+
+    /**
+     * Add received units to several products in one statement.
+     */
+    public void restock(Map<UUID, Integer> quantities) {
+        validate(quantities);
+        if (quantities.isEmpty()) {
+            return;
+        }
+        productRepository.incrementStock(quantities, LocalDateTime.now());
+        count("increment", "applied");
+    }
+
+    /**
+     * Remove units from a single product for reasons other than a sale
+     * (damage, loss, manual withdrawal). Sales figures are left untouched.
+     *
+     * @throws InsufficientStockException if the product does not have enough stock
+     */
+    public void withdraw(UUID productId, int quantity, String reason) {
+        decrement(Map.of(productId, quantity), reason, false);
+    }
+
+    /**
+     * Sum line quantities per product, preserving first-seen order.
+     */
+    public static <T> Map<UUID, Integer> sumByProduct(Collection<T> lines,
+                                                      Function<T, UUID> productId,
+                                                      Function<T, Integer> quantity) {
+        Map<UUID, Integer> totals = new LinkedHashMap<>();
+        for (T line : lines) {
+            totals.merge(productId.apply(line), quantity.apply(line), Integer::sum);
+        }
+        return totals;
+    }
+
+    /**
+     * Products with the most contended or rejected decrements on this node, across all tenants.
+     */
+    List<SkuContention> getContentionStats(int limit) {
+        return contention.values().stream()
+            .sorted(Comparator.comparingLong(SkuContention::getScore).reversed())
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Products of the given companies with the most contended or rejected decrements on this node.
+     * The counters cover every tenant and company, so they are filtered before being returned.
+     */
+    public List<SkuContention> getContentionStats(Set<UUID> companyIds, int limit) {
+        if (contention.isEmpty() || companyIds.isEmpty()) {
+            return List.of();
+        }
+        Set<UUID> visible = new HashSet<>(productRepository.findIdsInCompanies(contention.keySet(), companyIds));
+        return contention.values().stream()
+            .filter(stats -> visible.contains(stats.getProductId()))
+            .sorted(Comparator.comparingLong(SkuContention::getScore).reversed())
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+
+    private void validate(Map<UUID, Integer> quantities) {
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            if (entry.getKey() == null) {
+                throw new IllegalArgumentException("Product ID is required for stock mutation");
+            }
+            if (entry.getValue() == null || entry.getValue() <= 0) {
+                throw new IllegalArgumentException(
+                    "Invalid quantity for stock mutation: " + entry.getValue());
+            }
+        }
+    }
+
+    private void decrement(Map<UUID, Integer> quantities, String reason, boolean sale) {
+        validate(quantities);
+        if (quantities.isEmpty()) {
+            return;
+        }
+        String operation = sale ? "decrement" : "withdraw";
+
+        List<SkuContention> tracked = enter(quantities.keySet());
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int updated = sale
+                ? productRepository.decrementStock(quantities, now)
+                : productRepository.withdrawStock(quantities, now);
+            tracked.forEach(SkuContention::recordAttempt);
+
+            if (updated < quantities.size()) {
+                count(operation, "rejected");
+                throw new InsufficientStockException("Insufficient stock for " + describeShortages(quantities));
+            }
+            count(operation, "applied");
+            logger.debug("Stock {} applied to {} product(s) ({})", operation, quantities.size(), reason);
+        } finally {
+            exit(tracked);
+        }
+        logStockUpdates(quantities, reason);
+    }
+
+    /**
+     * Log each product's change and check alerts against the levels after the update
+     */
+    private void logStockUpdates(Map<UUID, Integer> quantities, String reason) {
+        for (Object[] level : productRepository.findStockLevels(quantities.keySet())) {
+            String name = (String) level[1];
+            int newQuantity = level[2] != null ? (Integer) level[2] : 0;
+            int oldQuantity = newQuantity + quantities.get((UUID) level[0]);
+            activityLogService.logActivity(
+                null,
+                "SYSTEM",
+                "STOCK_UPDATED",
+                "PRODUCT",
+                String.format("Stock updated for %s: %d → %d (%s)", name, oldQuantity, newQuantity, reason)
+            );
+
+            Integer lowStockThreshold = (Integer) level[3];
+            Integer reorderLevel = (Integer) level[4];
+            if (lowStockThreshold != null && newQuantity <= lowStockThreshold) {
+                logger.warn("Low stock alert: {} (Qty: {})", name, newQuantity);
+            }
+            if (reorderLevel != null && newQuantity <= reorderLevel) {
+                logger.info("Reorder recommendation: {} (Qty: {})", name, newQuantity);
+            }
+        }
+    }
+
+    /**
+     * Only called on the failure path: re-read current stock levels (a scalar
+     * query, so the persistence context cannot serve stale quantities) to report
+     * which products were short and count the rejection against them.
+     */
+    private String describeShortages(Map<UUID, Integer> quantities) {
+        Map<UUID, Object[]> levels = new HashMap<>();
+        for (Object[] row : productRepository.findStockLevels(quantities.keySet())) {
+            levels.put((UUID) row[0], row);
+        }
+        List<String> shortages = new ArrayList<>();
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            Object[] level = levels.get(entry.getKey());
+            int available = level != null && level[2] != null ? (Integer) level[2] : 0;
+            if (level != null && available >= entry.getValue()) {
+                continue;
+            }
+            SkuContention stats = contention.get(entry.getKey());
+            if (stats != null) {
+                stats.rejected.increment();
+            }
+            shortages.add(level == null
+                ? "product " + entry.getKey() + " (not found)"
+                : String.format("%s. Available: %d, Requested: %d", level[1], available, entry.getValue()));
+        }
+        return shortages.isEmpty() ? "one or more products" : String.join("; ", shortages);
+    }
+
+    private List<SkuContention> enter(Collection<UUID> productIds) {
+        List<SkuContention> tracked = new ArrayList<>(productIds.size());
+        for (UUID productId : productIds) {
+            SkuContention stats = contention.get(productId);
+            if (stats == null && contention.size() < MAX_TRACKED_PRODUCTS) {
+                stats = contention.computeIfAbsent(productId, SkuContention::new);
+            }
+            if (stats != null) {
+                if (stats.inFlight.incrementAndGet() > 1) {
+                    stats.contended.increment();
+                }
+                tracked.add(stats);
+            }
+        }
+        return tracked;
+    }
+
+    private void exit(List<SkuContention> tracked) {
+        tracked.forEach(stats -> stats.inFlight.decrementAndGet());
+    }
+
+    private void count(String operation, String outcome) {
+        if (meterRegistry != null) {
+            meterRegistry.counter("inventsight.stock.mutations", "operation", operation, "outcome", outcome).increment();
+        }
+    }
+
+    /**
+     * Per-product contention counters.
+     * contended = decrements that overlapped another in-flight decrement of the same product on this node;
+     * rejected = decrements refused because stock ran out at update time.
+     */
+    public static class SkuContention {
+        private final UUID productId;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder contended = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        SkuContention(UUID productId) {
+            this.productId = productId;
+        }
+
+        void recordAttempt() {
+            attempts.increment();
+        }
+
+        public UUID getProductId() { return productId; }
+        public long getAttempts() { return attempts.sum(); }
+        public long getContended() { return contended.sum(); }
+        public long getRejected() { return rejected.sum(); }
+
+        long getScore() {
+            return contended.sum() + rejected.sum();
+        }
+    }
+}
@@ -23,7 +23,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -46,6 +48,9 @@ public class StoreInventoryService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private StockMutationService stockMutationService;
+
     @Autowired
     private ActivityLogService activityLogService;
 
@@ -100,9 +105,7 @@ public class StoreInventoryService {
         addition = additionRepository.save(addition);
 
         // Update product quantity
-        Integer currentQuantity = product.getQuantity() != null ? product.getQuantity() : 0;
-        product.setQuantity(currentQuantity + request.getQuantity());
-        productRepository.save(product);
+        stockMutationService.restock(product.getId(), request.getQuantity());
 
         // Log activity
         activityLogService.logActivity(
@@ -149,6 +152,7 @@ public class StoreInventoryService {
         
         int successCount = 0;
         int failCount = 0;
+        Map<UUID, Integer> restocked = new LinkedHashMap<>();
         
         // Process each item
         for (StoreInventoryBatchAddRequest.BatchItem item : request.getItems()) {
@@ -181,11 +185,8 @@ public class StoreInventoryService {
                 
                 addition = additionRepository.save(addition);
                 
-                // Update product quantity
-                Integer currentQuantity = product.getQuantity() != null ? 
-                    product.getQuantity() : 0;
-                product.setQuantity(currentQuantity + item.getQuantity());
-                productRepository.save(product);
+                // Queue quantity update, applied for all items in one statement below
+                restocked.merge(product.getId(), item.getQuantity(), Integer::sum);
                 
                 // Log activity
                 activityLogService.logActivity(
@@ -218,6 +219,8 @@ public class StoreInventoryService {
             }
         }
         
+        stockMutationService.restock(restocked);
+        
         response.setSuccessfulItems(successCount);
         response.setFailedItems(failCount);
         
@@ -329,9 +332,9 @@ public class StoreInventoryService {
         withdrawal.setStatus(StoreInventoryWithdrawal.TransactionStatus.COMPLETED);
         withdrawal.setCreatedBy(username);
 
-        // Deduct from product inventory
-        product.setQuantity(currentQty - request.getQuantity());
-        productRepository.save(product);
+        // Deduct from product inventory (re-checked atomically against the current row)
+        stockMutationService.withdraw(product.getId(), request.getQuantity(),
+            "WITHDRAWAL - " + withdrawal.getTransactionType());
 
         // Save withdrawal record
         withdrawal = withdrawalRepository.save(withdrawal);
@@ -0,0 +1,141 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.repository.sql.SyncChangeRepository;
+import com.pos.inventsight.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Wakes long-polling change feed readers when their tenant's feed moves past their cursor.
+ *
+ * Changes committed on this node are published directly. Changes committed on other
+ * nodes are picked up by a periodic recheck that reads each waiting tenant's last
+ * allocated seq once, however many readers are waiting on it.
+ */
+@Component
+public class SyncChangeNotifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncChangeNotifier.class);
+
+    @Autowired
+    private SyncChangeRepository syncChangeRepository;
+
+    private final Map<UUID, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+
+    private final List<BiConsumer<UUID, Long>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Register interest in changes after a seq
+     * @param tenantId Tenant ID
+     * @param tenantSchema Tenant schema, used to read the tenant's feed on recheck
+     * @param afterSeq Seq the reader has already seen
+     * @return Future completed with the newer seq; cancel it via {@link #cancel} when done
+     */
+    public CompletableFuture<Long> await(UUID tenantId, String tenantSchema, long afterSeq) {
+        Waiter waiter = new Waiter(tenantSchema, afterSeq);
+        waiters.compute(tenantId, (k, set) -> {
+            Set<Waiter> tenantWaiters = set != null ? set : ConcurrentHashMap.newKeySet();
+            tenantWaiters.add(waiter);
+            return tenantWaiters;
+        });
+        waiter.future.whenComplete((seq, error) -> remove(tenantId, waiter));
+        return waiter.future;
+    }
+
+    public void cancel(CompletableFuture<Long> future) {
+        future.cancel(false);
+    }
+
+    /**
+     * Also notify a listener (e.g. the push stream) of every change committed on this node
+     */
+    public void addListener(BiConsumer<UUID, Long> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * A change with this seq has committed for the tenant
+     */
+    public void publish(UUID tenantId, long seq) {
+        for (BiConsumer<UUID, Long> listener : listeners) {
+            try {
+                listener.accept(tenantId, seq);
+            } catch (Exception e) {
+                logger.warn("Change feed listener failed for tenant {}: {}", tenantId, e.getMessage());
+            }
+        }
+        Set<Waiter> tenantWaiters = waiters.get(tenantId);
+        if (tenantWaiters == null) {
+            return;
+        }
+        for (Waiter waiter : tenantWaiters) {
+            if (seq > waiter.afterSeq) {
+                waiter.future.complete(seq);
+            }
+        }
+    }
+
+    /**
+     * Pick up changes committed on other nodes
+     */
+    @Scheduled(fixedDelayString = "${inventsight.sync.change-feed.long-poll.recheck-ms:1000}")
+    public void recheck() {
+        for (Map.Entry<UUID, Set<Waiter>> entry : waiters.entrySet()) {
+            Set<Waiter> tenantWaiters = entry.getValue();
+            Waiter any = tenantWaiters.stream().findAny().orElse(null);
+            if (any == null) {
+                continue;
+            }
+            String previousTenant = TenantContext.isSet() ? TenantContext.getCurrentTenant() : null;
+            try {
+                TenantContext.setCurrentTenant(any.tenantSchema);
+                Long lastSeq = syncChangeRepository.findLastSeq(entry.getKey());
+                if (lastSeq != null) {
+                    publish(entry.getKey(), lastSeq);
+                }
+            } catch (Exception e) {
+                logger.debug("Change feed recheck failed for tenant {}: {}", entry.getKey(), e.getMessage());
+            } finally {
+                if (previousTenant != null) {
+                    TenantContext.setCurrentTenant(previousTenant);
+                } else {
+                    TenantContext.clear();
+                }
+            }
+        }
+    }
+
+    public int getWaiterCount() {
+        return waiters.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void remove(UUID tenantId, Waiter waiter) {
+        waiters.computeIfPresent(tenantId, (k, set) -> {
+            set.remove(waiter);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static final class Waiter {
+        private final String tenantSchema;
+        private final long afterSeq;
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+        private Waiter(String tenantSchema, long afterSeq) {
+            this.tenantSchema = tenantSchema;
+            this.afterSeq = afterSeq;
+        }
+    }
+}
@@ -5,37 +5,73 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pos.inventsight.model.sql.SyncChange;
 import com.pos.inventsight.repository.sql.SyncChangeRepository;
 import com.pos.inventsight.tenant.TenantContext;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.beans.PropertyDescriptor;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * Service for managing sync changes for offline sync support.
  * Provides change feed functionality for incremental synchronization.
+ * 
+ * The feed is ordered by a per-tenant seq and read with keyset pages (seq > cursor),
+ * so no change is skipped or repeated between pages. Cursors are opaque tokens;
+ * ISO-8601 watermarks from older clients are still accepted.
  */
 @Service
 public class SyncChangeService {
     
     private static final Logger logger = LoggerFactory.getLogger(SyncChangeService.class);
     
+    private static final String CURSOR_PREFIX = "s1:";
+    
     private final SyncChangeRepository syncChangeRepository;
     private final ObjectMapper objectMapper;
     
+    @Autowired(required = false)
+    private SyncChangeNotifier syncChangeNotifier;
+    
     @Value("${inventsight.sync.change-feed.enabled:true}")
     private boolean changeFeedEnabled;
     
     @Value("${inventsight.sync.change-feed.page-size:100}")
-    private int defaultPageSize;
+    private int defaultPageSize = 100;
+    
+    @Value("${inventsight.sync.change-feed.long-poll.max-wait-seconds:30}")
+    private int maxWaitSeconds = 30;
+    
+    @Value("${inventsight.sync.change-feed.long-poll.threads:4}")
+    private int longPollThreads = 4;
+    
+    private volatile ExecutorService longPollExecutor;
     
     public SyncChangeService(SyncChangeRepository syncChangeRepository, ObjectMapper objectMapper) {
         this.syncChangeRepository = syncChangeRepository;
@@ -43,11 +79,17 @@ public class SyncChangeService {
     }
     
     /**
-     * Record a change event for sync tracking
+     * Record a change event for sync tracking.
+     * 
+     * Inside a transaction the change is held in the transaction's outbox and written with
+     * the transaction's other changes in one batch just before commit. A later change to the
+     * same entity in the same transaction supersedes the earlier one (UPDATE fields are merged,
+     * INSERT then DELETE cancels out), keeping the position of the first.
+     * 
      * @param entityType Type of entity (e.g., "Product", "Sale")
      * @param entityId ID of the entity
      * @param operation Operation type (INSERT, UPDATE, DELETE)
-     * @param changeData JSON snapshot of the change
+     * @param changeData Changed fields as a map, or an entity (reduced to its own fields and association IDs)
      */
     @Transactional
     public void recordChange(String entityType, String entityId, String operation, Object changeData) {
@@ -63,60 +105,302 @@ public class SyncChangeService {
                 return;
             }
             
-            SyncChange syncChange = new SyncChange();
-            syncChange.setTenantId(tenantId);
-            syncChange.setCompanyId(tenantId);
-            syncChange.setEntityType(entityType);
-            syncChange.setEntityId(entityId);
-            syncChange.setOperation(operation);
-            syncChange.setChangedAt(LocalDateTime.now());
+            PendingChange change = new PendingChange(tenantId, entityType, entityId, operation, compactFields(changeData));
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                outbox().add(change);
+            } else {
+                writeBatch(List.of(change));
+            }
             
-            // Serialize change data to JSON
-            if (changeData != null) {
+        } catch (Exception e) {
+            logger.error("Failed to record sync change: {}", e.getMessage(), e);
+            // Don't fail the main operation if sync recording fails
+        }
+    }
+    
+    /**
+     * Outbox bound to the current transaction, created with its commit hooks on first use
+     */
+    private Outbox outbox() {
+        Outbox outbox = (Outbox) TransactionSynchronizationManager.getResource(Outbox.class);
+        if (outbox != null) {
+            return outbox;
+        }
+        Outbox created = new Outbox();
+        TransactionSynchronizationManager.bindResource(Outbox.class, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                List<PendingChange> pending = created.drain();
                 try {
-                    String jsonData = objectMapper.writeValueAsString(changeData);
-                    syncChange.setChangeData(jsonData);
-                } catch (JsonProcessingException e) {
-                    logger.error("Failed to serialize change data: {}", e.getMessage());
-                    syncChange.setChangeData("{}");
+                    created.lastSeqs.putAll(writeBatch(pending));
+                } catch (Exception e) {
+                    logger.error("Failed to write {} sync changes: {}", pending.size(), e.getMessage(), e);
                 }
             }
             
-            syncChangeRepository.save(syncChange);
-            logger.debug("Recorded sync change: {} {} for entity {} {}", 
-                        operation, entityType, entityId, tenantId);
+            @Override
+            public void afterCommit() {
+                created.lastSeqs.forEach((tenantId, seq) -> publish(tenantId, seq));
+            }
             
-        } catch (Exception e) {
-            logger.error("Failed to record sync change: {}", e.getMessage(), e);
-            // Don't fail the main operation if sync recording fails
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(Outbox.class);
+            }
+        });
+        return created;
+    }
+    
+    /**
+     * Allocate one seq block per tenant and insert the changes as a JDBC batch
+     * @return Last seq written per tenant
+     */
+    private Map<UUID, Long> writeBatch(List<PendingChange> pending) {
+        Map<UUID, List<PendingChange>> byTenant = new LinkedHashMap<>();
+        for (PendingChange change : pending) {
+            byTenant.computeIfAbsent(change.tenantId, k -> new ArrayList<>()).add(change);
+        }
+        
+        Map<UUID, Long> lastSeqs = new HashMap<>();
+        List<SyncChange> rows = new ArrayList<>(pending.size());
+        for (Map.Entry<UUID, List<PendingChange>> entry : byTenant.entrySet()) {
+            List<PendingChange> changes = entry.getValue();
+            long lastSeq = syncChangeRepository.allocateSeq(entry.getKey(), changes.size());
+            long seq = lastSeq - changes.size();
+            for (PendingChange change : changes) {
+                rows.add(change.toRow(++seq, serialize(change.fields)));
+            }
+            lastSeqs.put(entry.getKey(), lastSeq);
+        }
+        if (rows.isEmpty()) {
+            return lastSeqs;
+        }
+        
+        syncChangeRepository.saveAll(rows);
+        logger.debug("Recorded {} sync changes for {} tenant(s)", rows.size(), lastSeqs.size());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lastSeqs.forEach(this::publish);
+        }
+        return lastSeqs;
+    }
+    
+    private String serialize(Map<String, Object> fields) {
+        if (fields == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(fields);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize change data: {}", e.getMessage());
+            return "{}";
+        }
+    }
+    
+    /**
+     * Reduce change data to a flat field map. Maps are taken as the changed fields; other
+     * objects contribute their simple properties, and associations only their ID (as
+     * "&lt;name&gt;Id"), so lazy entity graphs are neither loaded nor serialized.
+     */
+    static Map<String, Object> compactFields(Object changeData) {
+        if (changeData == null) {
+            return null;
+        }
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (changeData instanceof Map<?, ?> map) {
+            map.forEach((key, value) -> fields.put(String.valueOf(key), value));
+            return fields;
+        }
+        BeanWrapper bean = new BeanWrapperImpl(changeData);
+        for (PropertyDescriptor property : bean.getPropertyDescriptors()) {
+            String name = property.getName();
+            if (property.getReadMethod() == null || "class".equals(name) || name.startsWith("hibernate")) {
+                continue;
+            }
+            Object value;
+            try {
+                value = bean.getPropertyValue(name);
+            } catch (Exception e) {
+                continue;
+            }
+            if (value == null || BeanUtils.isSimpleValueType(value.getClass())) {
+                fields.put(name, value);
+            } else if (!(value instanceof Iterable) && !(value instanceof Map) && !value.getClass().isArray()) {
+                BeanWrapper reference = new BeanWrapperImpl(value);
+                if (reference.isReadableProperty("id")) {
+                    fields.put(name + "Id", reference.getPropertyValue("id"));
+                }
+            }
+        }
+        return fields;
+    }
+    
+    private void publish(UUID tenantId, long seq) {
+        if (syncChangeNotifier != null) {
+            syncChangeNotifier.publish(tenantId, seq);
         }
     }
     
     /**
-     * Get changes since a watermark (timestamp or opaque string)
+     * Get the page of changes after a cursor
      * @param tenantId Tenant ID
-     * @param watermark Watermark (ISO-8601 timestamp or opaque token)
+     * @param cursor Cursor token from a previous page, ISO-8601 timestamp, or null for the start of the feed
      * @param limit Maximum number of changes to return (max 500)
-     * @return Page of sync changes
+     * @return Page of sync changes in feed order
+     * @throws IllegalArgumentException if the cursor is neither a cursor token nor a timestamp
      */
     @Transactional(readOnly = true)
-    public Page<SyncChange> getChangesSince(UUID tenantId, String watermark, Integer limit) {
-        int pageSize = Math.min(limit != null ? limit : defaultPageSize, 500);
-        Pageable pageable = PageRequest.of(0, pageSize);
+    public ChangePage getChangesAfter(UUID tenantId, String cursor, Integer limit) {
+        return readPage(tenantId, resolveCursor(tenantId, cursor), pageSize(limit));
+    }
+    
+    /**
+     * Long-poll variant of {@link #getChangesAfter}: if there are no changes after the cursor,
+     * completes when one is committed or after waitSeconds with an empty page.
+     * Must be called on a thread with the tenant's context set.
+     */
+    public CompletableFuture<ChangePage> awaitChangesAfter(UUID tenantId, String cursor, Integer limit, int waitSeconds) {
+        long afterSeq = resolveCursor(tenantId, cursor);
+        int pageSize = pageSize(limit);
+        int wait = Math.min(Math.max(waitSeconds, 0), maxWaitSeconds);
+        if (wait == 0 || syncChangeNotifier == null) {
+            return CompletableFuture.completedFuture(readPage(tenantId, afterSeq, pageSize));
+        }
         
-        if (watermark != null && !watermark.trim().isEmpty()) {
-            try {
-                // Try to parse as ISO-8601 timestamp
-                LocalDateTime since = LocalDateTime.parse(watermark, DateTimeFormatter.ISO_DATE_TIME);
-                return syncChangeRepository.findByTenantIdAndChangedAtAfterOrderByChangedAtAsc(
-                    tenantId, since, pageable);
-            } catch (DateTimeParseException e) {
-                logger.warn("Invalid watermark format: {}, returning recent changes", watermark);
-            }
+        // Register before reading so a change committed in between still wakes us
+        String tenantSchema = TenantContext.getCurrentTenant();
+        CompletableFuture<Long> signal = syncChangeNotifier.await(tenantId, tenantSchema, afterSeq);
+        ChangePage page = readPage(tenantId, afterSeq, pageSize);
+        if (!page.getChanges().isEmpty()) {
+            syncChangeNotifier.cancel(signal);
+            return CompletableFuture.completedFuture(page);
         }
         
-        // If no watermark or invalid, return most recent changes
-        return syncChangeRepository.findByTenantIdOrderByChangedAtDesc(tenantId, pageable);
+        return signal.orTimeout(wait, TimeUnit.SECONDS)
+            .handleAsync((seq, error) -> {
+                if (error != null) {
+                    syncChangeNotifier.cancel(signal);
+                    return page;
+                }
+                return inTenant(tenantSchema, () -> readPage(tenantId, afterSeq, pageSize));
+            }, longPollExecutor());
+    }
+    
+    /**
+     * Encode a seq as an opaque cursor token
+     */
+    public static String encodeCursor(long seq) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((CURSOR_PREFIX + seq).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decode a cursor token
+     * @return The seq, or null if the value is not a cursor token
+     */
+    public static Long decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Not base64 or not a number
+        }
+        return null;
+    }
+    
+    /**
+     * JSON shape of one change, shared by /sync/changes and the push stream
+     */
+    public static Map<String, Object> toFeedEntry(SyncChange change) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("id", change.getId() != null ? change.getId().toString() : null);
+        entry.put("seq", change.getSeq());
+        entry.put("entity_type", change.getEntityType());
+        entry.put("entity_id", change.getEntityId());
+        entry.put("operation", change.getOperation());
+        entry.put("changed_at", change.getChangedAt() != null
+            ? change.getChangedAt().format(DateTimeFormatter.ISO_DATE_TIME) : null);
+        entry.put("change_data", change.getChangeData());
+        entry.put("version", change.getVersion());
+        return entry;
+    }
+    
+    /**
+     * Resolve a cursor token, legacy timestamp or null to the seq already seen
+     */
+    public long resolveCursor(UUID tenantId, String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return 0L;
+        }
+        Long seq = decodeCursor(cursor.trim());
+        if (seq != null) {
+            return seq;
+        }
+        try {
+            // Legacy watermark: start at the first change recorded after the timestamp
+            LocalDateTime since = LocalDateTime.parse(cursor.trim(), DateTimeFormatter.ISO_DATE_TIME);
+            Long firstSeq = syncChangeRepository.findFirstSeqChangedAfter(tenantId, since);
+            if (firstSeq != null) {
+                return firstSeq - 1;
+            }
+            Long lastSeq = syncChangeRepository.findLastSeq(tenantId);
+            return lastSeq != null ? lastSeq : 0L;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+    
+    private ChangePage readPage(UUID tenantId, long afterSeq, int pageSize) {
+        // Fetch one extra row to learn whether another page follows without a COUNT
+        List<SyncChange> rows = syncChangeRepository.findByTenantIdAndSeqGreaterThanOrderBySeqAsc(
+            tenantId, afterSeq, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<SyncChange> changes = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        long lastSeq = changes.isEmpty() ? afterSeq : changes.get(changes.size() - 1).getSeq();
+        return new ChangePage(changes, hasMore, encodeCursor(lastSeq));
+    }
+    
+    private int pageSize(Integer limit) {
+        return Math.max(1, Math.min(limit != null ? limit : defaultPageSize, 500));
+    }
+    
+    private <T> T inTenant(String tenantSchema, Supplier<T> work) {
+        String previousTenant = TenantContext.isSet() ? TenantContext.getCurrentTenant() : null;
+        try {
+            TenantContext.setCurrentTenant(tenantSchema);
+            return work.get();
+        } finally {
+            if (previousTenant != null) {
+                TenantContext.setCurrentTenant(previousTenant);
+            } else {
+                TenantContext.clear();
+            }
+        }
+    }
+    
+    private ExecutorService longPollExecutor() {
+        if (longPollExecutor == null) {
+            synchronized (this) {
+                if (longPollExecutor == null) {
+                    AtomicInteger threadNumber = new AtomicInteger();
+                    longPollExecutor = Executors.newFixedThreadPool(Math.max(1, longPollThreads), runnable -> {
+                        Thread thread = new Thread(runnable, "change-feed-long-poll-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return longPollExecutor;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (longPollExecutor != null) {
+            longPollExecutor.shutdownNow();
+        }
     }
     
     /**
@@ -135,4 +419,107 @@ public class SyncChangeService {
         }
         return null;
     }
+    
+    /**
+     * One page of the change feed
+     */
+    public static class ChangePage {
+        private final List<SyncChange> changes;
+        private final boolean hasMore;
+        private final String nextCursor;
+        
+        public ChangePage(List<SyncChange> changes, boolean hasMore, String nextCursor) {
+            this.changes = changes;
+            this.hasMore = hasMore;
+            this.nextCursor = nextCursor;
+        }
+        
+        public List<SyncChange> getChanges() { return changes; }
+        public boolean isHasMore() { return hasMore; }
+        public String getNextCursor() { return nextCursor; }
+    }
+    
+    /**
+     * A change waiting in a transaction's outbox
+     */
+    private static final class PendingChange {
+        private final UUID tenantId;
+        private final String entityType;
+        private final String entityId;
+        private String operation;
+        private Map<String, Object> fields;
+        private final LocalDateTime changedAt = LocalDateTime.now();
+        
+        private PendingChange(UUID tenantId, String entityType, String entityId, String operation,
+                              Map<String, Object> fields) {
+            this.tenantId = tenantId;
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.operation = operation;
+            this.fields = fields;
+        }
+        
+        private String key() {
+            return tenantId + ":" + entityType + ":" + entityId;
+        }
+        
+        private SyncChange toRow(long seq, String changeData) {
+            SyncChange row = new SyncChange();
+            row.setTenantId(tenantId);
+            row.setCompanyId(tenantId);
+            row.setEntityType(entityType);
+            row.setEntityId(entityId);
+            row.setOperation(operation);
+            row.setChangedAt(changedAt);
+            row.setChangeData(changeData);
+            row.setSeq(seq);
+            return row;
+        }
+    }
+    
+    /**
+     * Changes recorded in one transaction, keyed by entity so later changes supersede earlier ones
+     */
+    static final class Outbox {
+        private final Map<String, PendingChange> changes = new LinkedHashMap<>();
+        private final Map<UUID, Long> lastSeqs = new HashMap<>();
+        
+        void add(PendingChange change) {
+            PendingChange previous = changes.get(change.key());
+            if (previous == null) {
+                changes.put(change.key(), change);
+                return;
+            }
+            boolean previousInsert = "INSERT".equals(previous.operation);
+            if ("DELETE".equals(change.operation)) {
+                if (previousInsert) {
+                    // Created and deleted in the same transaction: devices never need to see it
+                    changes.remove(change.key());
+                } else {
+                    previous.operation = "DELETE";
+                    previous.fields = change.fields;
+                }
+                return;
+            }
+            if ("UPDATE".equals(change.operation) && previous.fields != null && change.fields != null) {
+                // Keep INSERT (or UPDATE) with the union of fields, later values winning
+                previous.fields.putAll(change.fields);
+                return;
+            }
+            if (!previousInsert || !"UPDATE".equals(change.operation)) {
+                previous.operation = change.operation;
+            }
+            previous.fields = change.fields;
+        }
+        
+        List<PendingChange> drain() {
+            List<PendingChange> pending = new ArrayList<>(changes.values());
+            changes.clear();
+            return pending;
+        }
+        
+        int size() {
+            return changes.size();
+        }
+    }
 }
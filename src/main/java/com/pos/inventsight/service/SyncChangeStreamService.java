@@ -0,0 +1,423 @@
+package com.pos.inventsight.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pos.inventsight.model.sql.SyncChange;
+import com.pos.inventsight.repository.sql.SyncChangeRepository;
+import com.pos.inventsight.tenant.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pushes a tenant's sync changes to subscribed devices over server-sent events.
+ *
+ * Commits are announced by {@link SyncChangeNotifier} on this node and by a periodic
+ * check of the tenant's last seq for other nodes. After a short coalescing window the
+ * tenant's new changes are read once from sync_changes and fanned out to its
+ * connections. Within a batch successive changes to an entity are merged the way
+ * {@link SyncChangeService} merges them within a transaction, and each batch is one
+ * event whose id is the cursor after it, so a client resuming with Last-Event-ID never
+ * misses a change that was coalesced away.
+ *
+ * sync_changes is the buffer: a connection still writing its previous batch is skipped
+ * and catches up from its own cursor once the write finishes, so a slow device holds at
+ * most one batch in memory and never delays other devices.
+ */
+@Service
+public class SyncChangeStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncChangeStreamService.class);
+
+    /**
+     * Re-serializes merged change data; decimals are kept exact
+     */
+    private static final ObjectMapper CHANGE_DATA_MAPPER = new ObjectMapper()
+        .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    @Autowired
+    private SyncChangeRepository syncChangeRepository;
+
+    @Autowired(required = false)
+    private SyncChangeNotifier syncChangeNotifier;
+
+    @Value("${inventsight.sync.stream.coalesce-ms:200}")
+    private long coalesceMs = 200;
+
+    @Value("${inventsight.sync.stream.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${inventsight.sync.stream.max-connections:5000}")
+    private int maxConnections = 5000;
+
+    @Value("${inventsight.sync.stream.timeout-ms:1800000}")
+    private long timeoutMs = 1800000;
+
+    @Value("${inventsight.sync.stream.threads:4}")
+    private int threads = 4;
+
+    private final Map<UUID, TenantStream> tenants = new ConcurrentHashMap<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newScheduledThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "sync-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (syncChangeNotifier != null) {
+            syncChangeNotifier.addListener(this::onCommitted);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        for (TenantStream stream : tenants.values()) {
+            for (Subscription subscription : stream.subscriptions) {
+                subscription.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Open a stream of the tenant's changes after a seq.
+     * Must be called on a thread with the tenant's context set.
+     * @return The emitter, or null if the connection limit is reached
+     */
+    public SseEmitter subscribe(UUID tenantId, long afterSeq) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Long lastSeq = syncChangeRepository.findLastSeq(tenantId);
+        register(tenantId, TenantContext.getCurrentTenant(), afterSeq, lastSeq != null ? lastSeq : 0L, emitter);
+        return emitter;
+    }
+
+    void register(UUID tenantId, String tenantSchema, long afterSeq, long lastSeq, SseEmitter emitter) {
+        Subscription subscription = new Subscription(emitter, afterSeq);
+        TenantStream stream = tenants.compute(tenantId, (k, existing) -> {
+            TenantStream tenantStream = existing != null ? existing : new TenantStream(tenantId, tenantSchema);
+            tenantStream.subscriptions.add(subscription);
+            return tenantStream;
+        });
+        Runnable remove = () -> unregister(tenantId, subscription);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        stream.knownSeq.accumulateAndGet(lastSeq, Math::max);
+        if (afterSeq < stream.knownSeq.get()) {
+            scheduleFlush(stream);
+        }
+        logger.debug("Sync stream opened for tenant {} after seq {}", tenantId, afterSeq);
+    }
+
+    /**
+     * A change committed for the tenant on this node or, via {@link #recheck}, on another
+     */
+    void onCommitted(UUID tenantId, long seq) {
+        TenantStream stream = tenants.get(tenantId);
+        if (stream == null) {
+            return;
+        }
+        stream.knownSeq.accumulateAndGet(seq, Math::max);
+        scheduleFlush(stream);
+    }
+
+    /**
+     * Pick up changes committed on other nodes with one seq lookup per streaming tenant
+     */
+    @Scheduled(fixedDelayString = "${inventsight.sync.change-feed.long-poll.recheck-ms:1000}")
+    public void recheck() {
+        for (TenantStream stream : tenants.values()) {
+            try {
+                Long lastSeq = inTenant(stream.tenantSchema, () -> syncChangeRepository.findLastSeq(stream.tenantId));
+                if (lastSeq != null && lastSeq > stream.knownSeq.get()) {
+                    onCommitted(stream.tenantId, lastSeq);
+                }
+            } catch (Exception e) {
+                logger.debug("Sync stream recheck failed for tenant {}: {}", stream.tenantId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Keep idle connections open through proxies and detect devices that went away
+     */
+    @Scheduled(fixedDelayString = "${inventsight.sync.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (TenantStream stream : tenants.values()) {
+            for (Subscription subscription : stream.subscriptions) {
+                if (!subscription.sending.compareAndSet(false, true)) {
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        subscription.emitter.send(SseEmitter.event().comment("keepalive"));
+                    } catch (IOException | IllegalStateException e) {
+                        subscription.emitter.completeWithError(e);
+                    } finally {
+                        subscription.sending.set(false);
+                    }
+                    if (subscription.cursor < stream.knownSeq.get()) {
+                        scheduleFlush(stream);
+                    }
+                });
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    private void scheduleFlush(TenantStream stream) {
+        if (executor == null) {
+            flush(stream);
+            return;
+        }
+        if (stream.flushScheduled.compareAndSet(false, true)) {
+            executor.schedule(() -> flush(stream), coalesceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush(TenantStream stream) {
+        stream.flushScheduled.set(false);
+        long knownSeq = stream.knownSeq.get();
+        List<Subscription> ready = new ArrayList<>();
+        for (Subscription subscription : stream.subscriptions) {
+            if (subscription.cursor < knownSeq && subscription.sending.compareAndSet(false, true)) {
+                ready.add(subscription);
+            }
+        }
+        if (ready.isEmpty()) {
+            return;
+        }
+
+        // Connections within one batch of the head share a read; lagging ones catch up on their own
+        long liveFrom = knownSeq - batchSize;
+        List<Subscription> live = new ArrayList<>();
+        for (Subscription subscription : ready) {
+            if (subscription.cursor >= liveFrom) {
+                live.add(subscription);
+            } else {
+                readAndSend(stream, subscription.cursor, List.of(subscription));
+            }
+        }
+        if (!live.isEmpty()) {
+            long fromSeq = live.stream().mapToLong(subscription -> subscription.cursor).min().getAsLong();
+            readAndSend(stream, fromSeq, live);
+        }
+    }
+
+    private void readAndSend(TenantStream stream, long fromSeq, List<Subscription> subscriptions) {
+        List<SyncChange> changes;
+        try {
+            changes = inTenant(stream.tenantSchema, () -> syncChangeRepository
+                .findByTenantIdAndSeqGreaterThanOrderBySeqAsc(stream.tenantId, fromSeq, PageRequest.of(0, batchSize)));
+        } catch (Exception e) {
+            logger.warn("Failed to read sync changes for tenant {}: {}", stream.tenantId, e.getMessage());
+            subscriptions.forEach(subscription -> subscription.sending.set(false));
+            return;
+        }
+
+        for (Subscription subscription : subscriptions) {
+            List<SyncChange> pending = new ArrayList<>();
+            for (SyncChange change : changes) {
+                if (change.getSeq() > subscription.cursor) {
+                    pending.add(change);
+                }
+            }
+            if (pending.isEmpty()) {
+                subscription.sending.set(false);
+                continue;
+            }
+            Runnable send = () -> send(stream, subscription, pending);
+            if (executor != null) {
+                executor.execute(send);
+            } else {
+                send.run();
+            }
+        }
+    }
+
+    private void send(TenantStream stream, Subscription subscription, List<SyncChange> pending) {
+        long lastSeq = pending.get(pending.size() - 1).getSeq();
+        try {
+            List<Map<String, Object>> payload = new ArrayList<>();
+            for (SyncChange change : coalesce(pending)) {
+                payload.add(SyncChangeService.toFeedEntry(change));
+            }
+            subscription.emitter.send(SseEmitter.event()
+                .id(SyncChangeService.encodeCursor(lastSeq))
+                .name("changes")
+                .data(payload, MediaType.APPLICATION_JSON));
+            subscription.cursor = lastSeq;
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Sync stream closed for tenant {}: {}", stream.tenantId, e.getMessage());
+            subscription.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscription.sending.set(false);
+        }
+        if (subscription.cursor < stream.knownSeq.get()) {
+            scheduleFlush(stream);
+        }
+    }
+
+    /**
+     * Merge successive changes per entity the way {@code SyncChangeService.Outbox} does:
+     * INSERT then UPDATE stays an INSERT and UPDATEs accumulate, with later field values
+     * winning, and anything followed by DELETE becomes that DELETE. A merged change takes
+     * the seq and position of the latest change it contains. Changes whose data cannot be
+     * merged are sent separately. The given changes are not modified.
+     */
+    static List<SyncChange> coalesce(List<SyncChange> changes) {
+        List<SyncChange> merged = new ArrayList<>(changes.size());
+        Map<String, Integer> positions = new HashMap<>();
+        for (SyncChange change : changes) {
+            String key = change.getEntityType() + ":" + change.getEntityId();
+            Integer position = positions.get(key);
+            SyncChange combined = position != null ? merge(merged.get(position), change) : null;
+            if (combined != null) {
+                merged.set(position, null);
+            } else {
+                combined = copy(change, change.getOperation(), change.getChangeData());
+            }
+            positions.put(key, merged.size());
+            merged.add(combined);
+        }
+        merged.removeIf(Objects::isNull);
+        return merged;
+    }
+
+    /**
+     * One change equivalent to previous followed by change, or null if they must be sent separately
+     */
+    private static SyncChange merge(SyncChange previous, SyncChange change) {
+        if ("DELETE".equals(change.getOperation()) || "INSERT".equals(change.getOperation())) {
+            return copy(change, change.getOperation(), change.getChangeData());
+        }
+        if (!"UPDATE".equals(change.getOperation())
+                || !("INSERT".equals(previous.getOperation()) || "UPDATE".equals(previous.getOperation()))) {
+            return null;
+        }
+        try {
+            Map<String, Object> fields = readFields(previous.getChangeData());
+            fields.putAll(readFields(change.getChangeData()));
+            return copy(change, previous.getOperation(), CHANGE_DATA_MAPPER.writeValueAsString(fields));
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, Object> readFields(String changeData) throws JsonProcessingException {
+        if (changeData == null || changeData.isBlank()) {
+            return new LinkedHashMap<>();
+        }
+        return CHANGE_DATA_MAPPER.readValue(changeData, new TypeReference<LinkedHashMap<String, Object>>() {});
+    }
+
+    private static SyncChange copy(SyncChange change, String operation, String changeData) {
+        SyncChange copy = new SyncChange();
+        copy.setId(change.getId());
+        copy.setTenantId(change.getTenantId());
+        copy.setSeq(change.getSeq());
+        copy.setCompanyId(change.getCompanyId());
+        copy.setEntityType(change.getEntityType());
+        copy.setEntityId(change.getEntityId());
+        copy.setOperation(operation);
+        copy.setChangedAt(change.getChangedAt());
+        copy.setChangeData(changeData);
+        copy.setVersion(change.getVersion());
+        return copy;
+    }
+
+    private void unregister(UUID tenantId, Subscription subscription) {
+        if (!subscription.closed.compareAndSet(false, true)) {
+            return;
+        }
+        connections.decrementAndGet();
+        tenants.computeIfPresent(tenantId, (k, stream) -> {
+            stream.subscriptions.remove(subscription);
+            return stream.subscriptions.isEmpty() ? null : stream;
+        });
+    }
+
+    private <T> T inTenant(String tenantSchema, Supplier<T> work) {
+        String previousTenant = TenantContext.isSet() ? TenantContext.getCurrentTenant() : null;
+        try {
+            TenantContext.setCurrentTenant(tenantSchema);
+            return work.get();
+        } finally {
+            if (previousTenant != null) {
+                TenantContext.setCurrentTenant(previousTenant);
+            } else {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    private static final class TenantStream {
+        private final UUID tenantId;
+        private final String tenantSchema;
+        private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+        private final AtomicLong knownSeq = new AtomicLong();
+        private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+        private TenantStream(UUID tenantId, String tenantSchema) {
+            this.tenantId = tenantId;
+            this.tenantSchema = tenantSchema;
+        }
+    }
+
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile long cursor;
+
+        private Subscription(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.pos.inventsight.service;
 
+import com.pos.inventsight.dto.TransferRequestSummary;
 import com.pos.inventsight.model.sql.TransferRequest;
 import com.pos.inventsight.model.sql.TransferRequestStatus;
 import com.pos.inventsight.model.sql.User;
@@ -37,18 +38,39 @@ public class TransferPermissionService {
      * @return List of action names the user can perform
      */
     public List<String> getAvailableActions(TransferRequest transfer, User user) {
-        List<String> actions = new ArrayList<>();
+        if (user == null || transfer == null) {
+            return new ArrayList<>();
+        }
+        return getAvailableActions(transfer.getStatus(), transfer.getRequestedByUserId(),
+            transfer.getFromLocationId(), transfer.getFromLocationType(),
+            transfer.getToLocationId(), transfer.getToLocationType(), user);
+    }
 
+    /**
+     * Calculate available actions for a row of a transfer list
+     *
+     * @param transfer The transfer list row
+     * @param user The current user
+     * @return List of action names the user can perform
+     */
+    public List<String> getAvailableActionsForSummary(TransferRequestSummary transfer, User user) {
         if (user == null || transfer == null) {
-            return actions;
+            return new ArrayList<>();
         }
+        return getAvailableActions(transfer.getStatus(), transfer.getRequestedByUserId(),
+            transfer.getFromLocationId(), transfer.getFromLocationType(),
+            transfer.getToLocationId(), transfer.getToLocationType(), user);
+    }
 
-        boolean isGMPlus = isGMPlusRole(user);
-        boolean isRequester = isUserRequester(transfer, user);
-        boolean hasFromLocationAccess = hasLocationAccess(user, transfer.getFromLocationId(), transfer.getFromLocationType());
-        boolean hasToLocationAccess = hasLocationAccess(user, transfer.getToLocationId(), transfer.getToLocationType());
+    private List<String> getAvailableActions(TransferRequestStatus status, UUID requestedByUserId,
+                                             UUID fromLocationId, String fromLocationType,
+                                             UUID toLocationId, String toLocationType, User user) {
+        List<String> actions = new ArrayList<>();
 
-        TransferRequestStatus status = transfer.getStatus();
+        boolean isGMPlus = isGMPlusRole(user);
+        boolean isRequester = requestedByUserId != null && requestedByUserId.equals(user.getId());
+        boolean hasFromLocationAccess = hasLocationAccess(user, fromLocationId, fromLocationType);
+        boolean hasToLocationAccess = hasLocationAccess(user, toLocationId, toLocationType);
 
         // PENDING Status Actions
         if (status == TransferRequestStatus.PENDING) {
@@ -118,16 +140,6 @@ public class TransferPermissionService {
         return GM_PLUS_ROLES.contains(user.getRole());
     }
 
-    /**
-     * Check if user is the requester of the transfer
-     */
-    private boolean isUserRequester(TransferRequest transfer, User user) {
-        if (transfer.getRequestedByUserId() == null) {
-            return false;
-        }
-        return transfer.getRequestedByUserId().equals(user.getId());
-    }
-
     /**
      * Check if user has access to a specific location
      * 
@@ -1,5 +1,6 @@
 package com.pos.inventsight.service;
 
+import com.pos.inventsight.dto.TransferRequestSummary;
 import com.pos.inventsight.exception.ResourceNotFoundException;
 import com.pos.inventsight.model.sql.*;
 import com.pos.inventsight.repository.sql.TransferRequestRepository;
@@ -143,6 +144,15 @@ public class TransferRequestService {
                 .orElseThrow(() -> new ResourceNotFoundException("Transfer request not found with id: " + id));
     }
     
+    /**
+     * Get transfer request with its locations, users, company and route loaded in one query
+     */
+    @Transactional(readOnly = true)
+    public TransferRequest getTransferRequestDetail(UUID id) {
+        return transferRequestRepository.findDetailById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Transfer request not found with id: " + id));
+    }
+    
     /**
      * Approve transfer request
      */
@@ -448,31 +458,20 @@ public class TransferRequestService {
     // ========== Paginated query methods ==========
     
     /**
-     * Get all transfer requests for a company (paginated)
-     */
-    public Page<TransferRequest> getTransferRequestsByCompany(UUID companyId, Pageable pageable) {
-        return transferRequestRepository.findByCompanyId(companyId, pageable);
-    }
-    
-    /**
-     * Get transfer requests by status (paginated)
-     */
-    public Page<TransferRequest> getTransferRequestsByStatus(UUID companyId, TransferRequestStatus status, Pageable pageable) {
-        return transferRequestRepository.findByCompanyIdAndStatus(companyId, status, pageable);
-    }
-    
-    /**
-     * Get transfer requests for a store (paginated)
+     * Transfer list rows, filtered by destination store, else source warehouse, else status,
+     * else all of the company's transfers (paginated)
      */
-    public Page<TransferRequest> getTransferRequestsByStore(UUID storeId, Pageable pageable) {
-        return transferRequestRepository.findByStoreId(storeId, pageable);
-    }
-    
-    /**
-     * Get transfer requests for a warehouse (paginated)
-     */
-    public Page<TransferRequest> getTransferRequestsByWarehouse(UUID warehouseId, Pageable pageable) {
-        return transferRequestRepository.findByWarehouseId(warehouseId, pageable);
+    @Transactional(readOnly = true)
+    public Page<TransferRequestSummary> getTransferSummaries(UUID companyId, TransferRequestStatus status,
+                                                             UUID storeId, UUID warehouseId, Pageable pageable) {
+        if (storeId != null) {
+            return transferRequestRepository.findSummariesByStoreId(storeId, pageable);
+        } else if (warehouseId != null) {
+            return transferRequestRepository.findSummariesByWarehouseId(warehouseId, pageable);
+        } else if (status != null) {
+            return transferRequestRepository.findSummariesByCompanyIdAndStatus(companyId, status, pageable);
+        }
+        return transferRequestRepository.findSummariesByCompanyId(companyId, pageable);
     }
     
     /**
@@ -1260,30 +1259,20 @@ public class TransferRequestService {
     }
     
     /**
-     * Get pending approvals for user based on their locations and role
+     * Pending transfer list rows for approval: GMs see every pending transfer in the company,
+     * other users only those headed to their stores or warehouses
      */
-    public List<TransferRequest> getPendingApprovalsForUser(UUID companyId, List<Store> userStores,
-                                                            List<Warehouse> userWarehouses, boolean isGM) {
+    @Transactional(readOnly = true)
+    public List<TransferRequestSummary> getPendingApprovalSummariesForUser(UUID companyId, List<Store> userStores,
+                                                                          List<Warehouse> userWarehouses, boolean isGM) {
         if (isGM) {
-            // GM sees all pending transfers in company
-            return transferRequestRepository.findByCompanyIdAndStatus(
-                companyId,
-                TransferRequestStatus.PENDING
-            );
-        } else {
-            // Regular users see pending transfers to their locations
-            List<UUID> storeIds = userStores.stream().map(Store::getId).toList();
-            List<UUID> warehouseIds = userWarehouses.stream().map(Warehouse::getId).toList();
-            
-            if (storeIds.isEmpty() && warehouseIds.isEmpty()) {
-                return java.util.Collections.emptyList();
-            }
-            
-            return transferRequestRepository.findPendingTransfersForLocations(
-                storeIds,
-                warehouseIds,
-                TransferRequestStatus.PENDING
-            );
+            return transferRequestRepository.findPendingSummariesByCompanyId(companyId);
+        }
+        List<UUID> storeIds = userStores.stream().map(Store::getId).toList();
+        List<UUID> warehouseIds = userWarehouses.stream().map(Warehouse::getId).toList();
+        if (storeIds.isEmpty() && warehouseIds.isEmpty()) {
+            return java.util.Collections.emptyList();
         }
+        return transferRequestRepository.findPendingSummariesForLocations(storeIds, warehouseIds);
     }
 }
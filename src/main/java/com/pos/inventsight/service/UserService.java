@@ -65,6 +65,9 @@ public class UserService implements UserDetailsService {
     @Autowired
     private ActivityLogService activityLogService;
     
+    @Autowired
+    private PrincipalCache principalCache;
+    
     @Autowired
     private UserPreferencesService userPreferencesService;
     
@@ -226,6 +229,7 @@ public class UserService implements UserDetailsService {
         existingUser.setUpdatedAt(LocalDateTime.now());
         
         User updatedUser = userRepository.save(existingUser);
+        principalCache.invalidateUser(userId);
         
         // Log activity
         activityLogService.logActivity(
@@ -262,7 +266,9 @@ public class UserService implements UserDetailsService {
     }
     
     public User saveUser(User user) {
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        principalCache.invalidateUser(user.getId());
+        return savedUser;
     }
     
     public void deactivateUser(UUID userId) {
@@ -270,6 +276,7 @@ public class UserService implements UserDetailsService {
         user.setIsActive(false);
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        principalCache.invalidateUser(userId);
         
         // Log activity
         activityLogService.logActivity(
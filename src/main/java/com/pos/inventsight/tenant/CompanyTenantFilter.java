@@ -1,10 +1,11 @@
 package com.pos.inventsight.tenant;
 
 import com.pos.inventsight.config.JwtUtils;
-import com.pos.inventsight.model.sql.CompanyStoreUser;
+import com.pos.inventsight.config.VerifiedJwt;
 import com.pos.inventsight.model.sql.User;
 import com.pos.inventsight.repository.sql.CompanyRepository;
 import com.pos.inventsight.repository.sql.CompanyStoreUserRepository;
+import com.pos.inventsight.service.PrincipalCache;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.FilterConfig;
@@ -21,7 +22,6 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
-import java.util.List;
 import java.util.UUID;
 
 /**
@@ -50,6 +50,7 @@ public class CompanyTenantFilter implements Filter {
     private final CompanyStoreUserRepository companyStoreUserRepository;
     private final CompanyRepository companyRepository;
     private final JwtUtils jwtUtils;
+    private final PrincipalCache principalCache;
     
     @Value("${inventsight.tenancy.header.enabled:false}")
     private boolean headerEnabled;
@@ -59,10 +60,12 @@ public class CompanyTenantFilter implements Filter {
     
     public CompanyTenantFilter(CompanyStoreUserRepository companyStoreUserRepository,
                                CompanyRepository companyRepository,
-                               JwtUtils jwtUtils) {
+                               JwtUtils jwtUtils,
+                               PrincipalCache principalCache) {
         this.companyStoreUserRepository = companyStoreUserRepository;
         this.companyRepository = companyRepository;
         this.jwtUtils = jwtUtils;
+        this.principalCache = principalCache;
     }
     
     @Override
@@ -114,7 +117,12 @@ public class CompanyTenantFilter implements Filter {
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
                 try {
                     String token = authHeader.substring(7);
-                    if (jwtUtils.hasTenantId(token)) {
+                    // Reuse the claims AuthTokenFilter already verified for this request
+                    VerifiedJwt verifiedJwt = VerifiedJwt.fromRequest(httpRequest, token);
+                    if (verifiedJwt != null && verifiedJwt.hasTenantId()) {
+                        jwtTenantId = verifiedJwt.getTenantId();
+                        logger.debug("Extracted tenant_id from verified JWT: {}", jwtTenantId);
+                    } else if (verifiedJwt == null && jwtUtils.hasTenantId(token)) {
                         jwtTenantId = jwtUtils.getTenantIdFromJwtToken(token);
                         logger.debug("Extracted tenant_id from JWT: {}", jwtTenantId);
                     } else {
@@ -198,7 +206,7 @@ public class CompanyTenantFilter implements Filter {
             
             // Verify company exists and is active
             logger.debug("Verifying company exists: {}", companyUuid);
-            if (!companyRepository.existsById(companyUuid)) {
+            if (!principalCache.companyExists(companyUuid, () -> companyRepository.existsById(companyUuid))) {
                 logger.warn("Company not found for UUID: {}", companyUuid);
                 sendError(httpResponse, HttpServletResponse.SC_NOT_FOUND, 
                          "Company not found");
@@ -230,13 +238,8 @@ public class CompanyTenantFilter implements Filter {
             
             // Verify user membership in company
             logger.debug("Verifying user membership in company: {}", companyUuid);
-            List<CompanyStoreUser> memberships = companyStoreUserRepository
-                .findByUserAndIsActiveTrue(authenticatedUser);
-            
-            logger.debug("User has {} active company memberships", memberships.size());
-            
-            boolean hasMembership = memberships.stream()
-                .anyMatch(m -> m.getCompany().getId().equals(companyUuid) && m.getIsActive());
+            boolean hasMembership = principalCache.hasMembership(authenticatedUser, companyUuid,
+                () -> companyStoreUserRepository.findByUserAndIsActiveTrue(authenticatedUser));
             
             if (!hasMembership) {
                 logger.warn("User {} does not have membership in company {}", 
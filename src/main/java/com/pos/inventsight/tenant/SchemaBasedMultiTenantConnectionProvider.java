@@ -1,20 +1,40 @@
 package com.pos.inventsight.tenant;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * SchemaBasedMultiTenantConnectionProvider implements MultiTenantConnectionProvider
  * to switch PostgreSQL schema using SET search_path for each tenant.
  * Only active when multi-tenancy is enabled.
+ * 
+ * The provider remembers the search_path last applied to each physical pooled connection
+ * and only switches when a checkout is for a different tenant, so consecutive transactions
+ * of the same tenant on a connection cost no extra round-trips. Connections keep their
+ * schema when returned to the pool. Tenants listed under dedicated-pools get a small pool
+ * of their own whose connections are pinned to the tenant schema at creation.
  */
 @Component
 @ConditionalOnProperty(name = "spring.jpa.properties.hibernate.multiTenancy", havingValue = "SCHEMA")
@@ -22,8 +42,31 @@ public class SchemaBasedMultiTenantConnectionProvider implements MultiTenantConn
     
     private static final Logger logger = LoggerFactory.getLogger(SchemaBasedMultiTenantConnectionProvider.class);
     
+    // One SQL text for every tenant, so the driver's statement cache reuses the server-side prepare
+    private static final String SET_SEARCH_PATH_SQL = "SELECT set_config('search_path', ?, false)";
+    
     private final DataSource dataSource;
     
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    
+    @Value("${inventsight.tenancy.connection.reset-on-release:false}")
+    private boolean resetOnRelease = false;
+    
+    @Value("${inventsight.tenancy.connection.dedicated-pools:}")
+    private Set<String> dedicatedPoolTenants = new HashSet<>();
+    
+    @Value("${inventsight.tenancy.connection.dedicated-pool-size:4}")
+    private int dedicatedPoolSize = 4;
+    
+    // search_path last applied per physical connection; weak keys so retired connections drop out
+    private final Map<Connection, String> currentSearchPaths = Collections.synchronizedMap(new WeakHashMap<>());
+    
+    private final Map<String, HikariDataSource> dedicatedPools = new ConcurrentHashMap<>();
+    
+    private final AtomicLong switches = new AtomicLong();
+    private final AtomicLong skippedSwitches = new AtomicLong();
+    
     public SchemaBasedMultiTenantConnectionProvider(@Autowired DataSource dataSource) {
         this.dataSource = dataSource;
     }
@@ -37,38 +80,134 @@ public class SchemaBasedMultiTenantConnectionProvider implements MultiTenantConn
     @Override
     public Connection getConnection(String tenantId) throws SQLException {
         logger.debug("Getting connection for tenant: {}", tenantId);
+        long started = System.nanoTime();
         
-        Connection connection = dataSource.getConnection();
+        String searchPath = searchPathFor(tenantId);
+        HikariDataSource dedicated = dedicatedPoolFor(tenantId, searchPath);
+        if (dedicated != null) {
+            Connection connection = dedicated.getConnection();
+            recordCheckout(tenantId, started, false);
+            return connection;
+        }
         
-        // Set the search_path to the tenant schema
-        // This makes PostgreSQL look for tables in the specified schema first
+        Connection connection = dataSource.getConnection();
+        boolean switched;
         try {
-            // Validate tenant name to prevent SQL injection
-            if (isValidSchemaName(tenantId)) {
-                // For company schemas (company_*), set search_path WITHOUT public fallback
-                // For other schemas, include public for backward compatibility
-                String sql;
-                if (tenantId.startsWith("company_")) {
-                    sql = "SET search_path TO " + tenantId;
-                    logger.debug("Setting company schema search_path (no public): {}", sql);
-                } else {
-                    sql = "SET search_path TO " + tenantId + ", public";
-                    logger.debug("Setting schema search_path with public fallback: {}", sql);
-                }
-                connection.createStatement().execute(sql);
-            } else {
-                logger.warn("Invalid schema name: {}, using default", tenantId);
-                connection.createStatement().execute("SET search_path TO public");
-            }
+            switched = applySearchPath(connection, searchPath);
         } catch (SQLException e) {
             logger.error("Error setting search_path for tenant {}: {}", tenantId, e.getMessage());
             // Don't fail - let it use the default schema
-            connection.createStatement().execute("SET search_path TO public");
+            switched = applySearchPath(connection, "public");
         }
-        
+        recordCheckout(tenantId, started, switched);
         return connection;
     }
     
+    /**
+     * search_path for a tenant: company schemas (company_*) without public fallback,
+     * other schemas with public for backward compatibility, invalid names fall back to public
+     */
+    static String searchPathFor(String tenantId) {
+        if (!isValidSchemaName(tenantId)) {
+            logger.warn("Invalid schema name: {}, using default", tenantId);
+            return "public";
+        }
+        if (tenantId.startsWith("company_")) {
+            return tenantId;
+        }
+        return "public".equals(tenantId) ? "public" : tenantId + ", public";
+    }
+    
+    /**
+     * Set search_path unless the physical connection already has it
+     * @return true if a SET was issued
+     */
+    private boolean applySearchPath(Connection connection, String searchPath) throws SQLException {
+        Connection physical = physicalConnection(connection);
+        if (searchPath.equals(currentSearchPaths.get(physical))) {
+            skippedSwitches.incrementAndGet();
+            return false;
+        }
+        
+        // Run outside a transaction so a later rollback cannot undo the setting behind our back;
+        // toggling auto-commit on an idle connection does not touch the server
+        boolean autoCommit = connection.getAutoCommit();
+        currentSearchPaths.remove(physical);
+        try {
+            if (!autoCommit) {
+                connection.setAutoCommit(true);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(SET_SEARCH_PATH_SQL)) {
+                statement.setString(1, searchPath);
+                statement.execute();
+            }
+        } finally {
+            if (!autoCommit) {
+                connection.setAutoCommit(false);
+            }
+        }
+        currentSearchPaths.put(physical, searchPath);
+        switches.incrementAndGet();
+        logger.debug("Set search_path to {}", searchPath);
+        return true;
+    }
+    
+    /**
+     * The driver connection behind a pool proxy, which outlives the proxy and carries the session state
+     */
+    private Connection physicalConnection(Connection connection) {
+        try {
+            Connection physical = connection.unwrap(Connection.class);
+            return physical != null ? physical : connection;
+        } catch (SQLException e) {
+            return connection;
+        }
+    }
+    
+    private HikariDataSource dedicatedPoolFor(String tenantId, String searchPath) {
+        if (tenantId == null || !dedicatedPoolTenants.contains(tenantId) || !(dataSource instanceof HikariDataSource main)) {
+            return null;
+        }
+        return dedicatedPools.computeIfAbsent(tenantId, id -> {
+            HikariConfig config = new HikariConfig();
+            main.copyStateTo(config);
+            config.setPoolName("tenant-" + id);
+            config.setMaximumPoolSize(dedicatedPoolSize);
+            config.setMinimumIdle(1);
+            config.setConnectionInitSql("SET search_path TO " + searchPath);
+            // Commit the init SQL on its own so a rolled-back first transaction cannot undo it
+            config.setIsolateInternalQueries(true);
+            logger.info("Opening dedicated connection pool for tenant {} ({} connections)", id, dedicatedPoolSize);
+            return new HikariDataSource(config);
+        });
+    }
+    
+    private void recordCheckout(String tenantId, long startedNanos, boolean switched) {
+        if (meterRegistry == null) {
+            return;
+        }
+        String tenant = tenantId != null ? tenantId : "none";
+        meterRegistry.timer("inventsight.tenancy.connection.checkout", "tenant", tenant)
+            .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+        if (switched) {
+            meterRegistry.counter("inventsight.tenancy.search_path.switches", "tenant", tenant).increment();
+        }
+    }
+    
+    @PreDestroy
+    public void closeDedicatedPools() {
+        dedicatedPools.values().forEach(HikariDataSource::close);
+        dedicatedPools.clear();
+    }
+    
+    public long getSwitchCount() {
+        return switches.get();
+    }
+    
+    public long getSkippedSwitchCount() {
+        return skippedSwitches.get();
+    }
+    
     /**
      * Get any available connection (uses default tenant)
      * @return database connection with default search_path
@@ -90,11 +229,14 @@ public class SchemaBasedMultiTenantConnectionProvider implements MultiTenantConn
     public void releaseConnection(String tenantId, Connection connection) throws SQLException {
         logger.debug("Releasing connection for tenant: {}", tenantId);
         
-        // Reset search_path to default before releasing
-        try {
-            connection.createStatement().execute("SET search_path TO public");
-        } catch (SQLException e) {
-            logger.warn("Error resetting search_path on connection release: {}", e.getMessage());
+        // The connection keeps its search_path; the next checkout only switches if it needs another schema
+        if (resetOnRelease && !dedicatedPools.containsKey(tenantId)) {
+            try {
+                applySearchPath(connection, "public");
+            } catch (SQLException e) {
+                logger.warn("Error resetting search_path on connection release: {}", e.getMessage());
+                currentSearchPaths.remove(physicalConnection(connection));
+            }
         }
         
         connection.close();
@@ -153,7 +295,7 @@ public class SchemaBasedMultiTenantConnectionProvider implements MultiTenantConn
      * @param schemaName the schema name to validate
      * @return true if valid, false otherwise
      */
-    private boolean isValidSchemaName(String schemaName) {
+    private static boolean isValidSchemaName(String schemaName) {
         if (schemaName == null || schemaName.trim().isEmpty()) {
             return false;
         }
@@ -0,0 +1,96 @@
+package com.pos.inventsight.util;
+
+import com.google.i18n.phonenumbers.NumberParseException;
+import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.google.i18n.phonenumbers.Phonenumber;
+
+import java.util.Locale;
+
+/**
+ * Canonical forms of customer phone numbers and emails, used as exact lookup keys.
+ *
+ * Phones are stored as E.164 ({@code +959123456789}) whatever format the cashier typed;
+ * numbers without a country code are read in a default region. Emails are trimmed and
+ * lowercased.
+ */
+public final class ContactNormalizer {
+
+    private static final PhoneNumberUtil PHONE_NUMBER_UTIL = PhoneNumberUtil.getInstance();
+
+    private ContactNormalizer() {
+    }
+
+    /**
+     * E.164 form of a phone number, or null if it is blank or not a valid number
+     */
+    public static String normalizePhone(String phone, String defaultRegion) {
+        if (phone == null || phone.isBlank()) {
+            return null;
+        }
+        try {
+            Phonenumber.PhoneNumber number = PHONE_NUMBER_UTIL.parse(phone, defaultRegion);
+            if (!PHONE_NUMBER_UTIL.isValidNumber(number)) {
+                return null;
+            }
+            return PHONE_NUMBER_UTIL.format(number, PhoneNumberUtil.PhoneNumberFormat.E164);
+        } catch (NumberParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Trimmed, lowercased email, or null if blank
+     */
+    public static String normalizeEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Whether a search term is made of phone number characters only
+     */
+    public static boolean isPhoneLike(String term) {
+        if (term == null || term.isBlank()) {
+            return false;
+        }
+        boolean digit = false;
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (Character.isDigit(c)) {
+                digit = true;
+            } else if (c != '+' && c != ' ' && c != '-' && c != '(' && c != ')' && c != '.') {
+                return false;
+            }
+        }
+        return digit;
+    }
+
+    /**
+     * E.164 prefix for the start of a phone number as typed, so {@code 09 12} in region MM
+     * becomes {@code +95912}. Returns null if the term is not phone-like.
+     */
+    public static String phonePrefix(String term, String defaultRegion) {
+        if (!isPhoneLike(term)) {
+            return null;
+        }
+        String digits = term.replaceAll("\\D", "");
+        String trimmed = term.trim();
+        if (trimmed.startsWith("+")) {
+            return "+" + digits;
+        }
+        if (digits.startsWith("00")) {
+            return "+" + digits.substring(2);
+        }
+        int countryCode = PHONE_NUMBER_UTIL.getCountryCodeForRegion(defaultRegion);
+        if (countryCode == 0) {
+            return null;
+        }
+        String trunkPrefix = PHONE_NUMBER_UTIL.getNddPrefixForRegion(defaultRegion, true);
+        if (trunkPrefix != null && !trunkPrefix.isEmpty() && digits.startsWith(trunkPrefix)) {
+            digits = digits.substring(trunkPrefix.length());
+        }
+        return "+" + countryCode + digits;
+    }
+}
@@ -0,0 +1,169 @@
+package com.pos.inventsight.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Pull-based RFC 4180 CSV reader.
+ *
+ * Each call to {@link #next()} reads one record into buffers that are reused for the
+ * next record, so memory does not grow with the file. Quoted fields may contain commas,
+ * doubled quotes and line breaks; records end at LF, CR or CRLF outside quotes. A leading
+ * UTF-8 byte order mark is skipped.
+ */
+public class CsvRowReader implements Closeable {
+
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+
+    private final StringBuilder field = new StringBuilder();
+    private String[] fields = new String[16];
+    private int fieldCount;
+    private long lineNumber = 1;
+    private long recordLineNumber;
+    private boolean started;
+
+    public CsvRowReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Read the next record
+     * @return false at end of input
+     */
+    public boolean next() throws IOException {
+        fieldCount = 0;
+        recordLineNumber = lineNumber;
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {
+                c = read();
+            }
+        }
+        if (c == EOF) {
+            return false;
+        }
+
+        field.setLength(0);
+        boolean inQuotes = false;
+        while (true) {
+            if (inQuotes) {
+                if (c == EOF) {
+                    // Unterminated quote: keep what was read
+                    addField();
+                    return true;
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                addField();
+            } else if (c == '\n' || c == '\r' || c == EOF) {
+                addField();
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                if (c != EOF) {
+                    lineNumber++;
+                }
+                return true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Number of fields in the current record
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Field of the current record, or null if the record has fewer fields
+     */
+    public String get(int index) {
+        return index >= 0 && index < fieldCount ? fields[index] : null;
+    }
+
+    /**
+     * Fields of the current record as a new array
+     */
+    public String[] toArray() {
+        return Arrays.copyOf(fields, fieldCount);
+    }
+
+    /**
+     * True if the current record is an empty or whitespace-only line
+     */
+    public boolean isBlank() {
+        return fieldCount == 0 || (fieldCount == 1 && fields[0].isBlank());
+    }
+
+    /**
+     * Physical line on which the current record starts (1-based)
+     */
+    public long getLineNumber() {
+        return recordLineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void addField() {
+        if (fieldCount == fields.length) {
+            fields = Arrays.copyOf(fields, fields.length * 2);
+        }
+        fields[fieldCount++] = field.toString();
+        field.setLength(0);
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
@@ -2,7 +2,13 @@ package com.pos.inventsight.util;
 
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
@@ -33,6 +39,34 @@ public class SkuGenerator {
         throw new IllegalStateException("Unable to generate unique SKU after " + MAX_ATTEMPTS + " attempts");
     }
     
+    /**
+     * Generate several unique 11-digit SKUs, checking candidates against the store in sets
+     * rather than one lookup per SKU.
+     * 
+     * @param count Number of SKUs needed
+     * @param existingFinder Returns which of the given SKUs already exist
+     * @return Distinct SKUs not reported as existing
+     * @throws IllegalStateException if unable to generate enough unique SKUs after max attempts
+     */
+    public List<String> generateUniqueSkus(int count, Function<Collection<String>, Collection<String>> existingFinder) {
+        Set<String> accepted = new LinkedHashSet<>();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && accepted.size() < count; attempt++) {
+            Set<String> candidates = new LinkedHashSet<>();
+            while (candidates.size() < count - accepted.size()) {
+                String sku = generate11DigitSku();
+                if (!accepted.contains(sku)) {
+                    candidates.add(sku);
+                }
+            }
+            candidates.removeAll(existingFinder.apply(candidates));
+            accepted.addAll(candidates);
+        }
+        if (accepted.size() < count) {
+            throw new IllegalStateException("Unable to generate " + count + " unique SKUs after " + MAX_ATTEMPTS + " attempts");
+        }
+        return new ArrayList<>(accepted);
+    }
+    
     /**
      * Generate a random 11-digit SKU without uniqueness check.
      * 
@@ -0,0 +1,33 @@
+-- Pre-aggregated daily sales per store and status
+-- Maintained incrementally on sale status changes and rebuilt per day by the backfill job
+-- PostgreSQL-compatible
+
+CREATE TABLE IF NOT EXISTS sales_daily_rollup (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    company_id UUID NOT NULL,
+    store_id UUID NOT NULL,
+    sale_date DATE NOT NULL,
+    status VARCHAR(30) NOT NULL,
+    sale_count BIGINT NOT NULL DEFAULT 0,
+    item_count BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(15,2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_sales_daily_rollup UNIQUE (store_id, sale_date, status)
+);
+
+-- Company-wide range queries filter by day and status
+CREATE INDEX IF NOT EXISTS idx_sales_daily_rollup_date_status ON sales_daily_rollup(sale_date, status);
+
+-- Backfill progress: every day from covered_from onwards has been rebuilt from sales
+CREATE TABLE IF NOT EXISTS sales_daily_rollup_backfill (
+    id VARCHAR(50) PRIMARY KEY,
+    covered_from DATE NOT NULL,
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Day-by-day rebuilds scan sales by creation time
+CREATE INDEX IF NOT EXISTS idx_sales_created_at ON sales(created_at);
+
+COMMENT ON TABLE sales_daily_rollup IS 'Daily sale count, units and revenue per store and status';
+COMMENT ON TABLE sales_daily_rollup_backfill IS 'Resumable backfill checkpoint for sales_daily_rollup';
@@ -0,0 +1,5 @@
+-- Sale item IDs are allocated by Hibernate in blocks of 50 (pooled optimizer)
+-- so the lines of a receipt can be inserted as one JDBC batch
+-- PostgreSQL-compatible
+
+ALTER SEQUENCE IF EXISTS sale_items_id_seq INCREMENT BY 50;
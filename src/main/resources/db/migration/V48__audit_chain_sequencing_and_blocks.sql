@@ -0,0 +1,26 @@
+-- Per-tenant audit chain ordered by sequence, sealed into blocks with a Merkle root
+-- Each tenant schema has its own audit_events table and therefore its own chain
+-- PostgreSQL-compatible
+
+ALTER TABLE audit_events ADD COLUMN IF NOT EXISTS chain_seq BIGINT;
+ALTER TABLE audit_events ADD COLUMN IF NOT EXISTS block_seq BIGINT;
+
+-- Two writers extending the same head collide here instead of forking the chain
+CREATE UNIQUE INDEX IF NOT EXISTS uq_audit_events_chain_seq ON audit_events(chain_seq);
+
+CREATE TABLE IF NOT EXISTS audit_blocks (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    block_seq BIGINT NOT NULL,
+    first_seq BIGINT NOT NULL,
+    last_seq BIGINT NOT NULL,
+    event_count INTEGER NOT NULL,
+    merkle_root VARCHAR(64) NOT NULL,
+    prev_block_hash VARCHAR(64),
+    block_hash VARCHAR(64) NOT NULL,
+    sealed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_audit_blocks_block_seq UNIQUE (block_seq)
+);
+
+CREATE INDEX IF NOT EXISTS idx_audit_blocks_seq_range ON audit_blocks(first_seq, last_seq);
+
+COMMENT ON TABLE audit_blocks IS 'Append-only sealed blocks of audit_events. Records must not be updated or deleted.';
@@ -0,0 +1,87 @@
+-- Partition idempotency_keys by day of created_at so expired keys are removed by dropping
+-- whole partitions instead of an hourly DELETE, and store cached responses gzip-compressed.
+-- Uniqueness of (idempotency_key, tenant_id) can no longer be a constraint (it would have to
+-- include created_at); concurrent duplicates are serialised by the in-flight registry instead.
+-- PostgreSQL-compatible
+
+ALTER TABLE idempotency_keys RENAME TO idempotency_keys_unpartitioned;
+DROP INDEX IF EXISTS idx_idempotency_key;
+DROP INDEX IF EXISTS idx_idempotency_tenant;
+DROP INDEX IF EXISTS idx_idempotency_expires;
+
+CREATE TABLE idempotency_keys (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    idempotency_key VARCHAR(255) NOT NULL,
+    tenant_id UUID,
+    company_id UUID,
+    endpoint VARCHAR(500) NOT NULL,
+    request_hash VARCHAR(64),
+    response_status INTEGER,
+    response_body TEXT,
+    response_body_gz BYTEA,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_key_tenant ON idempotency_keys(idempotency_key, tenant_id);
+
+-- Create today's partition and the next days_ahead, and drop every partition whose keys
+-- have all expired. Returns the number of partitions dropped. Run hourly by IdempotencyService.
+CREATE OR REPLACE FUNCTION idempotency_keys_maintain(retention_hours INTEGER, days_ahead INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    day DATE;
+    part RECORD;
+    dropped INTEGER := 0;
+BEGIN
+    FOR i IN 0..days_ahead LOOP
+        day := CURRENT_DATE + i;
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF idempotency_keys FOR VALUES FROM (%L) TO (%L)',
+            'idempotency_keys_' || to_char(day, 'YYYYMMDD'), day, day + 1);
+    END LOOP;
+
+    FOR part IN
+        SELECT child.relname
+        FROM pg_inherits inh
+        JOIN pg_class child ON child.oid = inh.inhrelid
+        WHERE inh.inhparent = 'idempotency_keys'::regclass
+          AND child.relname ~ '^idempotency_keys_[0-9]{8}$'
+    LOOP
+        -- Keys created on day D expire by D + 1 + retention
+        IF to_date(right(part.relname, 8), 'YYYYMMDD') + 1
+                <= CURRENT_TIMESTAMP - make_interval(hours => retention_hours) THEN
+            EXECUTE format('DROP TABLE IF EXISTS %I', part.relname);
+            dropped := dropped + 1;
+        END IF;
+    END LOOP;
+
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for unexpired keys carried over from the old table
+DO $$
+DECLARE
+    day DATE;
+BEGIN
+    FOR day IN
+        SELECT DISTINCT created_at::date FROM idempotency_keys_unpartitioned WHERE expires_at > CURRENT_TIMESTAMP
+    LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF idempotency_keys FOR VALUES FROM (%L) TO (%L)',
+            'idempotency_keys_' || to_char(day, 'YYYYMMDD'), day, day + 1);
+    END LOOP;
+END $$;
+
+SELECT idempotency_keys_maintain(24, 2);
+
+INSERT INTO idempotency_keys (id, idempotency_key, tenant_id, company_id, endpoint, request_hash,
+                              response_status, response_body, created_at, expires_at)
+SELECT id, idempotency_key, tenant_id, company_id, endpoint, request_hash,
+       response_status, response_body, created_at, expires_at
+FROM idempotency_keys_unpartitioned
+WHERE expires_at > CURRENT_TIMESTAMP;
+
+DROP TABLE idempotency_keys_unpartitioned;
+
+COMMENT ON TABLE idempotency_keys IS 'Tracks idempotency keys for offline sync operations, partitioned by day of created_at';
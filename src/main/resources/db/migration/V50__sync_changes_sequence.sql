@@ -0,0 +1,27 @@
+-- Per-tenant log offset for the sync change feed
+-- Clients page with seq > cursor instead of changed_at, so rows sharing a timestamp are never skipped
+-- PostgreSQL-compatible
+
+ALTER TABLE sync_changes ADD COLUMN IF NOT EXISTS seq BIGINT;
+
+-- Last allocated seq per tenant. Allocation updates this row, and its lock is held until the
+-- recording transaction commits, so a tenant's changes commit in seq order without gaps.
+CREATE TABLE IF NOT EXISTS sync_sequences (
+    tenant_id UUID PRIMARY KEY,
+    last_seq BIGINT NOT NULL
+);
+
+-- Number existing changes in the order the old feed returned them
+UPDATE sync_changes sc
+SET seq = numbered.seq
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY tenant_id ORDER BY changed_at, id) AS seq
+    FROM sync_changes
+) numbered
+WHERE sc.id = numbered.id AND sc.seq IS NULL;
+
+INSERT INTO sync_sequences (tenant_id, last_seq)
+SELECT tenant_id, MAX(seq) FROM sync_changes GROUP BY tenant_id
+ON CONFLICT (tenant_id) DO UPDATE SET last_seq = GREATEST(sync_sequences.last_seq, EXCLUDED.last_seq);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_sync_changes_tenant_seq ON sync_changes(tenant_id, seq);
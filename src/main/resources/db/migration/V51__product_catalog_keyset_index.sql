@@ -0,0 +1,8 @@
+-- Keyset paging for the product listing
+-- Active products are listed per store in (name, id) order; the listing seeks past the last
+-- (name, id) of the previous page instead of using OFFSET
+-- PostgreSQL-compatible
+
+CREATE INDEX IF NOT EXISTS idx_products_active_store_name_id
+    ON products(store_id, name, id)
+    WHERE is_active = true;
@@ -0,0 +1,27 @@
+-- Normalized customer contact lookup
+-- Checkout looks customers up by exact E.164 phone / lowercased email, or by a prefix of
+-- phone, email or name; pattern_ops indexes let the prefix LIKE use the index
+-- PostgreSQL-compatible
+
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS phone_normalized VARCHAR(20);
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS email_normalized VARCHAR(100);
+
+-- Backfill what can be normalized in SQL; other phones are normalized when the customer is next saved
+UPDATE customers SET email_normalized = LOWER(TRIM(email))
+WHERE email IS NOT NULL AND TRIM(email) <> '' AND email_normalized IS NULL;
+
+UPDATE customers SET phone_normalized = '+' || REGEXP_REPLACE(phone_number, '[^0-9]', '', 'g')
+WHERE phone_number LIKE '+%' AND phone_normalized IS NULL
+  AND LENGTH(REGEXP_REPLACE(phone_number, '[^0-9]', '', 'g')) BETWEEN 8 AND 15;
+
+CREATE INDEX IF NOT EXISTS idx_customers_company_phone_normalized
+    ON customers(company_id, phone_normalized varchar_pattern_ops)
+    WHERE is_active = true;
+
+CREATE INDEX IF NOT EXISTS idx_customers_company_email_normalized
+    ON customers(company_id, email_normalized varchar_pattern_ops)
+    WHERE is_active = true;
+
+CREATE INDEX IF NOT EXISTS idx_customers_company_lower_name
+    ON customers(company_id, LOWER(name) text_pattern_ops)
+    WHERE is_active = true;
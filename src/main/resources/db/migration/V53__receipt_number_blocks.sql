@@ -0,0 +1,17 @@
+-- Receipt number blocks
+-- Nodes reserve receipt numbers in blocks (hi/lo) and hand them out from memory, so two tills
+-- finishing in the same millisecond no longer collide on the unique receipt number
+-- PostgreSQL-compatible
+
+-- Last number reserved per scope (document type and store). A node bumps last_value by its
+-- block size and owns the numbers in between; numbers of a block lost on restart are skipped
+CREATE TABLE IF NOT EXISTS receipt_number_blocks (
+    scope VARCHAR(64) PRIMARY KEY,
+    last_value BIGINT NOT NULL
+);
+
+-- Short number per store used in its receipt numbers, e.g. INV-7-000123
+CREATE TABLE IF NOT EXISTS receipt_number_stores (
+    store_id UUID PRIMARY KEY,
+    store_number BIGINT NOT NULL UNIQUE
+);
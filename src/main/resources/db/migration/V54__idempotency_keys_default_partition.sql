@@ -0,0 +1,55 @@
+-- Default partition for idempotency_keys
+-- Without it, an insert for a day whose partition does not exist yet fails. That happens when
+-- partition maintenance has not run for days_ahead days, or when the application clock and the
+-- database's CURRENT_DATE disagree. Rows that land here are moved into their day partition
+-- when maintenance creates it, and expired ones are deleted.
+-- PostgreSQL-compatible
+
+CREATE TABLE IF NOT EXISTS idempotency_keys_default PARTITION OF idempotency_keys DEFAULT;
+
+-- Same as V49, except that a day partition is created detached, filled with that day's rows
+-- from the default partition and then attached (a default partition holding rows of the new
+-- range would block a plain CREATE ... PARTITION OF), and expired rows in the default
+-- partition are deleted.
+CREATE OR REPLACE FUNCTION idempotency_keys_maintain(retention_hours INTEGER, days_ahead INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    day DATE;
+    part_name TEXT;
+    part RECORD;
+    dropped INTEGER := 0;
+BEGIN
+    FOR i IN 0..days_ahead LOOP
+        day := CURRENT_DATE + i;
+        part_name := 'idempotency_keys_' || to_char(day, 'YYYYMMDD');
+        IF to_regclass(part_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I (LIKE idempotency_keys INCLUDING DEFAULTS)', part_name);
+            EXECUTE format('WITH moved AS (DELETE FROM idempotency_keys_default WHERE created_at >= %L AND created_at < %L RETURNING *) '
+                           'INSERT INTO %I SELECT * FROM moved', day, day + 1, part_name);
+            EXECUTE format('ALTER TABLE idempotency_keys ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                part_name, day, day + 1);
+        END IF;
+    END LOOP;
+
+    FOR part IN
+        SELECT child.relname
+        FROM pg_inherits inh
+        JOIN pg_class child ON child.oid = inh.inhrelid
+        WHERE inh.inhparent = 'idempotency_keys'::regclass
+          AND child.relname ~ '^idempotency_keys_[0-9]{8}$'
+    LOOP
+        -- Keys created on day D expire by D + 1 + retention
+        IF to_date(right(part.relname, 8), 'YYYYMMDD') + 1
+                <= CURRENT_TIMESTAMP - make_interval(hours => retention_hours) THEN
+            EXECUTE format('DROP TABLE IF EXISTS %I', part.relname);
+            dropped := dropped + 1;
+        END IF;
+    END LOOP;
+
+    DELETE FROM idempotency_keys_default WHERE expires_at <= CURRENT_TIMESTAMP;
+
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT idempotency_keys_maintain(24, 2);
@@ -0,0 +1,10 @@
+-- Keyset paging for the cross-store product listing
+-- Without a store filter the listing orders active products by (name, id) across every store of
+-- the user's companies, and the company filter goes through the store join, so the per-store
+-- index from V51 cannot supply that order. This index can: the planner walks it from the seek
+-- position and stops after one page. V51's (store_id, name, id) index serves the store listing.
+-- PostgreSQL-compatible
+
+CREATE INDEX IF NOT EXISTS idx_products_active_name_id
+    ON products(name, id)
+    WHERE is_active = true;
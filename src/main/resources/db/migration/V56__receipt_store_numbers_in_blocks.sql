@@ -0,0 +1,12 @@
+-- Store numbers move into receipt_number_blocks
+-- A store's number is now the row with scope STORE:<store_id>, so it lives in the same mapped
+-- table as the receipt sequences and exists when the schema comes from Hibernate instead of
+-- Flyway. Numbers already assigned are carried over.
+-- PostgreSQL-compatible
+
+INSERT INTO receipt_number_blocks (scope, last_value)
+SELECT 'STORE:' || store_id::text, store_number
+FROM receipt_number_stores
+ON CONFLICT (scope) DO NOTHING;
+
+DROP TABLE IF EXISTS receipt_number_stores;
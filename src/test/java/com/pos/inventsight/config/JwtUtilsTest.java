@@ -0,0 +1,122 @@
+package com.pos.inventsight.config;
+
+import com.pos.inventsight.model.sql.User;
+import com.pos.inventsight.model.sql.UserRole;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for JwtUtils verified-claims caching
+ */
+class JwtUtilsTest {
+
+    private static final String SECRET = "unit-test-secret-key-that-is-long-enough-for-hs256";
+
+    private JwtUtils jwtUtils;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 900000);
+        ReflectionTestUtils.setField(jwtUtils, "jwtRefreshExpirationMs", 604800000);
+
+        user = new User("alice", "alice@inventsight.com", "password", "Alice", "Smith");
+        user.setId(UUID.randomUUID());
+        user.setRole(UserRole.USER);
+    }
+
+    @Test
+    void verify_sameTokenIsServedFromCache() {
+        String tenantId = UUID.randomUUID().toString();
+        String token = jwtUtils.generateJwtToken(user, tenantId);
+
+        VerifiedJwt first = jwtUtils.verify(token);
+        VerifiedJwt second = jwtUtils.verify(token);
+
+        assertSame(first, second);
+        assertEquals(1, jwtUtils.getClaimsCacheSize());
+        assertEquals("alice@inventsight.com", jwtUtils.getUsernameFromJwtToken(token));
+        assertEquals(tenantId, jwtUtils.getTenantIdFromJwtToken(token));
+        assertTrue(jwtUtils.hasTenantId(token));
+        assertEquals(1, jwtUtils.getClaimsCacheSize());
+    }
+
+    @Test
+    void verify_tamperedTokenIsRejected() {
+        String token = jwtUtils.generateJwtToken(user, UUID.randomUUID().toString());
+        jwtUtils.verify(token);
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(Exception.class, () -> jwtUtils.verify(tampered));
+        assertNull(jwtUtils.getTenantIdFromJwtToken(tampered));
+        assertEquals(1, jwtUtils.getClaimsCacheSize());
+    }
+
+    @Test
+    void verify_expiredTokenIsNotServedFromCache() {
+        String token = Jwts.builder()
+                .setSubject("alice@inventsight.com")
+                .claim("tenant_id", UUID.randomUUID().toString())
+                .setExpiration(new Date(System.currentTimeMillis() + 1000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+        VerifiedJwt verified = jwtUtils.verify(token);
+
+        ReflectionTestUtils.setField(verified, "expiresAtMillis", System.currentTimeMillis() - 1);
+
+        assertNotSame(verified, jwtUtils.verify(token));
+    }
+
+    @Test
+    void validateJwtToken_expiredTokenReturnsFalse() {
+        String token = Jwts.builder()
+                .setSubject("alice@inventsight.com")
+                .setExpiration(new Date(System.currentTimeMillis() - 60000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .compact();
+
+        assertFalse(jwtUtils.validateJwtToken(token));
+        assertThrows(ExpiredJwtException.class, () -> jwtUtils.verify(token));
+        assertEquals(0, jwtUtils.getClaimsCacheSize());
+    }
+
+    @Test
+    void verify_cacheIsBoundedByMaxEntries() {
+        ReflectionTestUtils.setField(jwtUtils, "claimsCacheMaxEntries", 2);
+
+        for (int i = 0; i < 5; i++) {
+            User other = new User("user" + i, "user" + i + "@inventsight.com", "password", "User", "" + i);
+            other.setId(UUID.randomUUID());
+            other.setRole(UserRole.USER);
+            String token = jwtUtils.generateJwtToken(other, UUID.randomUUID().toString());
+            assertEquals(other.getEmail(), jwtUtils.verify(token).getUsername());
+        }
+
+        assertEquals(2, jwtUtils.getClaimsCacheSize());
+    }
+
+    @Test
+    void fromRequest_returnsBoundClaimsOnlyForTheSameToken() {
+        String token = jwtUtils.generateJwtToken(user, UUID.randomUUID().toString());
+        VerifiedJwt verified = jwtUtils.verify(token);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getAttribute(VerifiedJwt.REQUEST_ATTRIBUTE)).thenReturn(verified);
+
+        assertSame(verified, VerifiedJwt.fromRequest(request, token));
+        assertNull(VerifiedJwt.fromRequest(request, token + "x"));
+    }
+}
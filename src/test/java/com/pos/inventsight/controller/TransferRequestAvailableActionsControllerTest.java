@@ -87,7 +87,7 @@ class TransferRequestAvailableActionsControllerTest {
         // Arrange
         when(authentication.getName()).thenReturn("owner");
         when(userService.getUserByUsername("owner")).thenReturn(ownerUser);
-        when(transferRequestService.getTransferRequestById(pendingTransfer.getId()))
+        when(transferRequestService.getTransferRequestDetail(pendingTransfer.getId()))
             .thenReturn(pendingTransfer);
         when(transferPermissionService.getAvailableActions(pendingTransfer, ownerUser))
             .thenReturn(Arrays.asList("approve", "reject", "cancel"));
@@ -190,7 +190,7 @@ class TransferRequestAvailableActionsControllerTest {
         // Arrange
         when(authentication.getName()).thenReturn("owner");
         when(userService.getUserByUsername("owner")).thenReturn(ownerUser);
-        when(transferRequestService.getTransferRequestById(pendingTransfer.getId()))
+        when(transferRequestService.getTransferRequestDetail(pendingTransfer.getId()))
             .thenReturn(pendingTransfer);
         when(transferPermissionService.getAvailableActions(pendingTransfer, ownerUser))
             .thenReturn(Arrays.asList("approve", "reject", "cancel"));
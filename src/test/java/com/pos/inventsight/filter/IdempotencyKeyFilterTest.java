@@ -51,6 +51,8 @@ class IdempotencyKeyFilterTest {
         String requestBody = "{\"receivedQuantity\":30,\"receiverName\":\"Test\"}";
         
         when(idempotencyService.getCurrentTenantId()).thenReturn(tenantId);
+        when(idempotencyService.beginExecution(idempotencyKey, tenantId))
+            .thenReturn(IdempotencyService.Execution.owner(idempotencyKey, tenantId));
         when(idempotencyService.findIdempotencyKey(idempotencyKey, tenantId))
             .thenReturn(Optional.empty());
         when(idempotencyService.computeRequestHash(anyString(), anyString(), anyString()))
@@ -124,6 +126,8 @@ class IdempotencyKeyFilterTest {
         existingKey.setRequestHash("hash123");
         
         when(idempotencyService.getCurrentTenantId()).thenReturn(tenantId);
+        when(idempotencyService.beginExecution(idempotencyKey, tenantId))
+            .thenReturn(IdempotencyService.Execution.owner(idempotencyKey, tenantId));
         when(idempotencyService.findIdempotencyKey(idempotencyKey, tenantId))
             .thenReturn(Optional.of(existingKey));
         
@@ -152,6 +156,66 @@ class IdempotencyKeyFilterTest {
         );
     }
 
+    @Test
+    void testConcurrentDuplicateReplaysFirstExecutionResult() throws Exception {
+        // Arrange
+        UUID tenantId = UUID.randomUUID();
+        String idempotencyKey = "test-key-123";
+        
+        IdempotencyKey firstResult = new IdempotencyKey();
+        firstResult.setResponseStatus(201);
+        firstResult.setResponseBody("{\"saleId\":\"42\"}");
+        
+        IdempotencyService.Execution waiting = mock(IdempotencyService.Execution.class);
+        when(waiting.isOwner()).thenReturn(false);
+        when(idempotencyService.getCurrentTenantId()).thenReturn(tenantId);
+        when(idempotencyService.beginExecution(idempotencyKey, tenantId)).thenReturn(waiting);
+        when(idempotencyService.awaitExecution(waiting)).thenReturn(Optional.of(firstResult));
+        
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setMethod("POST");
+        request.setRequestURI("/api/sales");
+        request.addHeader("Idempotency-Key", idempotencyKey);
+        
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        
+        // Act
+        filter.doFilter(request, response, chain);
+        
+        // Assert
+        assertNull(chain.getRequest(), "Duplicate must not execute the request again");
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"saleId\":\"42\"}", response.getContentAsString());
+        verify(idempotencyService, never()).completeExecution(any(), any());
+    }
+
+    @Test
+    void testConcurrentDuplicateGetsConflictWhenFirstExecutionFails() throws Exception {
+        // Arrange
+        UUID tenantId = UUID.randomUUID();
+        IdempotencyService.Execution waiting = mock(IdempotencyService.Execution.class);
+        when(waiting.isOwner()).thenReturn(false);
+        when(idempotencyService.getCurrentTenantId()).thenReturn(tenantId);
+        when(idempotencyService.beginExecution("test-key-123", tenantId)).thenReturn(waiting);
+        when(idempotencyService.awaitExecution(waiting)).thenReturn(Optional.empty());
+        
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setMethod("POST");
+        request.setRequestURI("/api/sales");
+        request.addHeader("Idempotency-Key", "test-key-123");
+        
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        
+        // Act
+        filter.doFilter(request, response, chain);
+        
+        // Assert
+        assertNull(chain.getRequest(), "Duplicate must not execute the request again");
+        assertEquals(409, response.getStatus());
+    }
+
     @Test
     void testNoIdempotencyKeyHeaderPassesThrough() throws Exception {
         // Arrange
@@ -0,0 +1,95 @@
+package com.pos.inventsight.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the bounded local rate limit store and per-route limit classes
+ */
+class LocalRateLimitBackendTest {
+
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+
+    @Test
+    void testBucketRejectsOnceCapacityIsUsed() {
+        LocalRateLimitBackend backend = new LocalRateLimitBackend();
+
+        assertTrue(backend.tryConsume("ip:10.0.0.1", 2, MINUTE));
+        assertTrue(backend.tryConsume("ip:10.0.0.1", 2, MINUTE));
+        assertFalse(backend.tryConsume("ip:10.0.0.1", 2, MINUTE));
+        assertTrue(backend.tryConsume("ip:10.0.0.2", 2, MINUTE));
+    }
+
+    @Test
+    void testStoreNeverGrowsPastMaxEntries() {
+        LocalRateLimitBackend backend = new LocalRateLimitBackend();
+        ReflectionTestUtils.setField(backend, "maxEntries", 3);
+
+        for (int i = 0; i < 100; i++) {
+            backend.tryConsume("ip:10.0.0." + i, 1000, MINUTE);
+        }
+
+        assertEquals(3, backend.size());
+    }
+
+    @Test
+    void testUntrackedKeysShareOverflowBucketWhenFull() {
+        LocalRateLimitBackend backend = new LocalRateLimitBackend();
+        ReflectionTestUtils.setField(backend, "maxEntries", 1);
+        backend.tryConsume("ip:10.0.0.1", 2, MINUTE);
+
+        // Rotating IPs do not each get a fresh bucket
+        assertTrue(backend.tryConsume("ip:10.0.1.1", 2, MINUTE));
+        assertTrue(backend.tryConsume("ip:10.0.1.2", 2, MINUTE));
+        assertFalse(backend.tryConsume("ip:10.0.1.3", 2, MINUTE));
+    }
+
+    @Test
+    void testIdleBucketsAreEvicted() {
+        LocalRateLimitBackend backend = new LocalRateLimitBackend();
+        ReflectionTestUtils.setField(backend, "maxEntries", 1);
+        backend.tryConsume("ip:10.0.0.1", 1, MINUTE);
+        ReflectionTestUtils.setField(backend, "idleTimeoutMs", -1L);
+
+        backend.evictIdle();
+
+        assertEquals(0, backend.size());
+        assertTrue(backend.tryConsume("ip:10.0.0.2", 1, MINUTE));
+        assertEquals(1, backend.size());
+    }
+
+    @Test
+    void testRouteClassesHaveSeparateLimits() throws Exception {
+        RateLimitingFilter filter = new RateLimitingFilter();
+        ReflectionTestUtils.setField(filter, "rateLimitingEnabled", true);
+        ReflectionTestUtils.setField(filter, "ipRpm", 1);
+        ReflectionTestUtils.setField(filter, "syncRpm", 1);
+        ReflectionTestUtils.setField(filter, "readRpm", 2);
+
+        assertEquals("sync", filter.resolveRouteClass("GET", "/api/sync/changes"));
+        assertEquals("read", filter.resolveRouteClass("GET", "/api/products"));
+        assertEquals("default", filter.resolveRouteClass("POST", "/api/sales"));
+
+        assertNotEquals(429, send(filter, "GET", "/api/sync/changes").getStatus());
+        assertEquals(429, send(filter, "GET", "/api/sync/changes").getStatus());
+        // Exhausting the sync class leaves reads untouched
+        assertNotEquals(429, send(filter, "GET", "/api/products").getStatus());
+        assertNotEquals(429, send(filter, "GET", "/api/products").getStatus());
+        assertEquals(429, send(filter, "GET", "/api/products").getStatus());
+    }
+
+    private MockHttpServletResponse send(RateLimitingFilter filter, String method, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr("192.168.1.9");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
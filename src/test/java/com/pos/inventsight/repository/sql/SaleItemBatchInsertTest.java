@@ -0,0 +1,144 @@
+package com.pos.inventsight.repository.sql;
+
+import com.pos.inventsight.model.sql.Company;
+import com.pos.inventsight.model.sql.Product;
+import com.pos.inventsight.model.sql.Sale;
+import com.pos.inventsight.model.sql.SaleItem;
+import com.pos.inventsight.model.sql.SaleStatus;
+import com.pos.inventsight.model.sql.Store;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a receipt's lines are inserted as JDBC batches when the sale is saved,
+ * for small, medium and large baskets.
+ */
+@SpringBootTest
+@Transactional
+@TestPropertySource(properties = {
+    // Use H2 in-memory database
+    "spring.datasource.url=jdbc:h2:mem:statementcountdb",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+
+    // Disable schema initialization
+    "spring.sql.init.mode=never",
+
+    // Use H2 dialect with the production batching settings
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.jdbc.batch_size=20",
+    "spring.jpa.properties.hibernate.order_inserts=true",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.pos.inventsight.repository.sql.StatementCounter",
+
+    // Disable MongoDB and Redis for this test
+    "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration,org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration,org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration"
+})
+public class SaleItemBatchInsertTest {
+
+    private static final int RECEIPTS = 200;
+
+    private static final AtomicLong receiptSequence = new AtomicLong();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    private Company company;
+    private Store store;
+    private List<Product> products;
+
+    @BeforeEach
+    public void setUp() {
+        company = new Company("Batch Co", "batch@inventsight.com");
+        entityManager.persist(company);
+
+        store = new Store();
+        store.setStoreName("Batch Store");
+        store.setCompany(company);
+        entityManager.persist(store);
+
+        products = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setSku("BATCH-" + i);
+            product.setOriginalPrice(new BigDecimal("1.00"));
+            product.setOwnerSetSellPrice(new BigDecimal("1.25"));
+            product.setRetailPrice(new BigDecimal("1.50"));
+            product.setQuantity(1000);
+            product.setCompany(company);
+            product.setStore(store);
+            entityManager.persist(product);
+            products.add(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Sale checkout(int lines) {
+        Sale sale = new Sale();
+        sale.setReceiptNumber("BATCH-" + receiptSequence.incrementAndGet());
+        sale.setCompany(company);
+        sale.setStore(store);
+        sale.setStatus(SaleStatus.COMPLETED);
+
+        List<SaleItem> items = new ArrayList<>();
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            SaleItem item = new SaleItem(sale, products.get(i), 2, products.get(i).getPrice());
+            items.add(item);
+            subtotal = subtotal.add(item.getTotalPrice());
+        }
+        sale.setItems(items);
+        sale.setSubtotal(subtotal);
+        sale.setTaxAmount(BigDecimal.ZERO);
+        sale.setTotalAmount(subtotal);
+
+        Sale saved = saleRepository.save(sale);
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    public void testCheckout_ItemsAreInsertedInBatches(int lines) {
+        checkout(lines); // warm up
+
+        StatementCounter.start();
+        try {
+            for (int i = 0; i < RECEIPTS; i++) {
+                checkout(lines);
+            }
+        } finally {
+            StatementCounter.stop();
+        }
+
+        // One sale insert plus one item insert per receipt: the batched statement is prepared
+        // once and reused for every batch, whereas unbatched lines are prepared one by one.
+        // Add one sequence call per 50 item IDs; where the warm-up left the pool shifts that by one
+        long statements = (long) RECEIPTS * 2;
+        long idFetches = (long) RECEIPTS * lines / 50;
+        assertThat(StatementCounter.count())
+            .isBetween(statements + idFetches, statements + idFetches + 1);
+    }
+}
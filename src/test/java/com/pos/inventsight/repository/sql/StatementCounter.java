@@ -0,0 +1,37 @@
+package com.pos.inventsight.repository.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the statements Hibernate prepares on the thread that called {@link #start()}, so
+ * scheduled jobs running against the same database don't skew the result.
+ * Registered through {@code hibernate.session_factory.statement_inspector}.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static volatile Thread recording;
+    private static final AtomicLong statements = new AtomicLong();
+
+    static void start() {
+        statements.set(0);
+        recording = Thread.currentThread();
+    }
+
+    static void stop() {
+        recording = null;
+    }
+
+    static long count() {
+        return statements.get();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (Thread.currentThread() == recording) {
+            statements.incrementAndGet();
+        }
+        return sql;
+    }
+}
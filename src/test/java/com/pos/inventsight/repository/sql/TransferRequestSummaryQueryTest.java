@@ -0,0 +1,139 @@
+package com.pos.inventsight.repository.sql;
+
+import com.pos.inventsight.dto.TransferRequestSummary;
+import com.pos.inventsight.model.sql.Company;
+import com.pos.inventsight.model.sql.Store;
+import com.pos.inventsight.model.sql.TransferRequest;
+import com.pos.inventsight.model.sql.User;
+import com.pos.inventsight.model.sql.Warehouse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a transfer list page is read with one row query plus one count query,
+ * whatever the number of locations and users the rows refer to.
+ */
+@SpringBootTest
+@Transactional
+@TestPropertySource(properties = {
+    // Use H2 in-memory database
+    "spring.datasource.url=jdbc:h2:mem:statementcountdb",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+
+    // Disable schema initialization
+    "spring.sql.init.mode=never",
+
+    // Use H2 dialect with the production batching settings
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.jdbc.batch_size=20",
+    "spring.jpa.properties.hibernate.order_inserts=true",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.pos.inventsight.repository.sql.StatementCounter",
+
+    // Disable MongoDB and Redis for this test
+    "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration,org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration,org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration"
+})
+public class TransferRequestSummaryQueryTest {
+
+    private static final int TRANSFERS = 12;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransferRequestRepository transferRequestRepository;
+
+    private Company company;
+
+    @BeforeEach
+    public void setUp() {
+        company = new Company("Transfer Co", "transfer@inventsight.com");
+        entityManager.persist(company);
+
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < TRANSFERS; i++) {
+            // Every transfer has its own warehouse, store and requester
+            Warehouse warehouse = new Warehouse("Warehouse " + i, "Zone " + i);
+            warehouse.setCompany(company);
+            entityManager.persist(warehouse);
+
+            Store store = new Store();
+            store.setStoreName("Store " + i);
+            store.setCompany(company);
+            entityManager.persist(store);
+
+            User requester = new User("requester" + i, "requester" + i + "@inventsight.com",
+                "password", "Request", "Er" + i);
+            entityManager.persist(requester);
+
+            TransferRequest transfer = new TransferRequest();
+            transfer.setCompany(company);
+            transfer.setProductId(UUID.randomUUID());
+            transfer.setRequestedQuantity(i + 1);
+            transfer.setFromWarehouse(warehouse);
+            transfer.setFromLocationType("WAREHOUSE");
+            transfer.setFromLocationId(warehouse.getId());
+            transfer.setToStore(store);
+            transfer.setToLocationType("STORE");
+            transfer.setToLocationId(store.getId());
+            transfer.setRequestedBy(requester);
+            transfer.setCreatedAt(start.plusMinutes(i));
+            entityManager.persist(transfer);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void testListPage_OneRowQueryAndOneCountQuery() {
+        StatementCounter.start();
+        Page<TransferRequestSummary> page;
+        try {
+            page = transferRequestRepository.findSummariesByCompanyId(company.getId(),
+                PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "createdAt")));
+        } finally {
+            StatementCounter.stop();
+        }
+
+        assertThat(StatementCounter.count()).isEqualTo(2);
+        assertThat(page.getTotalElements()).isEqualTo(TRANSFERS);
+        assertThat(page.getContent()).hasSize(5);
+        assertThat(page.getContent().get(0).getFromLocationName()).isEqualTo("Warehouse " + (TRANSFERS - 1));
+        assertThat(page.getContent().get(0).getToLocationName()).isEqualTo("Store " + (TRANSFERS - 1));
+        assertThat(page.getContent().get(0).getRequestedByName()).isEqualTo("requester" + (TRANSFERS - 1));
+    }
+
+    @Test
+    public void testPendingApprovals_OneQueryMostRecentFirst() {
+        StatementCounter.start();
+        List<TransferRequestSummary> pending;
+        try {
+            pending = transferRequestRepository.findPendingSummariesByCompanyId(company.getId());
+        } finally {
+            StatementCounter.stop();
+        }
+
+        assertThat(StatementCounter.count()).isEqualTo(1);
+        assertThat(pending).hasSize(TRANSFERS);
+        assertThat(pending).extracting(TransferRequestSummary::getCreatedAt)
+            .isSortedAccordingTo((a, b) -> b.compareTo(a));
+    }
+}
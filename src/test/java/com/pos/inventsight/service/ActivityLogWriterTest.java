@@ -0,0 +1,120 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.nosql.ActivityLog;
+import com.pos.inventsight.repository.nosql.ActivityLogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the batched activity log writer
+ */
+@ExtendWith(MockitoExtension.class)
+public class ActivityLogWriterTest {
+
+    @Mock
+    private ActivityLogRepository activityLogRepository;
+
+    @InjectMocks
+    private ActivityLogWriter writer;
+
+    @TempDir
+    Path tempDir;
+
+    private Path spillFile;
+
+    @BeforeEach
+    public void setUp() {
+        spillFile = tempDir.resolve("activity-log-spill.jsonl");
+        ReflectionTestUtils.setField(writer, "spillFile", spillFile.toString());
+    }
+
+    private ActivityLog log(String action) {
+        return new ActivityLog("user-1", "alice", action, "PRODUCT", action + " happened");
+    }
+
+    private void startQueuedWithoutWriterThread(int capacity) {
+        ReflectionTestUtils.setField(writer, "enabled", false);
+        ReflectionTestUtils.setField(writer, "queueCapacity", capacity);
+        writer.start();
+        ReflectionTestUtils.setField(writer, "running", true);
+    }
+
+    @Test
+    public void testSubmit_DisabledWritesSynchronously() {
+        ReflectionTestUtils.setField(writer, "enabled", false);
+        writer.start();
+
+        writer.submit(log("STOCK_REDUCED"));
+
+        verify(activityLogRepository).saveAll(anyList());
+        assertEquals(0, writer.getQueueDepth());
+        assertEquals(1, writer.getWrittenCount());
+    }
+
+    @Test
+    public void testSubmit_DropOldestWhenQueueIsFull() {
+        startQueuedWithoutWriterThread(2);
+
+        writer.submit(log("A"));
+        writer.submit(log("B"));
+        writer.submit(log("C"));
+
+        assertEquals(2, writer.getQueueDepth());
+        assertEquals(1, writer.getDroppedCount());
+        verifyNoInteractions(activityLogRepository);
+
+        writer.stop();
+        ArgumentCaptor<List<ActivityLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(activityLogRepository).saveAll(captor.capture());
+        assertEquals(List.of("B", "C"), captor.getValue().stream().map(ActivityLog::getAction).toList());
+    }
+
+    @Test
+    public void testSubmit_BlockPolicyDropsNewEntryAfterTimeout() {
+        ReflectionTestUtils.setField(writer, "overflowPolicy", ActivityLogWriter.OverflowPolicy.BLOCK);
+        ReflectionTestUtils.setField(writer, "blockTimeoutMs", 10L);
+        startQueuedWithoutWriterThread(1);
+
+        writer.submit(log("A"));
+        writer.submit(log("B"));
+
+        assertEquals(1, writer.getQueueDepth());
+        assertEquals(1, writer.getDroppedCount());
+    }
+
+    @Test
+    public void testFlush_FailedBatchIsSpilledAndReplayedAfterRecovery() throws Exception {
+        when(activityLogRepository.saveAll(anyList()))
+            .thenThrow(new DataAccessResourceFailureException("mongo down"))
+            .thenReturn(List.of());
+
+        writer.flush(List.of(log("A"), log("B")));
+
+        assertEquals(2, writer.getSpilledCount());
+        assertEquals(2, Files.readAllLines(spillFile).size());
+
+        writer.flush(List.of(log("C")));
+
+        ArgumentCaptor<List<ActivityLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(activityLogRepository, times(3)).saveAll(captor.capture());
+        assertEquals(List.of("A", "B"), captor.getAllValues().get(2).stream().map(ActivityLog::getAction).toList());
+        assertFalse(Files.exists(spillFile));
+        assertEquals(3, writer.getWrittenCount());
+    }
+}
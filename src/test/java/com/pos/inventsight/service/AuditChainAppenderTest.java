@@ -0,0 +1,172 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.sql.AuditBlock;
+import com.pos.inventsight.model.sql.AuditEvent;
+import com.pos.inventsight.repository.sql.AuditBlockRepository;
+import com.pos.inventsight.repository.sql.AuditEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for per-tenant audit chain appending and block sealing.
+ * The appender is not started, so each append drains on the calling thread.
+ */
+@ExtendWith(MockitoExtension.class)
+public class AuditChainAppenderTest {
+
+    private static final String TENANT = "company_7f1c";
+
+    @Mock
+    private AuditEventRepository auditEventRepository;
+
+    @Mock
+    private AuditBlockRepository auditBlockRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AuditChainAppender appender;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(auditEventRepository.findTopByChainSeqNotNullOrderByChainSeqDesc()).thenReturn(Optional.empty());
+        lenient().when(auditEventRepository.findLatestEvent(any(Pageable.class))).thenReturn(List.of());
+        lenient().when(auditBlockRepository.findTopByOrderByBlockSeqDesc()).thenReturn(Optional.empty());
+    }
+
+    private AuditEvent event(String action) {
+        return AuditEvent.builder().actor("alice").action(action).build();
+    }
+
+    @Test
+    public void testAppend_ExtendsChainFromInMemoryHead() {
+        AuditEvent first = event("LOGIN");
+        AuditEvent second = event("PRICE_CHANGE");
+
+        appender.append(TENANT, first);
+        appender.append(TENANT, second);
+
+        assertEquals(1L, first.getChainSeq());
+        assertEquals(2L, second.getChainSeq());
+        assertNull(first.getPrevHash());
+        assertEquals(first.getHash(), second.getPrevHash());
+        assertEquals(AuditChainAppender.hashEvent(second, first.getHash()), second.getHash());
+        // The head is read once per tenant, not per event
+        verify(auditEventRepository, times(1)).findTopByChainSeqNotNullOrderByChainSeqDesc();
+        verify(auditEventRepository, never()).save(any());
+    }
+
+    @Test
+    public void testAppend_SealsBlockWithMerkleRootLinkedToPreviousBlock() {
+        AuditEvent first = event("LOGIN");
+        AuditEvent second = event("LOGOUT");
+        ArgumentCaptor<AuditBlock> blocks = ArgumentCaptor.forClass(AuditBlock.class);
+
+        appender.append(TENANT, first);
+        appender.append(TENANT, second);
+
+        verify(auditBlockRepository, times(2)).save(blocks.capture());
+        AuditBlock block1 = blocks.getAllValues().get(0);
+        AuditBlock block2 = blocks.getAllValues().get(1);
+        assertEquals(1L, block1.getBlockSeq());
+        assertEquals(first.getHash(), block1.getMerkleRoot());
+        assertEquals(block1.getBlockHash(), block2.getPrevBlockHash());
+        assertEquals(2L, second.getBlockSeq());
+    }
+
+    @Test
+    public void testAppend_FirstSequencedEventAnchorsToLegacyHead() {
+        AuditEvent legacy = event("LEGACY");
+        legacy.setHash("legacy-hash");
+        when(auditEventRepository.findLatestEvent(any(Pageable.class))).thenReturn(List.of(legacy));
+        AuditEvent event = event("LOGIN");
+
+        appender.append(TENANT, event);
+
+        assertEquals(1L, event.getChainSeq());
+        assertEquals("legacy-hash", event.getPrevHash());
+    }
+
+    @Test
+    public void testAppend_FailedBatchIsRetriedWithReloadedHead() {
+        ReflectionTestUtils.setField(appender, "retryIntervalMs", 0L);
+        when(auditEventRepository.saveAll(anyList()))
+            .thenThrow(new DataIntegrityViolationException("uq_audit_events_chain_seq"))
+            .thenReturn(List.of());
+
+        appender.append(TENANT, event("LOGIN"));
+
+        assertEquals(1, appender.getPendingCount(TENANT));
+
+        AuditEvent head = event("OTHER_NODE");
+        head.setChainSeq(7L);
+        head.setHash("other-node-hash");
+        when(auditEventRepository.findTopByChainSeqNotNullOrderByChainSeqDesc()).thenReturn(Optional.of(head));
+
+        appender.retryStalled();
+
+        assertEquals(0, appender.getPendingCount(TENANT));
+        ArgumentCaptor<List<AuditEvent>> saved = ArgumentCaptor.forClass(List.class);
+        verify(auditEventRepository, times(2)).saveAll(saved.capture());
+        AuditEvent retried = saved.getAllValues().get(1).get(0);
+        assertEquals(8L, retried.getChainSeq());
+        assertEquals("other-node-hash", retried.getPrevHash());
+        assertNull(retried.getId());
+    }
+
+    @Test
+    public void testAppend_RepeatedFailuresKeepBatchAndBackOff() {
+        ReflectionTestUtils.setField(appender, "retryIntervalMs", 0L);
+        ReflectionTestUtils.setField(appender, "alertAfterAttempts", 2);
+        when(auditEventRepository.saveAll(anyList())).thenThrow(new CannotCreateTransactionException("database down"));
+
+        appender.append(TENANT, event("LOGIN"));
+        for (int i = 0; i < 5; i++) {
+            appender.retryStalled();
+        }
+
+        // Still held after more failures than the alert threshold
+        assertEquals(1, appender.getPendingCount(TENANT));
+        verify(auditEventRepository, times(6)).saveAll(anyList());
+
+        // With a real interval the next retry waits for the backoff
+        ReflectionTestUtils.setField(appender, "retryIntervalMs", 60000L);
+        appender.retryStalled();
+        appender.retryStalled();
+        appender.append(TENANT, event("LOGOUT"));
+        assertEquals(2, appender.getPendingCount(TENANT));
+        verify(auditEventRepository, times(7)).saveAll(anyList());
+    }
+
+    @Test
+    public void testMerkleRoot_PairsOddNodeWithItself() {
+        String a = AuditChainAppender.merkleRoot(List.of("aa"));
+        String b = AuditChainAppender.merkleRoot(List.of("bb"));
+
+        assertEquals("aa", a);
+        String ab = AuditChainAppender.merkleRoot(List.of("aa", "bb"));
+        String cc = AuditChainAppender.merkleRoot(List.of("cc", "cc"));
+        assertEquals(AuditChainAppender.merkleRoot(List.of(ab, cc)),
+            AuditChainAppender.merkleRoot(List.of("aa", "bb", "cc")));
+        assertNotEquals(AuditChainAppender.merkleRoot(List.of(a, b)), AuditChainAppender.merkleRoot(List.of(b, a)));
+    }
+}
@@ -1,9 +1,12 @@
 package com.pos.inventsight.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pos.inventsight.model.sql.AuditBlock;
 import com.pos.inventsight.model.sql.AuditEvent;
+import com.pos.inventsight.repository.sql.AuditBlockRepository;
 import com.pos.inventsight.repository.sql.AuditEventRepository;
-import org.junit.jupiter.api.BeforeEach;
+import com.pos.inventsight.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -12,12 +15,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -29,17 +34,52 @@ class AuditServiceTest {
     @Mock
     private AuditEventRepository auditEventRepository;
     
+    @Mock
+    private AuditBlockRepository auditBlockRepository;
+    
+    @Mock
+    private AuditChainAppender chainAppender;
+    
     @Mock
     private ObjectMapper objectMapper;
     
     @InjectMocks
     private AuditService auditService;
     
-    @BeforeEach
-    void setUp() {
-        // Setup common mocks - lenient for tests that don't use it
-        lenient().when(auditEventRepository.findLatestEvent(any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+    
+    /**
+     * Build a sealed chain of blocks the way AuditChainAppender does
+     */
+    private List<AuditEvent> chain(List<AuditBlock> blocks, int... blockSizes) {
+        List<AuditEvent> events = new ArrayList<>();
+        String prevHash = null;
+        String prevBlockHash = null;
+        long seq = 0;
+        long blockSeq = 0;
+        for (int size : blockSizes) {
+            blockSeq++;
+            List<String> hashes = new ArrayList<>();
+            long first = seq + 1;
+            for (int i = 0; i < size; i++) {
+                AuditEvent event = AuditEvent.builder().actor("alice").action("ACTION_" + (seq + 1)).build();
+                event.setChainSeq(++seq);
+                event.setBlockSeq(blockSeq);
+                event.setPrevHash(prevHash);
+                prevHash = AuditChainAppender.hashEvent(event, prevHash);
+                event.setHash(prevHash);
+                hashes.add(prevHash);
+                events.add(event);
+            }
+            String root = AuditChainAppender.merkleRoot(hashes);
+            String blockHash = AuditChainAppender.blockHash(prevBlockHash, root, first, seq);
+            blocks.add(new AuditBlock(blockSeq, first, seq, size, root, prevBlockHash, blockHash));
+            prevBlockHash = blockHash;
+        }
+        return events;
     }
     
     @Test
@@ -53,7 +93,6 @@ class AuditServiceTest {
         String details = "Login successful";
         
         when(objectMapper.writeValueAsString(any())).thenReturn("{\"message\":\"Login successful\"}");
-        when(auditEventRepository.save(any(AuditEvent.class))).thenAnswer(i -> i.getArguments()[0]);
         
         // When
         AuditEvent result = auditService.log(actor, actorId, action, entityType, entityId, details);
@@ -66,42 +105,30 @@ class AuditServiceTest {
         assertEquals(entityType, result.getEntityType());
         assertEquals(entityId, result.getEntityId());
         
-        verify(auditEventRepository, times(1)).save(any(AuditEvent.class));
+        verify(chainAppender, times(1)).append(eq(TenantContext.DEFAULT_TENANT), same(result));
+        verify(auditEventRepository, never()).findLatestEvent(any(Pageable.class));
+        verify(auditEventRepository, never()).save(any(AuditEvent.class));
     }
     
     @Test
-    void testLogAuditEvent_WithHashChaining() throws Exception {
+    void testLogAuditEvent_QueuedOnTenantChain() {
         // Given
-        AuditEvent previousEvent = AuditEvent.builder()
-                .actor("previous@example.com")
-                .actorId(UUID.randomUUID())
-                .action("PREVIOUS_ACTION")
-                .build();
-        previousEvent.setHash("previous-hash-123");
-        
-        // Override the default stubbing for this test
-        reset(auditEventRepository);
-        reset(objectMapper);
-        when(auditEventRepository.findLatestEvent(any(Pageable.class)))
-                .thenReturn(List.of(previousEvent));
-        
+        UUID companyId = UUID.randomUUID();
+        String tenant = "company_" + companyId.toString().replace("-", "_");
+        TenantContext.setCurrentTenant(tenant);
         ArgumentCaptor<AuditEvent> eventCaptor = ArgumentCaptor.forClass(AuditEvent.class);
-        when(auditEventRepository.save(eventCaptor.capture())).thenAnswer(i -> i.getArguments()[0]);
         
         // When
         auditService.log("test@example.com", UUID.randomUUID(), "TEST_ACTION", "Test", "1", null);
         
         // Then
-        AuditEvent savedEvent = eventCaptor.getValue();
-        assertNotNull(savedEvent.getHash());
-        assertEquals("previous-hash-123", savedEvent.getPrevHash());
+        verify(chainAppender).append(eq(tenant), eventCaptor.capture());
+        assertEquals(companyId, eventCaptor.getValue().getTenantId());
+        assertEquals(0, eventCaptor.getValue().getEventAt().getNano() % 1_000_000);
     }
     
     @Test
     void testLogAuditEvent_WithNullDetails() {
-        // Given
-        when(auditEventRepository.save(any(AuditEvent.class))).thenAnswer(i -> i.getArguments()[0]);
-        
         // When
         AuditEvent result = auditService.log("actor", UUID.randomUUID(), "action", "entity", "id", null);
         
@@ -110,6 +137,57 @@ class AuditServiceTest {
         assertNull(result.getDetailsJson());
     }
     
+    @Test
+    void testVerifyChain_IntactChainAcrossBlocks() {
+        // Given
+        List<AuditBlock> blocks = new ArrayList<>();
+        List<AuditEvent> events = chain(blocks, 3, 1, 2);
+        when(auditEventRepository.findChainPage(eq(0L), eq(Long.MAX_VALUE), any(Pageable.class))).thenReturn(events);
+        when(auditBlockRepository.findOverlappingAfter(anyLong(), eq(1L), eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(blocks, List.of());
+        
+        // When
+        AuditService.ChainVerification result = auditService.verifyChain(1, Long.MAX_VALUE);
+        
+        // Then
+        assertTrue(result.isValid(), result.getReason());
+        assertEquals(6, result.getEventsChecked());
+        assertEquals(3, result.getBlocksChecked());
+        assertEquals(6L, result.getLastSeq());
+    }
+    
+    @Test
+    void testVerifyChain_DetectsTamperedEvent() {
+        // Given
+        List<AuditBlock> blocks = new ArrayList<>();
+        List<AuditEvent> events = chain(blocks, 2, 2);
+        events.get(2).setAction("REWRITTEN");
+        when(auditEventRepository.findChainPage(eq(0L), eq(Long.MAX_VALUE), any(Pageable.class))).thenReturn(events);
+        
+        // When
+        AuditService.ChainVerification result = auditService.verifyChain(1, Long.MAX_VALUE);
+        
+        // Then
+        assertFalse(result.isValid());
+        assertEquals(3L, result.getBrokenAtSeq());
+    }
+    
+    @Test
+    void testVerifyChain_DetectsMissingEvent() {
+        // Given
+        List<AuditBlock> blocks = new ArrayList<>();
+        List<AuditEvent> events = chain(blocks, 4);
+        events.remove(1);
+        when(auditEventRepository.findChainPage(eq(0L), eq(Long.MAX_VALUE), any(Pageable.class))).thenReturn(events);
+        
+        // When
+        AuditService.ChainVerification result = auditService.verifyChain(1, Long.MAX_VALUE);
+        
+        // Then
+        assertFalse(result.isValid());
+        assertEquals(2L, result.getBrokenAtSeq());
+    }
+    
     @Test
     void testFindByTenant() {
         // Given
@@ -4,6 +4,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -179,4 +182,29 @@ class CSVServiceCaseInsensitiveTest {
         assertTrue(result, "Validation should succeed with various field name cases");
         assertTrue(errors.isEmpty(), "Should have no validation errors");
     }
+
+    @Test
+    @DisplayName("Should stream rows with mixed case headers resolved once")
+    void testReadImportCSVWithMixedCaseHeaders() throws IOException {
+        String csv = "Name,UnitType,Category,defaultPrice\n\"Tea, green\",box,Drinks,3.50\n\nMilk,l,Dairy,\n";
+        List<String> rows = new ArrayList<>();
+
+        int count = csvService.readImportCSV(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+            row -> rows.add(row.getNumber() + ":" + row.getName() + "|" + row.getUnitType() + "|" + row.getDefaultPrice()
+                + "|" + row.getDescription()));
+
+        assertEquals(2, count);
+        assertEquals(List.of("1:Tea, green|box|3.50|null", "2:Milk|l||null"), rows);
+    }
+
+    @Test
+    @DisplayName("Should reject missing headers or an empty file when validating up front")
+    void testValidateImportCSVRejectsBadHeaders() throws IOException {
+        csvService.validateImportCSV(new ByteArrayInputStream("name,unitType\nTea,box\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertThrows(IllegalArgumentException.class, () -> csvService.validateImportCSV(
+            new ByteArrayInputStream("name,category\nTea,Drinks\n".getBytes(StandardCharsets.UTF_8))));
+        assertThrows(IllegalArgumentException.class, () -> csvService.validateImportCSV(
+            new ByteArrayInputStream(new byte[0])));
+    }
 }
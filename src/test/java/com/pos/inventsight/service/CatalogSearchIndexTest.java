@@ -0,0 +1,138 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.repository.sql.PredefinedItemRepository;
+import com.pos.inventsight.repository.sql.ProductRepository;
+import com.pos.inventsight.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the in-memory catalog search index
+ */
+@ExtendWith(MockitoExtension.class)
+public class CatalogSearchIndexTest {
+
+    private static final String TENANT = TenantContext.DEFAULT_TENANT;
+    private static final UUID COMPANY = UUID.randomUUID();
+    private static final UUID OTHER_COMPANY = UUID.randomUUID();
+    private static final UUID STORE = UUID.randomUUID();
+
+    private final UUID chocolateId = UUID.randomUUID();
+    private final UUID chocolateMilkId = UUID.randomUUID();
+    private final UUID otherCompanyId = UUID.randomUUID();
+    private final UUID itemId = UUID.randomUUID();
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PredefinedItemRepository predefinedItemRepository;
+
+    @InjectMocks
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @AfterEach
+    public void tearDown() {
+        catalogSearchIndex.shutdown();
+    }
+
+    private void buildIndex() throws InterruptedException {
+        when(productRepository.findSearchIndexRows()).thenReturn(List.<Object[]>of(
+            new Object[] { chocolateId, "Chocolate Bar", "10000000001", "Snacks", COMPANY, null, STORE, null },
+            new Object[] { chocolateMilkId, "Milk Chocolate", "10000000002", "Snacks", null, COMPANY, STORE, null },
+            new Object[] { otherCompanyId, "Chocolate Bar", "10000000003", "Snacks", OTHER_COMPANY, null, UUID.randomUUID(), null }));
+        when(predefinedItemRepository.findSearchIndexRows()).thenReturn(List.<Object[]>of(
+            new Object[] { itemId, "Chocolate Cake", "20000000001", "Bakery", COMPANY }));
+
+        // Cold tenants return null so callers use SQL, and start a background build
+        assertNull(catalogSearchIndex.search(TENANT, CatalogSearchIndex.Kind.PRODUCT, "choc", Set.of(COMPANY), null, 10));
+        for (int i = 0; i < 100 && !catalogSearchIndex.isReady(TENANT); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(catalogSearchIndex.isReady(TENANT));
+    }
+
+    private List<UUID> ids(List<CatalogSearchIndex.Document> documents) {
+        return documents.stream().map(CatalogSearchIndex.Document::getId).toList();
+    }
+
+    @Test
+    public void testSearch_RanksPrefixAboveSubstringAndScopesToCompany() throws InterruptedException {
+        buildIndex();
+
+        List<CatalogSearchIndex.Document> hits = catalogSearchIndex.search(
+            TENANT, CatalogSearchIndex.Kind.PRODUCT, "choco", Set.of(COMPANY), null, 10);
+
+        assertEquals(List.of(chocolateId, chocolateMilkId), ids(hits));
+        assertEquals(COMPANY, hits.get(1).getCompanyId());
+    }
+
+    @Test
+    public void testSearch_ToleratesTyposAndMatchesExactSku() throws InterruptedException {
+        buildIndex();
+
+        assertEquals(List.of(chocolateId), ids(catalogSearchIndex.search(
+            TENANT, CatalogSearchIndex.Kind.PRODUCT, "chocolte bar", Set.of(COMPANY), STORE, 10)));
+        assertEquals(chocolateMilkId, catalogSearchIndex.search(
+            TENANT, CatalogSearchIndex.Kind.PRODUCT, "10000000002", null, null, 10).get(0).getId());
+        assertEquals(List.of(itemId), ids(catalogSearchIndex.search(
+            TENANT, CatalogSearchIndex.Kind.PREDEFINED_ITEM, "choclate", Set.of(COMPANY), null, 10)));
+        assertTrue(catalogSearchIndex.search(
+            TENANT, CatalogSearchIndex.Kind.PRODUCT, "espresso", null, null, 10).isEmpty());
+    }
+
+    @Test
+    public void testIndexUpdate_AppliesUpsertsAndRemovals() throws InterruptedException {
+        buildIndex();
+        UUID espressoId = UUID.randomUUID();
+
+        catalogSearchIndex.onIndexUpdate(CatalogSearchIndex.update(TENANT, new CatalogSearchIndex.Document(
+            espressoId, CatalogSearchIndex.Kind.PRODUCT, "Espresso Beans", null, "Coffee", COMPANY, STORE), true));
+        catalogSearchIndex.onIndexUpdate(CatalogSearchIndex.update(TENANT, new CatalogSearchIndex.Document(
+            chocolateMilkId, CatalogSearchIndex.Kind.PRODUCT, "Milk Chocolate", null, null, COMPANY, STORE), false));
+
+        assertEquals(List.of(espressoId), ids(catalogSearchIndex.search(
+            TENANT, CatalogSearchIndex.Kind.PRODUCT, "espreso", Set.of(COMPANY), null, 10)));
+        assertEquals(List.of(chocolateId), ids(catalogSearchIndex.search(
+            TENANT, CatalogSearchIndex.Kind.PRODUCT, "chocolate", Set.of(COMPANY), null, 10)));
+    }
+
+    @Test
+    public void testIndexUpdate_KeepsCompanyWhenChangeCannotReadIt() throws InterruptedException {
+        buildIndex();
+        UUID teaId = UUID.randomUUID();
+        UUID unknownStoreProductId = UUID.randomUUID();
+
+        // Renamed product and new product whose store was an unloaded proxy
+        catalogSearchIndex.onIndexUpdate(CatalogSearchIndex.update(TENANT, new CatalogSearchIndex.Document(
+            chocolateMilkId, CatalogSearchIndex.Kind.PRODUCT, "Milk Chocolate Bar", null, null, null, STORE), true));
+        catalogSearchIndex.onIndexUpdate(CatalogSearchIndex.update(TENANT, new CatalogSearchIndex.Document(
+            teaId, CatalogSearchIndex.Kind.PRODUCT, "Chocolate Tea", null, null, null, STORE), true));
+        catalogSearchIndex.onIndexUpdate(CatalogSearchIndex.update(TENANT, new CatalogSearchIndex.Document(
+            unknownStoreProductId, CatalogSearchIndex.Kind.PRODUCT, "Chocolate Tea", null, null, null, UUID.randomUUID()), true));
+
+        List<CatalogSearchIndex.Document> hits = catalogSearchIndex.search(
+            TENANT, CatalogSearchIndex.Kind.PRODUCT, "chocolate", Set.of(COMPANY), null, 10);
+        assertTrue(ids(hits).containsAll(List.of(chocolateId, chocolateMilkId, teaId)));
+        assertFalse(ids(hits).contains(unknownStoreProductId));
+        assertEquals(chocolateMilkId, catalogSearchIndex.search(
+            TENANT, CatalogSearchIndex.Kind.PRODUCT, "milk chocolate bar", Set.of(COMPANY), null, 10).get(0).getId());
+    }
+
+    @Test
+    public void testNormalizeAndTrigrams() {
+        assertEquals("creme brulee 250g", CatalogSearchIndex.normalize("  Crème-Brûlée (250g) "));
+        assertEquals(Set.of("  a", " ab", "ab "), CatalogSearchIndex.trigrams("ab"));
+    }
+}
@@ -37,6 +37,9 @@ public class CompanyServiceSubscriptionTest {
     @Mock
     private Authentication authentication;
     
+    @Mock
+    private PrincipalCache principalCache;
+    
     @InjectMocks
     private CompanyService companyService;
     
@@ -39,6 +39,9 @@ public class CompanyServiceTest {
     @Mock
     private Authentication authentication;
     
+    @Mock
+    private PrincipalCache principalCache;
+    
     @InjectMocks
     private CompanyService companyService;
     
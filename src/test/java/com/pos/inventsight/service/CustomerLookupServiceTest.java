@@ -0,0 +1,146 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.dto.CustomerResponse;
+import com.pos.inventsight.model.sql.Company;
+import com.pos.inventsight.model.sql.Customer;
+import com.pos.inventsight.model.sql.User;
+import com.pos.inventsight.repository.sql.CustomerRepository;
+import com.pos.inventsight.util.ContactNormalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for checkout customer lookup by normalized phone and email
+ */
+@ExtendWith(MockitoExtension.class)
+public class CustomerLookupServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @InjectMocks
+    private CustomerLookupService customerLookupService;
+
+    private final Pageable pageable = PageRequest.of(0, 20);
+    private Company company;
+    private Customer customer;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(customerLookupService, "phoneRegion", "US");
+
+        company = new Company();
+        company.setId(UUID.randomUUID());
+        User user = new User();
+        user.setUsername("cashier");
+        customer = new Customer("Jane Roe", company, user, Customer.CustomerType.REGISTERED);
+        customer.setId(UUID.randomUUID());
+        customer.setPhoneNumber("(650) 253-0000");
+        customer.setPhoneNormalized("+16502530000");
+    }
+
+    @Test
+    public void testExactPhone_MatchesAnyFormatAndRemembersRepeatShopper() {
+        when(customerRepository.findByCompanyAndPhoneNormalizedAndIsActiveTrue(company, "+16502530000"))
+            .thenReturn(List.of(customer));
+        when(customerRepository.findByIdAndCompanyAndIsActiveTrue(customer.getId(), company))
+            .thenReturn(Optional.of(customer));
+
+        Page<CustomerResponse> first = customerLookupService.search(company, null, "650-253-0000", pageable);
+        Page<CustomerResponse> repeat = customerLookupService.search(company, null, "+1 650 253 0000", pageable);
+
+        assertEquals(1, first.getTotalElements());
+        assertEquals(customer.getId(), repeat.getContent().get(0).getId());
+        verify(customerRepository, times(1)).findByCompanyAndPhoneNormalizedAndIsActiveTrue(any(), any());
+        verify(customerRepository, never()).searchCustomers(any(), any(), any());
+    }
+
+    @Test
+    public void testEvict_ForgetsRememberedCustomer() {
+        when(customerRepository.findByCompanyAndEmailNormalizedAndIsActiveTrue(company, "jane@example.com"))
+            .thenReturn(List.of(customer));
+
+        customerLookupService.search(company, null, "jane@example.com", pageable);
+        customerLookupService.evict(customer.getId());
+        customerLookupService.search(company, null, " Jane@Example.COM ", pageable);
+
+        verify(customerRepository, times(2)).findByCompanyAndEmailNormalizedAndIsActiveTrue(company, "jane@example.com");
+        verify(customerRepository, never()).findByIdAndCompanyAndIsActiveTrue(any(), any());
+    }
+
+    @Test
+    public void testRememberedCustomer_IgnoredOnceTheirPhoneChanged() {
+        when(customerRepository.findByCompanyAndPhoneNormalizedAndIsActiveTrue(company, "+16502530000"))
+            .thenReturn(List.of(customer));
+        when(customerRepository.findByIdAndCompanyAndIsActiveTrue(customer.getId(), company))
+            .thenReturn(Optional.of(customer));
+
+        customerLookupService.search(company, null, "650-253-0000", pageable);
+        customer.setPhoneNormalized("+16502531111");
+        when(customerRepository.findByCompanyAndPhoneNormalizedAndIsActiveTrue(company, "+16502530000"))
+            .thenReturn(List.of());
+        when(customerRepository.searchCustomersByPrefix(eq(company), any(), any(), eq(pageable)))
+            .thenReturn(Page.empty(pageable));
+        when(customerRepository.searchCustomers(eq(company), any(), eq(pageable)))
+            .thenReturn(Page.empty(pageable));
+
+        Page<CustomerResponse> stale = customerLookupService.search(company, null, "650-253-0000", pageable);
+        customerLookupService.search(company, null, "650-253-0000", pageable);
+
+        assertEquals(0, stale.getTotalElements());
+        // The stale entry is dropped, so the third search goes straight to the phone query
+        verify(customerRepository, times(1)).findByIdAndCompanyAndIsActiveTrue(customer.getId(), company);
+        verify(customerRepository, times(3)).findByCompanyAndPhoneNormalizedAndIsActiveTrue(company, "+16502530000");
+    }
+
+    @Test
+    public void testPartialInput_UsesPrefixSearch() {
+        when(customerRepository.searchCustomersByPrefix(eq(company), any(), any(), eq(pageable)))
+            .thenReturn(new PageImpl<>(List.of(customer), pageable, 1));
+
+        assertEquals(1, customerLookupService.search(company, null, "650 25", pageable).getTotalElements());
+        assertEquals(1, customerLookupService.search(company, null, "ja_", pageable).getTotalElements());
+
+        verify(customerRepository).searchCustomersByPrefix(company, "+165025%", "650 25%", pageable);
+        verify(customerRepository).searchCustomersByPrefix(company, null, "ja\\_%", pageable);
+        verify(customerRepository, never()).searchCustomers(any(), any(), any());
+    }
+
+    @Test
+    public void testNoPrefixMatch_FallsBackToSubstringSearch() {
+        when(customerRepository.searchCustomersByPrefix(company, null, "roe%", pageable))
+            .thenReturn(Page.empty(pageable));
+        when(customerRepository.searchCustomers(company, "roe", pageable))
+            .thenReturn(new PageImpl<>(List.of(customer), pageable, 1));
+
+        Page<CustomerResponse> result = customerLookupService.search(company, null, "roe", pageable);
+
+        assertEquals("Jane Roe", result.getContent().get(0).getName());
+    }
+
+    @Test
+    public void testContactNormalizer() {
+        assertEquals("+16502530000", ContactNormalizer.normalizePhone("650.253.0000", "US"));
+        assertNull(ContactNormalizer.normalizePhone("12", "US"));
+        assertEquals("+95912", ContactNormalizer.phonePrefix("09 12", "MM"));
+        assertNull(ContactNormalizer.phonePrefix("john", "US"));
+        assertEquals("a@b.com", ContactNormalizer.normalizeEmail(" A@B.com "));
+    }
+}
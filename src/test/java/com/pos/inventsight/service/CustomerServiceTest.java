@@ -47,6 +47,9 @@ class CustomerServiceTest {
     @Mock
     private UserService userService;
     
+    @Mock
+    private CustomerLookupService customerLookupService;
+    
     @Mock
     private Authentication authentication;
     
@@ -291,9 +294,9 @@ class CustomerServiceTest {
     @DisplayName("Should search customers")
     void shouldSearchCustomers() {
         Pageable pageable = PageRequest.of(0, 20);
-        Page<Customer> customerPage = new PageImpl<>(Arrays.asList(testCustomer));
+        Page<CustomerResponse> customerPage = new PageImpl<>(Arrays.asList(new CustomerResponse(testCustomer)));
         
-        when(customerRepository.searchCustomers(testCompany, "John", pageable))
+        when(customerLookupService.search(testCompany, null, "John", pageable))
             .thenReturn(customerPage);
         
         Page<CustomerResponse> result = customerService.searchCustomers("John", pageable, authentication);
@@ -301,6 +304,6 @@ class CustomerServiceTest {
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
         
-        verify(customerRepository).searchCustomers(testCompany, "John", pageable);
+        verify(customerLookupService).search(testCompany, null, "John", pageable);
     }
 }
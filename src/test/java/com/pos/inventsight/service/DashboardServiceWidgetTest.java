@@ -6,6 +6,7 @@ import com.pos.inventsight.repository.sql.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -47,6 +48,12 @@ public class DashboardServiceWidgetTest {
     @Mock
     private SaleRepository saleRepository;
     
+    @Mock
+    private SalesRollupService salesRollupService;
+    
+    @Mock
+    private DashboardSnapshotCache snapshotCache;
+    
     @InjectMocks
     private DashboardService dashboardService;
     
@@ -55,6 +62,19 @@ public class DashboardServiceWidgetTest {
         // Common setup can be done here
     }
     
+    @Test
+    void testRefreshDashboardSummary_InvalidatesAndBuildsCompanyWideWithoutStore() {
+        DashboardSummaryResponse cached = new DashboardSummaryResponse();
+        when(snapshotCache.getOrBuild(eq("public"), isNull(), any())).thenReturn(cached);
+        
+        DashboardSummaryResponse result = dashboardService.refreshDashboardSummary(null);
+        
+        assertSame(cached, result);
+        InOrder order = inOrder(snapshotCache);
+        order.verify(snapshotCache).invalidateTenant("public");
+        order.verify(snapshotCache).getOrBuild(eq("public"), isNull(), any());
+    }
+    
     @Test
     void testGetRevenue_ShouldReturnRevenueWithGrowth() {
         // Given
@@ -413,11 +433,16 @@ public class DashboardServiceWidgetTest {
     @Test
     void testGetDailySalesLast7Days_ShouldReturnSevenDaysOfData() {
         // Given
-        BigDecimal revenue = new BigDecimal("1500.00");
-        long orderCount = 25L;
+        LocalDate today = LocalDate.now();
+        Map<LocalDate, SalesRollupService.Totals> daily = new LinkedHashMap<>();
+        for (LocalDate date = today.minusDays(6); !date.isAfter(today); date = date.plusDays(1)) {
+            daily.put(date, new SalesRollupService.Totals(0L, BigDecimal.ZERO));
+        }
+        daily.put(today.minusDays(2), new SalesRollupService.Totals(25L, new BigDecimal("1500.00")));
+        daily.put(today, new SalesRollupService.Totals(3L, new BigDecimal("90.00")));
         
-        when(saleRepository.getTotalRevenueByDateRange(any(), any())).thenReturn(revenue);
-        when(saleRepository.getSalesCountByDateRange(any(), any())).thenReturn(orderCount);
+        when(salesRollupService.getDailyTotals(today.minusDays(6), today, List.of(SaleStatus.COMPLETED)))
+            .thenReturn(daily);
         
         // When
         List<DailySales> result = dashboardService.getDailySalesLast7Days();
@@ -425,17 +450,20 @@ public class DashboardServiceWidgetTest {
         // Then
         assertNotNull(result);
         assertEquals(7, result.size());
-        
-        // Check that each day has data
-        for (DailySales day : result) {
-            assertNotNull(day.getDate());
-            assertEquals(revenue, day.getRevenue());
-            assertEquals(orderCount, day.getOrderCount());
-        }
-        
-        // Verify repository was called 7 times for each metric
-        verify(saleRepository, times(7)).getTotalRevenueByDateRange(any(), any());
-        verify(saleRepository, times(7)).getSalesCountByDateRange(any(), any());
+        assertEquals(today.minusDays(6), result.get(0).getDate());
+        assertEquals(today, result.get(6).getDate());
+        
+        // Days with sales carry their totals, the rest are zero-filled
+        assertEquals(new BigDecimal("1500.00"), result.get(4).getRevenue());
+        assertEquals(25L, result.get(4).getOrderCount());
+        assertEquals(new BigDecimal("90.00"), result.get(6).getRevenue());
+        assertEquals(BigDecimal.ZERO, result.get(0).getRevenue());
+        assertEquals(0L, result.get(0).getOrderCount());
+        
+        // Verify all seven days come from one rollup read
+        verify(salesRollupService, times(1)).getDailyTotals(any(), any(), any());
+        verify(saleRepository, never()).getTotalRevenueByDateRange(any(), any());
+        verify(saleRepository, never()).getSalesCountByDateRange(any(), any());
     }
     
     @Test
@@ -444,9 +472,7 @@ public class DashboardServiceWidgetTest {
         BigDecimal currentRevenue = new BigDecimal("15000.00");
         BigDecimal previousRevenue = new BigDecimal("12000.00");
         
-        when(saleRepository.getTotalRevenueByDateRange(any(), any()))
-            .thenReturn(currentRevenue)
-            .thenReturn(previousRevenue);
+        stubMonthTotals(previousRevenue, 0L, currentRevenue, 0L);
         
         // When
         BigDecimal result = dashboardService.calculateRevenueGrowth();
@@ -456,7 +482,7 @@ public class DashboardServiceWidgetTest {
         assertTrue(result.compareTo(BigDecimal.ZERO) > 0);
         assertEquals(new BigDecimal("25.0"), result);
         
-        verify(saleRepository, times(2)).getTotalRevenueByDateRange(any(), any());
+        verify(salesRollupService, times(2)).getTotals(any(), any(), any());
     }
     
     @Test
@@ -465,9 +491,7 @@ public class DashboardServiceWidgetTest {
         BigDecimal currentRevenue = new BigDecimal("15000.00");
         BigDecimal previousRevenue = BigDecimal.ZERO;
         
-        when(saleRepository.getTotalRevenueByDateRange(any(), any()))
-            .thenReturn(currentRevenue)
-            .thenReturn(previousRevenue);
+        stubMonthTotals(previousRevenue, 0L, currentRevenue, 0L);
         
         // When
         BigDecimal result = dashboardService.calculateRevenueGrowth();
@@ -483,9 +507,7 @@ public class DashboardServiceWidgetTest {
         long currentOrders = 150L;
         long previousOrders = 120L;
         
-        when(saleRepository.getSalesCountByDateRange(any(), any()))
-            .thenReturn(currentOrders)
-            .thenReturn(previousOrders);
+        stubMonthTotals(BigDecimal.ZERO, previousOrders, BigDecimal.ZERO, currentOrders);
         
         // When
         BigDecimal result = dashboardService.calculateOrderGrowth();
@@ -495,7 +517,7 @@ public class DashboardServiceWidgetTest {
         assertTrue(result.compareTo(BigDecimal.ZERO) > 0);
         assertEquals(new BigDecimal("25.0"), result);
         
-        verify(saleRepository, times(2)).getSalesCountByDateRange(any(), any());
+        verify(salesRollupService, times(2)).getTotals(any(), any(), any());
     }
     
     @Test
@@ -504,9 +526,7 @@ public class DashboardServiceWidgetTest {
         long currentOrders = 150L;
         long previousOrders = 0L;
         
-        when(saleRepository.getSalesCountByDateRange(any(), any()))
-            .thenReturn(currentOrders)
-            .thenReturn(previousOrders);
+        stubMonthTotals(BigDecimal.ZERO, previousOrders, BigDecimal.ZERO, currentOrders);
         
         // When
         BigDecimal result = dashboardService.calculateOrderGrowth();
@@ -518,6 +538,15 @@ public class DashboardServiceWidgetTest {
     
     // Helper methods
     
+    private void stubMonthTotals(BigDecimal previousRevenue, long previousOrders,
+                                 BigDecimal currentRevenue, long currentOrders) {
+        LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
+        when(salesRollupService.getTotals(eq(startOfMonth.minusMonths(1)), any(), any()))
+            .thenReturn(new SalesRollupService.Totals(previousOrders, previousRevenue));
+        when(salesRollupService.getTotals(eq(startOfMonth), any(), any()))
+            .thenReturn(new SalesRollupService.Totals(currentOrders, currentRevenue));
+    }
+    
     private Product createMockProduct(String name, String sku, int quantity, int threshold) {
         Product product = new Product();
         product.setId(UUID.randomUUID());
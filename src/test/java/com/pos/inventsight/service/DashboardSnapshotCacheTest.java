@@ -0,0 +1,118 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.dto.DashboardSummaryResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for per-tenant dashboard summary snapshots
+ */
+public class DashboardSnapshotCacheTest {
+
+    private DashboardSnapshotCache cache;
+    private AtomicInteger builds;
+    private UUID storeId;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new DashboardSnapshotCache();
+        builds = new AtomicInteger();
+        storeId = UUID.randomUUID();
+    }
+
+    private DashboardSummaryResponse build() {
+        builds.incrementAndGet();
+        DashboardSummaryResponse summary = new DashboardSummaryResponse();
+        summary.setTotalOrders((long) builds.get());
+        summary.setDailySales(new ArrayList<>(List.of(Map.of("orders", 1))));
+        return summary;
+    }
+
+    @Test
+    public void testGetOrBuild_ReusesSnapshotWithinTtl() {
+        DashboardSummaryResponse first = cache.getOrBuild("company_a", storeId, this::build);
+        DashboardSummaryResponse second = cache.getOrBuild("company_a", storeId, this::build);
+
+        assertSame(first, second);
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    public void testGetOrBuild_SeparatesTenantsAndStores() {
+        cache.getOrBuild("company_a", storeId, this::build);
+        cache.getOrBuild("company_a", null, this::build);
+        cache.getOrBuild("company_b", storeId, this::build);
+
+        assertEquals(3, builds.get());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void testSaleDelta_InvalidatesOnlyThatTenant() {
+        cache.getOrBuild("company_a", storeId, this::build);
+        cache.getOrBuild("company_b", storeId, this::build);
+
+        cache.onSaleDelta(new SalesAnalyticsAggregator.SaleDelta(
+            "company_a", UUID.randomUUID(), storeId, LocalDate.now(), 1, 1, BigDecimal.TEN));
+
+        DashboardSummaryResponse rebuilt = cache.getOrBuild("company_a", storeId, this::build);
+        cache.getOrBuild("company_b", storeId, this::build);
+
+        assertEquals(3, builds.get());
+        assertEquals(3L, rebuilt.getTotalOrders());
+    }
+
+    @Test
+    public void testGetOrBuild_BuildOverlappingInvalidationIsNotServed() {
+        cache.getOrBuild("company_a", storeId, () -> {
+            DashboardSummaryResponse summary = build();
+            cache.invalidateTenant("company_a");
+            return summary;
+        });
+
+        cache.getOrBuild("company_a", storeId, this::build);
+
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    public void testGetOrBuild_FailedBuildIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.getOrBuild("company_a", storeId, () -> {
+            throw new IllegalStateException("database unavailable");
+        }));
+
+        cache.getOrBuild("company_a", storeId, this::build);
+
+        assertEquals(1, builds.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testGetOrBuild_SnapshotCollectionsAreReadOnly() {
+        DashboardSummaryResponse summary = cache.getOrBuild("company_a", storeId, this::build);
+
+        assertThrows(UnsupportedOperationException.class, () -> summary.getDailySales().clear());
+    }
+
+    @Test
+    public void testGetOrBuild_ZeroTtlDisablesCaching() {
+        ReflectionTestUtils.setField(cache, "ttlMs", 0L);
+
+        cache.getOrBuild("company_a", storeId, this::build);
+        cache.getOrBuild("company_a", storeId, this::build);
+
+        assertEquals(2, builds.get());
+        assertEquals(0, cache.size());
+    }
+}
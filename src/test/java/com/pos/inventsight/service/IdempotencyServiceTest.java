@@ -7,13 +7,17 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 /**
@@ -83,8 +87,9 @@ public class IdempotencyServiceTest {
         IdempotencyKey mockKey = new IdempotencyKey();
         mockKey.setIdempotencyKey(key);
         mockKey.setTenantId(tenantId);
+        mockKey.setExpiresAt(LocalDateTime.now().plusHours(1));
         
-        when(idempotencyKeyRepository.findByIdempotencyKeyAndTenantId(key, tenantId))
+        when(idempotencyKeyRepository.findFirstByIdempotencyKeyAndTenantIdOrderByCreatedAtAsc(key, tenantId))
             .thenReturn(Optional.of(mockKey));
         
         Optional<IdempotencyKey> result = idempotencyService.findIdempotencyKey(key, tenantId);
@@ -93,11 +98,27 @@ public class IdempotencyServiceTest {
         assertEquals(key, result.get().getIdempotencyKey());
         assertEquals(tenantId, result.get().getTenantId());
         
-        verify(idempotencyKeyRepository, times(1)).findByIdempotencyKeyAndTenantId(key, tenantId);
+        verify(idempotencyKeyRepository, times(1)).findFirstByIdempotencyKeyAndTenantIdOrderByCreatedAtAsc(key, tenantId);
+        
+        // Second lookup is served from the hot tier
+        idempotencyService.findIdempotencyKey(key, tenantId);
+        verify(idempotencyKeyRepository, times(1)).findFirstByIdempotencyKeyAndTenantIdOrderByCreatedAtAsc(key, tenantId);
     }
     
     @Test
-    void testCleanupExpiredKeys() {
+    void testCleanupExpiredKeysDropsPartitions() {
+        when(idempotencyKeyRepository.maintainPartitions(24, 2)).thenReturn(1);
+        
+        idempotencyService.cleanupExpiredKeys();
+        
+        verify(idempotencyKeyRepository, times(1)).maintainPartitions(24, 2);
+        verify(idempotencyKeyRepository, never()).deleteExpiredKeys(any(LocalDateTime.class));
+    }
+    
+    @Test
+    void testCleanupExpiredKeysFallsBackToDeleteWhenNotPartitioned() {
+        when(idempotencyKeyRepository.maintainPartitions(anyInt(), anyInt()))
+            .thenThrow(new InvalidDataAccessResourceUsageException("function idempotency_keys_maintain does not exist"));
         when(idempotencyKeyRepository.deleteExpiredKeys(any(LocalDateTime.class)))
             .thenReturn(5);
         
@@ -105,4 +126,36 @@ public class IdempotencyServiceTest {
         
         verify(idempotencyKeyRepository, times(1)).deleteExpiredKeys(any(LocalDateTime.class));
     }
+    
+    @Test
+    void testConcurrentDuplicateWaitsForOwnerResult() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        String key = "test-key-123";
+        IdempotencyKey stored = new IdempotencyKey();
+        stored.setResponseStatus(201);
+        
+        IdempotencyService.Execution owner = idempotencyService.beginExecution(key, tenantId);
+        IdempotencyService.Execution duplicate = idempotencyService.beginExecution(key, tenantId);
+        assertTrue(owner.isOwner());
+        assertFalse(duplicate.isOwner());
+        
+        CompletableFuture<Optional<IdempotencyKey>> waited =
+            CompletableFuture.supplyAsync(() -> idempotencyService.awaitExecution(duplicate));
+        idempotencyService.completeExecution(owner, stored);
+        
+        assertSame(stored, waited.get(5, TimeUnit.SECONDS).orElseThrow());
+        // The key is free again once the owner has finished
+        assertTrue(idempotencyService.beginExecution(key, tenantId).isOwner());
+    }
+    
+    @Test
+    void testConcurrentDuplicateGetsEmptyResultWhenOwnerFails() {
+        UUID tenantId = UUID.randomUUID();
+        IdempotencyService.Execution owner = idempotencyService.beginExecution("k", tenantId);
+        IdempotencyService.Execution duplicate = idempotencyService.beginExecution("k", tenantId);
+        
+        idempotencyService.completeExecution(owner, null);
+        
+        assertTrue(idempotencyService.awaitExecution(duplicate).isEmpty());
+    }
 }
@@ -0,0 +1,179 @@
+package com.pos.inventsight.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for content-addressed uploads and variant scheduling.
+ * Variant tasks are captured instead of run, so no encoding happens.
+ */
+public class ImageServiceTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private ImageService imageService;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        imageService = new ImageService();
+        ReflectionTestUtils.setField(imageService, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(imageService, "maxFileSizeStr", "5MB");
+        ReflectionTestUtils.setField(imageService, "executor", new CapturingExecutor());
+    }
+
+    private MockMultipartFile image(byte[] content) {
+        return new MockMultipartFile("image", "photo.png", "image/png", content);
+    }
+
+    /**
+     * A small PNG whose bytes differ per seed
+     */
+    private static byte[] png(int seed) throws IOException {
+        BufferedImage image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, seed);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    @Test
+    public void testUpload_NamesByContentHashAndQueuesVariants() throws Exception {
+        byte[] content = png(1);
+        ImageService.ImageUpload upload = imageService.uploadImage(image(content));
+
+        String hash = sha256(content);
+        assertEquals("/uploads/images/" + hash + ".webp", upload.getUrl());
+        assertEquals("/uploads/images/" + hash + "-thumb.webp", upload.getVariants().get("thumb"));
+        assertTrue(upload.isProcessing());
+        assertTrue(Files.exists(uploadDir.resolve("originals").resolve(hash)));
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    public void testUpload_IdenticalContentIsProcessedOnce() throws Exception {
+        ImageService.ImageUpload first = imageService.uploadImage(image(png(4)));
+        ImageService.ImageUpload second = imageService.uploadImage(image(png(4)));
+
+        assertEquals(first.getUrl(), second.getUrl());
+        assertEquals(1, tasks.size());
+        try (var files = Files.list(uploadDir.resolve("originals"))) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void testUpload_ReusesExistingVariants() throws Exception {
+        ImageService.ImageUpload first = imageService.uploadImage(image(png(7)));
+        tasks.clear();
+        for (String url : first.getVariants().values()) {
+            Files.createFile(uploadDir.resolve(url.substring(url.lastIndexOf('/') + 1)));
+        }
+
+        ImageService.ImageUpload second = imageService.uploadImage(image(png(7)));
+
+        assertFalse(second.isProcessing());
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void testUpload_RejectsNonImage() {
+        MockMultipartFile file = new MockMultipartFile("image", "notes.txt", "text/plain", new byte[] {1});
+
+        assertThrows(IllegalArgumentException.class, () -> imageService.uploadImage(file));
+    }
+
+    @Test
+    public void testUpload_RejectsUndecodableContentWithImageType() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> imageService.uploadImage(image(new byte[] {1, 2, 3})));
+
+        assertTrue(tasks.isEmpty());
+        try (var files = Files.list(uploadDir.resolve("originals"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void testVariants_FailureRemovesOriginal() throws Exception {
+        ImageService.ImageUpload upload = imageService.uploadImage(image(png(9)));
+        String hash = sha256(png(9));
+        Files.write(uploadDir.resolve("originals").resolve(hash), new byte[] {0});
+
+        tasks.get(0).run();
+
+        assertFalse(Files.exists(uploadDir.resolve("originals").resolve(hash)));
+        assertFalse(imageService.isProcessing(upload.getUrl()));
+    }
+
+    @Test
+    public void testDelete_RemovesVariantsAndOriginal() throws Exception {
+        ImageService.ImageUpload upload = imageService.uploadImage(image(png(8)));
+        for (String url : upload.getVariants().values()) {
+            Files.createFile(uploadDir.resolve(url.substring(url.lastIndexOf('/') + 1)));
+        }
+
+        assertTrue(imageService.deleteImage(upload.getUrl()));
+
+        try (var files = Files.list(uploadDir)) {
+            assertEquals(List.of(uploadDir.resolve("originals")), files.toList());
+        }
+        try (var files = Files.list(uploadDir.resolve("originals"))) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private class CapturingExecutor extends AbstractExecutorService {
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.sql.Merchant;
+import com.pos.inventsight.model.sql.Product;
+import com.pos.inventsight.model.sql.ProductAd;
+import com.pos.inventsight.model.sql.TransferRequest;
+import com.pos.inventsight.repository.sql.MerchantRepository;
+import com.pos.inventsight.repository.sql.ProductAdRepository;
+import com.pos.inventsight.repository.sql.ProductRepository;
+import com.pos.inventsight.repository.sql.TransferRequestRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the grouped low stock report
+ */
+@ExtendWith(MockitoExtension.class)
+public class LowStockServiceTest {
+
+    private static final UUID STORE_ID = UUID.randomUUID();
+    private static final UUID COMPANY_ID = UUID.randomUUID();
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private MerchantRepository merchantRepository;
+
+    @Mock
+    private ProductAdRepository productAdRepository;
+
+    @Mock
+    private TransferRequestRepository transferRequestRepository;
+
+    @InjectMocks
+    private LowStockService lowStockService;
+
+    private Product product(String name, String sku) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setName(name);
+        product.setSku(sku);
+        product.setQuantity(1);
+        product.setLowStockThreshold(5);
+        return product;
+    }
+
+    @Test
+    public void testStoreReport_GroupsLookupsAcrossProducts() {
+        Product tea = product("Tea", "SKU-TEA");
+        Product milk = product("Milk", "SKU-MILK");
+        Product greenTea = product("tea", "SKU-GREEN");
+        when(productRepository.findLowStockByStoreIdAfter(eq(STORE_ID), any(UUID.class), any(Pageable.class)))
+            .thenReturn(List.of(tea, milk, greenTea));
+        UUID warehouseId = UUID.randomUUID();
+        List<Object[]> stock = new ArrayList<>();
+        stock.add(new Object[] {"SKU-TEA", warehouseId, "Main", 40});
+        when(productRepository.findWarehouseStockBySkus(eq(COMPANY_ID), anyCollection())).thenReturn(stock);
+        TransferRequest transfer = new TransferRequest();
+        transfer.setProductId(milk.getId());
+        when(transferRequestRepository.findByProductIdInAndCompanyId(anyCollection(), eq(COMPANY_ID)))
+            .thenReturn(List.of(transfer));
+        Merchant merchant = new Merchant();
+        merchant.setName("Wholesale Co");
+        when(merchantRepository.findActiveByCompanyId(COMPANY_ID)).thenReturn(List.of(merchant));
+        ProductAd teaAd = new ProductAd();
+        teaAd.setProductName("Jasmine TEA");
+        ProductAd coffeeAd = new ProductAd();
+        coffeeAd.setProductName("Coffee");
+        when(productAdRepository.findAllActiveAds(any(LocalDateTime.class))).thenReturn(List.of(teaAd, coffeeAd));
+
+        List<Map<String, Object>> items = lowStockService.getLowStockItemsForStore(STORE_ID, COMPANY_ID);
+
+        assertEquals(List.of("Milk", "Tea", "tea"), items.stream().map(item -> item.get("name")).toList());
+        Map<String, Object> teaItem = items.get(1);
+        assertEquals(1, ((List<?>) teaItem.get("warehouseAvailability")).size());
+        assertEquals(0, ((List<?>) teaItem.get("transferRequests")).size());
+        assertEquals(1, ((List<?>) items.get(0).get("transferRequests")).size());
+        assertEquals(1, ((List<?>) items.get(2).get("merchantSuggestions")).size());
+        assertEquals(1, ((List<?>) teaItem.get("marketplaceListings")).size());
+        assertEquals(1, ((List<?>) items.get(2).get("marketplaceListings")).size());
+        assertEquals(0, ((List<?>) items.get(0).get("marketplaceListings")).size());
+
+        verify(productRepository, times(1)).findWarehouseStockBySkus(eq(COMPANY_ID), anyCollection());
+        verify(transferRequestRepository, times(1)).findByProductIdInAndCompanyId(anyCollection(), eq(COMPANY_ID));
+        verify(merchantRepository, times(1)).findActiveByCompanyId(COMPANY_ID);
+        // Active ads are read once and matched by name in memory
+        verify(productAdRepository, times(1)).findAllActiveAds(any(LocalDateTime.class));
+        verify(productAdRepository, never()).searchByProductName(anyString());
+        verify(productRepository, never()).findAllBySku(anyString());
+    }
+
+    @Test
+    public void testStoreReport_PagesUntilShortPage() {
+        ReflectionTestUtils.setField(lowStockService, "pageSize", 2);
+        Product a = product("A", "SKU-A");
+        Product b = product("B", "SKU-B");
+        Product c = product("C", "SKU-C");
+        when(productRepository.findLowStockByStoreIdAfter(eq(STORE_ID), any(UUID.class), any(Pageable.class)))
+            .thenReturn(List.of(a, b))
+            .thenReturn(List.of(c));
+
+        List<Map<String, Object>> items = lowStockService.getLowStockItemsForStore(STORE_ID, COMPANY_ID);
+
+        assertEquals(3, items.size());
+        verify(productRepository).findLowStockByStoreIdAfter(eq(STORE_ID), eq(b.getId()), any(Pageable.class));
+    }
+
+    @Test
+    public void testStorePage_ReturnsCursorWhenMoreRemain() {
+        Product a = product("A", "SKU-A");
+        Product b = product("B", "SKU-B");
+        when(productRepository.findLowStockByStoreIdAfter(eq(STORE_ID), any(UUID.class), any(Pageable.class)))
+            .thenReturn(List.of(a, b));
+
+        LowStockService.LowStockPage page = lowStockService.getLowStockItemsForStore(STORE_ID, COMPANY_ID, null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals(a.getId().toString(), page.getNextCursor());
+    }
+
+    @Test
+    public void testStorePage_RejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+            () -> lowStockService.getLowStockItemsForStore(STORE_ID, COMPANY_ID, "not-a-uuid", 10));
+    }
+}
@@ -0,0 +1,160 @@
+package com.pos.inventsight.service;
+
+import net.sourceforge.tess4j.ITesseract;
+import net.sourceforge.tess4j.TesseractException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the pooled OCR engines, with Tesseract replaced by mocks
+ */
+public class OcrServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private OcrService ocrService;
+
+    private final Set<ITesseract> engines = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    public void setUp() {
+        ocrService = new OcrService();
+        ocrService.engineFactory = () -> {
+            ITesseract engine = mock(ITesseract.class);
+            try {
+                when(engine.doOCR(any(BufferedImage.class))).thenReturn("text");
+            } catch (TesseractException e) {
+                throw new IllegalStateException(e);
+            }
+            engines.add(engine);
+            return engine;
+        };
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ocrService.stop();
+    }
+
+    private BufferedImage blank(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        return image;
+    }
+
+    private File image(int width, int height) throws Exception {
+        File file = tempDir.resolve("scan-" + width + "x" + height + ".png").toFile();
+        ImageIO.write(blank(width, height), "png", file);
+        return file;
+    }
+
+    @Test
+    public void testExtractText_EachWorkerUsesItsOwnEngine() throws Exception {
+        ReflectionTestUtils.setField(ocrService, "workers", 2);
+        ocrService.start();
+        File file = image(40, 20);
+
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = callers.invokeAll(List.of(
+                () -> ocrService.extractText(file), () -> ocrService.extractText(file),
+                () -> ocrService.extractText(file), () -> ocrService.extractText(file)));
+            for (Future<String> result : results) {
+                assertEquals("text", result.get());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertTrue(engines.size() >= 1 && engines.size() <= 2);
+    }
+
+    @Test
+    public void testSubmit_RejectsWhenQueueIsFull() throws Exception {
+        ReflectionTestUtils.setField(ocrService, "workers", 1);
+        ReflectionTestUtils.setField(ocrService, "queueCapacity", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        ocrService.engineFactory = () -> {
+            ITesseract engine = mock(ITesseract.class);
+            try {
+                when(engine.doOCR(any(BufferedImage.class))).thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return "slow";
+                });
+            } catch (TesseractException e) {
+                throw new IllegalStateException(e);
+            }
+            return engine;
+        };
+        ocrService.start();
+        File file = image(10, 10);
+
+        OcrService.OcrJob running = ocrService.submit(file, false);
+        // Wait until the worker has taken the first job so the queue slot is free
+        while (running.getStatus() == OcrService.OcrJob.Status.QUEUED) {
+            Thread.sleep(5);
+        }
+        OcrService.OcrJob queued = ocrService.submit(file, false);
+
+        assertThrows(RejectedExecutionException.class, () -> ocrService.submit(file, false));
+
+        release.countDown();
+        while (!queued.isFinished()) {
+            Thread.sleep(5);
+        }
+        assertEquals("slow", queued.getText());
+        assertSame(queued, ocrService.getJob(queued.getId()));
+    }
+
+    @Test
+    public void testSubmit_DeletesImageAfterProcessing() throws Exception {
+        ocrService.start();
+        File file = image(10, 10);
+
+        OcrService.OcrJob job = ocrService.submit(file, true);
+        while (!job.isFinished()) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(OcrService.OcrJob.Status.COMPLETED, job.getStatus());
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testPreprocess_DownscalesToMaxDimensionInGrayscale() {
+        ReflectionTestUtils.setField(ocrService, "maxDimension", 100);
+
+        BufferedImage result = ocrService.preprocess(blank(400, 200));
+
+        assertEquals(100, result.getWidth());
+        assertEquals(50, result.getHeight());
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, result.getType());
+    }
+}
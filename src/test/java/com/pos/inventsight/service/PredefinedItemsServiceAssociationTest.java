@@ -503,29 +503,9 @@ class PredefinedItemsServiceAssociationTest {
         List<UUID> storeIds = Arrays.asList(store1.getId());
         List<UUID> warehouseIds = Arrays.asList(warehouse1.getId());
         
-        when(predefinedItemRepository.existsByCompanyAndNameAndUnitType(any(), any(), any()))
-            .thenReturn(false);
-        when(skuGenerator.generateUniqueSku(any())).thenReturn("SKU-12345", "SKU-67890");
-        when(predefinedItemRepository.save(any(PredefinedItem.class)))
-            .thenAnswer(invocation -> {
-                PredefinedItem item = invocation.getArgument(0);
-                item.setId(UUID.randomUUID());
-                return item;
-            });
-        when(storeRepository.findByIdWithCompany(store1.getId())).thenReturn(Optional.of(store1));
-        when(warehouseRepository.findByIdWithCompany(warehouse1.getId())).thenReturn(Optional.of(warehouse1));
-        when(predefinedItemStoreRepository.findByPredefinedItemIdAndStoreId(any(), any()))
-            .thenReturn(Optional.empty());
-        when(predefinedItemWarehouseRepository.findByPredefinedItemIdAndWarehouseId(any(), any()))
-            .thenReturn(Optional.empty());
-        when(predefinedItemStoreRepository.save(any(PredefinedItemStore.class)))
-            .thenAnswer(invocation -> invocation.getArgument(0));
-        when(predefinedItemWarehouseRepository.save(any(PredefinedItemWarehouse.class)))
-            .thenAnswer(invocation -> invocation.getArgument(0));
-        when(productRepository.findByPredefinedItemAndStore(any(), any())).thenReturn(Optional.empty());
-        when(productRepository.findByPredefinedItemAndWarehouse(any(), any())).thenReturn(Optional.empty());
-        when(productRepository.save(any(Product.class)))
-            .thenAnswer(invocation -> invocation.getArgument(0));
+        when(skuGenerator.generateUniqueSkus(anyInt(), any())).thenReturn(Arrays.asList("SKU-12345", "SKU-67890"));
+        when(storeRepository.findAllByIdWithCompany(any())).thenReturn(Arrays.asList(store1));
+        when(warehouseRepository.findAllByIdWithCompany(any())).thenReturn(Arrays.asList(warehouse1));
         
         // When
         Map<String, Object> result = predefinedItemsService.bulkCreateItems(
@@ -537,11 +517,15 @@ class PredefinedItemsServiceAssociationTest {
         assertEquals(2, result.get("successful"));
         assertEquals(0, result.get("failed"));
         
-        // Each item should have associations created
+        // Each item should have associations created, inserted as one batch per location type
         verify(predefinedItemStoreRepository, never()).deleteByPredefinedItem(any());
-        verify(predefinedItemStoreRepository, times(2)).save(any(PredefinedItemStore.class));
+        verify(predefinedItemStoreRepository).saveAll(argThat(batch -> batch.spliterator().getExactSizeIfKnown() == 2));
         verify(predefinedItemWarehouseRepository, never()).deleteByPredefinedItem(any());
-        verify(predefinedItemWarehouseRepository, times(2)).save(any(PredefinedItemWarehouse.class));
+        verify(predefinedItemWarehouseRepository).saveAll(argThat(batch -> batch.spliterator().getExactSizeIfKnown() == 2));
+        // One product per item and location, without per-location existence checks
+        verify(productRepository, times(2)).saveAll(argThat(batch -> batch.spliterator().getExactSizeIfKnown() == 2));
+        verify(productRepository, never()).findByPredefinedItemAndStore(any(), any());
+        verify(storeRepository, never()).findByIdWithCompany(any());
     }
     
     @Test
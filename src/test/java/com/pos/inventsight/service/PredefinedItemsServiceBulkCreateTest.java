@@ -6,6 +6,7 @@ import com.pos.inventsight.util.SkuGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -15,6 +16,8 @@ import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -89,15 +92,7 @@ class PredefinedItemsServiceBulkCreateTest {
         item2.put("defaultprice", "1.99");
         itemsData.add(item2);
         
-        when(predefinedItemRepository.existsByCompanyAndNameAndUnitType(any(), any(), any()))
-            .thenReturn(false);
-        when(skuGenerator.generateUniqueSku(any())).thenReturn("SKU-12345", "SKU-67890");
-        when(predefinedItemRepository.save(any(PredefinedItem.class)))
-            .thenAnswer(invocation -> {
-                PredefinedItem item = invocation.getArgument(0);
-                item.setId(UUID.randomUUID());
-                return item;
-            });
+        when(skuGenerator.generateUniqueSkus(anyInt(), any())).thenReturn(List.of("SKU-12345", "SKU-67890"));
         
         // When
         Map<String, Object> result = predefinedItemsService.bulkCreateItems(
@@ -111,7 +106,7 @@ class PredefinedItemsServiceBulkCreateTest {
         assertTrue(((List<?>) result.get("errors")).isEmpty());
         assertEquals(2, ((List<?>) result.get("createdItems")).size());
         
-        verify(predefinedItemRepository, times(2)).save(any(PredefinedItem.class));
+        assertEquals(2, savedItems().size());
     }
     
     @Test
@@ -127,15 +122,7 @@ class PredefinedItemsServiceBulkCreateTest {
         itemsData.add(item);
         
         String generatedSku = "AUTO-SKU-123";
-        when(predefinedItemRepository.existsByCompanyAndNameAndUnitType(any(), any(), any()))
-            .thenReturn(false);
-        when(skuGenerator.generateUniqueSku(any())).thenReturn(generatedSku);
-        when(predefinedItemRepository.save(any(PredefinedItem.class)))
-            .thenAnswer(invocation -> {
-                PredefinedItem savedItem = invocation.getArgument(0);
-                savedItem.setId(UUID.randomUUID());
-                return savedItem;
-            });
+        when(skuGenerator.generateUniqueSkus(anyInt(), any())).thenReturn(List.of(generatedSku));
         
         // When
         Map<String, Object> result = predefinedItemsService.bulkCreateItems(
@@ -147,7 +134,7 @@ class PredefinedItemsServiceBulkCreateTest {
         assertEquals(0, result.get("failed"));
         
         // Verify SKU was auto-generated (not using "2.99" from sku field)
-        verify(skuGenerator, times(1)).generateUniqueSku(any());
+        verify(skuGenerator, times(1)).generateUniqueSkus(eq(1), any());
     }
     
     @Test
@@ -357,8 +344,10 @@ class PredefinedItemsServiceBulkCreateTest {
         item.put("defaultprice", "2.99");
         itemsData.add(item);
         
-        when(predefinedItemRepository.existsByCompanyAndNameAndUnitType(company, "Apples", "lb"))
-            .thenReturn(true);
+        List<Object[]> existing = new ArrayList<>();
+        existing.add(new Object[] {"Apples", "lb"});
+        when(predefinedItemRepository.findNameAndUnitTypeByCompanyAndNameIn(eq(company), any()))
+            .thenReturn(existing);
         
         // When
         Map<String, Object> result = predefinedItemsService.bulkCreateItems(
@@ -405,15 +394,7 @@ class PredefinedItemsServiceBulkCreateTest {
         validItem2.put("defaultprice", "1.50");
         itemsData.add(validItem2);
         
-        when(predefinedItemRepository.existsByCompanyAndNameAndUnitType(any(), any(), any()))
-            .thenReturn(false);
-        when(skuGenerator.generateUniqueSku(any())).thenReturn("SKU-1", "SKU-2");
-        when(predefinedItemRepository.save(any(PredefinedItem.class)))
-            .thenAnswer(invocation -> {
-                PredefinedItem item = invocation.getArgument(0);
-                item.setId(UUID.randomUUID());
-                return item;
-            });
+        when(skuGenerator.generateUniqueSkus(anyInt(), any())).thenReturn(List.of("SKU-1", "SKU-2"));
         
         // When
         Map<String, Object> result = predefinedItemsService.bulkCreateItems(
@@ -430,7 +411,7 @@ class PredefinedItemsServiceBulkCreateTest {
         assertTrue(errors.get(0).contains("Row 2"));
         assertTrue(errors.get(0).contains("'defaultprice' is required"));
         
-        verify(predefinedItemRepository, times(2)).save(any(PredefinedItem.class));
+        assertEquals(2, savedItems().size());
     }
     
     @Test
@@ -444,15 +425,7 @@ class PredefinedItemsServiceBulkCreateTest {
         item.put("DefaultPrice", "2.99");  // Mixed case
         itemsData.add(item);
         
-        when(predefinedItemRepository.existsByCompanyAndNameAndUnitType(any(), any(), any()))
-            .thenReturn(false);
-        when(skuGenerator.generateUniqueSku(any())).thenReturn("SKU-12345");
-        when(predefinedItemRepository.save(any(PredefinedItem.class)))
-            .thenAnswer(invocation -> {
-                PredefinedItem savedItem = invocation.getArgument(0);
-                savedItem.setId(UUID.randomUUID());
-                return savedItem;
-            });
+        when(skuGenerator.generateUniqueSkus(anyInt(), any())).thenReturn(List.of("SKU-12345"));
         
         // When
         Map<String, Object> result = predefinedItemsService.bulkCreateItems(
@@ -463,6 +436,45 @@ class PredefinedItemsServiceBulkCreateTest {
         assertEquals(1, result.get("successful"));
         assertEquals(0, result.get("failed"));
         
-        verify(predefinedItemRepository, times(1)).save(any(PredefinedItem.class));
+        assertEquals(1, savedItems().size());
+    }
+    
+    @Test
+    void testBulkCreate_DuplicateWithinBatch_Skipped() {
+        // Given - the same name and unit type twice in one upload
+        List<Map<String, String>> itemsData = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Map<String, String> item = new HashMap<>();
+            item.put("name", "Apples");
+            item.put("category", "food");
+            item.put("unitType", "lb");
+            item.put("defaultprice", "2.99");
+            itemsData.add(item);
+        }
+        
+        when(skuGenerator.generateUniqueSkus(anyInt(), any())).thenReturn(List.of("SKU-1"));
+        
+        // When
+        Map<String, Object> result = predefinedItemsService.bulkCreateItems(
+            itemsData, company, user, null, null
+        );
+        
+        // Then
+        assertEquals(1, result.get("successful"));
+        assertEquals(1, result.get("failed"));
+        List<String> errors = (List<String>) result.get("errors");
+        assertTrue(errors.get(0).startsWith("Row 2: Duplicate item"));
+        // One key lookup for the whole batch instead of one per row
+        verify(predefinedItemRepository, times(1)).findNameAndUnitTypeByCompanyAndNameIn(eq(company), any());
+        verify(predefinedItemRepository, never()).existsByCompanyAndNameAndUnitType(any(), any(), any());
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<PredefinedItem> savedItems() {
+        ArgumentCaptor<Iterable<PredefinedItem>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(predefinedItemRepository, atLeastOnce()).saveAll(captor.capture());
+        List<PredefinedItem> items = new ArrayList<>();
+        captor.getAllValues().forEach(batch -> batch.forEach(items::add));
+        return items;
     }
 }
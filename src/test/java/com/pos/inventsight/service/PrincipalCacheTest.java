@@ -0,0 +1,161 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.sql.Company;
+import com.pos.inventsight.model.sql.CompanyRole;
+import com.pos.inventsight.model.sql.CompanyStoreUser;
+import com.pos.inventsight.model.sql.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the request-chain principal and membership cache
+ */
+public class PrincipalCacheTest {
+
+    private PrincipalCache cache;
+    private User user;
+    private Company company;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new PrincipalCache();
+        loads = new AtomicInteger();
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("alice");
+
+        company = new Company();
+        company.setId(UUID.randomUUID());
+    }
+
+    private CompanyStoreUser membership(Company company, CompanyRole role) {
+        CompanyStoreUser membership = new CompanyStoreUser();
+        membership.setId(UUID.randomUUID());
+        membership.setCompany(company);
+        membership.setUser(user);
+        membership.setRole(role);
+        membership.setIsActive(true);
+        return membership;
+    }
+
+    private UserDetails loadUser() {
+        loads.incrementAndGet();
+        return user;
+    }
+
+    @Test
+    public void testGetPrincipal_LoadsOncePerSubject() {
+        assertSame(user, cache.getPrincipal("alice", this::loadUser));
+        UserDetails cached = cache.getPrincipal("alice", this::loadUser);
+
+        assertEquals(user.getId(), ((User) cached).getId());
+        assertEquals("alice", cached.getUsername());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testGetPrincipal_RequestsDoNotShareMutations() {
+        user.setDefaultTenantId(UUID.randomUUID());
+        UUID loadedTenant = user.getDefaultTenantId();
+        cache.getPrincipal("alice", this::loadUser);
+
+        // Changes made by one request, including to the instance that was loaded
+        user.setDefaultTenantId(UUID.randomUUID());
+        User first = (User) cache.getPrincipal("alice", this::loadUser);
+        first.setDefaultTenantId(UUID.randomUUID());
+        User second = (User) cache.getPrincipal("alice", this::loadUser);
+
+        assertNotSame(first, second);
+        assertEquals(loadedTenant, second.getDefaultTenantId());
+    }
+
+    @Test
+    public void testGetPrincipal_MissingUserIsNotCached() {
+        assertThrows(UsernameNotFoundException.class, () -> cache.getPrincipal("ghost", () -> {
+            loads.incrementAndGet();
+            throw new UsernameNotFoundException("User not found: ghost");
+        }));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidateUser_DropsPrincipalAndMemberships() {
+        cache.getPrincipal("alice", this::loadUser);
+        cache.getMemberships(user, () -> List.of(membership(company, CompanyRole.EMPLOYEE)));
+
+        cache.invalidateUser(user.getId());
+
+        assertEquals(0, cache.size());
+        cache.getPrincipal("alice", this::loadUser);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testCompanyExists_OnlyPositiveAnswersAreCached() {
+        UUID missing = UUID.randomUUID();
+
+        assertFalse(cache.companyExists(missing, () -> { loads.incrementAndGet(); return false; }));
+        assertFalse(cache.companyExists(missing, () -> { loads.incrementAndGet(); return false; }));
+        assertTrue(cache.companyExists(company.getId(), () -> { loads.incrementAndGet(); return true; }));
+        assertTrue(cache.companyExists(company.getId(), () -> { loads.incrementAndGet(); return true; }));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testHasMembership_ServedFromCache() {
+        List<CompanyStoreUser> rows = List.of(membership(company, CompanyRole.EMPLOYEE));
+
+        assertTrue(cache.hasMembership(user, company.getId(), () -> { loads.incrementAndGet(); return rows; }));
+        assertTrue(cache.hasMembership(user, company.getId(), () -> { loads.incrementAndGet(); return rows; }));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testHasMembership_CachedMissIsRecheckedSoNewAccessIsImmediate() {
+        List<CompanyStoreUser> rows = new ArrayList<>();
+        assertFalse(cache.hasMembership(user, company.getId(), () -> rows));
+
+        rows.add(membership(company, CompanyRole.EMPLOYEE));
+
+        assertTrue(cache.hasMembership(user, company.getId(), () -> rows));
+    }
+
+    @Test
+    public void testGetMemberships_SkipsInactiveRows() {
+        CompanyStoreUser inactive = membership(new Company(), CompanyRole.STORE_MANAGER);
+        inactive.setIsActive(false);
+
+        List<PrincipalCache.Membership> memberships =
+            cache.getMemberships(user, () -> List.of(membership(company, CompanyRole.EMPLOYEE), inactive));
+
+        assertEquals(1, memberships.size());
+        assertEquals(company.getId(), memberships.get(0).getCompanyId());
+        assertEquals(CompanyRole.EMPLOYEE, memberships.get(0).getRole());
+    }
+
+    @Test
+    public void testDisabledTtl_AlwaysLoads() {
+        ReflectionTestUtils.setField(cache, "ttlMs", 0L);
+
+        cache.getPrincipal("alice", this::loadUser);
+        cache.getPrincipal("alice", this::loadUser);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+}
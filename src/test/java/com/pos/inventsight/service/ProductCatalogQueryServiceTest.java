@@ -0,0 +1,173 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.sql.Product;
+import com.pos.inventsight.repository.sql.ProductCatalogRepository.CatalogFilter;
+import com.pos.inventsight.repository.sql.ProductCatalogRepository.SortKey;
+import com.pos.inventsight.repository.sql.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the SQL-side product listing and its keyset cursors
+ */
+@ExtendWith(MockitoExtension.class)
+public class ProductCatalogQueryServiceTest {
+
+    private static final Set<UUID> COMPANY_IDS = Set.of(UUID.randomUUID());
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductCatalogQueryService catalogQueryService;
+
+    private Object[] row(String name, Object sortValue) {
+        Object[] row = new Object[23];
+        row[0] = UUID.randomUUID();
+        row[1] = name;
+        row[5] = new BigDecimal("2.50");
+        row[8] = 3;
+        row[17] = true;
+        row[18] = LocalDateTime.now();
+        row[22] = sortValue;
+        return row;
+    }
+
+    @Test
+    public void testFirstPage_PushesFiltersDownAndReturnsCursor() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(row("Apple", "Apple"));
+        rows.add(row("Banana", "Banana"));
+        rows.add(row("Cherry", "Cherry"));
+        when(productRepository.findCatalogPage(any(CatalogFilter.class), eq(0), eq(3))).thenReturn(rows);
+        when(productRepository.countCatalog(any(CatalogFilter.class))).thenReturn(7L);
+
+        ProductCatalogQueryService.CatalogPage page = catalogQueryService.listProducts(
+            COMPANY_IDS, null, " Fruit ", "", "app", "name", "asc", null, 0, 2);
+
+        assertEquals(List.of("Apple", "Banana"), page.getProducts().stream().map(Product::getName).toList());
+        assertTrue(page.isHasMore());
+        assertEquals(7L, page.getTotalItems());
+        assertNotNull(page.getNextCursor());
+
+        ArgumentCaptor<CatalogFilter> filter = ArgumentCaptor.forClass(CatalogFilter.class);
+        verify(productRepository).findCatalogPage(filter.capture(), eq(0), eq(3));
+        assertEquals("Fruit", filter.getValue().getCategory());
+        assertNull(filter.getValue().getSupplier());
+        assertEquals("app", filter.getValue().getSearch());
+        assertFalse(filter.getValue().isSeek());
+    }
+
+    @Test
+    public void testCursorPage_SeeksPastLastRowWithoutCounting() {
+        UUID lastId = UUID.randomUUID();
+        CatalogFilter previous = new CatalogFilter(COMPANY_IDS);
+        previous.setSortKey(SortKey.PRICE);
+        previous.setDescending(true);
+        String cursor = ProductCatalogQueryService.encodeCursor(previous, new BigDecimal("9.99"), lastId);
+        when(productRepository.findCatalogPage(any(CatalogFilter.class), anyInt(), anyInt())).thenReturn(List.of());
+
+        ProductCatalogQueryService.CatalogPage page = catalogQueryService.listProducts(
+            COMPANY_IDS, null, null, null, null, "price", "desc", cursor, 5, 20);
+
+        ArgumentCaptor<CatalogFilter> filter = ArgumentCaptor.forClass(CatalogFilter.class);
+        verify(productRepository).findCatalogPage(filter.capture(), eq(0), eq(21));
+        assertEquals(new BigDecimal("9.99"), filter.getValue().getAfterValue());
+        assertEquals(lastId, filter.getValue().getAfterId());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        assertNull(page.getTotalItems());
+        verify(productRepository, never()).countCatalog(any());
+    }
+
+    @Test
+    public void testCursorPage_LastRowWithoutSortValue() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(row("Apple", null));
+        rows.add(row("Banana", null));
+        when(productRepository.findCatalogPage(any(CatalogFilter.class), eq(0), eq(2))).thenReturn(rows);
+        when(productRepository.countCatalog(any(CatalogFilter.class))).thenReturn(3L);
+
+        ProductCatalogQueryService.CatalogPage first = catalogQueryService.listProducts(
+            COMPANY_IDS, null, null, null, null, "createdAt", "asc", null, 0, 1);
+        catalogQueryService.listProducts(
+            COMPANY_IDS, null, null, null, null, "createdAt", "asc", first.getNextCursor(), 0, 1);
+
+        ArgumentCaptor<CatalogFilter> filter = ArgumentCaptor.forClass(CatalogFilter.class);
+        verify(productRepository, times(2)).findCatalogPage(filter.capture(), eq(0), eq(2));
+        assertTrue(filter.getValue().isSeek());
+        assertEquals(rows.get(0)[0], filter.getValue().getAfterId());
+        assertNull(filter.getValue().getAfterValue());
+    }
+
+    @Test
+    public void testCursor_EncodesMissingSortValue() {
+        UUID lastId = UUID.randomUUID();
+        CatalogFilter previous = new CatalogFilter(COMPANY_IDS);
+        previous.setSortKey(SortKey.UPDATED_AT);
+        String cursor = ProductCatalogQueryService.encodeCursor(previous, null, lastId);
+
+        CatalogFilter next = new CatalogFilter(COMPANY_IDS);
+        next.setSortKey(SortKey.UPDATED_AT);
+        ProductCatalogQueryService.decodeCursor(cursor, next);
+
+        assertTrue(next.isSeek());
+        assertEquals(lastId, next.getAfterId());
+        assertNull(next.getAfterValue());
+    }
+
+    @Test
+    public void testCursorPage_RejectsCursorFromAnotherSort() {
+        CatalogFilter previous = new CatalogFilter(COMPANY_IDS);
+        String cursor = ProductCatalogQueryService.encodeCursor(previous, "Apple", UUID.randomUUID());
+
+        assertThrows(IllegalArgumentException.class, () -> catalogQueryService.listProducts(
+            COMPANY_IDS, null, null, null, null, "quantity", "asc", cursor, 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> catalogQueryService.listProducts(
+            COMPANY_IDS, null, null, null, null, "name", "asc", "not-a-cursor", 0, 20));
+    }
+
+    @Test
+    public void testStorePage_FiltersStoreAndKeepsBothPrices() {
+        UUID storeId = UUID.randomUUID();
+        Object[] row = row("Apple", "Apple");
+        row[5] = new BigDecimal("2.50");
+        row[6] = new BigDecimal("3.00");
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(row);
+        when(productRepository.findCatalogPage(any(CatalogFilter.class), eq(0), eq(21))).thenReturn(rows);
+
+        ProductCatalogQueryService.CatalogPage page = catalogQueryService.listProducts(
+            COMPANY_IDS, storeId, null, null, null, "name", "asc", null, 0, 20);
+
+        Product product = page.getProducts().get(0);
+        assertEquals(new BigDecimal("2.50"), product.getPrice());
+        assertEquals(new BigDecimal("3.00"), product.getRetailPrice());
+
+        ArgumentCaptor<CatalogFilter> filter = ArgumentCaptor.forClass(CatalogFilter.class);
+        verify(productRepository).findCatalogPage(filter.capture(), eq(0), eq(21));
+        assertEquals(storeId, filter.getValue().getStoreId());
+    }
+
+    @Test
+    public void testSortKey_FromProperty() {
+        assertEquals(SortKey.CREATED_AT, SortKey.fromProperty("createdAt"));
+        assertEquals(SortKey.PRICE, SortKey.fromProperty("price"));
+        assertEquals(SortKey.NAME, SortKey.fromProperty("unknownColumn"));
+    }
+}
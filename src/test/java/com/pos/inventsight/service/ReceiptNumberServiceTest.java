@@ -0,0 +1,115 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.sql.Store;
+import com.pos.inventsight.repository.sql.ReceiptNumberBlockRepository;
+import com.pos.inventsight.service.ReceiptNumberService.DocumentType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for block-reserved receipt numbers
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReceiptNumberServiceTest {
+
+    @Mock
+    private ReceiptNumberBlockRepository blockRepository;
+
+    @InjectMocks
+    private ReceiptNumberService receiptNumberService;
+
+    private Store store(UUID id) {
+        Store store = new Store();
+        store.setId(id);
+        return store;
+    }
+
+    @Test
+    public void testNextNumber_ReservesOneBlockPerBlockSize() {
+        ReflectionTestUtils.setField(receiptNumberService, "blockSize", 3);
+        UUID storeId = UUID.randomUUID();
+        when(blockRepository.findLastValue("STORE:" + storeId)).thenReturn(7L);
+        when(blockRepository.reserveBlock("SALE:" + storeId, 3)).thenReturn(3L, 6L);
+
+        Store store = store(storeId);
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            numbers.add(receiptNumberService.nextNumber(DocumentType.SALE, store));
+        }
+
+        assertEquals(List.of("INV-7-000001", "INV-7-000002", "INV-7-000003", "INV-7-000004"), numbers);
+        verify(blockRepository, times(2)).reserveBlock("SALE:" + storeId, 3);
+        verify(blockRepository, times(1)).findLastValue("STORE:" + storeId);
+    }
+
+    @Test
+    public void testNextNumber_ContinuesAfterBlocksReservedElsewhere() {
+        ReflectionTestUtils.setField(receiptNumberService, "blockSize", 10);
+        // Another node or an earlier run already holds 1-20
+        when(blockRepository.reserveBlock("RECEIPT", 10)).thenReturn(30L);
+
+        assertEquals("RCP-000021", receiptNumberService.nextNumber(DocumentType.RECEIPT, null));
+        assertEquals("RCP-000022", receiptNumberService.nextNumber(DocumentType.RECEIPT, null));
+    }
+
+    @Test
+    public void testStoreNumber_AssignedOnFirstUse() {
+        UUID storeId = UUID.randomUUID();
+        when(blockRepository.findLastValue("STORE:" + storeId)).thenReturn(null, 4L);
+        when(blockRepository.reserveBlock("STORE", 1)).thenReturn(4L);
+        when(blockRepository.reserveBlock(eq("RECEIPT:" + storeId), anyInt())).thenReturn(100L);
+
+        assertEquals("RCP-4-000001", receiptNumberService.nextNumber(DocumentType.RECEIPT, store(storeId)));
+        verify(blockRepository).insertIfAbsent("STORE:" + storeId, 4L);
+    }
+
+    @Test
+    public void testNextNumber_UniqueUnderConcurrency() throws Exception {
+        ReflectionTestUtils.setField(receiptNumberService, "blockSize", 50);
+        UUID storeId = UUID.randomUUID();
+        AtomicLong lastValue = new AtomicLong();
+        when(blockRepository.findLastValue("STORE:" + storeId)).thenReturn(1L);
+        when(blockRepository.reserveBlock(eq("SALE:" + storeId), eq(50)))
+            .thenAnswer(invocation -> lastValue.addAndGet(50));
+
+        Store store = store(storeId);
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        numbers.add(receiptNumberService.nextNumber(DocumentType.SALE, store));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(4000, numbers.size());
+        assertEquals(4000L, lastValue.get());
+    }
+}
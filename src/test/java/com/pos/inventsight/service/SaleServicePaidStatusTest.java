@@ -39,9 +39,15 @@ public class SaleServicePaidStatusTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private StockMutationService stockMutationService;
+
     @Mock
     private InventoryAnalyticsService inventoryAnalyticsService;
 
+    @Mock
+    private SalesRollupService salesRollupService;
+
     @Mock
     private com.pos.inventsight.repository.sql.CustomerRepository customerRepository;
 
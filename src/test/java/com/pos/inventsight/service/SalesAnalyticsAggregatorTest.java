@@ -0,0 +1,169 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.nosql.InventoryAnalytics;
+import com.pos.inventsight.repository.nosql.InventoryAnalyticsRepository;
+import com.pos.inventsight.repository.sql.ProductRepository;
+import com.pos.inventsight.repository.sql.SaleItemRepository;
+import com.pos.inventsight.repository.sql.SaleRepository;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the streaming daily sales analytics aggregator
+ */
+@ExtendWith(MockitoExtension.class)
+public class SalesAnalyticsAggregatorTest {
+
+    @Mock
+    private InventoryAnalyticsRepository analyticsRepository;
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @Mock
+    private SaleItemRepository saleItemRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulk;
+
+    @InjectMocks
+    private SalesAnalyticsAggregator aggregator;
+
+    private UUID companyId;
+    private UUID storeId;
+    private LocalDate today;
+
+    @BeforeEach
+    public void setUp() {
+        companyId = UUID.randomUUID();
+        storeId = UUID.randomUUID();
+        today = LocalDate.now();
+    }
+
+    private SalesAnalyticsAggregator.SaleDelta delta(int sign, int items, String revenue) {
+        return new SalesAnalyticsAggregator.SaleDelta("public", companyId, storeId, today, sign, items, new BigDecimal(revenue));
+    }
+
+    private void stubBulk() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, InventoryAnalytics.class)).thenReturn(bulk);
+    }
+
+    @Test
+    public void testFlush_CoalescesDeltasIntoOneIncrementPerStoreDay() {
+        stubBulk();
+
+        aggregator.onSaleDelta(delta(1, 3, "30.00"));
+        aggregator.onSaleDelta(delta(1, 2, "10.00"));
+        aggregator.onSaleDelta(delta(-1, -2, "-10.00"));
+        assertEquals(1, aggregator.getPendingCount());
+
+        aggregator.flush();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(1)).upsert(query.capture(), update.capture());
+        verify(bulk, times(1)).updateOne(any(Query.class), any(AggregationUpdate.class));
+        verify(bulk, times(1)).execute();
+        assertEquals(storeId.toString(), query.getValue().getQueryObject().get("storeId"));
+        Document increments = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertEquals(1, increments.get("totalSales"));
+        assertEquals(3, increments.get("totalItemsSold"));
+        assertEquals(new Decimal128(new BigDecimal("30.00")), increments.get("totalRevenue"));
+        verify(analyticsRepository, never()).save(any(InventoryAnalytics.class));
+        assertEquals(0, aggregator.getPendingCount());
+    }
+
+    @Test
+    public void testFlush_OneBulkWriteForManyStoreDays() {
+        stubBulk();
+
+        aggregator.onSaleDelta(delta(1, 2, "20.00"));
+        aggregator.onSaleDelta(new SalesAnalyticsAggregator.SaleDelta(
+            "public", companyId, UUID.randomUUID(), today, 1, 1, new BigDecimal("5.00")));
+        aggregator.flush();
+
+        verify(mongoTemplate, times(1)).bulkOps(BulkOperations.BulkMode.ORDERED, InventoryAnalytics.class);
+        verify(bulk, times(2)).upsert(any(Query.class), any(Update.class));
+        verify(bulk, times(1)).execute();
+    }
+
+    @Test
+    public void testFlush_FailedWriteIsRetried() {
+        stubBulk();
+        when(bulk.execute())
+            .thenThrow(new DataAccessResourceFailureException("Mongo unavailable"))
+            .thenReturn(null);
+
+        aggregator.onSaleDelta(delta(1, 1, "5.00"));
+        aggregator.flush();
+        assertEquals(1, aggregator.getPendingCount());
+
+        aggregator.onSaleDelta(delta(1, 1, "5.00"));
+        aggregator.flush();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).upsert(any(Query.class), update.capture());
+        Document increments = (Document) update.getValue().getUpdateObject().get("$inc");
+        assertEquals(2, increments.get("totalSales"));
+        assertEquals(0, aggregator.getPendingCount());
+    }
+
+    @Test
+    public void testReconcileDay_OverwritesWithSqlTotals() {
+        List<Object[]> totals = new ArrayList<>();
+        totals.add(new Object[]{companyId, storeId, 7L, new BigDecimal("70.00")});
+        List<Object[]> items = new ArrayList<>();
+        items.add(new Object[]{storeId, 15L});
+        List<Object[]> inventory = new ArrayList<>();
+        inventory.add(new Object[]{storeId, 40L, new BigDecimal("900.00"), 3L, 1L});
+        when(saleRepository.getStoreSalesTotals(any(), any(), any())).thenReturn(totals);
+        when(saleItemRepository.getStoreItemsSold(any(), any(), any())).thenReturn(items);
+        when(productRepository.getStoreInventorySnapshot()).thenReturn(inventory);
+
+        InventoryAnalytics drifted = new InventoryAnalytics();
+        drifted.setTotalSales(9);
+        drifted.setTotalRevenue(new BigDecimal("95.00"));
+        when(analyticsRepository.findByCompanyIdAndStoreIdAndDateAndPeriod(
+            companyId.toString(), storeId.toString(), today, "DAILY")).thenReturn(Optional.of(drifted));
+
+        aggregator.reconcileDay(today);
+
+        assertEquals(7, drifted.getTotalSales());
+        assertEquals(15, drifted.getTotalItemsSold());
+        assertEquals(0, new BigDecimal("70.00").compareTo(drifted.getTotalRevenue()));
+        assertEquals(40, drifted.getTotalProducts());
+        assertEquals(3, drifted.getLowStockProducts());
+        assertEquals(1, drifted.getOutOfStockProducts());
+        verify(analyticsRepository).save(drifted);
+    }
+}
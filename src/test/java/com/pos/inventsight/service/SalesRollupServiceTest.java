@@ -0,0 +1,210 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.sql.Company;
+import com.pos.inventsight.model.sql.Product;
+import com.pos.inventsight.model.sql.Sale;
+import com.pos.inventsight.model.sql.SaleItem;
+import com.pos.inventsight.model.sql.SaleStatus;
+import com.pos.inventsight.model.sql.SalesRollupBackfill;
+import com.pos.inventsight.model.sql.Store;
+import com.pos.inventsight.repository.sql.CompanyRepository;
+import com.pos.inventsight.repository.sql.SaleRepository;
+import com.pos.inventsight.repository.sql.SalesDailyRollupRepository;
+import com.pos.inventsight.repository.sql.SalesRollupBackfillRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the daily sales rollup
+ */
+@ExtendWith(MockitoExtension.class)
+public class SalesRollupServiceTest {
+
+    private static final List<SaleStatus> COMPLETED = List.of(SaleStatus.COMPLETED);
+
+    @Mock
+    private SalesDailyRollupRepository rollupRepository;
+
+    @Mock
+    private SalesRollupBackfillRepository backfillRepository;
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @Mock
+    private CompanyRepository companyRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private SalesRollupService rollupService;
+
+    private Sale sale;
+    private LocalDate today;
+
+    @BeforeEach
+    public void setUp() {
+        today = LocalDate.now();
+
+        Company company = new Company();
+        company.setId(UUID.randomUUID());
+        Store store = new Store();
+        store.setId(UUID.randomUUID());
+        store.setCompany(company);
+
+        sale = new Sale();
+        sale.setCompany(company);
+        sale.setStore(store);
+        sale.setTotalAmount(new BigDecimal("42.00"));
+        sale.setCreatedAt(today.minusDays(3).atTime(10, 0));
+        sale.setStatus(SaleStatus.PAID);
+    }
+
+    private List<SaleItem> items(int... quantities) {
+        List<SaleItem> items = new ArrayList<>();
+        for (int quantity : quantities) {
+            items.add(new SaleItem(sale, new Product(), quantity, BigDecimal.ONE));
+        }
+        return items;
+    }
+
+    private List<Object[]> row(Object... values) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(values);
+        return rows;
+    }
+
+    @Test
+    public void testRecordTransition_PublishesMoveOnSaleDay() {
+        rollupService.recordTransition(sale, SaleStatus.PENDING, items(2, 3));
+
+        ArgumentCaptor<SalesRollupService.SaleTransition> captor =
+            ArgumentCaptor.forClass(SalesRollupService.SaleTransition.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        SalesRollupService.SaleTransition transition = captor.getValue();
+        assertEquals(SaleStatus.PENDING, transition.getFrom());
+        assertEquals(SaleStatus.PAID, transition.getTo());
+        assertEquals(5, transition.getItems());
+        assertEquals(today.minusDays(3), transition.getDate());
+        assertEquals(sale.getStore().getId(), transition.getStoreId());
+        assertEquals(0, new BigDecimal("42.00").compareTo(transition.getRevenue()));
+    }
+
+    @Test
+    public void testRecordTransition_UnchangedStatusIsIgnored() {
+        rollupService.recordTransition(sale, SaleStatus.PAID, items(1));
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void testOnTransition_RetriesConcurrentFirstInsert() {
+        doThrow(new DataIntegrityViolationException("uq_sales_daily_rollup"))
+            .doNothing()
+            .when(rollupRepository).applyTransition(any(), any(), any(), any(), any(), anyLong(), any());
+
+        rollupService.onTransition(new SalesRollupService.SaleTransition(
+            "public", UUID.randomUUID(), UUID.randomUUID(), today, null, SaleStatus.COMPLETED, 1, BigDecimal.TEN));
+
+        verify(rollupRepository, times(2)).applyTransition(any(), any(), any(), any(), any(), anyLong(), any());
+    }
+
+    @Test
+    public void testBackfill_WalksBackFromTodayAndCompletesAtOldestSale() {
+        when(backfillRepository.findById(SalesRollupService.CHECKPOINT_ID)).thenReturn(Optional.empty());
+        when(saleRepository.findEarliestCreatedAt()).thenReturn(today.minusDays(2).atTime(9, 30));
+
+        int rebuilt = rollupService.backfillCurrentTenant(10);
+
+        assertEquals(3, rebuilt);
+        verify(rollupRepository).rebuildDay(today);
+        verify(rollupRepository).rebuildDay(today.minusDays(1));
+        verify(rollupRepository).rebuildDay(today.minusDays(2));
+        ArgumentCaptor<SalesRollupBackfill> captor = ArgumentCaptor.forClass(SalesRollupBackfill.class);
+        verify(backfillRepository, atLeastOnce()).save(captor.capture());
+        assertEquals(today.minusDays(2), captor.getValue().getCoveredFrom());
+        assertTrue(captor.getValue().isCompleted());
+    }
+
+    @Test
+    public void testBackfill_ResumesFromCheckpointWithinRunLimit() {
+        SalesRollupBackfill checkpoint = new SalesRollupBackfill(SalesRollupService.CHECKPOINT_ID, today.minusDays(5));
+        when(backfillRepository.findById(SalesRollupService.CHECKPOINT_ID)).thenReturn(Optional.of(checkpoint));
+        when(saleRepository.findEarliestCreatedAt()).thenReturn(today.minusDays(100).atStartOfDay());
+
+        int rebuilt = rollupService.backfillCurrentTenant(2);
+
+        assertEquals(2, rebuilt);
+        verify(rollupRepository).rebuildDay(today.minusDays(6));
+        verify(rollupRepository).rebuildDay(today.minusDays(7));
+        verify(rollupRepository, never()).rebuildDay(today);
+        assertEquals(today.minusDays(7), checkpoint.getCoveredFrom());
+        assertFalse(checkpoint.isCompleted());
+    }
+
+    @Test
+    public void testGetTotals_ReadsRollupWhenRangeIsCovered() {
+        SalesRollupBackfill checkpoint = new SalesRollupBackfill(SalesRollupService.CHECKPOINT_ID, today.minusDays(30));
+        when(backfillRepository.findById(SalesRollupService.CHECKPOINT_ID)).thenReturn(Optional.of(checkpoint));
+        when(rollupRepository.getTotals(today.minusDays(7), today, COMPLETED))
+            .thenReturn(row(4L, new BigDecimal("100.00")));
+
+        SalesRollupService.Totals totals = rollupService.getTotals(today.minusDays(7), today, COMPLETED);
+
+        assertEquals(4L, totals.getCount());
+        assertEquals(0, new BigDecimal("25.00").compareTo(totals.getAverageOrderValue()));
+        verify(saleRepository, never()).getTotalsByDateRangeAndStatuses(any(), any(), any());
+    }
+
+    @Test
+    public void testGetTotals_FallsBackToSalesBeforeBackfillReachesRange() {
+        SalesRollupBackfill checkpoint = new SalesRollupBackfill(SalesRollupService.CHECKPOINT_ID, today.minusDays(3));
+        when(backfillRepository.findById(SalesRollupService.CHECKPOINT_ID)).thenReturn(Optional.of(checkpoint));
+        when(saleRepository.getTotalsByDateRangeAndStatuses(
+            today.minusDays(7).atStartOfDay(), today.plusDays(1).atStartOfDay(), COMPLETED))
+            .thenReturn(row(2L, new BigDecimal("30.00")));
+
+        SalesRollupService.Totals totals = rollupService.getTotals(today.minusDays(7), today, COMPLETED);
+
+        assertEquals(2L, totals.getCount());
+        assertEquals(0, new BigDecimal("30.00").compareTo(totals.getRevenue()));
+        verify(rollupRepository, never()).getTotals(any(), any(), any());
+    }
+
+    @Test
+    public void testGetDailyTotals_ZeroFillsDaysWithoutSales() {
+        SalesRollupBackfill checkpoint = new SalesRollupBackfill(SalesRollupService.CHECKPOINT_ID, today.minusDays(30));
+        checkpoint.setCompleted(true);
+        when(backfillRepository.findById(SalesRollupService.CHECKPOINT_ID)).thenReturn(Optional.of(checkpoint));
+        when(rollupRepository.getDailyTotals(today.minusDays(2), today, COMPLETED))
+            .thenReturn(row(today.minusDays(1), 3L, new BigDecimal("45.00")));
+
+        Map<LocalDate, SalesRollupService.Totals> daily = rollupService.getDailyTotals(today.minusDays(2), today, COMPLETED);
+
+        assertEquals(List.of(today.minusDays(2), today.minusDays(1), today), new ArrayList<>(daily.keySet()));
+        assertEquals(0L, daily.get(today.minusDays(2)).getCount());
+        assertEquals(3L, daily.get(today.minusDays(1)).getCount());
+        assertEquals(0L, daily.get(today).getCount());
+    }
+}
@@ -0,0 +1,162 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.exception.InsufficientStockException;
+import com.pos.inventsight.model.sql.SaleItem;
+import com.pos.inventsight.model.sql.Product;
+import com.pos.inventsight.repository.sql.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the conditional, batched stock mutation engine
+ */
+@ExtendWith(MockitoExtension.class)
+public class StockMutationServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ActivityLogService activityLogService;
+
+    @InjectMocks
+    private StockMutationService stockMutationService;
+
+    private UUID applesId;
+    private UUID orangesId;
+
+    @BeforeEach
+    public void setUp() {
+        applesId = UUID.randomUUID();
+        orangesId = UUID.randomUUID();
+    }
+
+    @Test
+    public void testDecrementForSale_AllLinesInOneStatement() {
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(applesId, 3);
+        quantities.put(orangesId, 2);
+        when(productRepository.decrementStock(eq(quantities), any())).thenReturn(2);
+        List<Object[]> levels = new ArrayList<>();
+        levels.add(new Object[]{applesId, "Apples", 7, 10, 5});
+        levels.add(new Object[]{orangesId, "Oranges", 20, 10, 5});
+        when(productRepository.findStockLevels(quantities.keySet())).thenReturn(levels);
+
+        stockMutationService.decrementForSale(quantities, "SALE - Receipt: REC-001");
+
+        verify(productRepository, times(1)).decrementStock(eq(quantities), any());
+        verify(productRepository, times(1)).findStockLevels(quantities.keySet());
+        verify(productRepository, never()).save(any(Product.class));
+        verify(activityLogService).logActivity(null, "SYSTEM", "STOCK_UPDATED", "PRODUCT",
+            "Stock updated for Apples: 10 → 7 (SALE - Receipt: REC-001)");
+        verify(activityLogService).logActivity(null, "SYSTEM", "STOCK_UPDATED", "PRODUCT",
+            "Stock updated for Oranges: 22 → 20 (SALE - Receipt: REC-001)");
+    }
+
+    @Test
+    public void testDecrementForSale_ShortLineThrowsWithProductDetails() {
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(applesId, 3);
+        quantities.put(orangesId, 5);
+        when(productRepository.decrementStock(eq(quantities), any())).thenReturn(1);
+        List<Object[]> levels = new ArrayList<>();
+        levels.add(new Object[]{applesId, "Apples", 10});
+        levels.add(new Object[]{orangesId, "Oranges", 4});
+        when(productRepository.findStockLevels(quantities.keySet())).thenReturn(levels);
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+            () -> stockMutationService.decrementForSale(quantities, "SALE"));
+
+        assertTrue(exception.getMessage().contains("Oranges. Available: 4, Requested: 5"));
+        assertFalse(exception.getMessage().contains("Apples"));
+        verifyNoInteractions(activityLogService);
+
+        StockMutationService.SkuContention orangesStats = stockMutationService.getContentionStats(1).get(0);
+        assertEquals(orangesId, orangesStats.getProductId());
+        assertEquals(1, orangesStats.getRejected());
+    }
+
+    @Test
+    public void testContentionStats_OnlyCallersCompanyProducts() {
+        when(productRepository.decrementStock(anyMap(), any())).thenReturn(1);
+        stockMutationService.decrementForSale(Map.of(applesId, 1), "SALE");
+        stockMutationService.decrementForSale(Map.of(orangesId, 1), "SALE");
+        Set<UUID> companyIds = Set.of(UUID.randomUUID());
+        when(productRepository.findIdsInCompanies(anyCollection(), eq(companyIds))).thenReturn(List.of(orangesId));
+
+        List<StockMutationService.SkuContention> stats = stockMutationService.getContentionStats(companyIds, 10);
+
+        assertEquals(1, stats.size());
+        assertEquals(orangesId, stats.get(0).getProductId());
+    }
+
+    @Test
+    public void testDecrementForSale_InvalidQuantityRejectedBeforeQuery() {
+        assertThrows(IllegalArgumentException.class,
+            () -> stockMutationService.decrementForSale(Map.of(applesId, 0), "SALE"));
+
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void testDecrementForSale_EmptyBasketIsNoOp() {
+        stockMutationService.decrementForSale(Map.of(), "SALE");
+
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void testWithdraw_DoesNotCountAsSale() {
+        when(productRepository.withdrawStock(anyMap(), any())).thenReturn(1);
+
+        stockMutationService.withdraw(applesId, 2, "DAMAGE");
+
+        verify(productRepository).withdrawStock(eq(Map.of(applesId, 2)), any());
+        verify(productRepository, never()).decrementStock(anyMap(), any());
+    }
+
+    @Test
+    public void testReturnForRefund_UsesReturnStock() {
+        stockMutationService.returnForRefund(Map.of(applesId, 4), "REFUND");
+
+        verify(productRepository).returnStock(eq(Map.of(applesId, 4)), any());
+    }
+
+    @Test
+    public void testSumByProduct_MergesDuplicateLines() {
+        Product apples = new Product();
+        apples.setId(applesId);
+        Product oranges = new Product();
+        oranges.setId(orangesId);
+
+        SaleItem first = new SaleItem(null, apples, 2, BigDecimal.ONE);
+        SaleItem second = new SaleItem(null, oranges, 1, BigDecimal.ONE);
+        SaleItem third = new SaleItem(null, apples, 5, BigDecimal.ONE);
+
+        Map<UUID, Integer> totals = StockMutationService.sumByProduct(
+            List.of(first, second, third), item -> item.getProduct().getId(), SaleItem::getQuantity);
+
+        assertEquals(2, totals.size());
+        assertEquals(7, totals.get(applesId));
+        assertEquals(1, totals.get(orangesId));
+    }
+}
@@ -0,0 +1,265 @@
+package com.pos.inventsight.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pos.inventsight.model.sql.SyncChange;
+import com.pos.inventsight.repository.sql.SyncChangeRepository;
+import com.pos.inventsight.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the seq-ordered change feed and its long-poll mode
+ */
+@ExtendWith(MockitoExtension.class)
+public class SyncChangeServiceTest {
+
+    private static final UUID TENANT_ID = UUID.fromString("7f1c2a4e-0000-4000-8000-000000000001");
+    private static final String TENANT_SCHEMA = "company_7f1c2a4e_0000_4000_8000_000000000001";
+
+    @Mock
+    private SyncChangeRepository syncChangeRepository;
+
+    private SyncChangeNotifier notifier;
+
+    private SyncChangeService service;
+
+    @BeforeEach
+    public void setUp() {
+        service = new SyncChangeService(syncChangeRepository, new ObjectMapper());
+        notifier = new SyncChangeNotifier();
+        ReflectionTestUtils.setField(notifier, "syncChangeRepository", syncChangeRepository);
+        ReflectionTestUtils.setField(service, "syncChangeNotifier", notifier);
+        ReflectionTestUtils.setField(service, "changeFeedEnabled", true);
+        TenantContext.setCurrentTenant(TENANT_SCHEMA);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+        service.shutdown();
+    }
+
+    private List<SyncChange> changes(long fromSeq, long toSeq) {
+        List<SyncChange> changes = new ArrayList<>();
+        for (long seq = fromSeq; seq <= toSeq; seq++) {
+            SyncChange change = new SyncChange();
+            change.setSeq(seq);
+            changes.add(change);
+        }
+        return changes;
+    }
+
+    @Test
+    public void testCursorRoundTrip() {
+        String cursor = SyncChangeService.encodeCursor(42L);
+
+        assertEquals(42L, SyncChangeService.decodeCursor(cursor));
+        assertNull(SyncChangeService.decodeCursor("2025-01-01T10:00:00"));
+    }
+
+    @Test
+    public void testGetChangesAfter_KeysetPageWithLookahead() {
+        when(syncChangeRepository.findByTenantIdAndSeqGreaterThanOrderBySeqAsc(eq(TENANT_ID), eq(10L), any(Pageable.class)))
+            .thenReturn(changes(11, 13));
+
+        SyncChangeService.ChangePage page = service.getChangesAfter(TENANT_ID, SyncChangeService.encodeCursor(10L), 2);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(syncChangeRepository).findByTenantIdAndSeqGreaterThanOrderBySeqAsc(eq(TENANT_ID), eq(10L), pageable.capture());
+        assertEquals(3, pageable.getValue().getPageSize());
+        assertEquals(2, page.getChanges().size());
+        assertTrue(page.isHasMore());
+        assertEquals(12L, SyncChangeService.decodeCursor(page.getNextCursor()));
+    }
+
+    @Test
+    public void testGetChangesAfter_NoCursorStartsAtBeginning() {
+        when(syncChangeRepository.findByTenantIdAndSeqGreaterThanOrderBySeqAsc(eq(TENANT_ID), eq(0L), any(Pageable.class)))
+            .thenReturn(List.of());
+
+        SyncChangeService.ChangePage page = service.getChangesAfter(TENANT_ID, null, null);
+
+        assertFalse(page.isHasMore());
+        assertEquals(0L, SyncChangeService.decodeCursor(page.getNextCursor()));
+    }
+
+    @Test
+    public void testGetChangesAfter_LegacyTimestampStartsAtFirstLaterSeq() {
+        LocalDateTime since = LocalDateTime.of(2025, 1, 1, 10, 0);
+        when(syncChangeRepository.findFirstSeqChangedAfter(TENANT_ID, since)).thenReturn(7L);
+        when(syncChangeRepository.findByTenantIdAndSeqGreaterThanOrderBySeqAsc(eq(TENANT_ID), eq(6L), any(Pageable.class)))
+            .thenReturn(changes(7, 7));
+
+        SyncChangeService.ChangePage page = service.getChangesAfter(TENANT_ID, "2025-01-01T10:00:00", 100);
+
+        assertEquals(7L, page.getChanges().get(0).getSeq());
+    }
+
+    @Test
+    public void testGetChangesAfter_RejectsGarbageCursor() {
+        assertThrows(IllegalArgumentException.class, () -> service.getChangesAfter(TENANT_ID, "not-a-cursor", 100));
+    }
+
+    @Test
+    public void testAwaitChangesAfter_CompletesWhenChangeIsPublished() throws Exception {
+        when(syncChangeRepository.findByTenantIdAndSeqGreaterThanOrderBySeqAsc(eq(TENANT_ID), eq(5L), any(Pageable.class)))
+            .thenReturn(List.of())
+            .thenReturn(changes(6, 6));
+
+        CompletableFuture<SyncChangeService.ChangePage> pending =
+            service.awaitChangesAfter(TENANT_ID, SyncChangeService.encodeCursor(5L), 100, 10);
+        assertFalse(pending.isDone());
+        assertEquals(1, notifier.getWaiterCount());
+
+        notifier.publish(TENANT_ID, 6L);
+
+        SyncChangeService.ChangePage page = pending.get(5, TimeUnit.SECONDS);
+        assertEquals(6L, page.getChanges().get(0).getSeq());
+        assertEquals(0, notifier.getWaiterCount());
+    }
+
+    @Test
+    public void testAwaitChangesAfter_ReturnsImmediatelyWhenChangesArePending() {
+        when(syncChangeRepository.findByTenantIdAndSeqGreaterThanOrderBySeqAsc(eq(TENANT_ID), eq(5L), any(Pageable.class)))
+            .thenReturn(changes(6, 8));
+
+        CompletableFuture<SyncChangeService.ChangePage> result =
+            service.awaitChangesAfter(TENANT_ID, SyncChangeService.encodeCursor(5L), 100, 10);
+
+        assertTrue(result.isDone());
+        assertEquals(0, notifier.getWaiterCount());
+    }
+
+    @Test
+    public void testRecordChange_AllocatesSeqAndWakesWaiters() {
+        when(syncChangeRepository.allocateSeq(TENANT_ID, 1)).thenReturn(9L);
+        CompletableFuture<Long> waiter = notifier.await(TENANT_ID, TENANT_SCHEMA, 8L);
+
+        service.recordChange("Product", "p-1", "UPDATE", null);
+
+        List<SyncChange> saved = captureSaved();
+        assertEquals(1, saved.size());
+        assertEquals(9L, saved.get(0).getSeq());
+        assertEquals(9L, waiter.getNow(null));
+    }
+
+    @Test
+    public void testRecordChange_TransactionWritesOneMergedBatchBeforeCommit() {
+        when(syncChangeRepository.allocateSeq(TENANT_ID, 2)).thenReturn(12L);
+        CompletableFuture<Long> waiter = notifier.await(TENANT_ID, TENANT_SCHEMA, 10L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.recordChange("Product", "p-1", "UPDATE", Map.of("retailPrice", 10));
+            service.recordChange("Product", "p-2", "INSERT", Map.of("name", "Tea"));
+            service.recordChange("Product", "p-1", "UPDATE", Map.of("originalPrice", 6));
+            service.recordChange("Product", "p-3", "INSERT", Map.of("name", "Milk"));
+            service.recordChange("Product", "p-3", "DELETE", null);
+            verify(syncChangeRepository, never()).saveAll(anyList());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(sync -> sync.beforeCommit(false));
+            assertFalse(waiter.isDone());
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        List<SyncChange> saved = captureSaved();
+        assertEquals(2, saved.size());
+        assertEquals("p-1", saved.get(0).getEntityId());
+        assertEquals(11L, saved.get(0).getSeq());
+        assertEquals("{\"retailPrice\":10,\"originalPrice\":6}", saved.get(0).getChangeData());
+        assertEquals("p-2", saved.get(1).getEntityId());
+        assertEquals(12L, saved.get(1).getSeq());
+        assertEquals(12L, waiter.getNow(null));
+        assertNull(TransactionSynchronizationManager.getResource(SyncChangeService.Outbox.class));
+    }
+
+    @Test
+    public void testRecordChange_DeleteSupersedesUpdate() {
+        when(syncChangeRepository.allocateSeq(TENANT_ID, 1)).thenReturn(3L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.recordChange("Customer", "c-1", "UPDATE", Map.of("phone", "555"));
+            service.recordChange("Customer", "c-1", "DELETE", null);
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+        } finally {
+            TransactionSynchronizationManager.unbindResourceIfPossible(SyncChangeService.Outbox.class);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        List<SyncChange> saved = captureSaved();
+        assertEquals(1, saved.size());
+        assertEquals("DELETE", saved.get(0).getOperation());
+        assertNull(saved.get(0).getChangeData());
+    }
+
+    @Test
+    public void testCompactFields_KeepsScalarsAndAssociationIds() {
+        Store store = new Store();
+        Item item = new Item();
+        item.setName("Tea");
+        item.setStore(store);
+        item.setTags(List.of("hot"));
+
+        Map<String, Object> fields = SyncChangeService.compactFields(item);
+
+        assertEquals("Tea", fields.get("name"));
+        assertEquals(store.getId(), fields.get("storeId"));
+        assertFalse(fields.containsKey("store"));
+        assertFalse(fields.containsKey("tags"));
+        assertFalse(fields.containsKey("class"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SyncChange> captureSaved() {
+        ArgumentCaptor<List<SyncChange>> saved = ArgumentCaptor.forClass(List.class);
+        verify(syncChangeRepository).saveAll(saved.capture());
+        return saved.getValue();
+    }
+
+    public static class Store {
+        private final UUID id = UUID.randomUUID();
+
+        public UUID getId() { return id; }
+    }
+
+    public static class Item {
+        private String name;
+        private Store store;
+        private List<String> tags;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public Store getStore() { return store; }
+        public void setStore(Store store) { this.store = store; }
+        public List<String> getTags() { return tags; }
+        public void setTags(List<String> tags) { this.tags = tags; }
+    }
+}
@@ -0,0 +1,148 @@
+package com.pos.inventsight.service;
+
+import com.pos.inventsight.model.sql.SyncChange;
+import com.pos.inventsight.repository.sql.SyncChangeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for pushing coalesced change batches to stream subscribers.
+ * The service is not started, so flushes run on the calling thread.
+ */
+@ExtendWith(MockitoExtension.class)
+public class SyncChangeStreamServiceTest {
+
+    private static final UUID TENANT_ID = UUID.randomUUID();
+    private static final String TENANT_SCHEMA = "company_test";
+
+    @Mock
+    private SyncChangeRepository syncChangeRepository;
+
+    @InjectMocks
+    private SyncChangeStreamService streamService;
+
+    private static SyncChange change(long seq, String entityId, String operation) {
+        SyncChange change = new SyncChange();
+        change.setSeq(seq);
+        change.setEntityType("Product");
+        change.setEntityId(entityId);
+        change.setOperation(operation);
+        return change;
+    }
+
+    /**
+     * Records events instead of writing them to a response
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<SseEventBuilder> events = new ArrayList<>();
+        private boolean broken;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            events.add(builder);
+        }
+    }
+
+    @Test
+    public void testCoalesce_KeepsLatestChangePerEntityInRecordedOrder() {
+        List<SyncChange> coalesced = SyncChangeStreamService.coalesce(List.of(
+            change(1, "a", "UPDATE"),
+            change(2, "b", "UPDATE"),
+            change(3, "a", "DELETE")));
+
+        assertEquals(List.of(2L, 3L), coalesced.stream().map(SyncChange::getSeq).toList());
+    }
+
+    @Test
+    public void testCoalesce_MergesPartialUpdatesIntoEarlierChange() {
+        SyncChange insert = change(1, "a", "INSERT");
+        insert.setChangeData("{\"name\":\"Tea\",\"retailPrice\":1.50}");
+        SyncChange update = change(2, "a", "UPDATE");
+        update.setChangeData("{\"retailPrice\":1.75}");
+        SyncChange otherUpdate = change(3, "a", "UPDATE");
+        otherUpdate.setChangeData("{\"quantity\":4}");
+
+        List<SyncChange> coalesced = SyncChangeStreamService.coalesce(List.of(insert, update, otherUpdate));
+
+        assertEquals(1, coalesced.size());
+        assertEquals("INSERT", coalesced.get(0).getOperation());
+        assertEquals(3L, coalesced.get(0).getSeq());
+        assertEquals("{\"name\":\"Tea\",\"retailPrice\":1.75,\"quantity\":4}", coalesced.get(0).getChangeData());
+        // The fanned-out rows are shared by every connection and must stay untouched
+        assertEquals("{\"retailPrice\":1.75}", update.getChangeData());
+    }
+
+    @Test
+    public void testRegister_CatchesUpFromResumeCursor() {
+        when(syncChangeRepository.findByTenantIdAndSeqGreaterThanOrderBySeqAsc(eq(TENANT_ID), eq(4L), any(Pageable.class)))
+            .thenReturn(List.of(change(5, "a", "UPDATE"), change(6, "a", "UPDATE")));
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        streamService.register(TENANT_ID, TENANT_SCHEMA, 4L, 6L, emitter);
+
+        // Two updates to one entity arrive as a single event
+        assertEquals(1, emitter.events.size());
+    }
+
+    @Test
+    public void testOnCommitted_FansOutOneReadToAllConnections() {
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        streamService.register(TENANT_ID, TENANT_SCHEMA, 10L, 10L, first);
+        streamService.register(TENANT_ID, TENANT_SCHEMA, 10L, 10L, second);
+        when(syncChangeRepository.findByTenantIdAndSeqGreaterThanOrderBySeqAsc(eq(TENANT_ID), eq(10L), any(Pageable.class)))
+            .thenReturn(List.of(change(11, "a", "INSERT")));
+
+        streamService.onCommitted(TENANT_ID, 11L);
+
+        assertEquals(1, first.events.size());
+        assertEquals(1, second.events.size());
+        verify(syncChangeRepository, times(1)).findByTenantIdAndSeqGreaterThanOrderBySeqAsc(any(), any(), any());
+
+        // Both connections are now at seq 11 and a repeat announcement sends nothing
+        streamService.onCommitted(TENANT_ID, 11L);
+        assertEquals(1, first.events.size());
+    }
+
+    @Test
+    public void testOnCommitted_IgnoresTenantsWithoutConnections() {
+        streamService.onCommitted(TENANT_ID, 3L);
+
+        verifyNoInteractions(syncChangeRepository);
+    }
+
+    @Test
+    public void testSend_FailedSendDoesNotAdvanceCursor() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        streamService.register(TENANT_ID, TENANT_SCHEMA, 1L, 1L, emitter);
+        emitter.broken = true;
+        when(syncChangeRepository.findByTenantIdAndSeqGreaterThanOrderBySeqAsc(eq(TENANT_ID), eq(1L), any(Pageable.class)))
+            .thenReturn(List.of(change(2, "a", "UPDATE")));
+
+        streamService.onCommitted(TENANT_ID, 2L);
+        emitter.broken = false;
+        streamService.onCommitted(TENANT_ID, 2L);
+
+        // The failed batch is read again from the same cursor rather than skipped
+        verify(syncChangeRepository, times(2)).findByTenantIdAndSeqGreaterThanOrderBySeqAsc(eq(TENANT_ID), eq(1L), any(Pageable.class));
+        assertEquals(1, emitter.events.size());
+    }
+}
@@ -1,6 +1,8 @@
 package com.pos.inventsight.service;
 
+import com.pos.inventsight.dto.TransferRequestSummary;
 import com.pos.inventsight.model.sql.TransferRequest;
+import com.pos.inventsight.model.sql.TransferRequestPriority;
 import com.pos.inventsight.model.sql.TransferRequestStatus;
 import com.pos.inventsight.model.sql.User;
 import com.pos.inventsight.model.sql.UserRole;
@@ -249,4 +251,24 @@ class TransferPermissionServiceTest {
         List<String> approvedActions = permissionService.getAvailableActions(approvedTransfer, employeeUser);
         assertFalse(approvedActions.contains("markReady"));
     }
+
+    @Test
+    @DisplayName("List rows should get the same actions as the full transfer")
+    void testSummaryActionsMatchEntityActions() {
+        for (TransferRequest transfer : List.of(pendingTransfer, approvedTransfer, readyTransfer, inTransitTransfer, deliveredTransfer)) {
+            TransferRequestSummary summary = new TransferRequestSummary(
+                transfer.getId(), UUID.randomUUID(), "Item", "SKU", 5, null, null,
+                transfer.getStatus(), TransferRequestPriority.MEDIUM,
+                transfer.getFromLocationType(), transfer.getFromLocationId(), "From",
+                transfer.getToLocationType(), transfer.getToLocationId(), "To",
+                transfer.getRequestedByUserId(), "employee", null, null,
+                null, null, null, null, null, null, null);
+
+            for (User user : List.of(ownerUser, managerUser, employeeUser)) {
+                assertEquals(permissionService.getAvailableActions(transfer, user),
+                    permissionService.getAvailableActionsForSummary(summary, user));
+            }
+        }
+        assertTrue(permissionService.getAvailableActionsForSummary(null, ownerUser).isEmpty());
+    }
 }
@@ -46,6 +46,9 @@ class UserServiceTest {
     @Mock
     private ActivityLogService activityLogService;
     
+    @Mock
+    private PrincipalCache principalCache;
+    
     @InjectMocks
     private UserService userService;
     
@@ -1,11 +1,15 @@
 package com.pos.inventsight.tenant;
 
+import com.pos.inventsight.config.VerifiedJwt;
 import com.pos.inventsight.model.sql.Company;
 import com.pos.inventsight.model.sql.CompanyRole;
 import com.pos.inventsight.model.sql.CompanyStoreUser;
 import com.pos.inventsight.model.sql.User;
 import com.pos.inventsight.repository.sql.CompanyRepository;
 import com.pos.inventsight.repository.sql.CompanyStoreUserRepository;
+import com.pos.inventsight.service.PrincipalCache;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,11 +24,13 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
@@ -66,7 +72,7 @@ class CompanyTenantFilterTest {
     
     @BeforeEach
     void setUp() throws IOException {
-        companyTenantFilter = new CompanyTenantFilter(companyStoreUserRepository, companyRepository, jwtUtils);
+        companyTenantFilter = new CompanyTenantFilter(companyStoreUserRepository, companyRepository, jwtUtils, new PrincipalCache());
         TenantContext.clear();
         SecurityContextHolder.clearContext();
 
@@ -422,6 +428,43 @@ class CompanyTenantFilterTest {
         assertEquals(TenantContext.DEFAULT_TENANT, TenantContext.getCurrentTenant());
     }
     
+    @Test
+    void testJwtOnlyMode_ReusesClaimsVerifiedByAuthTokenFilter() throws Exception {
+        // Given AuthTokenFilter already verified the token and bound its claims to the request
+        companyTenantFilter.setHeaderEnabled(false);
+        
+        setupAuthenticatedUser();
+        when(request.getRequestURI()).thenReturn("/api/products");
+        
+        String secret = "unit-test-secret-key-that-is-long-enough-for-hs256";
+        String token = Jwts.builder()
+            .setSubject("testuser@example.com")
+            .claim("tenant_id", companyUuid.toString())
+            .setExpiration(new Date(System.currentTimeMillis() + 60000))
+            .signWith(Keys.hmacShaKeyFor(secret.getBytes()))
+            .compact();
+        com.pos.inventsight.config.JwtUtils issuer = new com.pos.inventsight.config.JwtUtils();
+        ReflectionTestUtils.setField(issuer, "jwtSecret", secret);
+        VerifiedJwt verifiedJwt = issuer.verify(token);
+        
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(request.getAttribute(VerifiedJwt.REQUEST_ATTRIBUTE)).thenReturn(verifiedJwt);
+        
+        when(companyRepository.existsById(companyUuid)).thenReturn(true);
+        
+        CompanyStoreUser membership = createMembership(company, authenticatedUser, CompanyRole.EMPLOYEE);
+        when(companyStoreUserRepository.findByUserAndIsActiveTrue(authenticatedUser))
+            .thenReturn(List.of(membership));
+        
+        // When processing the filter
+        companyTenantFilter.doFilter(request, response, filterChain);
+        
+        // Then the token is not parsed again
+        verify(filterChain).doFilter(request, response);
+        verify(jwtUtils, never()).hasTenantId(any());
+        verify(jwtUtils, never()).getTenantIdFromJwtToken(any());
+    }
+    
     @Test
     void testJwtOnlyMode_WithMissingJwtTenantId() throws Exception {
         // Given JWT-only mode is enabled
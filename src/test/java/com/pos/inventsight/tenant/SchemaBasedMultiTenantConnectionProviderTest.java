@@ -0,0 +1,111 @@
+package com.pos.inventsight.tenant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for search_path tracking in the schema-based connection provider
+ */
+@ExtendWith(MockitoExtension.class)
+class SchemaBasedMultiTenantConnectionProviderTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    private SchemaBasedMultiTenantConnectionProvider provider;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        provider = new SchemaBasedMultiTenantConnectionProvider(dataSource);
+        lenient().when(dataSource.getConnection()).thenReturn(connection);
+        lenient().when(connection.unwrap(Connection.class)).thenReturn(connection);
+        lenient().when(connection.prepareStatement(anyString())).thenReturn(statement);
+    }
+
+    @Test
+    void testGetConnection_SkipsSetWhenConnectionAlreadyHasSchema() throws SQLException {
+        Connection first = provider.getConnection("company_a");
+        provider.releaseConnection("company_a", first);
+        provider.getConnection("company_a");
+
+        verify(statement, times(1)).setString(1, "company_a");
+        verify(statement, times(1)).execute();
+        assertEquals(1, provider.getSwitchCount());
+        assertEquals(1, provider.getSkippedSwitchCount());
+    }
+
+    @Test
+    void testGetConnection_SwitchesForAnotherTenant() throws SQLException {
+        provider.getConnection("company_a");
+        provider.getConnection("company_b");
+        provider.getConnection("company_b");
+
+        verify(statement).setString(1, "company_a");
+        verify(statement).setString(1, "company_b");
+        assertEquals(2, provider.getSwitchCount());
+    }
+
+    @Test
+    void testGetConnection_SetsOutsideTransactionWhenAutoCommitIsOff() throws SQLException {
+        when(connection.getAutoCommit()).thenReturn(false);
+
+        provider.getConnection("company_a");
+
+        InOrder order = inOrder(connection, statement);
+        order.verify(connection).setAutoCommit(true);
+        order.verify(statement).execute();
+        order.verify(connection).setAutoCommit(false);
+    }
+
+    @Test
+    void testGetConnection_FailedSetIsRetriedOnNextCheckout() throws SQLException {
+        when(statement.execute()).thenThrow(new SQLException("boom")).thenReturn(true);
+
+        provider.getConnection("company_a");
+        provider.getConnection("company_a");
+
+        verify(statement).setString(1, "public");
+        verify(statement, times(2)).setString(1, "company_a");
+    }
+
+    @Test
+    void testReleaseConnection_ResetsOnlyWhenConfigured() throws SQLException {
+        Connection acquired = provider.getConnection("company_a");
+        provider.releaseConnection("company_a", acquired);
+        verify(statement, never()).setString(1, "public");
+
+        ReflectionTestUtils.setField(provider, "resetOnRelease", true);
+        provider.releaseConnection("company_a", acquired);
+
+        verify(statement).setString(1, "public");
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void testSearchPathFor() {
+        assertEquals("company_a", SchemaBasedMultiTenantConnectionProvider.searchPathFor("company_a"));
+        assertEquals("legacy, public", SchemaBasedMultiTenantConnectionProvider.searchPathFor("legacy"));
+        assertEquals("public", SchemaBasedMultiTenantConnectionProvider.searchPathFor("public"));
+        assertEquals("public", SchemaBasedMultiTenantConnectionProvider.searchPathFor("bad; DROP"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.pos.inventsight.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CSV Row Reader Unit Tests")
+class CsvRowReaderTest {
+
+    private List<String[]> readAll(String csv) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        try (CsvRowReader reader = new CsvRowReader(new StringReader(csv))) {
+            while (reader.next()) {
+                records.add(reader.toArray());
+            }
+        }
+        return records;
+    }
+
+    @Test
+    @DisplayName("Should split plain records on commas and line breaks")
+    void shouldReadPlainRecords() throws IOException {
+        List<String[]> records = readAll("name,unitType\nApple,kg\r\nPear,lb");
+
+        assertEquals(3, records.size());
+        assertArrayEquals(new String[] {"name", "unitType"}, records.get(0));
+        assertArrayEquals(new String[] {"Apple", "kg"}, records.get(1));
+        assertArrayEquals(new String[] {"Pear", "lb"}, records.get(2));
+    }
+
+    @Test
+    @DisplayName("Should keep commas, doubled quotes and line breaks inside quoted fields")
+    void shouldReadQuotedFields() throws IOException {
+        List<String[]> records = readAll("\"Tea, green\",\"12\"\" box\",\"line one\nline two\"\nnext,row\n");
+
+        assertEquals(2, records.size());
+        assertArrayEquals(new String[] {"Tea, green", "12\" box", "line one\nline two"}, records.get(0));
+        assertArrayEquals(new String[] {"next", "row"}, records.get(1));
+    }
+
+    @Test
+    @DisplayName("Should report the line on which each record starts")
+    void shouldTrackLineNumbers() throws IOException {
+        try (CsvRowReader reader = new CsvRowReader(new StringReader("a,\"b\nc\"\nd\n"))) {
+            assertTrue(reader.next());
+            assertEquals(1, reader.getLineNumber());
+            assertTrue(reader.next());
+            assertEquals(3, reader.getLineNumber());
+            assertEquals("d", reader.get(0));
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Should skip a byte order mark and flag blank lines")
+    void shouldHandleBomAndBlankLines() throws IOException {
+        try (CsvRowReader reader = new CsvRowReader(new StringReader("\uFEFFname\n\n  \nApple"))) {
+            assertTrue(reader.next());
+            assertEquals("name", reader.get(0));
+            assertTrue(reader.next());
+            assertTrue(reader.isBlank());
+            assertTrue(reader.next());
+            assertTrue(reader.isBlank());
+            assertTrue(reader.next());
+            assertEquals("Apple", reader.get(0));
+            assertNull(reader.get(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep empty fields")
+    void shouldKeepEmptyFields() throws IOException {
+        List<String[]> records = readAll("a,,\"\",d\n");
+
+        assertArrayEquals(new String[] {"a", "", "", "d"}, records.get(0));
+    }
+}